@@ -328,6 +328,9 @@ function saveProjectNow(opt_success_callback) {
     // Generate JavaScript code.
     const jsFileContent = generateJavaScriptCode();
 
+    // Generate the Java code that the robot controller may compile and run instead.
+    const javaFileContent = generateCompiledJavaCode();
+
     saveProject(currentProjectName, blkFileContent, jsFileContent,
         function(success, errorMessage) {
       if (success) {
@@ -345,7 +348,7 @@ function saveProjectNow(opt_success_callback) {
         document.getElementById('saveFailure').innerHTML = errorMessage;
         document.getElementById('saveFailure').style.display = 'inline-block';
       }
-    });
+    }, javaFileContent);
   } else {
     alert('The specified project name is not valid');
   }
@@ -1266,6 +1269,21 @@ function generateJavaCode() {
   return '';
 }
 
+function generateCompiledJavaCode() {
+  // Get the blocks as xml (text).
+  var blocksContent = Blockly.Xml.domToText(Blockly.Xml.workspaceToDom(workspace));
+  // Don't bother generating if there are no blocks.
+  if (blocksContent.indexOf('<block') > -1) {
+    try {
+      return Blockly.FtcJava.workspaceToCompiledCode_(workspace, currentProjectName);
+    } catch (e) {
+      // Without Java, the project runs as JavaScript.
+      console.log('Unable to generate Java code for ' + currentProjectName + ': ' + e);
+    }
+  }
+  return '';
+}
+
 function blockIsDisabled(block) {
   return !block.isEnabled() || block.getInheritedDisabled();
 }
@@ -72,9 +72,9 @@ function newProject(projectName, sampleName, callback) {
   }
 }
 
-function saveProject(projectName, blkFileContent, jsFileContent, callback) {
+function saveProject(projectName, blkFileContent, jsFileContent, callback, opt_javaFileContent) {
   if (isOnline()) {
-    saveProjectViaHttp(projectName, blkFileContent, jsFileContent, callback);
+    saveProjectViaHttp(projectName, blkFileContent, jsFileContent, callback, opt_javaFileContent);
   } else {
     saveProjectViaFile(projectName, blkFileContent, jsFileContent, callback);
   }
@@ -230,11 +230,14 @@ function newProjectViaHttp(projectName, sampleName, callback) {
   xhr.send(params);
 }
 
-function saveProjectViaHttp(projectName, blkFileContent, jsFileContent, callback) {
+function saveProjectViaHttp(projectName, blkFileContent, jsFileContent, callback, opt_javaFileContent) {
   var xhr = new XMLHttpRequest();
   var params = PARAM_NAME + '=' + encodeURIComponent(projectName) +
       '&' + PARAM_BLK + '=' + encodeURIComponent(blkFileContent) +
       '&' + PARAM_JS + '=' + encodeURIComponent(jsFileContent);
+  if (opt_javaFileContent) {
+    params += '&' + PARAM_JAVA + '=' + encodeURIComponent(opt_javaFileContent);
+  }
   xhr.open('POST', URI_SAVE_PROJECT, true);
   xhr.setRequestHeader('Content-type', 'application/x-www-form-urlencoded');
   xhr.onreadystatechange = function() {
@@ -791,13 +791,18 @@ Blockly.FtcJava.blockToCode = function(block) {
 Blockly.FtcJava.finish = function(code) {
   // FYI: We ignore code, which is not within a procedure definition.
 
-  var packageName = 'org.firstinspires.ftc.teamcode';
+  var packageName = Blockly.FtcJava.generatingCompiledCode_
+      ? Blockly.FtcJava.COMPILED_PACKAGE_NAME_
+      : 'org.firstinspires.ftc.teamcode';
   var completedCode =
       'package ' + packageName + ';\n\n';
 
   // The annotations for the class must be determined now, because getClassAnnotationsForFtcJava_()
   // will call generateImport_() for the annotation classes that are used.
-  var annotations = Blockly.FtcJava.getClassAnnotationsForFtcJava_();
+  // Compiled code has no annotations; the Robot Controller registers it using the project's metadata.
+  var annotations = Blockly.FtcJava.generatingCompiledCode_
+      ? ''
+      : Blockly.FtcJava.getClassAnnotationsForFtcJava_();
   // Convert the definitions dictionary into several lists.
   var imports = [];
   var fieldDeclarations = [];
@@ -1016,6 +1021,46 @@ Blockly.FtcJava.getClassNameForFtcJava_ = function() {
   return (Blockly.FtcJava.classNameForFtcJava_ || 'MyLinearOpMode');
 };
 
+// This must match BlocksClassFilter.COMPILED_BLOCKS_PACKAGE.
+Blockly.FtcJava.COMPILED_PACKAGE_NAME_ = 'org.firstinspires.ftc.teamcode.blocks';
+
+Blockly.FtcJava.generatingCompiledCode_ = false;
+
+/**
+ * Returns the name of the class that the Robot Controller compiles from the given project, when it
+ * runs blocks as compiled Java. Letters and digits are kept and everything else is escaped, so that
+ * different project names always give different class names.
+ * This must match ProjectsUtil.getCompiledBlocksClassName.
+ */
+Blockly.FtcJava.getCompiledClassNameForFtcJava_ = function(projectName) {
+  var className = 'Blocks_';
+  for (var i = 0; i < projectName.length; i++) {
+    var ch = projectName.charAt(i);
+    if (/[a-zA-Z0-9]/.test(ch)) {
+      className += ch;
+    } else {
+      className += '_' + ('0' + ch.charCodeAt(0).toString(16).toUpperCase()).slice(-2);
+    }
+  }
+  return className;
+};
+
+/**
+ * Generates the Java that the Robot Controller compiles and runs in place of the JavaScript for the
+ * given project.
+ */
+Blockly.FtcJava.workspaceToCompiledCode_ = function(workspace, projectName) {
+  var savedClassName = Blockly.FtcJava.classNameForFtcJava_;
+  Blockly.FtcJava.classNameForFtcJava_ = Blockly.FtcJava.getCompiledClassNameForFtcJava_(projectName);
+  Blockly.FtcJava.generatingCompiledCode_ = true;
+  try {
+    return Blockly.FtcJava.workspaceToCode(workspace);
+  } finally {
+    Blockly.FtcJava.generatingCompiledCode_ = false;
+    Blockly.FtcJava.classNameForFtcJava_ = savedClassName;
+  }
+};
+
 Blockly.FtcJava.getClassAnnotationsForFtcJava_ = function() {
   var annotations = '';
   var flavor;
@@ -1098,8 +1143,10 @@ Blockly.FtcJava.generateImportStatement_ = function(type) {
   if (type.startsWith('java.lang.') && type.lastIndexOf('.') == 9) {
     return;
   }
-  // Don't import classes in the org.firstinspires.ftc.teamcode package.
-  if (type.startsWith('org.firstinspires.ftc.teamcode.') && type.lastIndexOf('.') == 30) {
+  // Don't import classes in the org.firstinspires.ftc.teamcode package, unless we are generating
+  // compiled code, which is in a package of its own.
+  if (type.startsWith('org.firstinspires.ftc.teamcode.') && type.lastIndexOf('.') == 30 &&
+      !Blockly.FtcJava.generatingCompiledCode_) {
     return;
   }
   var importCode = 'import ' + type + ';';
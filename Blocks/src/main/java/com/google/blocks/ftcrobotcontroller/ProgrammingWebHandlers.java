@@ -310,7 +310,7 @@ public class ProgrammingWebHandlers implements ProgrammingMode {
   }
 
   /**
-   * Saves the blocks and JavaScript files for the given project.
+   * Saves the blocks and JavaScript files, and optionally the compiled Java file, for the given project.
    */
   private static class SaveProject implements WebHandler {
 
@@ -319,8 +319,9 @@ public class ProgrammingWebHandlers implements ProgrammingMode {
       String name = getFirstNamedParameter(session, PARAM_NAME);
       String blk = getFirstNamedParameter(session, PARAM_BLK);
       String js = getFirstNamedParameter(session, PARAM_JS);
+      String java = getFirstNamedParameter(session, PARAM_JAVA); // optional
       if (name != null && blk != null && js != null) {
-        return saveProject(name, blk, js);
+        return saveProject(name, blk, js, java);
       } else {
         return newFixedLengthResponse(
                 Response.Status.BAD_REQUEST, NanoHTTPD.MIME_PLAINTEXT,
@@ -328,8 +329,9 @@ public class ProgrammingWebHandlers implements ProgrammingMode {
       }
     }
 
-    private Response saveProject(String projectName, String blkFileContent, String jsFileContent) throws IOException {
-      ProjectsUtil.saveProject(projectName, blkFileContent, jsFileContent);
+    private Response saveProject(String projectName, String blkFileContent, String jsFileContent,
+        String javaFileContent) throws IOException {
+      ProjectsUtil.saveProject(projectName, blkFileContent, jsFileContent, javaFileContent);
       return newFixedLengthResponse(Response.Status.OK, NanoHTTPD.MIME_PLAINTEXT, "");
     }
   }
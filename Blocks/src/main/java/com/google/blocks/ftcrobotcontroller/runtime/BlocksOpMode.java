@@ -816,7 +816,13 @@ public final class BlocksOpMode extends LinearOpMode {
           // fetchEnabledProjectsWithJavaScript is thread-safe wrt concurrent saves from the browswer
           List<OpModeMeta> projects = ProjectsUtil.fetchEnabledProjectsWithJavaScript();
           for (OpModeMeta opModeMeta : projects) {
-            manager.register(opModeMeta, new BlocksOpMode(opModeMeta.name));
+            // Run the project as compiled Java if we can, and otherwise as JavaScript.
+            Class<? extends OpMode> compiledOpMode = ProjectsUtil.fetchCompiledOpMode(opModeMeta.name);
+            if (compiledOpMode != null) {
+              manager.register(opModeMeta, compiledOpMode);
+            } else {
+              manager.register(opModeMeta, new BlocksOpMode(opModeMeta.name));
+            }
           }
         } catch (Exception e) {
           RobotLog.logStackTrace(e);
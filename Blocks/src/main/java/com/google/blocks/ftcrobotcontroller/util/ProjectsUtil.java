@@ -23,6 +23,7 @@ import static org.firstinspires.ftc.robotcore.internal.system.AppUtil.BLOCKS_JS_
 import static org.firstinspires.ftc.robotcore.internal.system.AppUtil.BLOCK_OPMODES_DIR;
 
 import android.content.res.AssetManager;
+import android.preference.PreferenceManager;
 import android.text.Html;
 import android.util.Xml;
 import androidx.annotation.Nullable;
@@ -32,11 +33,14 @@ import com.google.blocks.ftcrobotcontroller.IOExceptionWithUserVisibleMessage;
 import com.google.blocks.ftcrobotcontroller.hardware.HardwareItem;
 import com.google.blocks.ftcrobotcontroller.hardware.HardwareItemMap;
 import com.google.blocks.ftcrobotcontroller.hardware.HardwareType;
+import com.qualcomm.robotcore.R;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.util.ReadWriteFile;
 import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.external.Supplier;
 import org.firstinspires.ftc.robotcore.external.ThrowingCallable;
+import org.firstinspires.ftc.robotcore.internal.opmode.BlocksClassFilter;
 import org.firstinspires.ftc.robotcore.internal.opmode.OnBotJavaHelper;
 import org.firstinspires.ftc.robotcore.internal.opmode.OpModeMeta;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
@@ -91,6 +95,8 @@ public class ProjectsUtil {
   private static final String XML_ATTRIBUTE_VALUE = "value";
   private static final String BLOCKS_SAMPLES_PATH = "blocks/samples";
   private static final String DEFAULT_BLOCKS_SAMPLE_NAME = "default";
+  private static final File COMPILED_BLOCKS_DIR =
+      new File(OnBotJavaHelper.blocksSrcDir, BlocksClassFilter.COMPILED_BLOCKS_PACKAGE.replace('.', '/'));
 
   private static final OpModeMeta.Flavor DEFAULT_FLAVOR = OpModeMeta.Flavor.TELEOP;
 
@@ -844,6 +850,21 @@ public class ProjectsUtil {
    */
   public static void saveProject(final String projectName, final String blkFileContent, final String jsFileContent)
       throws IOException {
+    saveProject(projectName, blkFileContent, jsFileContent, null);
+  }
+
+  /**
+   * Save the blocks file and JavaScript file for the given project, along with the Java generated
+   * for running the project as compiled Java. If running blocks as compiled Java is turned off, or
+   * no Java could be generated, the project will run as JavaScript.
+   *
+   * @param projectName the name of the project
+   * @param blkFileContent the content to write to the blocks file.
+   * @param jsFileContent the content to write to the JavaScript file.
+   * @param javaFileContent the content to write to the compiled Java file, or null.
+   */
+  public static void saveProject(final String projectName, final String blkFileContent, final String jsFileContent,
+      @Nullable final String javaFileContent) throws IOException {
 
     if (!isValidProjectName(projectName)) {
       throw new IllegalArgumentException();
@@ -857,6 +878,7 @@ public class ProjectsUtil {
         File jsFile = new File(BLOCK_OPMODES_DIR, projectName + BLOCKS_JS_EXT);
         ReadWriteFile.updateFileRequiringCommit(blkFile, blkFileContent);
         ReadWriteFile.updateFileRequiringCommit(jsFile, jsFileContent);
+        saveCompiledJava(projectName, javaFileContent);
         return null;
       }
     });
@@ -883,6 +905,9 @@ public class ProjectsUtil {
           File oldJs = new File(BLOCK_OPMODES_DIR, oldProjectName + BLOCKS_JS_EXT);
           File newJs = new File(BLOCK_OPMODES_DIR, newProjectName + BLOCKS_JS_EXT);
           oldJs.renameTo(newJs);
+          // The class name follows the project name, so the project runs as JavaScript until it is
+          // next saved.
+          saveCompiledJava(oldProjectName, null);
         }
         return null;
       }
@@ -985,6 +1010,7 @@ public class ProjectsUtil {
         }
         boolean success = true;
         for (String projectName : projectNames) {
+          saveCompiledJava(projectName, null);
           File jsFile = new File(BLOCK_OPMODES_DIR, projectName + BLOCKS_JS_EXT);
           if (jsFile.exists()) {
             if (!jsFile.delete()) {
@@ -1005,6 +1031,86 @@ public class ProjectsUtil {
     });
   }
 
+  /**
+   * Returns whether blocks projects should be run as compiled Java.
+   */
+  public static boolean isRunAsCompiledJavaEnabled() {
+    return PreferenceManager.getDefaultSharedPreferences(AppUtil.getDefContext())
+        .getBoolean(AppUtil.getDefContext().getString(R.string.pref_run_blocks_as_compiled_java), false);
+  }
+
+  /**
+   * Returns the name of the class that is compiled from the given project, when it runs as
+   * compiled Java. Letters and digits are kept and everything else is escaped, so that different
+   * project names always give different class names.
+   * This must match Blockly.FtcJava.getCompiledClassNameForFtcJava_ in ftcjava.js.
+   */
+  public static String getCompiledBlocksClassName(String projectName) {
+    StringBuilder className = new StringBuilder("Blocks_");
+    int length = projectName.length();
+    for (int i = 0; i < length; i++) {
+      char ch = projectName.charAt(i);
+      if ((ch >= 'a' && ch <= 'z') || (ch >= 'A' && ch <= 'Z') || (ch >= '0' && ch <= '9')) {
+        className.append(ch);
+      } else {
+        className.append(String.format(Locale.US, "_%02X", (int) ch));
+      }
+    }
+    return className.toString();
+  }
+
+  private static File getCompiledJavaFile(String projectName) {
+    return new File(COMPILED_BLOCKS_DIR, getCompiledBlocksClassName(projectName) + ".java");
+  }
+
+  /**
+   * Writes, or deletes, the compiled Java file for the given project. Must be called while the
+   * projects are locked.
+   */
+  private static void saveCompiledJava(String projectName, @Nullable String javaFileContent) {
+    File javaFile = getCompiledJavaFile(projectName);
+    if (javaFileContent != null && !javaFileContent.isEmpty() && isRunAsCompiledJavaEnabled()) {
+      AppUtil.getInstance().ensureDirectoryExists(COMPILED_BLOCKS_DIR, false);
+      ReadWriteFile.updateFileRequiringCommit(javaFile, javaFileContent);
+      // Build now, so that the OpMode is ready to run as Java as soon as possible. The Java is kept
+      // apart from the user's OnBot Java sources and compiled on its own, so it can't break their
+      // build. Until it compiles, the project runs as JavaScript.
+      ReadWriteFile.writeFile(OnBotJavaHelper.buildRequestFile, System.currentTimeMillis() + " - begin build");
+    } else if (javaFile.exists()) {
+      // There's no need to build. Without its source, the class is no longer used.
+      if (!javaFile.delete()) {
+        RobotLog.ee(TAG, "Could not delete " + javaFile.getPath());
+      }
+    }
+  }
+
+  /**
+   * Returns the compiled OpMode class for the given project, if the project should run as compiled
+   * Java and the current OnBotJava build holds the class compiled from the project's latest Java.
+   * Otherwise, returns null and the project should run as JavaScript.
+   */
+  @Nullable
+  public static Class<? extends OpMode> fetchCompiledOpMode(final String projectName) {
+    if (!isRunAsCompiledJavaEnabled()) {
+      return null;
+    }
+    return ProjectsLockManager.lockProjectsWhile(new Supplier<Class<? extends OpMode>>() {
+      @Override public Class<? extends OpMode> get() {
+        File javaFile = getCompiledJavaFile(projectName);
+        if (!javaFile.exists()) {
+          return null;
+        }
+        // The last build must have succeeded, and the Java must not have changed since it started.
+        long buildStarted = OnBotJavaHelper.buildStartedFile.lastModified();
+        if (OnBotJavaHelper.buildSuccessfulFile.lastModified() < buildStarted ||
+            javaFile.lastModified() > buildStarted) {
+          return null;
+        }
+        return BlocksClassFilter.getInstance().getCompiledBlocksOpMode(getCompiledBlocksClassName(projectName));
+      }
+    });
+  }
+
   public static String getBlocksJavaClassName(String projectName) {
     StringBuilder className = new StringBuilder();
 
@@ -11,6 +11,7 @@ import android.content.res.XmlResourceParser;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import org.firstinspires.ftc.robotcore.internal.opmode.ClassFilter;
+import org.firstinspires.ftc.robotcore.internal.opmode.IndexableClassFilter;
 import org.firstinspires.ftc.robotcore.internal.opmode.OnBotJavaDeterminer;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
@@ -26,7 +27,7 @@ import java.util.List;
  * Results of the filter are added to the indicated collection passed to the constructor.
  */
 @SuppressWarnings("WeakerAccess")
-public class RobotConfigResFilter implements ClassFilter {
+public class RobotConfigResFilter implements IndexableClassFilter {
 
     //----------------------------------------------------------------------------------------------
     // State
@@ -153,6 +154,11 @@ public class RobotConfigResFilter implements ClassFilter {
         }
     }
 
+    @Override public boolean isCandidateClass(Class<?> clazz)
+    {
+        return clazz.getName().endsWith("R$xml");
+    }
+
     @Override public void filterOnBotJavaClass(Class clazz)
     {
         filterClass(clazz);
@@ -35,7 +35,7 @@ import org.firstinspires.ftc.ftccommon.external.OnCreateMenu;
 import org.firstinspires.ftc.ftccommon.external.OnDestroy;
 import org.firstinspires.ftc.ftccommon.external.WebHandlerRegistrar;
 import org.firstinspires.ftc.robotcore.external.Predicate;
-import org.firstinspires.ftc.robotcore.internal.opmode.ClassFilter;
+import org.firstinspires.ftc.robotcore.internal.opmode.IndexableClassFilter;
 import org.firstinspires.ftc.robotcore.internal.opmode.OnBotJavaDeterminer;
 
 /**
@@ -43,7 +43,7 @@ import org.firstinspires.ftc.robotcore.internal.opmode.OnBotJavaDeterminer;
  *
  * @author Liz Looney
  */
-public class AnnotatedHooksClassFilter implements ClassFilter {
+public class AnnotatedHooksClassFilter implements IndexableClassFilter {
   private static final String TAG = "AnnotatedHooksClassFilter";
   private static final Predicate<Method> isOnBotJava = new Predicate<Method>() {
     @Override public boolean test(Method method) {
@@ -103,6 +103,20 @@ public class AnnotatedHooksClassFilter implements ClassFilter {
     exploreClass(clazz);
   }
 
+  @Override
+  public boolean isCandidateClass(Class<?> clazz) {
+    for (Method method : ClassUtil.getLocalDeclaredMethods(clazz)) {
+      if (method.isAnnotationPresent(OnCreate.class) ||
+          method.isAnnotationPresent(OnCreateEventLoop.class) ||
+          method.isAnnotationPresent(OnCreateMenu.class) ||
+          method.isAnnotationPresent(OnDestroy.class) ||
+          method.isAnnotationPresent(WebHandlerRegistrar.class)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public void filterOnBotJavaClass(Class clazz) {
     exploreClass(clazz);
@@ -93,18 +93,18 @@ public class LynxAnalogInputController extends LynxController implements AnalogI
     public double getAnalogInputVoltage(int port)
         {
         validatePort(port); port -= apiPortFirst;
-        LynxGetADCCommand command = new LynxGetADCCommand(this.getModule(), LynxGetADCCommand.Channel.user(port), LynxGetADCCommand.Mode.ENGINEERING);
-
         if (getModule() instanceof LynxModule)
             {
             LynxModule module = (LynxModule) getModule();
             if (module.getBulkCachingMode() != LynxModule.BulkCachingMode.OFF)
                 {
-                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(command);
+                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(LynxModule.BulkCachingIntent.ANALOG_INPUT, port);
                 return bulkData.getAnalogInputVoltage(port);
                 }
             }
 
+        LynxGetADCCommand command = new LynxGetADCCommand(this.getModule(), LynxGetADCCommand.Channel.user(port), LynxGetADCCommand.Mode.ENGINEERING);
+
         try {
             LynxGetADCResponse response = command.sendReceive();
             return response.getValue() * 0.001;
@@ -36,8 +36,10 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 
 import com.qualcomm.hardware.lynx.commands.LynxCommand;
+import com.qualcomm.hardware.lynx.commands.LynxCommandBatch;
 import com.qualcomm.hardware.lynx.commands.LynxInterface;
 import com.qualcomm.hardware.lynx.commands.LynxMessage;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
 import com.qualcomm.robotcore.exception.RobotCoreException;
 import com.qualcomm.robotcore.hardware.Engagable;
 import com.qualcomm.robotcore.hardware.HardwareDeviceHealth;
@@ -238,6 +240,53 @@ public abstract class LynxController extends LynxCommExceptionHandler implements
         // Subclass hook
         }
 
+    /**
+     * Answers whether writes to this controller should be coalesced, per our module's setting.
+     * Writes made while an OpMode is being stopped (or while the robot is stopped) are never
+     * coalesced, as nothing would be sure to flush them.
+     */
+    protected boolean isWriteCoalescingEnabled()
+        {
+        return this.module.isWriteCoalescingEnabled() && !OpModeManagerImpl.shouldPreventDangerousHardwareAccess();
+        }
+    /** Subclass hook: add any pending coalesced writes to the batch, which is for our module */
+    protected void addCoalescedWrites(LynxCommandBatch batch)
+        {
+        // Subclass hook
+        }
+    /** Subclass hook: the batch passed to {@link #addCoalescedWrites} has been committed */
+    protected void finishCoalescedWrites()
+        {
+        // Subclass hook
+        }
+
+    /** Answers whether our module is polling its I2C devices in the background */
+    protected boolean isI2cBackgroundPollingEnabled()
+        {
+        return this.module.isI2cBackgroundPollingEnabled();
+        }
+    protected LynxI2cBusPoller getI2cBusPoller(int bus)
+        {
+        return this.module.getI2cBusPoller(bus);
+        }
+    /** Subclass hook: our module's I2C background polling setting has changed */
+    protected void updateI2cBackgroundPolling()
+        {
+        // Subclass hook
+        }
+
+    /** Commits a batch of commands to our module, reporting rather than throwing any interrupt */
+    protected void commitBatch(LynxCommandBatch batch)
+        {
+        try {
+            batch.commit();
+            }
+        catch (InterruptedException e)
+            {
+            handleException(e);
+            }
+        }
+
     protected void setHealthyIfArmed()
         {
         if (isArmed())
@@ -33,9 +33,12 @@ THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package com.qualcomm.hardware.lynx;
 
 import android.content.Context;
+import androidx.annotation.Nullable;
 
 import com.qualcomm.hardware.R;
 import com.qualcomm.hardware.lynx.commands.LynxCommand;
+import com.qualcomm.hardware.lynx.commands.LynxCommandBatch;
+import com.qualcomm.hardware.lynx.commands.LynxResponseFuture;
 import com.qualcomm.hardware.lynx.commands.core.LynxGetADCCommand;
 import com.qualcomm.hardware.lynx.commands.core.LynxGetADCResponse;
 import com.qualcomm.hardware.lynx.commands.core.LynxGetBulkInputDataCommand;
@@ -128,6 +131,14 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
         LastKnown<Boolean>                      lastKnownEnable             = new LastKnown<Boolean>();
         LastKnown<Double>                       lastKnownCurrentAlert       = new LastKnown<Double>(); // mA
 
+        // Write coalescing state: see LynxModule#setWriteCoalescingEnabled. Unlike the caches above,
+        // what we last sent doesn't expire, but it is forgotten whenever the caches are.
+        boolean                                 isPowerPending = false;
+        double                                  pendingPower;
+        DcMotor.RunMode                         lastSentPowerMode = null; // null if unknown
+        int                                     lastSentPower;
+        LynxResponseFuture<?>                   coalescedPowerWrite = null;
+
         // The remainder of the data is authoritative, here
         MotorConfigurationType                  motorType = MotorConfigurationType.getUnspecifiedMotorType();
         MotorConfigurationType                  internalMotorType = null;
@@ -190,6 +201,7 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
             motor.lastKnownTargetPosition.invalidate();
             motor.lastKnownZeroPowerBehavior.invalidate();
             motor.lastKnownEnable.invalidate();
+            motor.lastSentPowerMode = null;
             }
         }
 
@@ -216,7 +228,9 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
     @Override public synchronized void setMotorDisable(int motor)
         {
         this.validateMotor(motor); motor -= apiMotorFirst;
+        flushCoalescedMotorPower(motor);
         internalSetMotorEnable(motor, false);
+        motors[motor].lastSentPowerMode = null; // so that the next power write re-enables
         }
 
     void internalSetMotorEnable(int motorZ, boolean enable)
@@ -465,7 +479,116 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
     @Override public synchronized void setMotorPower(int motor, double apiMotorPower)
         {
         this.validateMotor(motor); motor -= apiMotorFirst;
-        internalSetMotorPower(motor, apiMotorPower);
+        if (isWriteCoalescingEnabled())
+            {
+            coalesceMotorPower(motor, apiMotorPower);
+            }
+        else
+            {
+            internalSetMotorPower(motor, apiMotorPower);
+            }
+        }
+
+    /**
+     * Sets the powers of several motors at once. The power changes are pipelined to the module
+     * back to back, as are any enables that are then needed, so the motors change power nearly
+     * simultaneously and we pay roughly one USB round trip instead of one per motor.
+     */
+    @Override public synchronized void setMotorPowers(int[] apiMotors, double[] apiMotorPowers)
+        {
+        if (apiMotors.length != apiMotorPowers.length)
+            {
+            throw new IllegalArgumentException(String.format("setMotorPowers: %d motors but %d powers", apiMotors.length, apiMotorPowers.length));
+            }
+        int[] motorsZ = new int[apiMotors.length];
+        for (int i = 0; i < apiMotors.length; i++)
+            {
+            this.validateMotor(apiMotors[i]); motorsZ[i] = apiMotors[i] - apiMotorFirst;
+            }
+
+        if (isWriteCoalescingEnabled())
+            {
+            // These will all go out together at the next flush in any case
+            for (int i = 0; i < motorsZ.length; i++)
+                {
+                coalesceMotorPower(motorsZ[i], apiMotorPowers[i]);
+                }
+            return;
+            }
+
+        // Put all the power changes on the wire...
+        LynxCommandBatch powerBatch = new LynxCommandBatch(this.getModule());
+        LynxResponseFuture<?>[] powerWrites = new LynxResponseFuture<?>[motorsZ.length];
+        DcMotor.RunMode[] modes = new DcMotor.RunMode[motorsZ.length];
+        int[] iPowers = new int[motorsZ.length];
+        for (int i = 0; i < motorsZ.length; i++)
+            {
+            MotorProperties motor = motors[motorsZ[i]];
+            double power = Range.clip(apiMotorPowers[i], apiPowerFirst, apiPowerLast);
+            boolean forceUpdate = motor.isPowerPending;  // see internalSetMotorPower()
+            motor.isPowerPending = false;
+            if (motor.lastKnownPower.updateValue(power) || forceUpdate)
+                {
+                modes[i] = internalGetPublicMotorMode(motorsZ[i]);
+                iPowers[i] = internalGetLynxMotorPower(motorsZ[i], modes[i], power);
+                LynxCommand command = internalMakeSetMotorPowerCommand(motorsZ[i], modes[i], iPowers[i]);
+                if (command != null)
+                    {
+                    if (DEBUG) RobotLog.vv(TAG, "setMotorPowers: mod=%d motor=%d iPower=%d", getModuleAddress(), motorsZ[i], iPowers[i]);
+                    powerWrites[i] = powerBatch.add(command);
+                    }
+                }
+            }
+        commitBatch(powerBatch);
+
+        // ...then likewise enable those that need it
+        LynxCommandBatch enableBatch = new LynxCommandBatch(this.getModule());
+        LynxResponseFuture<?>[] enableWrites = new LynxResponseFuture<?>[motorsZ.length];
+        for (int i = 0; i < motorsZ.length; i++)
+            {
+            if (powerWrites[i] == null)
+                {
+                continue;
+                }
+            MotorProperties motor = motors[motorsZ[i]];
+            LynxNackException e = powerWrites[i].getException();
+            if (powerWrites[i].isDone() && e == null)
+                {
+                motor.lastSentPowerMode = modes[i];
+                motor.lastSentPower = iPowers[i];
+                if (motor.lastKnownEnable.updateValue(true))
+                    {
+                    enableWrites[i] = enableBatch.add(new LynxSetMotorChannelEnableCommand(this.getModule(), motorsZ[i], true));
+                    }
+                }
+            else if (e != null)
+                {
+                handleException(e);
+                }
+            }
+        commitBatch(enableBatch);
+
+        boolean targetPositionNotSet = false;
+        for (LynxResponseFuture<?> enableWrite : enableWrites)
+            {
+            LynxNackException e = enableWrite == null ? null : enableWrite.getException();
+            if (e != null)
+                {
+                // Same treatment as in internalSetMotorEnable()
+                if (e.getNack().getNackReasonCode() == LynxNack.StandardReasonCode.MOTOR_NOT_CONFIG_BEFORE_ENABLED)
+                    {
+                    targetPositionNotSet = true;
+                    }
+                else
+                    {
+                    handleException(e);
+                    }
+                }
+            }
+        if (targetPositionNotSet)
+            {
+            throw new TargetPositionNotSetException();
+            }
         }
 
     @Override public synchronized double getMotorPower(int motor)
@@ -524,42 +647,27 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
     void internalSetMotorPower(int motorZ, double apiPower, boolean forceUpdate)
         {
         double power = Range.clip(apiPower, apiPowerFirst, apiPowerLast);
-        int iPower = 0;
+
+        // A pending coalesced write is superseded by this one, but as lastKnownPower already
+        // reflects the pending value, we can't rely on it to tell us whether to transmit.
+        if (motors[motorZ].isPowerPending)
+            {
+            motors[motorZ].isPowerPending = false;
+            forceUpdate = true;
+            }
+
         if (motors[motorZ].lastKnownPower.updateValue(power) || forceUpdate)
             {
             DcMotor.RunMode mode = internalGetPublicMotorMode(motorZ);
-            LynxCommand command = null;
-            switch (mode)
-                {
-                case RUN_TO_POSITION:
-                case RUN_USING_ENCODER:
-                    {
-                    // Scale 'power' to configured maximum motor speed. This is mostly for legacy
-                    // compatibility, as setMotorVelocity exposes this more directly.
-                    power = Math.signum(power) * Range.scale(Math.abs(power), 0, apiPowerLast, 0, getDefaultMaxMotorSpeed(motorZ));
-                    iPower = (int)power;
-                    command = new LynxSetMotorTargetVelocityCommand(this.getModule(), motorZ, iPower);
-                    break;
-                    }
-                case RUN_WITHOUT_ENCODER:
-                    {
-                    power = Range.scale(power, apiPowerFirst, apiPowerLast, LynxSetMotorConstantPowerCommand.apiPowerFirst, LynxSetMotorConstantPowerCommand.apiPowerLast);
-                    iPower = (int)power;
-                    command = new LynxSetMotorConstantPowerCommand(this.getModule(), motorZ, iPower);
-                    break;
-                    }
-                case STOP_AND_RESET_ENCODER:
-                    {
-                    // Setting motor power in this mode doesn't do anything
-                    command = null;
-                    break;
-                    }
-                }
+            int iPower = internalGetLynxMotorPower(motorZ, mode, power);
+            LynxCommand command = internalMakeSetMotorPowerCommand(motorZ, mode, iPower);
             try {
                 if (command != null)
                     {
                     if (DEBUG) RobotLog.vv(TAG, "setMotorPower: mod=%d motor=%d iPower=%d", getModuleAddress(), motorZ, iPower);
                     command.send();
+                    motors[motorZ].lastSentPowerMode = mode;
+                    motors[motorZ].lastSentPower = iPower;
                     internalSetMotorEnable(motorZ, true);
                     }
                 }
@@ -570,8 +678,48 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
             }
         }
 
+    /** Converts a (clipped) api power to the value that's sent to the module in the indicated mode */
+    protected int internalGetLynxMotorPower(int motorZ, DcMotor.RunMode mode, double power)
+        {
+        switch (mode)
+            {
+            case RUN_TO_POSITION:
+            case RUN_USING_ENCODER:
+                // Scale 'power' to configured maximum motor speed. This is mostly for legacy
+                // compatibility, as setMotorVelocity exposes this more directly.
+                return (int)(Math.signum(power) * Range.scale(Math.abs(power), 0, apiPowerLast, 0, getDefaultMaxMotorSpeed(motorZ)));
+            case RUN_WITHOUT_ENCODER:
+                return (int)Range.scale(power, apiPowerFirst, apiPowerLast, LynxSetMotorConstantPowerCommand.apiPowerFirst, LynxSetMotorConstantPowerCommand.apiPowerLast);
+            default:
+                return 0;
+            }
+        }
+
+    /** Returns the command that sets the motor to the indicated module power, or null if there isn't one in this mode */
+    protected @Nullable LynxCommand internalMakeSetMotorPowerCommand(int motorZ, DcMotor.RunMode mode, int iPower)
+        {
+        switch (mode)
+            {
+            case RUN_TO_POSITION:
+            case RUN_USING_ENCODER:
+                return new LynxSetMotorTargetVelocityCommand(this.getModule(), motorZ, iPower);
+            case RUN_WITHOUT_ENCODER:
+                return new LynxSetMotorConstantPowerCommand(this.getModule(), motorZ, iPower);
+            case STOP_AND_RESET_ENCODER:
+            default:
+                // Setting motor power in this mode doesn't do anything
+                return null;
+            }
+        }
+
     double internalGetMotorPower(int motorZ)
         {
+        // A coalesced write that's not yet been sent is nonetheless the answer
+        if (motors[motorZ].isPowerPending)
+            {
+            return motors[motorZ].pendingPower;
+            }
+
         // Do we have a cached answer?
         Double result = motors[motorZ].lastKnownPower.getValue();
         if (result != null)
@@ -622,18 +770,18 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
     @Override public synchronized boolean isBusy(int motor)
         {
         this.validateMotor(motor); motor -= apiMotorFirst;
-        LynxIsMotorAtTargetCommand command = new LynxIsMotorAtTargetCommand(this.getModule(), motor);
-
         if (getModule() instanceof LynxModule)
             {
             LynxModule module = (LynxModule) getModule();
             if (module.getBulkCachingMode() != LynxModule.BulkCachingMode.OFF)
                 {
-                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(command);
+                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(LynxModule.BulkCachingIntent.MOTOR_BUSY, motor);
                 return bulkData.isMotorBusy(motor);
                 }
             }
 
+        LynxIsMotorAtTargetCommand command = new LynxIsMotorAtTargetCommand(this.getModule(), motor);
+
         if (internalGetMotorChannelMode(motor) != DcMotor.RunMode.RUN_TO_POSITION)
             {
             // Calling isBusy() on a motor not in RTP mode creates NAK logspam
@@ -715,18 +863,18 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
     @Override public synchronized int getMotorCurrentPosition(int motor)
         {
         this.validateMotor(motor); motor -= apiMotorFirst;
-        LynxGetMotorEncoderPositionCommand command = new LynxGetMotorEncoderPositionCommand(this.getModule(), motor);
-
         if (getModule() instanceof LynxModule)
             {
             LynxModule module = (LynxModule) getModule();
             if (module.getBulkCachingMode() != LynxModule.BulkCachingMode.OFF)
                 {
-                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(command);
+                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(LynxModule.BulkCachingIntent.MOTOR_POSITION, motor);
                 return bulkData.getMotorCurrentPosition(motor);
                 }
             }
 
+        LynxGetMotorEncoderPositionCommand command = new LynxGetMotorEncoderPositionCommand(this.getModule(), motor);
+
         try {
             LynxGetMotorEncoderPositionResponse response = command.sendReceive();
             return response.getPosition();
@@ -755,6 +903,10 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
 
         this.validateMotor(motor); motor -= apiMotorFirst;
 
+        // Target velocity is the same setting as power in these modes, so keep the order straight
+        flushCoalescedMotorPower(motor);
+        motors[motor].lastSentPowerMode = null;
+
         int iTicksPerSecond = Range.clip((int)Math.round(ticksPerSecond),
             LynxSetMotorTargetVelocityCommand.apiVelocityFirst,
             LynxSetMotorTargetVelocityCommand.apiVelocityLast);
@@ -798,18 +950,18 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
 
     int internalGetMotorTicksPerSecond(int motorZ)
         {
-        LynxGetBulkInputDataCommand command = new LynxGetBulkInputDataCommand(this.getModule());
-
         if (getModule() instanceof LynxModule)
             {
             LynxModule module = (LynxModule) getModule();
             if (module.getBulkCachingMode() != LynxModule.BulkCachingMode.OFF)
                 {
-                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(command, "motorVelocity" + motorZ);
+                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(LynxModule.BulkCachingIntent.MOTOR_VELOCITY, motorZ);
                 return bulkData.getMotorVelocity(motorZ);
                 }
             }
 
+        LynxGetBulkInputDataCommand command = new LynxGetBulkInputDataCommand(this.getModule());
+
         try {
             LynxGetBulkInputDataResponse response = command.sendReceive();
             return response.getVelocity(motorZ);      // in encoder counts per second
@@ -1019,18 +1171,18 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
 
     @Override public boolean isMotorOverCurrent(int motor)
         {
-        LynxGetBulkInputDataCommand command = new LynxGetBulkInputDataCommand(this.getModule());
-
         if (getModule() instanceof LynxModule)
             {
             LynxModule module = (LynxModule) getModule();
             if (module.getBulkCachingMode() != LynxModule.BulkCachingMode.OFF)
                 {
-                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(command, "motorOverCurrent" + motor);
+                LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(LynxModule.BulkCachingIntent.MOTOR_OVER_CURRENT, motor);
                 return bulkData.isMotorOverCurrent(motor);
                 }
             }
 
+        LynxGetBulkInputDataCommand command = new LynxGetBulkInputDataCommand(this.getModule());
+
         try
             {
             LynxGetBulkInputDataResponse response = command.sendReceive();
@@ -1044,6 +1196,88 @@ public class LynxDcMotorController extends LynxController implements DcMotorCont
         }
 
 
+    //----------------------------------------------------------------------------------------------
+    // Write coalescing
+    //----------------------------------------------------------------------------------------------
+
+    /** Notes a motor power to be sent at the next flush; see LynxModule#setWriteCoalescingEnabled */
+    protected void coalesceMotorPower(int motorZ, double apiPower)
+        {
+        double power = Range.clip(apiPower, apiPowerFirst, apiPowerLast);
+        motors[motorZ].pendingPower = power;
+        motors[motorZ].isPowerPending = true;
+        motors[motorZ].lastKnownPower.setValue(power);
+        }
+
+    /** Transmits the motor's pending coalesced power write, if any, right now */
+    protected void flushCoalescedMotorPower(int motorZ)
+        {
+        if (motors[motorZ].isPowerPending)
+            {
+            internalSetMotorPower(motorZ, motors[motorZ].pendingPower);
+            }
+        }
+
+    @Override protected synchronized void addCoalescedWrites(LynxCommandBatch batch)
+        {
+        for (int motorZ = 0; motorZ < motors.length; motorZ++)
+            {
+            MotorProperties motor = motors[motorZ];
+            if (!motor.isPowerPending)
+                {
+                continue;
+                }
+            if (!isHooked)
+                {
+                // Our commands wouldn't be going to the batch's module
+                flushCoalescedMotorPower(motorZ);
+                continue;
+                }
+            motor.isPowerPending = false;
+
+            DcMotor.RunMode mode = internalGetPublicMotorMode(motorZ);
+            int iPower = internalGetLynxMotorPower(motorZ, mode, motor.pendingPower);
+            if (mode == motor.lastSentPowerMode && iPower == motor.lastSentPower)
+                {
+                continue; // the hardware already has this
+                }
+            LynxCommand command = internalMakeSetMotorPowerCommand(motorZ, mode, iPower);
+            if (command != null)
+                {
+                if (DEBUG) RobotLog.vv(TAG, "setMotorPower(coalesced): mod=%d motor=%d iPower=%d", getModuleAddress(), motorZ, iPower);
+                motor.coalescedPowerWrite = batch.add(command);
+                motor.lastSentPowerMode = mode;
+                motor.lastSentPower = iPower;
+                }
+            }
+        }
+
+    @Override protected synchronized void finishCoalescedWrites()
+        {
+        for (int motorZ = 0; motorZ < motors.length; motorZ++)
+            {
+            MotorProperties motor = motors[motorZ];
+            LynxResponseFuture<?> write = motor.coalescedPowerWrite;
+            if (write == null)
+                {
+                continue;
+                }
+            motor.coalescedPowerWrite = null;
+
+            LynxNackException e = write.getException();
+            if (write.isDone() && e == null)
+                {
+                internalSetMotorEnable(motorZ, true);
+                }
+            else
+                {
+                motor.lastSentPowerMode = null; // we don't know what the hardware has
+                if (e != null) handleException(e);
+                }
+            }
+        }
+
+
     //------------------------------------------------------------------------------------------------
     // Utility
     //------------------------------------------------------------------------------------------------
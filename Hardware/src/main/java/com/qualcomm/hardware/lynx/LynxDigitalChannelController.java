@@ -205,18 +205,18 @@ public class LynxDigitalChannelController extends LynxController implements Digi
         else
             {
             // For input pins, we ask the controller, then remember what he said
-            LynxGetSingleDIOInputCommand command = new LynxGetSingleDIOInputCommand(this.getModule(), pin);
-
             if (getModule() instanceof LynxModule)
                 {
                 LynxModule module = (LynxModule) getModule();
                 if (module.getBulkCachingMode() != LynxModule.BulkCachingMode.OFF)
                     {
-                    LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(command);
+                    LynxModule.BulkData bulkData = module.recordBulkCachingCommandIntent(LynxModule.BulkCachingIntent.DIGITAL_INPUT, pin);
                     return bulkData.getDigitalChannelState(pin);
                     }
                 }
 
+            LynxGetSingleDIOInputCommand command = new LynxGetSingleDIOInputCommand(this.getModule(), pin);
+
             try {
                 LynxGetSingleDIOInputResponse response = command.sendReceive();
                 boolean result = response.getValue();
@@ -0,0 +1,210 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.hardware.lynx;
+
+import com.qualcomm.robotcore.util.ElapsedTime;
+import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.ThreadPool;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link LynxI2cBusPoller} keeps the background read windows of the I2C devices on one bus of
+ * a {@link LynxModule} refreshed. The devices take turns: each tick of the poller performs one
+ * read of the next device in round-robin order, so that several sensors on one bus share it
+ * fairly and no one of them can starve the others (or the USB link) of bandwidth.
+ *
+ * @see LynxModule#setI2cBackgroundPollingEnabled(boolean)
+ */
+@SuppressWarnings("WeakerAccess")
+public class LynxI2cBusPoller
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    public static final String TAG = "LynxI2cBusPoller";
+
+    protected static final long nsPollIntervalDefault = 2 * ElapsedTime.MILLIS_IN_NANO;
+
+    protected final LynxModule                      module;
+    protected final int                             bus;
+    protected final List<LynxI2cDeviceSynch>        devices = new CopyOnWriteArrayList<LynxI2cDeviceSynch>();
+    protected final Object                          lock = new Object();
+    protected ScheduledExecutorService              executor;   // guarded by lock
+    protected long                                  nsPollInterval;
+    protected int                                   iNext;      // only touched on the poller thread
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public LynxI2cBusPoller(LynxModule module, int bus)
+        {
+        this.module = module;
+        this.bus = bus;
+        this.executor = null;
+        this.nsPollInterval = nsPollIntervalDefault;
+        this.iNext = 0;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Operations
+    //----------------------------------------------------------------------------------------------
+
+    public void addDevice(LynxI2cDeviceSynch device)
+        {
+        synchronized (lock)
+            {
+            if (!devices.contains(device))
+                {
+                devices.add(device);
+                start();
+                }
+            }
+        }
+
+    public void removeDevice(LynxI2cDeviceSynch device)
+        {
+        synchronized (lock)
+            {
+            if (devices.remove(device) && devices.isEmpty())
+                {
+                stop();
+                }
+            }
+        }
+
+    public boolean isPolling(LynxI2cDeviceSynch device)
+        {
+        return devices.contains(device);
+        }
+
+    /**
+     * Sets the idle time between successive background reads on this bus. Each read takes
+     * a few milliseconds of bus time by itself; this interval is the room left for everything
+     * else, including foreground transactions by user code.
+     */
+    public void setPollInterval(long interval, TimeUnit unit)
+        {
+        synchronized (lock)
+            {
+            nsPollInterval = Math.max(0, unit.toNanos(interval));
+            if (executor != null)
+                {
+                stop();
+                start();
+                }
+            }
+        }
+
+    public long getPollInterval(TimeUnit unit)
+        {
+        synchronized (lock)
+            {
+            return unit.convert(nsPollInterval, TimeUnit.NANOSECONDS);
+            }
+        }
+
+    public void close()
+        {
+        synchronized (lock)
+            {
+            devices.clear();
+            stop();
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Polling
+    //----------------------------------------------------------------------------------------------
+
+    // contract: called with lock held
+    protected void start()
+        {
+        if (executor == null && !devices.isEmpty())
+            {
+            RobotLog.vv(TAG, "mod#=%d bus=%d: starting background polling", module.getModuleAddress(), bus);
+            executor = ThreadPool.newScheduledExecutor(1, "lynx i2c poller");
+            executor.scheduleWithFixedDelay(new Runnable()
+                {
+                @Override public void run()
+                    {
+                    pollNext();
+                    }
+                }, 0, Math.max(1, nsPollInterval), TimeUnit.NANOSECONDS);
+            }
+        }
+
+    // contract: called with lock held
+    protected void stop()
+        {
+        if (executor != null)
+            {
+            RobotLog.vv(TAG, "mod#=%d bus=%d: stopping background polling", module.getModuleAddress(), bus);
+            executor.shutdownNow();
+            try {
+                ThreadPool.awaitTermination(executor, 2, TimeUnit.SECONDS, "lynx i2c poller");
+                }
+            catch (InterruptedException e)
+                {
+                Thread.currentThread().interrupt();
+                }
+            executor = null;
+            }
+        }
+
+    // Called on the poller thread, WITHOUT holding our lock so that devices can come and go freely
+    protected void pollNext()
+        {
+        if (!module.isOpen) return;
+
+        int size = devices.size();
+        if (size == 0) return;
+
+        LynxI2cDeviceSynch device;
+        try {
+            device = devices.get(iNext++ % size);
+            }
+        catch (IndexOutOfBoundsException e)
+            {
+            return; // removed out from under us; just go around again
+            }
+        if (iNext >= size) iNext = 0;
+
+        device.pollBackgroundReadWindow();
+        }
+    }
@@ -48,22 +48,28 @@ import com.qualcomm.hardware.lynx.commands.core.LynxI2cWriteStatusQueryCommand;
 import com.qualcomm.hardware.lynx.commands.core.LynxI2cWriteStatusQueryResponse;
 import com.qualcomm.robotcore.exception.RobotCoreException;
 import com.qualcomm.robotcore.hardware.I2cAddr;
+import com.qualcomm.robotcore.hardware.I2cDeviceSynch;
+import com.qualcomm.robotcore.hardware.I2cDeviceSynchBackgroundPolling;
 import com.qualcomm.robotcore.hardware.I2cDeviceSynchReadHistory;
 import com.qualcomm.robotcore.hardware.I2cDeviceSynchReadHistoryImpl;
 import com.qualcomm.robotcore.hardware.I2cDeviceSynchSimple;
+import com.qualcomm.robotcore.hardware.I2cTransactionStatistics;
 import com.qualcomm.robotcore.hardware.I2cWaitControl;
 import com.qualcomm.robotcore.hardware.I2cWarningManager;
 import com.qualcomm.robotcore.hardware.TimestampedData;
 import com.qualcomm.robotcore.hardware.TimestampedI2cData;
+import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 import com.qualcomm.robotcore.util.Util;
 
+import java.util.Arrays;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Created by bob on 2016-03-12.
  */
-public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDeviceSynchSimple, I2cDeviceSynchReadHistory
+public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDeviceSynchSimple, I2cDeviceSynchReadHistory, I2cDeviceSynchBackgroundPolling
     {
     //----------------------------------------------------------------------------------------------
     // State
@@ -82,6 +88,17 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
     protected LynxUsbUtil.Placeholder<TimestampedData> readTimeStampedPlaceholder = new LynxUsbUtil.Placeholder<TimestampedData>(TAG, "readTimestamped");
     private LynxUsbUtil.Placeholder<TimestampedData> readStatusQueryPlaceholder = new LynxUsbUtil.Placeholder<TimestampedData>(TAG, "readStatusQuery");
 
+    /** background data older than this is not used; we read synchronously instead */
+    protected static final long nsBackgroundReadStale = 250 * ElapsedTime.MILLIS_IN_NANO;
+
+    protected final Object                              backgroundPollingLock = new Object();
+    protected volatile I2cDeviceSynch.ReadWindow        backgroundReadWindow = null;
+    protected volatile TimestampedI2cData               backgroundReadData = null;
+    protected boolean                                   readSucceeded = false; // guarded by 'this'
+
+    protected BusSpeed                                  busSpeed = BusSpeed.STANDARD_100K;
+    protected final LynxI2cLatencyModel                 latencyModel = new LynxI2cLatencyModel();
+
     //----------------------------------------------------------------------------------------------
     // Construction
     //----------------------------------------------------------------------------------------------
@@ -123,6 +140,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
 
     public void close()
         {
+        setBackgroundReadWindow(null);
         setHealthStatus(HealthStatus.CLOSED);
         super.close();
         }
@@ -141,12 +159,13 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
     public void setI2cAddress(I2cAddr i2cAddr)
         {
         this.i2cAddr = i2cAddr;
+        this.backgroundReadData = null;
         }
 
     @Override
     public void setI2cAddr(I2cAddr i2cAddr)
         {
-        this.i2cAddr = i2cAddr;
+        setI2cAddress(i2cAddr);
         }
 
     @Override
@@ -214,6 +233,11 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
         return readHistory.getHistoryQueue();
         }
 
+    @Override public I2cTransactionStatistics getTransactionStatistics()
+        {
+        return latencyModel.getStatistics();
+        }
+
     //----------------------------------------------------------------------------------------------
     // I2cDeviceSynch API methods
     //----------------------------------------------------------------------------------------------
@@ -234,8 +258,15 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
         return this.read(ireg, 1)[0];
         }
 
-    @Override //NB: this is firmware-version specific, but the (below) non-register-based version isn't
-    public abstract TimestampedData readTimeStamped(final int ireg, final int creg);
+    @Override
+    public TimestampedData readTimeStamped(final int ireg, final int creg)
+        {
+        TimestampedData result = getBackgroundReadData(ireg, creg);
+        return result != null ? result : internalReadTimeStamped(ireg, creg);
+        }
+
+    //NB: this is firmware-version specific, but the (below) non-register-based version isn't
+    protected abstract TimestampedData internalReadTimeStamped(final int ireg, final int creg);
 
     //------------------------------------------------------------------------------------------------------------
     //  Reading: NON-register-based
@@ -377,6 +408,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
 
     private void internalWrite(int ireg, byte[] data, final I2cWaitControl waitControl)
         {
+        this.backgroundReadData = null; // the write may well change what we'd read
         if (data.length > 0) // paranoia, but safe
             {
             // For register-based I2c devices: convention: first byte in a write is the initial register number
@@ -402,6 +434,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
                     @Override public Object get() throws InterruptedException, RobotCoreException, LynxNackException
                         {
                         sendI2cTransaction(writeTxSupplier);
+                        latencyModel.noteTransactionStarted(i2cAddr, busSpeed, payload.length);
                         internalWaitForWriteCompletions(waitControl);
                         return null;
                         }
@@ -444,6 +477,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
 
     private void internalWrite(final byte[] payload, final I2cWaitControl waitControl)
         {
+        this.backgroundReadData = null;
         if(payload.length > 0) // paranoia, but safe
             {
             final Supplier<LynxCommand<?>> writeTxSupplier = new Supplier<LynxCommand<?>>()
@@ -466,6 +500,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
                     @Override public Object get() throws InterruptedException, RobotCoreException, LynxNackException
                         {
                         sendI2cTransaction(writeTxSupplier);
+                        latencyModel.noteTransactionStarted(i2cAddr, busSpeed, payload.length);
                         internalWaitForWriteCompletions(waitControl);
                         return null;
                         }
@@ -564,8 +599,12 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
             while (keepTrying)
                 {
                 final LynxI2cWriteStatusQueryCommand writeStatus = new LynxI2cWriteStatusQueryCommand(this.getModule(), this.bus);
+                long nsSent = 0;
                 try {
+                    awaitNextStatusQuery();
+                    nsSent = System.nanoTime();
                     LynxI2cWriteStatusQueryResponse response = writeStatus.sendReceive();
+                    latencyModel.noteStatusQuery(nsSent, System.nanoTime(), true);
                     if (response.isStatusOk())
                         {
                         I2cWarningManager.removeProblemI2cDevice(this);
@@ -585,6 +624,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
                         case I2C_NO_RESULTS_PENDING:
                             return;
                         case I2C_OPERATION_IN_PROGRESS:
+                            latencyModel.noteStatusQuery(nsSent, System.nanoTime(), false);
                             continue;
                         default:
                             handleException(e);
@@ -601,17 +641,41 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
             }
         }
 
+    protected void awaitNextStatusQuery() throws InterruptedException
+        {
+        /* Note: called with i2c lock held!
+         *
+         * The other devices on the module wait for the lock until the transaction is done whatever
+         * we do here, so we park rather than spin until the latency model reckons that a status
+         * query is worthwhile.
+         */
+        for (;;)
+            {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            long nsRemaining = latencyModel.getNanosUntilStatusQueryDue();
+            if (nsRemaining <= 0)
+                break;
+            LockSupport.parkNanos(nsRemaining);
+            }
+        }
+
     protected TimestampedData pollForReadResult(I2cAddr i2cAddr, int ireg, int creg)
         {
-        // Poll until the data is available
+        // Poll until the data is available, but don't start asking before it's likely to be
+        latencyModel.noteTransactionStarted(i2cAddr, busSpeed, creg + 1);
         boolean keepTrying = true;
 
         while (keepTrying)
             {
             LynxI2cReadStatusQueryCommand readStatus = new LynxI2cReadStatusQueryCommand(this.getModule(), this.bus, creg);
+            long nsSent = 0;
             try {
+                awaitNextStatusQuery();
+                nsSent = System.nanoTime();
                 LynxI2cReadStatusQueryResponse response = readStatus.sendReceive();
                 long now = System.nanoTime();
+                latencyModel.noteStatusQuery(nsSent, now, true);
                 response.logResponse();
                 //
                 TimestampedI2cData result = new TimestampedI2cData();
@@ -623,6 +687,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
                 // Return real data if we've got it
                 if (result.data.length == creg)
                     {
+                    readSucceeded = true;
                     readStatusQueryPlaceholder.reset();
                     readHistory.addToHistoryQueue(result);
                     I2cWarningManager.removeProblemI2cDevice(this);
@@ -640,6 +705,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
                     {
                     case I2C_MASTER_BUSY:               // TODO: REVIEW: is this ever actually returned in this situation?
                     case I2C_OPERATION_IN_PROGRESS:
+                        latencyModel.noteStatusQuery(nsSent, System.nanoTime(), false);
                         continue;
                     case I2C_NO_RESULTS_PENDING:
                         // This is an internal error of some sort
@@ -663,6 +729,99 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
         return readStatusQueryPlaceholder.log(TimestampedI2cData.makeFakeData(i2cAddr, ireg, creg));
         }
 
+    //----------------------------------------------------------------------------------------------
+    // Background polling
+    //----------------------------------------------------------------------------------------------
+
+    /*
+     * Reads of a polled window are done by the LynxI2cBusPoller for our bus, and the results are
+     * used to answer subsequent register-based reads that lie within the window. Note that, as
+     * the poller moves the device's register pointer, the non-register-based reads aren't
+     * reliable on a device that is being polled.
+     */
+
+    @Override
+    public void setBackgroundReadWindow(@Nullable I2cDeviceSynch.ReadWindow window)
+        {
+        synchronized (backgroundPollingLock)
+            {
+            this.backgroundReadWindow = window;
+            this.backgroundReadData = null;
+            updateI2cBackgroundPolling();
+            }
+        }
+
+    @Override
+    @Nullable public I2cDeviceSynch.ReadWindow getBackgroundReadWindow()
+        {
+        return this.backgroundReadWindow;
+        }
+
+    @Override
+    public boolean isBackgroundPolling()
+        {
+        return this.getI2cBusPoller(bus).isPolling(this);
+        }
+
+    @Override
+    protected void updateI2cBackgroundPolling()
+        {
+        synchronized (backgroundPollingLock)
+            {
+            I2cDeviceSynch.ReadWindow window = this.backgroundReadWindow;
+            if (isI2cBackgroundPollingEnabled() && window != null && window.getReadMode() == I2cDeviceSynch.ReadMode.REPEAT)
+                {
+                this.getI2cBusPoller(bus).addDevice(this);
+                }
+            else
+                {
+                this.getI2cBusPoller(bus).removeDevice(this);
+                this.backgroundReadData = null;
+                }
+            }
+        }
+
+    /** Called on our bus's poller thread to refresh the background read window */
+    protected void pollBackgroundReadWindow()
+        {
+        I2cDeviceSynch.ReadWindow window = this.backgroundReadWindow;
+        if (window == null || !this.isHooked)
+            return;
+
+        synchronized (this)
+            {
+            readSucceeded = false;
+            TimestampedData data = internalReadTimeStamped(window.getRegisterFirst(), window.getRegisterCount());
+            // Don't publish placeholder data, or data for a window that's since been replaced
+            if (readSucceeded && window == this.backgroundReadWindow && data instanceof TimestampedI2cData)
+                {
+                this.backgroundReadData = (TimestampedI2cData)data;
+                }
+            }
+        }
+
+    /** Returns recent background data for the indicated registers, or null if we don't have any */
+    protected @Nullable TimestampedData getBackgroundReadData(int ireg, int creg)
+        {
+        TimestampedI2cData data = this.backgroundReadData;
+        if (data == null)
+            return null;
+
+        int ibFirst = ireg - data.register;
+        if (ibFirst < 0 || ibFirst + creg > data.data.length || !data.i2cAddr.equals(this.i2cAddr))
+            return null;
+
+        if (System.nanoTime() - data.nanoTime > nsBackgroundReadStale)
+            return null;
+
+        TimestampedI2cData result = new TimestampedI2cData();
+        result.data     = Arrays.copyOfRange(data.data, ibFirst, ibFirst + creg);
+        result.nanoTime = data.nanoTime;
+        result.i2cAddr  = data.i2cAddr;
+        result.register = ireg;
+        return result;
+        }
+
     //----------------------------------------------------------------------------------------------
     // Miscellaneous methods
     //----------------------------------------------------------------------------------------------
@@ -701,6 +860,7 @@ public abstract class LynxI2cDeviceSynch extends LynxController implements I2cDe
      */
     public void setBusSpeed(BusSpeed speed)
         {
+        this.busSpeed = speed;
         LynxI2cConfigureChannelCommand command = new LynxI2cConfigureChannelCommand(this.getModule(), bus, speed.toSpeedCode());
         try
             {
@@ -54,7 +54,7 @@ public class LynxI2cDeviceSynchV1 extends LynxI2cDeviceSynch
     }
 
     @Override
-    public synchronized TimestampedData readTimeStamped(final int ireg, final int creg)
+    protected synchronized TimestampedData internalReadTimeStamped(final int ireg, final int creg)
     {
         try {
             final Supplier<LynxI2cWriteSingleByteCommand> writeTxSupplier = new Supplier<LynxI2cWriteSingleByteCommand>()
@@ -51,7 +51,7 @@ public class LynxI2cDeviceSynchV2 extends LynxI2cDeviceSynch
     }
 
     @Override
-    public synchronized TimestampedData readTimeStamped(final int ireg, final int creg)
+    protected synchronized TimestampedData internalReadTimeStamped(final int ireg, final int creg)
     {
         try {
             final Supplier<LynxCommand<?>> readWriteTxSupplier = new Supplier<LynxCommand<?>>()
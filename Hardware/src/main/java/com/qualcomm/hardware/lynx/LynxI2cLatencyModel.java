@@ -0,0 +1,200 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.hardware.lynx;
+
+import com.qualcomm.robotcore.hardware.I2cAddr;
+import com.qualcomm.robotcore.hardware.I2cTransactionStatistics;
+import com.qualcomm.robotcore.util.ElapsedTime;
+
+/**
+ * {@link LynxI2cLatencyModel} predicts when an I2C transaction on a Lynx module will complete,
+ * so that we can hold off until then before asking the module about it, rather than asking over and
+ * over again and crowding motor and sensor traffic off the USB link while we do so. The
+ * prediction starts from the wire time of the transaction at the bus speed in use plus a fixed
+ * firmware overhead, and is then corrected from the outcome of each status query. Queries that
+ * find the transaction still in progress are spaced out with an exponential backoff.
+ *
+ * <p>The model is specific to an I2C address and bus speed, and starts afresh if either changes.
+ * Callers must serialize their use of the transaction methods; the statistics may be retrieved
+ * from any thread. As callers hold their module's I2C lock throughout a transaction, nothing here
+ * ever blocks: {@link #getNanosUntilStatusQueryDue()} merely answers when a query will be
+ * worthwhile, and it's up to the caller to wait until then.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public class LynxI2cLatencyModel
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    protected static final long     MICROS_IN_NANO = 1000;
+    protected static final long     nsFirmwareOverhead = 250 * MICROS_IN_NANO;
+    protected static final long     nsHalfRoundTripInitial = 500 * MICROS_IN_NANO;
+    protected static final long     nsBackoffMin = 100 * MICROS_IN_NANO;
+    protected static final long     nsBackoffMax = 2 * ElapsedTime.MILLIS_IN_NANO;
+    protected static final int      cbFraming = 2;      // the address byte, plus slop for start, stop, and clock stretching
+    protected static final int      bitsPerByte = 9;    // eight data bits and an ack
+    protected static final double   weightNew = 0.2;    // for the exponentially weighted averages
+
+    protected I2cAddr                       i2cAddr;
+    protected LynxI2cDeviceSynch.BusSpeed   busSpeed;
+    protected double                        nsCorrection;       // learned: how far the wire-time prediction is off
+    protected double                        nsHalfRoundTrip;    // learned: how long a query takes to reach the module
+
+    // the transaction in progress
+    protected long      nsStart;
+    protected int       cbTransaction;
+    protected long      nsPredicted;
+    protected long      nsLastInProgress;   // relative to nsStart: when a query last found the transaction incomplete
+    protected long      nsNextQuery;        // System.nanoTime() at which the next query becomes worthwhile
+    protected long      nsBackoff;
+
+    // statistics
+    protected long      transactionCount;
+    protected long      statusQueryCount;
+    protected double    nsLatencySum;
+    protected long      nsLatencyMax;
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public LynxI2cLatencyModel()
+        {
+        reset(I2cAddr.zero(), LynxI2cDeviceSynch.BusSpeed.STANDARD_100K);
+        }
+
+    protected synchronized void reset(I2cAddr i2cAddr, LynxI2cDeviceSynch.BusSpeed busSpeed)
+        {
+        this.i2cAddr = i2cAddr;
+        this.busSpeed = busSpeed;
+        this.nsCorrection = 0;
+        this.nsHalfRoundTrip = nsHalfRoundTripInitial;
+        this.transactionCount = 0;
+        this.statusQueryCount = 0;
+        this.nsLatencySum = 0;
+        this.nsLatencyMax = 0;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Transactions
+    //----------------------------------------------------------------------------------------------
+
+    /** Notes that the module has just accepted a transaction transferring the indicated number of bytes */
+    public synchronized void noteTransactionStarted(I2cAddr i2cAddr, LynxI2cDeviceSynch.BusSpeed busSpeed, int cbTransaction)
+        {
+        if (!i2cAddr.equals(this.i2cAddr) || busSpeed != this.busSpeed)
+            {
+            reset(i2cAddr, busSpeed);
+            }
+        this.nsStart = System.nanoTime();
+        this.cbTransaction = cbTransaction;
+        this.nsPredicted = predictNanoseconds(cbTransaction);
+        this.nsLastInProgress = 0;
+        this.nsBackoff = 0;
+        // Aim for the first query to reach the module just after the transaction completes
+        this.nsNextQuery = nsStart + nsPredicted - (long)nsHalfRoundTrip;
+        }
+
+    /** Returns how long until the next status query for the current transaction is worthwhile */
+    public synchronized long getNanosUntilStatusQueryDue()
+        {
+        return nsNextQuery - System.nanoTime();
+        }
+
+    /** Notes the outcome of a status query sent and answered at the indicated times */
+    public synchronized void noteStatusQuery(long nsSent, long nsReceived, boolean complete)
+        {
+        statusQueryCount++;
+        nsHalfRoundTrip = average(nsHalfRoundTrip, (nsReceived - nsSent) / 2.0);
+
+        long nsArrival = nsSent + (long)nsHalfRoundTrip - nsStart;
+        if (!complete)
+            {
+            nsLastInProgress = nsArrival;
+            if (nsBackoff == 0)
+                {
+                nsBackoff = Math.max(nsBackoffMin, nsPredicted / 4);
+                }
+            nsNextQuery = nsReceived + nsBackoff;
+            nsBackoff = Math.min(nsBackoffMax, nsBackoff * 2);
+            }
+        else
+            {
+            // All we know is that the transaction completed sometime after the last query that found
+            // it busy and before this one, so take the middle as our estimate.
+            double nsObserved = (nsLastInProgress + nsArrival) / 2.0;
+            nsCorrection = average(nsCorrection, nsObserved - wireNanoseconds(cbTransaction));
+
+            long nsLatency = nsReceived - nsStart;
+            transactionCount++;
+            nsLatencySum += nsLatency;
+            nsLatencyMax = Math.max(nsLatencyMax, nsLatency);
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Statistics
+    //----------------------------------------------------------------------------------------------
+
+    public synchronized I2cTransactionStatistics getStatistics()
+        {
+        double msPerNs = 1.0 / ElapsedTime.MILLIS_IN_NANO;
+        return new I2cTransactionStatistics(
+                transactionCount,
+                statusQueryCount,
+                transactionCount == 0 ? 0 : nsLatencySum / transactionCount * msPerNs,
+                nsLatencyMax * msPerNs,
+                predictNanoseconds(1) * msPerNs);
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Utility
+    //----------------------------------------------------------------------------------------------
+
+    protected long predictNanoseconds(int cb)
+        {
+        return Math.max(0, (long)(wireNanoseconds(cb) + nsCorrection));
+        }
+
+    protected double wireNanoseconds(int cb)
+        {
+        int hz = busSpeed == LynxI2cDeviceSynch.BusSpeed.FAST_400K ? 400000 : 100000;
+        return nsFirmwareOverhead + (cb + cbFraming) * bitsPerByte * (double) ElapsedTime.SECOND_IN_NANO / hz;
+        }
+
+    protected static double average(double current, double sample)
+        {
+        return current + weightNew * (sample - current);
+        }
+    }
@@ -43,6 +43,7 @@ import com.qualcomm.hardware.bosch.BHI260IMU;
 import com.qualcomm.hardware.bosch.BNO055IMU;
 import com.qualcomm.hardware.bosch.BNO055Util;
 import com.qualcomm.hardware.lynx.commands.LynxCommand;
+import com.qualcomm.hardware.lynx.commands.LynxCommandBatch;
 import com.qualcomm.hardware.lynx.commands.LynxDatagram;
 import com.qualcomm.hardware.lynx.commands.LynxInterface;
 import com.qualcomm.hardware.lynx.commands.LynxInterfaceCommand;
@@ -76,7 +77,9 @@ import com.qualcomm.hardware.lynx.commands.standard.LynxSetModuleLEDColorCommand
 import com.qualcomm.hardware.lynx.commands.standard.LynxSetModuleLEDPatternCommand;
 import com.qualcomm.hardware.lynx.commands.standard.LynxSetNewModuleAddressCommand;
 import com.qualcomm.hardware.lynx.commands.standard.LynxStandardCommand;
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
+import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerNotifier;
 import com.qualcomm.robotcore.exception.RobotCoreException;
 import com.qualcomm.robotcore.hardware.Blinker;
 import com.qualcomm.robotcore.hardware.EmbeddedControlHubModule;
@@ -98,6 +101,8 @@ import org.firstinspires.ftc.robotcore.external.function.Consumer;
 import org.firstinspires.ftc.robotcore.external.navigation.CurrentUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.TempUnit;
 import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
+import org.firstinspires.ftc.robotcore.internal.hardware.LynxCommandStatistics;
+import org.firstinspires.ftc.robotcore.internal.hardware.TimeWindow;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import org.firstinspires.ftc.robotcore.internal.system.Assert;
 import org.firstinspires.ftc.robotcore.internal.system.Misc;
@@ -139,7 +144,7 @@ import static com.qualcomm.robotcore.hardware.configuration.LynxConstants.revHub
  * @see LynxUsbDeviceImpl
  */
 @SuppressWarnings("WeakerAccess")
-public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIntf, RobotArmingStateNotifier, RobotArmingStateNotifier.Callback, Blinker, VisuallyIdentifiableHardwareDevice
+public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIntf, RobotArmingStateNotifier, RobotArmingStateNotifier.Callback, Blinker, VisuallyIdentifiableHardwareDevice, OpModeManagerNotifier.Notifications
     {
     //----------------------------------------------------------------------------------------------
     // Constants
@@ -152,6 +157,7 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
 
     protected static final int msInitialContact = 500;      // not an exact number; probably can be reduced
     protected static final int msKeepAliveTimeout = 2500;   // per the Lynx spec
+    protected static final long nsBulkPrefetchPeriodDefault = 5 * ElapsedTime.MILLIS_IN_NANO;
 
     // These are the module status bits that will get re-set every cycle until the condition they indicate goes away
     // (as opposed to bits that indicate a discrete event and will normally go away after getting the module status with
@@ -304,10 +310,22 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
     protected boolean                                         ftdiResetWatchdogActiveWhenEngaged; // status when we were last engaged
 
     protected final Object                                    bulkCachingLock;
-    protected BulkCachingMode                                 bulkCachingMode; // guarded by bulkCachingLock
-    protected Map<String, List<LynxDekaInterfaceCommand<?>>>  bulkCachingHistory; // guarded by bulkCachingLock
+    protected volatile BulkCachingMode                        bulkCachingMode; // written under bulkCachingLock
+    protected final long[]                                    bulkCachingHistory; // guarded by bulkCachingLock; channel bitmask per BulkCachingIntent
     @Nullable
     protected BulkData                                        lastBulkData; // guarded by bulkCachingLock
+    @Nullable
+    protected volatile BulkData                               prefetchedBulkData; // latest sample in PREFETCH mode
+    protected ScheduledExecutorService                        bulkPrefetchExecutor; // guarded by bulkCachingLock
+    protected long                                            nsBulkPrefetchPeriod; // guarded by bulkCachingLock
+
+    protected volatile boolean                                isWriteCoalescingEnabled;
+    protected final Object                                    writeCoalescingLock;
+
+    protected final LynxCommandStatistics                     commandStatistics;
+
+    protected volatile boolean                                isI2cBackgroundPollingEnabled;
+    protected final LynxI2cBusPoller[]                        i2cBusPollers; // guarded by itself
 
     //----------------------------------------------------------------------------------------------
     // Construction
@@ -355,8 +373,20 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
         this.ftdiResetWatchdogActiveWhenEngaged = false;
 
         this.bulkCachingMode = BulkCachingMode.OFF;
-        this.bulkCachingHistory = new HashMap<>();
+        this.bulkCachingHistory = new long[BulkCachingIntent.values().length];
         this.bulkCachingLock = new Object();
+        this.prefetchedBulkData = null;
+        this.bulkPrefetchExecutor = null;
+        this.nsBulkPrefetchPeriod = nsBulkPrefetchPeriodDefault;
+
+        this.isWriteCoalescingEnabled = false;
+        this.writeCoalescingLock = new Object();
+
+        this.commandStatistics = new LynxCommandStatistics(toString());
+        this.commandStatistics.register();
+
+        this.isI2cBackgroundPollingEnabled = false;
+        this.i2cBusPollers = new LynxI2cBusPoller[LynxConstants.NUMBER_OF_I2C_BUSSES];
 
         startExecutor();
 
@@ -385,6 +415,12 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
                 this.isOpen = false;
                 stopAttentionRequired();
                 stopPingTimer(true);
+                synchronized (bulkCachingLock)
+                    {
+                    stopBulkPrefetch();
+                    }
+                commandStatistics.unregister();
+                closeI2cBusPollers();
                 stopExecutor();
                 }
             }
@@ -469,6 +505,7 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
                                 LynxModule.this.moduleAddress = newModuleAddress;
                                 LynxModule.this.moduleSerialNumber = new LynxModuleSerialNumber(getSerialNumber(), newModuleAddress);
                                 }
+                            commandStatistics.setName(LynxModule.this.toString());
                             HardwareManualControlOpMode manualControlOpMode = HardwareManualControlOpMode.getInstance();
                             if (manualControlOpMode != null)
                                 {
@@ -731,6 +768,8 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
         {
         warnIfClosed();
         setBulkCachingMode(BulkCachingMode.OFF);
+        setWriteCoalescingEnabled(false);
+        setI2cBackgroundPollingEnabled(false);
         }
 
     /**
@@ -1509,11 +1548,14 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
         {
         private final LynxGetBulkInputDataResponse resp;
         private final boolean fake;
+        private final long nanoTime;
 
         private BulkData(LynxGetBulkInputDataResponse resp, boolean fake)
             {
             this.resp = resp;
             this.fake = fake;
+            TimeWindow timeWindow = resp.getPayloadTimeWindow();
+            this.nanoTime = timeWindow == null || timeWindow.isCleared() ? System.nanoTime() : timeWindow.getNanosecondsLast();
             }
 
         public boolean getDigitalChannelState(int digitalInputZ)
@@ -1557,6 +1599,12 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
             {
             return fake;
             }
+
+        /** Returns the {@link System#nanoTime()} at which this data was received from the module */
+        public long getNanoTime()
+            {
+            return nanoTime;
+            }
         }
 
     /**
@@ -1614,7 +1662,15 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
          * command is issued twice. This mode is intended for beginning users that want to benefit
          * from bulk reads without explicit cache-handling code.
          */
-        AUTO
+        AUTO,
+        /**
+         * Bulk reads are issued continuously in the background at the rate set with
+         * {@link #setBulkPrefetchPeriod(long, TimeUnit)}, and eligible commands are replaced with
+         * the most recently received bulk data without waiting for the module. Use
+         * {@link BulkData#getNanoTime()} to learn how fresh a sample is. No cache management is
+         * needed (or possible) in this mode.
+         */
+        PREFETCH
         }
 
     /**
@@ -1641,55 +1697,166 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
                 {
                 clearBulkCache();
                 }
+            if (mode == BulkCachingMode.PREFETCH && bulkCachingMode != BulkCachingMode.PREFETCH)
+                {
+                startBulkPrefetch();
+                }
+            else if (mode != BulkCachingMode.PREFETCH && bulkCachingMode == BulkCachingMode.PREFETCH)
+                {
+                stopBulkPrefetch();
+                }
             bulkCachingMode = mode;
             }
         }
 
     /**
-     * Clears the bulk read cache.
+     * Sets how often bulk reads are issued in {@link BulkCachingMode#PREFETCH} mode. Each read
+     * occupies the USB link for one round trip, so periods much below a few milliseconds will
+     * crowd out other commands.
      */
-    public void clearBulkCache()
+    public void setBulkPrefetchPeriod(long period, TimeUnit unit)
         {
         warnIfClosed();
         synchronized (bulkCachingLock)
             {
-            for (List<LynxDekaInterfaceCommand<?>> commands : bulkCachingHistory.values())
+            nsBulkPrefetchPeriod = Math.max(1, unit.toNanos(period));
+            if (bulkCachingMode == BulkCachingMode.PREFETCH)
                 {
-                commands.clear();
+                stopBulkPrefetch();
+                startBulkPrefetch();
                 }
-            lastBulkData = null;
             }
         }
 
-    BulkData recordBulkCachingCommandIntent(LynxDekaInterfaceCommand<?> command)
+    public long getBulkPrefetchPeriod(TimeUnit unit)
+        {
+        synchronized (bulkCachingLock)
+            {
+            return unit.convert(nsBulkPrefetchPeriod, TimeUnit.NANOSECONDS);
+            }
+        }
+
+    /**
+     * Returns the most recent bulk data read in the background in {@link BulkCachingMode#PREFETCH}
+     * mode, or null if no such read has yet completed. Never blocks.
+     */
+    @Nullable public BulkData getPrefetchedBulkData()
+        {
+        return prefetchedBulkData;
+        }
+
+    // contract: called with bulkCachingLock held
+    protected void startBulkPrefetch()
+        {
+        if (bulkPrefetchExecutor == null && isOpen)
+            {
+            RobotLog.vv(TAG, "mod#=%d: starting bulk prefetch every %.1fms", getModuleAddress(), nsBulkPrefetchPeriod / (double) ElapsedTime.MILLIS_IN_NANO);
+            bulkPrefetchExecutor = ThreadPool.newScheduledExecutor(1, "lynx bulk prefetch");
+            bulkPrefetchExecutor.scheduleAtFixedRate(new Runnable()
+                {
+                @Override public void run()
+                    {
+                    if (isOpen)
+                        {
+                        prefetchBulkData();
+                        }
+                    }
+                }, 0, nsBulkPrefetchPeriod, TimeUnit.NANOSECONDS);
+            }
+        }
+
+    // contract: called with bulkCachingLock held
+    protected void stopBulkPrefetch()
+        {
+        if (bulkPrefetchExecutor != null)
+            {
+            bulkPrefetchExecutor.shutdownNow();
+            try {
+                ThreadPool.awaitTermination(bulkPrefetchExecutor, 2, TimeUnit.SECONDS, "lynx bulk prefetch");
+                }
+            catch (InterruptedException e)
+                {
+                Thread.currentThread().interrupt();
+                }
+            bulkPrefetchExecutor = null;
+            }
+        prefetchedBulkData = null;
+        }
+
+    // Called on the prefetch thread, WITHOUT holding bulkCachingLock so that readers are never held up
+    protected void prefetchBulkData()
+        {
+        LynxGetBulkInputDataCommand command = new LynxGetBulkInputDataCommand(this);
+        try {
+            LynxGetBulkInputDataResponse response = command.sendReceive();
+            prefetchedBulkData = new BulkData(response, false);
+            }
+        catch (InterruptedException|RuntimeException|LynxNackException e)
+            {
+            // Keep serving the previous sample; its timestamp reveals its age
+            handleException(e);
+            }
+        }
+
+    /**
+     * Clears the bulk read cache.
+     */
+    public void clearBulkCache()
         {
         warnIfClosed();
-        return recordBulkCachingCommandIntent(command, "");
+        synchronized (bulkCachingLock)
+            {
+            Arrays.fill(bulkCachingHistory, 0);
+            lastBulkData = null;
+            }
+        }
+
+    /**
+     * The kinds of reads that can be satisfied from bulk data. In AUTO mode, a read of the same
+     * kind on the same channel twice is what triggers a refresh of the cache.
+     */
+    enum BulkCachingIntent
+        {
+        MOTOR_POSITION, MOTOR_BUSY, MOTOR_VELOCITY, MOTOR_OVER_CURRENT, DIGITAL_INPUT, ANALOG_INPUT
         }
 
-    BulkData recordBulkCachingCommandIntent(LynxDekaInterfaceCommand<?> command, String tag)
+    /**
+     * Notes that a read of the indicated kind and channel is about to be satisfied from bulk data,
+     * and returns the bulk data from which to do so. The bookkeeping here is a fixed table of
+     * channel bitmasks, so as to not generate garbage on every read of every loop.
+     */
+    BulkData recordBulkCachingCommandIntent(BulkCachingIntent intent, int channel)
         {
         warnIfClosed();
+        if (bulkCachingMode == BulkCachingMode.PREFETCH)
+            {
+            BulkData prefetched = prefetchedBulkData;
+            if (prefetched != null)
+                {
+                return prefetched;
+                }
+            }
         synchronized (bulkCachingLock)
             {
-            List<LynxDekaInterfaceCommand<?>> commands = bulkCachingHistory.get(tag);
-            if (bulkCachingMode == BulkCachingMode.AUTO)
+            if (bulkCachingMode == BulkCachingMode.PREFETCH)
                 {
-                // automatically clear the cache if necessary based on the command history
-                if (commands == null)
+                // Nothing has arrived in the background yet: wait for this one read
+                BulkData prefetched = prefetchedBulkData;
+                if (prefetched == null)
                     {
-                    commands = new ArrayList<>();
-                    bulkCachingHistory.put(tag, commands);
+                    prefetched = getBulkData();
+                    if (!prefetched.isFake()) prefetchedBulkData = prefetched;
                     }
-                for (LynxDekaInterfaceCommand<?> otherCommand : commands)
+                return prefetched;
+                }
+
+            final long channelBit = 1L << channel;
+            if (bulkCachingMode == BulkCachingMode.AUTO)
+                {
+                // automatically clear the cache if necessary based on the command history
+                if ((bulkCachingHistory[intent.ordinal()] & channelBit) != 0)
                     {
-                    if (otherCommand.getDestModuleAddress() == command.getDestModuleAddress() &&
-                            otherCommand.getCommandNumber() == command.getCommandNumber() &&
-                            Arrays.equals(otherCommand.toPayloadByteArray(), command.toPayloadByteArray()))
-                        {
-                        clearBulkCache();
-                        break;
-                        }
+                    clearBulkCache();
                     }
                 }
 
@@ -1698,16 +1865,202 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
                 getBulkData(); // populates lastBulkData with non-null value or throws
                 }
 
-            // recording the command must come after getBulkData() clears the cache
+            // recording the intent must come after getBulkData() clears the cache
             if (bulkCachingMode == BulkCachingMode.AUTO)
                 {
-                commands.add(command);
+                bulkCachingHistory[intent.ordinal()] |= channelBit;
                 }
 
             return lastBulkData;
             }
         }
 
+    //----------------------------------------------------------------------------------------------
+    // Instrumentation
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Returns the statistics on the commands sent to this module: per command class, how long
+     * they wait for the network transmission lock, how long they take to write to USB, how long
+     * the module takes to ack or respond, and how often they are retransmitted, nacked, or
+     * time out. These are always being gathered, and are also reported over HTTP.
+     *
+     * @see LynxCommandStatistics#clear()
+     */
+    public LynxCommandStatistics getCommandStatistics()
+        {
+        return commandStatistics;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Write coalescing
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Turns write coalescing on or off for the motors and servos on this module. While it is on,
+     * motor power and servo position writes are not transmitted immediately: only the last value
+     * written to each channel is remembered, and it is put on the wire by the next call to
+     * {@link #flushCoalescedWrites()}, and then only if it differs from what was last sent to that
+     * channel. The SDK flushes after each call to {@code init_loop()}, {@code start()} and
+     * {@code loop()} of an iterative OpMode, and in {@code idle()} and {@code waitForNextLoop()} of
+     * a LinearOpMode; a LinearOpMode that does neither should call {@link #flushCoalescedWrites()}
+     * once at the end of each of its loops, much as it calls {@link #clearBulkCache()} once at the
+     * start in {@link BulkCachingMode#MANUAL} mode.
+     *
+     * <p>Any other command to a motor or servo that might interact with a pending write (a mode
+     * change, a disable, a velocity write) flushes that channel first, so the order of operations
+     * seen by the hardware is unchanged. Turning coalescing off flushes any pending writes. Writes
+     * are never coalesced while an OpMode is being stopped, and write coalescing is turned off when
+     * each OpMode stops and again at the start of the next.</p>
+     *
+     * @see #flushCoalescedWrites()
+     */
+    public void setWriteCoalescingEnabled(boolean enabled)
+        {
+        warnIfClosed();
+        synchronized (writeCoalescingLock)
+            {
+            if (isWriteCoalescingEnabled != enabled)
+                {
+                RobotLog.vv(TAG, "mod#=%d: write coalescing %s", getModuleAddress(), enabled ? "on" : "off");
+                isWriteCoalescingEnabled = enabled;
+                if (!enabled)
+                    {
+                    internalFlushCoalescedWrites();
+                    }
+                }
+            }
+        }
+
+    public boolean isWriteCoalescingEnabled()
+        {
+        return isWriteCoalescingEnabled;
+        }
+
+    /**
+     * Transmits the pending coalesced motor and servo writes on this module, if any. The writes
+     * are pipelined together as a single {@link LynxCommandBatch}, and this returns once they
+     * have all been acknowledged (or have failed). This does nothing if write coalescing is off.
+     *
+     * @see #setWriteCoalescingEnabled(boolean)
+     */
+    @Override public void flushCoalescedWrites()
+        {
+        if (isWriteCoalescingEnabled)
+            {
+            warnIfClosed();
+            synchronized (writeCoalescingLock)
+                {
+                internalFlushCoalescedWrites();
+                }
+            }
+        }
+
+    /** Must be called with the writeCoalescingLock held */
+    protected void internalFlushCoalescedWrites()
+        {
+        LynxCommandBatch batch = new LynxCommandBatch(this);
+        for (LynxController controller : controllers)
+            {
+            controller.addCoalescedWrites(batch);
+            }
+        try {
+            batch.commit();
+            }
+        catch (InterruptedException e)
+            {
+            handleException(e);
+            }
+        finally
+            {
+            for (LynxController controller : controllers)
+                {
+                controller.finishCoalescedWrites();
+                }
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // OpModeManagerNotifier.Notifications
+    //----------------------------------------------------------------------------------------------
+
+    @Override public void onOpModePreInit(OpMode opMode)
+        {
+        }
+
+    @Override public void onOpModePreStart(OpMode opMode)
+        {
+        }
+
+    @Override public void onOpModePostStop(OpMode opMode)
+        {
+        // Don't leave the last writes of the OpMode (e.g. zero powers set in stop()) languishing
+        // until the next user OpMode happens to reset us; the stop OpMode itself doesn't.
+        setWriteCoalescingEnabled(false);
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // I2C background polling
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Turns background polling on or off for the I2C devices on this module. While it is on, each
+     * device whose driver has opted in with a {@link com.qualcomm.robotcore.hardware.I2cDeviceSynchBackgroundPolling#setBackgroundReadWindow
+     * background read window} in {@link com.qualcomm.robotcore.hardware.I2cDeviceSynch.ReadMode#REPEAT
+     * REPEAT} mode is re-read continuously in the background, sharing its bus round-robin with the
+     * other such devices on that bus, and reads that lie within the window are answered immediately
+     * from the most recent background read rather than waiting for an I2C transaction. Use the
+     * timestamps in the returned data to learn how fresh it is.
+     *
+     * @see LynxI2cBusPoller
+     */
+    public void setI2cBackgroundPollingEnabled(boolean enabled)
+        {
+        warnIfClosed();
+        if (isI2cBackgroundPollingEnabled != enabled)
+            {
+            RobotLog.vv(TAG, "mod#=%d: i2c background polling %s", getModuleAddress(), enabled ? "on" : "off");
+            isI2cBackgroundPollingEnabled = enabled;
+            for (LynxController controller : controllers)
+                {
+                controller.updateI2cBackgroundPolling();
+                }
+            }
+        }
+
+    public boolean isI2cBackgroundPollingEnabled()
+        {
+        return isI2cBackgroundPollingEnabled;
+        }
+
+    /** Returns the poller for the indicated I2C bus, creating it if need be */
+    public LynxI2cBusPoller getI2cBusPoller(int bus)
+        {
+        LynxConstants.validateI2cBusZ(bus);
+        synchronized (i2cBusPollers)
+            {
+            if (i2cBusPollers[bus] == null)
+                {
+                i2cBusPollers[bus] = new LynxI2cBusPoller(this, bus);
+                }
+            return i2cBusPollers[bus];
+            }
+        }
+
+    protected void closeI2cBusPollers()
+        {
+        synchronized (i2cBusPollers)
+            {
+            for (LynxI2cBusPoller poller : i2cBusPollers)
+                {
+                if (poller != null)
+                    {
+                    poller.close();
+                    }
+                }
+            }
+        }
+
     //----------------------------------------------------------------------------------------------
     // Misc other commands
     //----------------------------------------------------------------------------------------------
@@ -2002,6 +2355,19 @@ public class LynxModule extends LynxCommExceptionHandler implements LynxModuleIn
         this.lynxUsbDevice.releaseNetworkTransmissionLock(message);
         }
 
+    /**
+     * Returns a new, empty batch of commands to this module. Commands added to the batch are
+     * pipelined onto the wire together when the batch is committed, rather than each waiting
+     * for the previous one's response.
+     *
+     * @see LynxCommandBatch
+     */
+    public LynxCommandBatch beginBatch()
+        {
+        warnIfClosed();
+        return new LynxCommandBatch(this);
+        }
+
     /**
      * Sends a command to the module, scheduling retransmissions as necessary.
      */
@@ -36,6 +36,8 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 
 import com.qualcomm.hardware.R;
+import com.qualcomm.hardware.lynx.commands.LynxCommandBatch;
+import com.qualcomm.hardware.lynx.commands.LynxResponseFuture;
 import com.qualcomm.hardware.lynx.commands.core.LynxGetServoEnableCommand;
 import com.qualcomm.hardware.lynx.commands.core.LynxGetServoEnableResponse;
 import com.qualcomm.hardware.lynx.commands.core.LynxGetServoPulseWidthCommand;
@@ -52,6 +54,8 @@ import com.qualcomm.robotcore.hardware.configuration.typecontainers.ServoConfigu
 import com.qualcomm.robotcore.util.LastKnown;
 import com.qualcomm.robotcore.util.Range;
 
+import java.util.Arrays;
+
 /**
  * Created by bob on 2016-03-12.
  */
@@ -70,6 +74,8 @@ public class LynxServoController extends LynxController implements ServoControll
     public static final double apiPositionFirst = 0.0;
     public static final double apiPositionLast = 1.0;
 
+    protected static final int pulseWidthUnknown = -1;
+
     //----------------------------------------------------------------------------------------------
     // State
     //----------------------------------------------------------------------------------------------
@@ -79,6 +85,12 @@ public class LynxServoController extends LynxController implements ServoControll
     protected       PwmControl.PwmRange[]   pwmRanges;
     protected       PwmControl.PwmRange[]   defaultPwmRanges;
 
+    // Write coalescing state: see LynxModule#setWriteCoalescingEnabled
+    protected final boolean[]               isPositionPending;
+    protected final double[]                pendingPositions;
+    protected final int[]                   lastSentPulseWidths;    // forgotten along with the LastKnowns
+    protected final LynxResponseFuture<?>[] coalescedPositionWrites;
+
     //----------------------------------------------------------------------------------------------
     // Construction
     //----------------------------------------------------------------------------------------------
@@ -91,6 +103,11 @@ public class LynxServoController extends LynxController implements ServoControll
         this.lastKnownEnabled           = LastKnown.createArray(LynxConstants.NUMBER_OF_SERVO_CHANNELS);
         this.pwmRanges                  = new PwmControl.PwmRange[LynxConstants.NUMBER_OF_SERVO_CHANNELS];
         this.defaultPwmRanges           = new PwmControl.PwmRange[LynxConstants.NUMBER_OF_SERVO_CHANNELS];
+        this.isPositionPending          = new boolean[LynxConstants.NUMBER_OF_SERVO_CHANNELS];
+        this.pendingPositions           = new double[LynxConstants.NUMBER_OF_SERVO_CHANNELS];
+        this.lastSentPulseWidths        = new int[LynxConstants.NUMBER_OF_SERVO_CHANNELS];
+        this.coalescedPositionWrites    = new LynxResponseFuture<?>[LynxConstants.NUMBER_OF_SERVO_CHANNELS];
+        Arrays.fill(this.lastSentPulseWidths, pulseWidthUnknown);
 
         // Paranoia: *always* initialize to something reasonable to as to avoid null pointer issues
         for (int i = 0; i < this.pwmRanges.length; i++)
@@ -123,6 +140,7 @@ public class LynxServoController extends LynxController implements ServoControll
         {
         LastKnown.invalidateArray(lastKnownCommandedPosition);
         LastKnown.invalidateArray(lastKnownEnabled);
+        Arrays.fill(lastSentPulseWidths, pulseWidthUnknown);
         }
 
     //----------------------------------------------------------------------------------------------
@@ -204,6 +222,11 @@ public class LynxServoController extends LynxController implements ServoControll
 
     private void internalSetPwmEnable(int servoZ, boolean enable)
         {
+        if (!enable)
+            {
+            flushCoalescedServoPosition(servoZ);
+            }
+
         // Don't change state if we know we are already there
         if (lastKnownEnabled[servoZ].updateValue(enable))
             {
@@ -211,6 +234,7 @@ public class LynxServoController extends LynxController implements ServoControll
             if (!enable)
                 {
                 lastKnownCommandedPosition[servoZ].invalidate();
+                lastSentPulseWidths[servoZ] = pulseWidthUnknown;
                 }
 
             LynxSetServoEnableCommand command = new LynxSetServoEnableCommand(this.getModule(), servoZ, enable);
@@ -253,13 +277,96 @@ public class LynxServoController extends LynxController implements ServoControll
         {
         this.validateServo(servo); servo -= apiServoFirst;
         this.validateApiServoPosition(position);
-        if (lastKnownCommandedPosition[servo].updateValue(position))
+        if (isWriteCoalescingEnabled())
+            {
+            coalesceServoPosition(servo, position);
+            }
+        else
+            {
+            internalSetServoPosition(servo, position);
+            }
+        }
+
+    /**
+     * Sets the positions of several servos at once. The position changes are pipelined to the
+     * module back to back, so the servos move nearly simultaneously and we pay roughly one USB
+     * round trip instead of one per servo.
+     */
+    @Override
+    public synchronized void setServoPositions(int[] apiServos, double[] positions)
+        {
+        if (apiServos.length != positions.length)
+            {
+            throw new IllegalArgumentException(String.format("setServoPositions: %d servos but %d positions", apiServos.length, positions.length));
+            }
+        int[] servosZ = new int[apiServos.length];
+        for (int i = 0; i < apiServos.length; i++)
+            {
+            this.validateServo(apiServos[i]); servosZ[i] = apiServos[i] - apiServoFirst;
+            this.validateApiServoPosition(positions[i]);
+            }
+
+        if (isWriteCoalescingEnabled())
+            {
+            // These will all go out together at the next flush in any case
+            for (int i = 0; i < servosZ.length; i++)
+                {
+                coalesceServoPosition(servosZ[i], positions[i]);
+                }
+            return;
+            }
+
+        LynxCommandBatch batch = new LynxCommandBatch(this.getModule());
+        LynxResponseFuture<?>[] writes = new LynxResponseFuture<?>[servosZ.length];
+        int[] pwms = new int[servosZ.length];
+        for (int i = 0; i < servosZ.length; i++)
+            {
+            int servoZ = servosZ[i];
+            boolean forceUpdate = isPositionPending[servoZ];    // see internalSetServoPosition()
+            isPositionPending[servoZ] = false;
+            if (lastKnownCommandedPosition[servoZ].updateValue(positions[i]) || forceUpdate)
+                {
+                pwms[i] = internalGetServoPulseWidth(servoZ, positions[i]);
+                writes[i] = batch.add(new LynxSetServoPulseWidthCommand(this.getModule(), servoZ, pwms[i]));
+                }
+            }
+        commitBatch(batch);
+
+        for (int i = 0; i < servosZ.length; i++)
+            {
+            if (writes[i] == null)
+                {
+                continue;
+                }
+            LynxNackException e = writes[i].getException();
+            if (writes[i].isDone() && e == null)
+                {
+                lastSentPulseWidths[servosZ[i]] = pwms[i];
+                }
+            else if (e != null)
+                {
+                handleException(e);
+                }
+
+            // Auto-enable after setting position, just as in setServoPosition()
+            this.internalSetPwmEnable(servosZ[i], true);
+            }
+        }
+
+    private void internalSetServoPosition(int servoZ, double position)
+        {
+        // A pending coalesced write is superseded by this one, but as lastKnownCommandedPosition
+        // already reflects the pending value, we can't rely on it to tell us whether to transmit.
+        boolean forceUpdate = isPositionPending[servoZ];
+        isPositionPending[servoZ] = false;
+
+        if (lastKnownCommandedPosition[servoZ].updateValue(position) || forceUpdate)
             {
-            double pwm = Range.scale(position, apiPositionFirst, apiPositionLast, pwmRanges[servo].usPulseLower, pwmRanges[servo].usPulseUpper);
-            pwm = Range.clip(pwm, LynxSetServoPulseWidthCommand.apiPulseWidthFirst, LynxSetServoPulseWidthCommand.apiPulseWidthLast);
-            LynxSetServoPulseWidthCommand command = new LynxSetServoPulseWidthCommand(this.getModule(), servo, (int)pwm);
+            int pwm = internalGetServoPulseWidth(servoZ, position);
+            LynxSetServoPulseWidthCommand command = new LynxSetServoPulseWidthCommand(this.getModule(), servoZ, pwm);
             try {
                 command.send();
+                lastSentPulseWidths[servoZ] = pwm;
                 }
             catch (InterruptedException|RuntimeException|LynxNackException e)
                 {
@@ -267,15 +374,28 @@ public class LynxServoController extends LynxController implements ServoControll
                 }
 
             // Auto-enable after setting position to match historical behavior (and because it's handy)
-            this.internalSetPwmEnable(servo, true);
+            this.internalSetPwmEnable(servoZ, true);
             }
         }
 
+    private int internalGetServoPulseWidth(int servoZ, double position)
+        {
+        double pwm = Range.scale(position, apiPositionFirst, apiPositionLast, pwmRanges[servoZ].usPulseLower, pwmRanges[servoZ].usPulseUpper);
+        pwm = Range.clip(pwm, LynxSetServoPulseWidthCommand.apiPulseWidthFirst, LynxSetServoPulseWidthCommand.apiPulseWidthLast);
+        return (int)pwm;
+        }
+
     @Override
     public synchronized double getServoPosition(int servo)
         {
         this.validateServo(servo); servo -= apiServoFirst;
 
+        // A coalesced write that's not yet been sent is nonetheless the answer
+        if (isPositionPending[servo])
+            {
+            return pendingPositions[servo];
+            }
+
         // Use cached value if we have it
         Double result = lastKnownCommandedPosition[servo].getValue();
         if (result != null)
@@ -305,6 +425,7 @@ public class LynxServoController extends LynxController implements ServoControll
         this.validateServo(servo); servo -= apiServoFirst;
         if (!range.equals(pwmRanges[servo]))
             {
+            flushCoalescedServoPosition(servo); // it's to be scaled by the range in force when it was set
             pwmRanges[servo] = range;
             LynxSetServoConfigurationCommand command = new LynxSetServoConfigurationCommand(this.getModule(), servo, (int)range.usFrame);
             try {
@@ -324,6 +445,76 @@ public class LynxServoController extends LynxController implements ServoControll
         return pwmRanges[servo];
         }
 
+    //----------------------------------------------------------------------------------------------
+    // Write coalescing
+    //----------------------------------------------------------------------------------------------
+
+    /** Notes a servo position to be sent at the next flush; see LynxModule#setWriteCoalescingEnabled */
+    private void coalesceServoPosition(int servoZ, double position)
+        {
+        pendingPositions[servoZ] = position;
+        isPositionPending[servoZ] = true;
+        lastKnownCommandedPosition[servoZ].setValue(position);
+        }
+
+    /** Transmits the servo's pending coalesced position write, if any, right now */
+    private void flushCoalescedServoPosition(int servoZ)
+        {
+        if (isPositionPending[servoZ])
+            {
+            internalSetServoPosition(servoZ, pendingPositions[servoZ]);
+            }
+        }
+
+    @Override protected synchronized void addCoalescedWrites(LynxCommandBatch batch)
+        {
+        for (int servoZ = 0; servoZ < LynxConstants.NUMBER_OF_SERVO_CHANNELS; servoZ++)
+            {
+            if (!isPositionPending[servoZ])
+                {
+                continue;
+                }
+            if (!isHooked)
+                {
+                // Our commands wouldn't be going to the batch's module
+                flushCoalescedServoPosition(servoZ);
+                continue;
+                }
+            isPositionPending[servoZ] = false;
+
+            int pwm = internalGetServoPulseWidth(servoZ, pendingPositions[servoZ]);
+            if (pwm == lastSentPulseWidths[servoZ])
+                {
+                continue; // the hardware already has this
+                }
+            coalescedPositionWrites[servoZ] = batch.add(new LynxSetServoPulseWidthCommand(this.getModule(), servoZ, pwm));
+            lastSentPulseWidths[servoZ] = pwm;
+            }
+        }
+
+    @Override protected synchronized void finishCoalescedWrites()
+        {
+        for (int servoZ = 0; servoZ < LynxConstants.NUMBER_OF_SERVO_CHANNELS; servoZ++)
+            {
+            LynxResponseFuture<?> write = coalescedPositionWrites[servoZ];
+            if (write == null)
+                {
+                continue;
+                }
+            coalescedPositionWrites[servoZ] = null;
+
+            LynxNackException e = write.getException();
+            if (!write.isDone() || e != null)
+                {
+                lastSentPulseWidths[servoZ] = pulseWidthUnknown; // we don't know what the hardware has
+                if (e != null) handleException(e);
+                }
+
+            // Auto-enable after setting position, just as in setServoPosition()
+            this.internalSetPwmEnable(servoZ, true);
+            }
+        }
+
     //----------------------------------------------------------------------------------------------
     // Utility
     //----------------------------------------------------------------------------------------------
@@ -61,10 +61,10 @@ import com.qualcomm.robotcore.util.RobotLog;
 import com.qualcomm.robotcore.util.SerialNumber;
 import com.qualcomm.robotcore.util.ThreadPool;
 import com.qualcomm.robotcore.util.TypeConversion;
-import com.qualcomm.robotcore.util.Util;
 import com.qualcomm.robotcore.util.WeakReferenceSet;
 
 import org.firstinspires.ftc.robotcore.external.Consumer;
+import org.firstinspires.ftc.robotcore.internal.hardware.LynxCommandStatistics;
 import org.firstinspires.ftc.robotcore.internal.hardware.TimeWindow;
 import org.firstinspires.ftc.robotcore.internal.hardware.android.AndroidBoard;
 import org.firstinspires.ftc.robotcore.internal.hardware.usb.ArmableUsbDevice;
@@ -79,6 +79,7 @@ import org.firstinspires.ftc.robotcore.internal.usb.exception.RobotUsbFTDIExcept
 import org.firstinspires.ftc.robotcore.internal.usb.exception.RobotUsbUnspecifiedException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -132,6 +133,7 @@ public class LynxUsbDeviceImpl extends ArmableUsbDevice implements LynxUsbDevice
     protected final Object                                  sysOpStartStopLock = new Object(); // Held before and after sysop runs
     protected final Set<Object>                             runningSysOpTrackers =  new HashSet<>(); // Guarded by sysOpStartStopLock
     protected final LynxFirmwareUpdater                     lynxFirmwareUpdater = new LynxFirmwareUpdater(this);
+    protected       byte[][]                                transmitBuffers = new byte[0][]; // guarded by engageLock; indexed by serialized length
 
     // The lynx hw schematic puts the reset and prog lines on particular pins, CBUS0 and CBUS1 respectively
     protected final static int cbusNReset           = 0x01;
@@ -1241,8 +1243,10 @@ public class LynxUsbDeviceImpl extends ArmableUsbDevice implements LynxUsbDevice
                         RobotLog.vv(TAG, "xmit'ing: mod=%d cmd=0x%02x(%s) msg#=%d ref#=%d ", message.getModuleAddress(), message.getCommandNumber(), message.getClass().getSimpleName(), message.getMessageNumber(), message.getReferenceNumber());
                         }
 
-                    byte[] bytes = datagram.toByteArray();
+                    byte[] bytes = getTransmitBuffer(datagram.getSerializedLength());
+                    datagram.serializeInto(bytes);
 
+                    long nsWriteStart = System.nanoTime();
                     try {
                         // If robotUsbDevice is null, we'll just catch and handle the RuntimeException
                         //noinspection ConstantConditions
@@ -1263,6 +1267,11 @@ public class LynxUsbDeviceImpl extends ArmableUsbDevice implements LynxUsbDevice
                     long now = System.nanoTime();
                     message.setNanotimeLastTransmit(now);
 
+                    boolean isRetransmit = message.hasBeenTransmitted();
+                    if (!isRetransmit) message.setNanotimeFirstTransmit(now);
+                    LynxCommandStatistics.Command statistics = message.getCommandStatistics();
+                    if (statistics != null) statistics.noteTransmit(isRetransmit, now - nsWriteStart);
+
                     // "The keep alive must be sent at least every 2500 milliseconds. The Controller Module
                     // will perform the actions specified in Fail Safe (7F05) if it fails to receive a timely
                     // Keep Alive". Other messages will do the trick, too.
@@ -1284,6 +1293,26 @@ public class LynxUsbDeviceImpl extends ArmableUsbDevice implements LynxUsbDevice
         message.noteHasBeenTransmitted();
         }
 
+    /**
+     * Returns a buffer of exactly the requested length into which to serialize an outgoing
+     * datagram. RobotUsbDevice.write() takes a whole array and is done with it on return, and
+     * transmission is serialized by engageLock, so we can keep one buffer per length and reuse
+     * it from one transmission to the next rather than allocating afresh each time.
+     */
+    protected byte[] getTransmitBuffer(int cb) // must hold engageLock
+        {
+        if (cb >= transmitBuffers.length)
+            {
+            transmitBuffers = Arrays.copyOf(transmitBuffers, cb + 1);
+            }
+        byte[] result = transmitBuffers[cb];
+        if (result == null)
+            {
+            result = transmitBuffers[cb] = new byte[cb];
+            }
+        return result;
+        }
+
     protected void shutdownAbnormally()
         {
         this.hasShutdownAbnormally = true;
@@ -1314,6 +1343,7 @@ public class LynxUsbDeviceImpl extends ArmableUsbDevice implements LynxUsbDevice
         boolean stopRequested  = false;
         byte[]  scratch        = new byte[2];
         byte[]  prefix         = new byte[4];
+        byte[]  suffix         = new byte[64]; // reused from datagram to datagram; grown as needed
         boolean isSynchronized = false;
 
         @Override public void run()
@@ -1434,18 +1464,20 @@ public class LynxUsbDeviceImpl extends ArmableUsbDevice implements LynxUsbDevice
                             }
                         }
 
-                    // Compute the packet length, allocate a buffer for the suffix, and read same
+                    // Compute the packet length, make sure our suffix buffer is big enough, and read the suffix
                     int cbPacketLength = TypeConversion.unsignedShortToInt(TypeConversion.byteArrayToShort(prefix, 2, LynxDatagram.LYNX_ENDIAN));
                     int cbSuffix = cbPacketLength - LynxDatagram.cbFrameBytesAndPacketLength;
-                    byte[] suffix = new byte[cbSuffix];
+                    if (cbSuffix > suffix.length)
+                        {
+                        suffix = new byte[cbSuffix];
+                        }
                     TimeWindow payloadTimeWindow = new TimeWindow();
                     readIncomingBytes(suffix, cbSuffix, payloadTimeWindow);
 
-                    // Parse the message structure of the datagram
-                    byte[] completePacket = Util.concatenateByteArrays(prefix, suffix);
+                    // Parse the message structure of the datagram straight out of the prefix and suffix
                     LynxDatagram datagram = new LynxDatagram();
                     datagram.setPayloadTimeWindow(payloadTimeWindow);
-                    datagram.fromByteArray(completePacket);
+                    datagram.fromPrefixAndSuffix(prefix, suffix, cbSuffix);
                     if (datagram.isChecksumValid())
                         {
                         if (DEBUG_LOG_DATAGRAMS)
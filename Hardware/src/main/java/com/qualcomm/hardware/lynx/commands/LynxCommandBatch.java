@@ -0,0 +1,172 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.hardware.lynx.commands;
+
+import com.qualcomm.hardware.lynx.LynxModuleIntf;
+import com.qualcomm.hardware.lynx.LynxNackException;
+import com.qualcomm.hardware.lynx.commands.standard.LynxNack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A {@link LynxCommandBatch} pipelines several commands to one module: all of the commands are
+ * put on the wire back-to-back (each with its own message number) under a single acquisition of
+ * the network transmission lock, and only then are their acks and responses awaited. Responses
+ * are correlated with their commands by message number in the usual way. Compared to calling
+ * {@link LynxRespondable#sendReceive()} on each command in turn, this pays roughly one USB round
+ * trip for the whole batch instead of one per command.
+ *
+ * <p>Commands are transmitted, and their futures completed, in the order in which they were
+ * added. A nack of one command does not prevent the others from being sent.</p>
+ *
+ * @see com.qualcomm.hardware.lynx.LynxModule#beginBatch()
+ */
+@SuppressWarnings("WeakerAccess")
+public class LynxCommandBatch
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    protected final LynxModuleIntf                  module;
+    protected final List<LynxResponseFuture<?>>     futures = new ArrayList<>();
+    protected boolean                               isCommitted = false;
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public LynxCommandBatch(@NonNull LynxModuleIntf module)
+        {
+        this.module = module;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Operations
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Adds a command to the batch. The command is not transmitted until {@link #commit()}.
+     * @return a future which will be completed with the command's response (or nack) by {@link #commit()}
+     */
+    public synchronized <RESPONSE extends LynxMessage> LynxResponseFuture<RESPONSE> add(@NonNull LynxRespondable<RESPONSE> respondable)
+        {
+        if (this.isCommitted)
+            {
+            throw new IllegalStateException("LynxCommandBatch: commands cannot be added after commit()");
+            }
+        if (respondable.getModule() != this.module)
+            {
+            throw new IllegalArgumentException(String.format("LynxCommandBatch: %s is not addressed to mod#=%d",
+                    respondable.getClass().getSimpleName(), this.module.getModuleAddress()));
+            }
+        LynxResponseFuture<RESPONSE> future = new LynxResponseFuture<>(respondable);
+        this.futures.add(future);
+        return future;
+        }
+
+    public synchronized int size()
+        {
+        return this.futures.size();
+        }
+
+    public synchronized List<LynxResponseFuture<?>> getFutures()
+        {
+        return Collections.unmodifiableList(new ArrayList<>(this.futures));
+        }
+
+    /**
+     * Transmits all the commands in the batch and waits for each of them to be acknowledged or
+     * responded to (or to time out). On return, every future returned by {@link #add} is done.
+     * A batch may only be committed once.
+     */
+    public synchronized void commit() throws InterruptedException
+        {
+        if (this.isCommitted)
+            {
+            throw new IllegalStateException("LynxCommandBatch: a batch can only be committed once");
+            }
+        this.isCommitted = true;
+
+        if (this.futures.isEmpty())
+            {
+            return;
+            }
+
+        // The network lock is keyed by message; the first command stands in for the whole batch
+        LynxRespondable<?> lockKey = this.futures.get(0).getRespondable();
+        lockKey.acquireNetworkLock();
+        try {
+            for (LynxResponseFuture<?> future : this.futures)
+                {
+                future.getRespondable().transmitPipelined();
+                }
+            for (LynxResponseFuture<?> future : this.futures)
+                {
+                future.awaitPipelinedResponse();
+                }
+            }
+        finally
+            {
+            try {
+                abandonUnfinished();
+                }
+            finally
+                {
+                lockKey.releaseNetworkLock();
+                }
+            }
+        }
+
+    /** Makes sure no future is left hanging if we're interrupted part way through */
+    protected void abandonUnfinished() throws InterruptedException
+        {
+        for (LynxResponseFuture<?> future : this.futures)
+            {
+            if (!future.isDone())
+                {
+                LynxRespondable<?> respondable = future.getRespondable();
+                respondable.onNackReceived(new LynxNack(this.module, respondable.isResponseExpected()
+                        ? LynxNack.StandardReasonCode.ABANDONED_WAITING_FOR_RESPONSE
+                        : LynxNack.StandardReasonCode.ABANDONED_WAITING_FOR_ACK));
+                this.module.finishedWithMessage(respondable);
+                future.completeExceptionally(new LynxNackException(respondable, "%s: abandoned in batch",
+                        respondable.getClass().getSimpleName()));
+                }
+            }
+        }
+    }
@@ -270,14 +270,18 @@ public class LynxDatagram
         }
     public byte computeChecksum()
         {
+        // The sum of bytes is independent of their order, so we needn't materialize the
+        // little-endian serializations of the shorts in order to checksum them.
         byte result = 0;
         result = checksumBytes(result, frameBytes);
-        result = checksumBytes(result, TypeConversion.shortToByteArray(this.packetLength, LYNX_ENDIAN));
+        result += (byte)this.packetLength;
+        result += (byte)(this.packetLength >> 8);
         result += this.destModuleAddress;
         result += this.sourceModuleAddress;
         result += this.messageNumber;
         result += this.referenceNumber;
-        result = checksumBytes(result, TypeConversion.shortToByteArray(this.packetId, LYNX_ENDIAN));
+        result += (byte)this.packetId;
+        result += (byte)(this.packetId >> 8);
         result = checksumBytes(result, this.payloadData);
         return result;
         }
@@ -300,23 +304,47 @@ public class LynxDatagram
 
     public byte[] toByteArray()
         {
-        int cb = updatePacketLength();
-        setChecksum(computeChecksum());
+        byte[] result = new byte[updatePacketLength()];
+        serializeInto(result);
+        return result;
+        }
 
-        ByteBuffer buffer = ByteBuffer.allocate(cb);
-        buffer.order(LYNX_ENDIAN);
+    /**
+     * Returns the number of bytes that {@link #serializeInto(byte[])} will write
+     */
+    public int getSerializedLength()
+        {
+        return getFixedPacketLength() + payloadData.length;
+        }
 
-        buffer.put(frameBytes);
-        buffer.putShort(this.packetLength);
-        buffer.put(this.destModuleAddress);
-        buffer.put(this.sourceModuleAddress);
-        buffer.put(this.messageNumber);
-        buffer.put(this.referenceNumber);
-        buffer.putShort(this.packetId);
-        buffer.put(this.payloadData);
-        buffer.put(this.checksum);
+    /**
+     * Serializes this datagram into the start of the indicated buffer, which the caller may
+     * reuse from one datagram to the next. Framing, header, payload and checksum are written
+     * directly, without intermediate allocation.
+     * @return the number of bytes written
+     */
+    public int serializeInto(byte[] buffer)
+        {
+        int cb = updatePacketLength();
+        setChecksum(computeChecksum());
 
-        return buffer.array();
+        // All integral data is little endian; see LYNX_ENDIAN
+        int ib = 0;
+        buffer[ib++] = frameBytes[0];
+        buffer[ib++] = frameBytes[1];
+        buffer[ib++] = (byte)this.packetLength;
+        buffer[ib++] = (byte)(this.packetLength >> 8);
+        buffer[ib++] = this.destModuleAddress;
+        buffer[ib++] = this.sourceModuleAddress;
+        buffer[ib++] = this.messageNumber;
+        buffer[ib++] = this.referenceNumber;
+        buffer[ib++] = (byte)this.packetId;
+        buffer[ib++] = (byte)(this.packetId >> 8);
+        System.arraycopy(this.payloadData, 0, buffer, ib, this.payloadData.length);
+        ib += this.payloadData.length;
+        buffer[ib++] = this.checksum;
+
+        return ib;
         }
 
     public void fromByteArray(byte[] byteArray) throws RobotCoreException
@@ -345,6 +373,36 @@ public class LynxDatagram
             }
         }
 
+    /**
+     * Deserializes from a datagram received in two pieces: the four byte prefix (framing and
+     * packet length) and the remainder, which occupies the first cbSuffix bytes of suffix. Only
+     * the payload is copied; the suffix buffer may be reused by the caller once we return.
+     */
+    public void fromPrefixAndSuffix(byte[] prefix, byte[] suffix, int cbSuffix) throws RobotCoreException
+        {
+        if (!beginsWithFraming(prefix)) throw illegalDatagram();
+        this.packetLength = (short)((prefix[2] & 0xFF) | (prefix[3] << 8));
+
+        int cbPayload = this.getPacketLength() - getFixedPacketLength();
+        if (cbPayload < 0 || cbSuffix < cbPayload + getFixedPacketLength() - cbFrameBytesAndPacketLength)
+            {
+            throw new RobotCoreException("Lynx datagram buffer underflow");
+            }
+
+        int ib = 0;
+        this.destModuleAddress = suffix[ib++];
+        this.sourceModuleAddress = suffix[ib++];
+        this.messageNumber = suffix[ib++];
+        this.referenceNumber = suffix[ib++];
+        this.packetId = (short)((suffix[ib++] & 0xFF) | (suffix[ib++] << 8));
+        //
+        this.payloadData = new byte[cbPayload];
+        System.arraycopy(suffix, ib, this.payloadData, 0, cbPayload);
+        ib += cbPayload;
+        //
+        this.checksum = suffix[ib];
+        }
+
     private RobotCoreException illegalDatagram()
         {
         return new RobotCoreException("illegal Lynx datagram format");
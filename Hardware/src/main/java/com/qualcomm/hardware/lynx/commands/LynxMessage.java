@@ -36,6 +36,7 @@ import com.qualcomm.hardware.lynx.LynxModuleIntf;
 import com.qualcomm.hardware.lynx.LynxModule;
 import com.qualcomm.robotcore.util.TypeConversion;
 
+import org.firstinspires.ftc.robotcore.internal.hardware.LynxCommandStatistics;
 import org.firstinspires.ftc.robotcore.internal.hardware.TimeWindow;
 
 import java.lang.reflect.InvocationTargetException;
@@ -59,7 +60,9 @@ public abstract class LynxMessage
     protected LynxDatagram   serialization;
     protected boolean        hasBeenTransmitted;
     protected long           nanotimeLastTransmit;
+    protected long           nanotimeFirstTransmit;
     protected TimeWindow     payloadTimeWindow;
+    protected LynxCommandStatistics.Command commandStatistics;
 
     //----------------------------------------------------------------------------------------------
     // Construction
@@ -73,6 +76,8 @@ public abstract class LynxMessage
         this.serialization      = null;
         this.hasBeenTransmitted = false;
         this.nanotimeLastTransmit = 0;
+        this.nanotimeFirstTransmit = 0;
+        this.commandStatistics  = null;
         this.setPayloadTimeWindow(null);
         }
 
@@ -120,6 +125,29 @@ public abstract class LynxMessage
         this.nanotimeLastTransmit = value;
         }
 
+    public long getNanotimeFirstTransmit()
+        {
+        return this.nanotimeFirstTransmit;
+        }
+    public void setNanotimeFirstTransmit(long value)
+        {
+        this.nanotimeFirstTransmit = value;
+        }
+
+    /**
+     * Returns the statistics into which the timings of messages of our class to our module
+     * are to be recorded, or null if there are none (we're not talking to a real module).
+     */
+    public LynxCommandStatistics.Command getCommandStatistics()
+        {
+        // Racing here is harmless: everyone will get the same answer
+        if (this.commandStatistics == null && this.module instanceof LynxModule)
+            {
+            this.commandStatistics = ((LynxModule)this.module).getCommandStatistics().forCommand(this.getClass());
+            }
+        return this.commandStatistics;
+        }
+
     public void acquireNetworkLock() throws InterruptedException
         {
         this.module.acquireNetworkTransmissionLock(this);
@@ -41,10 +41,14 @@ import com.qualcomm.hardware.lynx.commands.standard.LynxAck;
 import com.qualcomm.hardware.lynx.commands.standard.LynxNack;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.ThreadPool;
 
+import org.firstinspires.ftc.robotcore.internal.hardware.LynxCommandStatistics;
 import org.firstinspires.ftc.robotcore.internal.hardware.TimeWindow;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
@@ -68,6 +72,9 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
     private final CountDownLatch      ackOrNackReceived = new CountDownLatch(1);
     private final CountDownLatch      responseOrNackReceived = new CountDownLatch(1);
     @Nullable private final RESPONSE  defaultResponse;
+    @Nullable private LynxUnsupportedCommandException pipelinedUnsupportedException = null;
+    @Nullable private volatile AsyncAwait asyncAwait = null;
+    private boolean                   isCompletionRecorded = false;
 
     //----------------------------------------------------------------------------------------------
     // Construction and setup
@@ -104,6 +111,15 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
         this.pretendFinish();
         }
 
+    @Override
+    public void acquireNetworkLock() throws InterruptedException
+        {
+        long nsStart = System.nanoTime();
+        super.acquireNetworkLock();
+        LynxCommandStatistics.Command statistics = getCommandStatistics();
+        if (statistics != null) statistics.lockWait.recordNanos(System.nanoTime() - nsStart);
+        }
+
     //----------------------------------------------------------------------------------------------
     // Accessors
     //----------------------------------------------------------------------------------------------
@@ -154,6 +170,7 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
 
         // Wake up waiters
         this.ackOrNackReceived.countDown();
+        completeAsyncIfAwaited();
         }
 
     // called on datagram receive thread
@@ -163,7 +180,9 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
             {
             this.isAckOrResponseReceived = true;
             this.setAttentionRequired(ack.isAttentionRequired());
+            if (!isResponseExpected()) recordCompletion(null);
             this.ackOrNackReceived.countDown();
+            completeAsyncIfAwaited();
             }
         }
 
@@ -185,7 +204,9 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
         if (isResponseExpected())
             {
             this.isAckOrResponseReceived = true;
+            recordCompletion(null);
             this.responseOrNackReceived.countDown();
+            completeAsyncIfAwaited();
             }
         else
             {
@@ -212,8 +233,43 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
                 break;
             }
         this.nackReceived = nack;
+        recordCompletion(nack);
         this.ackOrNackReceived.countDown();
         this.responseOrNackReceived.countDown();
+        completeAsyncIfAwaited();
+        }
+
+    /** Records the outcome of our (real) transmission in our module's command statistics */
+    private void recordCompletion(@Nullable LynxNack nack)
+        {
+        if (this.isCompletionRecorded || this.nanotimeFirstTransmit == 0)
+            {
+            return;
+            }
+        this.isCompletionRecorded = true;
+
+        LynxCommandStatistics.Command statistics = getCommandStatistics();
+        if (statistics == null)
+            {
+            return;
+            }
+        if (nack == null)
+            {
+            statistics.response.recordNanos(System.nanoTime() - this.nanotimeFirstTransmit);
+            }
+        else
+            {
+            switch (nack.getNackReasonCodeAsEnum())
+                {
+                case ABANDONED_WAITING_FOR_ACK:
+                case ABANDONED_WAITING_FOR_RESPONSE:
+                    statistics.noteTimeout();
+                    break;
+                default:
+                    statistics.noteNack();
+                    break;
+                }
+            }
         }
 
     //----------------------------------------------------------------------------------------------
@@ -293,6 +349,341 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
             }
         }
 
+    //----------------------------------------------------------------------------------------------
+    // Asynchronous sends
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Asynchronous variant of {@link #send()}. The network transmission lock is acquired and the
+     * command transmitted on the calling thread, but the caller does not wait for the ack: the
+     * returned future is completed when the ack or nack arrives (on the datagram receive thread),
+     * or when the usual retransmit-and-timeout sequence gives up. The network transmission lock
+     * is held until then, exactly as it would be by {@link #send()}, as the RS485 bus can't have
+     * responses from two modules outstanding at once.
+     */
+    public LynxResponseFuture<RESPONSE> sendAsync() throws InterruptedException
+        {
+        return issueAsync(false);
+        }
+
+    /**
+     * Asynchronous variant of {@link #sendReceive()}, completed with the response.
+     * @see #sendAsync()
+     */
+    public LynxResponseFuture<RESPONSE> sendReceiveAsync() throws InterruptedException
+        {
+        return issueAsync(true);
+        }
+
+    protected LynxResponseFuture<RESPONSE> issueAsync(boolean receive) throws InterruptedException
+        {
+        if (this.ackOrNackReceived.getCount() == 0 || this.responseOrNackReceived.getCount() == 0 || this.asyncAwait != null)
+            {
+            throw new RuntimeException("A LynxRespondable can only be sent once");
+            }
+
+        final AsyncAwait await = new AsyncAwait(new LynxResponseFuture<RESPONSE>(this), receive);
+
+        acquireNetworkLock();
+        boolean lockHandedOff = false;
+        try {
+            try {
+                this.asyncAwait = await;
+                this.module.sendCommand(this);
+                }
+            catch (LynxUnsupportedCommandException e)
+                {
+                // See send() and sendReceive()
+                if (receive && usePretendResponseIfRealModuleDoesntSupport() && this.defaultResponse != null)
+                    {
+                    await.future.complete(this.defaultResponse);
+                    }
+                else
+                    {
+                    try {
+                        throwNackForUnsupportedCommand(e);
+                        }
+                    catch (LynxNackException nackException)
+                        {
+                        await.future.completeExceptionally(nackException);
+                        }
+                    }
+                return await.future;
+                }
+
+            if (this.module.isNotResponding() && !isAsyncOutcomeAvailable())
+                {
+                nackBecauseNotResponding(awaitedNackCode());
+                }
+
+            // From here on, whoever completes the future releases the lock
+            lockHandedOff = true;
+            await.handOff(System.nanoTime() + getMsAwaitInterval() * ElapsedTime.MILLIS_IN_NANO);
+
+            // The outcome may have arrived before the hand off, in which case it's up to us
+            completeAsyncIfAwaited();
+            return await.future;
+            }
+        finally
+            {
+            if (!lockHandedOff)
+                {
+                this.asyncAwait = null;
+                releaseNetworkLock();
+                }
+            }
+        }
+
+    protected boolean isAsyncOutcomeAvailable()
+        {
+        return (this.isResponseExpected() ? this.responseOrNackReceived : this.ackOrNackReceived).getCount() == 0;
+        }
+
+    protected LynxNack.ReasonCode awaitedNackCode()
+        {
+        return this.isResponseExpected()
+                ? LynxNack.StandardReasonCode.ABANDONED_WAITING_FOR_RESPONSE
+                : LynxNack.StandardReasonCode.ABANDONED_WAITING_FOR_ACK;
+        }
+
+    // Called on the datagram receive thread, the await scheduler, or the issuing thread, whichever sees the outcome first
+    protected void completeAsyncIfAwaited()
+        {
+        AsyncAwait await = this.asyncAwait;
+        if (await != null && await.lockHandedOff() && isAsyncOutcomeAvailable() && await.claimCompletion())
+            {
+            await.cancel();
+            try {
+                if (await.receive)
+                    {
+                    try {
+                        await.future.complete(responseOrThrow());
+                        }
+                    catch (LynxNackException e)
+                        {
+                        if (e.getNack().getNackReasonCode().isUnsupportedReason() && usePretendResponseIfRealModuleDoesntSupport() && this.defaultResponse != null)
+                            await.future.complete(this.defaultResponse);
+                        else
+                            await.future.completeExceptionally(e);
+                        }
+                    }
+                else
+                    {
+                    try {
+                        throwIfNack();
+                        await.future.complete(null);
+                        }
+                    catch (LynxNackException e)
+                        {
+                        await.future.completeExceptionally(e);
+                        }
+                    }
+                }
+            finally
+                {
+                try {
+                    releaseNetworkLock();
+                    }
+                catch (InterruptedException e)
+                    {
+                    Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        }
+
+    /**
+     * Bookkeeping for an asynchronous send. Retransmission and timeout follow the same schedule
+     * as {@link #awaitAndRetransmit(CountDownLatch, LynxNack.ReasonCode, String)}, but are driven
+     * from the default scheduler instead of a blocked thread.
+     */
+    protected class AsyncAwait implements Runnable
+        {
+        final LynxResponseFuture<RESPONSE>  future;
+        final boolean                       receive;
+        private boolean                     isLockHandedOff = false;
+        private boolean                     isCompletionClaimed = false;
+        private boolean                     isRetransmissionPending = false;
+        private long                        nsDeadline;
+        private ScheduledFuture<?>          scheduledFuture = null;
+
+        AsyncAwait(LynxResponseFuture<RESPONSE> future, boolean receive)
+            {
+            this.future = future;
+            this.receive = receive;
+            }
+
+        synchronized boolean lockHandedOff()
+            {
+            return this.isLockHandedOff;
+            }
+
+        synchronized boolean claimCompletion()
+            {
+            boolean result = !this.isCompletionClaimed;
+            this.isCompletionClaimed = true;
+            return result;
+            }
+
+        synchronized void handOff(long nsDeadline)
+            {
+            this.isLockHandedOff = true;
+            this.nsDeadline = nsDeadline;
+            if (!isAsyncOutcomeAvailable())
+                {
+                scheduleNext();
+                }
+            }
+
+        private void scheduleNext()
+            {
+            long msRemaining = (this.nsDeadline - System.nanoTime()) / ElapsedTime.MILLIS_IN_NANO;
+            long msWait = Math.max(0, Math.min(msRemaining, getMsRetransmissionInterval()));
+            this.isRetransmissionPending = true;
+            try {
+                this.scheduledFuture = ThreadPool.getDefaultScheduler().schedule(this, msWait, TimeUnit.MILLISECONDS);
+                }
+            catch (RejectedExecutionException e)
+                {
+                // We're shutting down; give up on the command right away
+                this.isRetransmissionPending = false;
+                this.scheduledFuture = null;
+                ThreadPool.getDefault().execute(new Runnable()
+                    {
+                    @Override public void run()
+                        {
+                        abandonAsync();
+                        }
+                    });
+                }
+            }
+
+        synchronized void cancel()
+            {
+            this.isRetransmissionPending = false;
+            if (this.scheduledFuture != null)
+                {
+                this.scheduledFuture.cancel(false);
+                this.scheduledFuture = null;
+                }
+            }
+
+        @Override public void run()
+            {
+            synchronized (this)
+                {
+                if (this.isCompletionClaimed || !this.isRetransmissionPending)
+                    {
+                    return;
+                    }
+                this.isRetransmissionPending = false;
+                this.scheduledFuture = null;
+                }
+            try {
+                if (isAsyncOutcomeAvailable())
+                    {
+                    completeAsyncIfAwaited();
+                    return;
+                    }
+
+                // Retransmit, just as awaitAndRetransmit() does after each unsuccessful wait
+                module.retransmit(LynxRespondable.this);
+
+                if (System.nanoTime() >= this.nsDeadline)
+                    {
+                    nackBecauseTimedOut(awaitedNackCode(), isResponseExpected() ? "response" : "ack");
+                    }
+                else
+                    {
+                    synchronized (this)
+                        {
+                        if (!this.isCompletionClaimed) scheduleNext();
+                        }
+                    }
+                }
+            catch (InterruptedException e)
+                {
+                Thread.currentThread().interrupt();
+                abandonAsync();
+                }
+            }
+
+        private void abandonAsync()
+            {
+            onNackReceived(new LynxNack(module, awaitedNackCode()));
+            try {
+                module.finishedWithMessage(LynxRespondable.this);
+                }
+            catch (InterruptedException e)
+                {
+                Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Pipelining
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Transmits this respondable WITHOUT waiting for its ack or response, so that several commands
+     * can be on the wire at once. The caller must already hold the network transmission lock, and
+     * must later call {@link #awaitPipelinedResponse()} to collect the result.
+     *
+     * @see LynxCommandBatch
+     */
+    public void transmitPipelined() throws InterruptedException
+        {
+        if (this.ackOrNackReceived.getCount() == 0 || this.responseOrNackReceived.getCount() == 0)
+            {
+            throw new RuntimeException("A LynxRespondable can only be sent once");
+            }
+
+        try {
+            this.module.sendCommand(this);
+            }
+        catch (LynxUnsupportedCommandException e)
+            {
+            // Remember this and report it when the response is awaited, so that the remainder of
+            // the pipeline is still transmitted.
+            this.pipelinedUnsupportedException = e;
+            }
+        }
+
+    /**
+     * Waits for the ack or response to a respondable previously transmitted with
+     * {@link #transmitPipelined()}, retransmitting as necessary. The same timeout and nack
+     * semantics as {@link #sendReceive()} apply. Commands which don't expect a response
+     * return null on success.
+     */
+    public RESPONSE awaitPipelinedResponse() throws InterruptedException, LynxNackException
+        {
+        if (this.pipelinedUnsupportedException != null)
+            {
+            if (usePretendResponseIfRealModuleDoesntSupport() && this.defaultResponse != null)
+                {
+                return this.defaultResponse;
+                }
+            throwNackForUnsupportedCommand(this.pipelinedUnsupportedException);
+            }
+
+        try {
+            awaitAckResponseOrNack();
+            return responseOrThrow();
+            }
+        catch (LynxNackException e)
+            {
+            if (e.getNack().getNackReasonCode().isUnsupportedReason())
+                {
+                if (usePretendResponseIfRealModuleDoesntSupport() && this.defaultResponse != null)
+                    {
+                    return this.defaultResponse;
+                    }
+                }
+            throw e;
+            }
+        }
+
     /**
      * Command normally pre-create responses that get used when the usb device is in pretend mode.
      * Normally, those responses are *only* used in pretend mode. However, on a case-by-case basis
@@ -347,21 +738,12 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
     protected void awaitAndRetransmit(CountDownLatch latch, LynxNack.ReasonCode nackCode, String message) throws InterruptedException
         {
         final long nsDeadline = System.nanoTime() + getMsAwaitInterval() * ElapsedTime.MILLIS_IN_NANO;
-        final int msWaitInterval = getMsAwaitInterval();
         final int msRetransmit = getMsRetransmissionInterval();
 
         if (this.module.isNotResponding())
             {
-                // This module is not currently responding. Quickly pretend we got a nack, so we don't
-                // hold up other commands from being sent. If a response does come, it will be
-                // discarded, but the module will immediately be marked as responsive again.
-                if (this.module instanceof LynxModule && this.module.isOpen())
-                    {
-                    LynxModuleWarningManager.getInstance().reportModuleUnresponsive((LynxModule) this.module);
-                    }
-                this.onNackReceived(new LynxNack(this.module, nackCode));
-                this.module.finishedWithMessage(this);
-                return;
+            nackBecauseNotResponding(nackCode);
+            return;
             }
 
         for (;;)
@@ -369,16 +751,7 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
             long nsRemaining = nsDeadline - System.nanoTime();
             if (nsRemaining <= 0)
                 {
-                // Timed out. Pretend we got a nack.
-                this.onNackReceived(new LynxNack(this.module, nackCode));
-                if (this.module instanceof LynxModule && this.module.isOpen())
-                    {
-                    RobotLog.ee(LynxModule.TAG, "timeout: abandoning waiting %dms for %s: cmd=%s mod=%d msg#=%d", msWaitInterval, message, this.getClass().getSimpleName(), this.getModuleAddress(), this.getMessageNumber());
-                    RobotLog.ee(LynxModule.TAG, "Marking module #%d as unresponsive until we receive some data back", this.getModuleAddress());
-                    LynxModuleWarningManager.getInstance().reportModuleUnresponsive((LynxModule) this.module);
-                    }
-                this.module.noteNotResponding();
-                this.module.finishedWithMessage(this);
+                nackBecauseTimedOut(nackCode, message);
                 return;
                 }
 
@@ -396,6 +769,33 @@ public abstract class LynxRespondable<RESPONSE extends LynxMessage> extends Lynx
             }
         }
 
+    protected void nackBecauseNotResponding(LynxNack.ReasonCode nackCode) throws InterruptedException
+        {
+        // This module is not currently responding. Quickly pretend we got a nack, so we don't
+        // hold up other commands from being sent. If a response does come, it will be
+        // discarded, but the module will immediately be marked as responsive again.
+        if (this.module instanceof LynxModule && this.module.isOpen())
+            {
+            LynxModuleWarningManager.getInstance().reportModuleUnresponsive((LynxModule) this.module);
+            }
+        this.onNackReceived(new LynxNack(this.module, nackCode));
+        this.module.finishedWithMessage(this);
+        }
+
+    protected void nackBecauseTimedOut(LynxNack.ReasonCode nackCode, String message) throws InterruptedException
+        {
+        // Timed out. Pretend we got a nack.
+        this.onNackReceived(new LynxNack(this.module, nackCode));
+        if (this.module instanceof LynxModule && this.module.isOpen())
+            {
+            RobotLog.ee(LynxModule.TAG, "timeout: abandoning waiting %dms for %s: cmd=%s mod=%d msg#=%d", getMsAwaitInterval(), message, this.getClass().getSimpleName(), this.getModuleAddress(), this.getMessageNumber());
+            RobotLog.ee(LynxModule.TAG, "Marking module #%d as unresponsive until we receive some data back", this.getModuleAddress());
+            LynxModuleWarningManager.getInstance().reportModuleUnresponsive((LynxModule) this.module);
+            }
+        this.module.noteNotResponding();
+        this.module.finishedWithMessage(this);
+        }
+
     protected void awaitAckResponseOrNack() throws InterruptedException
         {
         if (this.isResponseExpected())
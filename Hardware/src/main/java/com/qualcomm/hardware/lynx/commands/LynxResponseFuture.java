@@ -0,0 +1,210 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.hardware.lynx.commands;
+
+import com.qualcomm.hardware.lynx.LynxNackException;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.external.function.Consumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A {@link LynxResponseFuture} is a handle to the eventual outcome of a {@link LynxRespondable}
+ * that has been issued without its issuer blocking for the result. The outcome is either the
+ * response (null for commands which only expect an ack) or a {@link LynxNackException}.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LynxResponseFuture<RESPONSE extends LynxMessage>
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    private final LynxRespondable<RESPONSE>   respondable;
+    private final CountDownLatch              completed = new CountDownLatch(1);
+    private volatile RESPONSE                 response = null;
+    private volatile LynxNackException        exception = null;
+    private final List<Consumer<LynxResponseFuture<RESPONSE>>> callbacks = new ArrayList<>(); // guarded by callbacks
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public LynxResponseFuture(@NonNull LynxRespondable<RESPONSE> respondable)
+        {
+        this.respondable = respondable;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessors
+    //----------------------------------------------------------------------------------------------
+
+    public LynxRespondable<RESPONSE> getRespondable()
+        {
+        return this.respondable;
+        }
+
+    public boolean isDone()
+        {
+        return this.completed.getCount() == 0;
+        }
+
+    /**
+     * Waits for the outcome and returns the response, or throws if the respondable was nack'd
+     * (timeouts and abandonment are reported as nacks, just as with {@link LynxRespondable#sendReceive()}).
+     */
+    public RESPONSE get() throws InterruptedException, LynxNackException
+        {
+        this.completed.await();
+        if (this.exception != null)
+            {
+            throw this.exception;
+            }
+        return this.response;
+        }
+
+    /**
+     * As {@link #get()}, but waits at most the indicated time
+     * @throws TimeoutException if the outcome is not known within the indicated time
+     */
+    public RESPONSE get(long timeout, TimeUnit unit) throws InterruptedException, LynxNackException, TimeoutException
+        {
+        if (!this.completed.await(timeout, unit))
+            {
+            throw new TimeoutException();
+            }
+        return get();
+        }
+
+    /** Returns the exception with which we completed, if any. Never blocks. */
+    @Nullable public LynxNackException getException()
+        {
+        return isDone() ? this.exception : null;
+        }
+
+    /**
+     * Arranges for the callback to be invoked once we're done. If we already are, it's invoked
+     * immediately on the calling thread; otherwise it's invoked on the thread which completes us
+     * (usually the datagram receive thread), so callbacks must be brief and must not block.
+     */
+    public LynxResponseFuture<RESPONSE> whenComplete(@NonNull Consumer<LynxResponseFuture<RESPONSE>> callback)
+        {
+        synchronized (this.callbacks)
+            {
+            if (!isDone())
+                {
+                this.callbacks.add(callback);
+                return this;
+                }
+            }
+        invoke(callback);
+        return this;
+        }
+
+    /** Returns the response if we've successfully completed, or null otherwise. Never blocks. */
+    @Nullable public RESPONSE getNow()
+        {
+        return isDone() && this.exception == null ? this.response : null;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Completion
+    //----------------------------------------------------------------------------------------------
+
+    void complete(RESPONSE response)
+        {
+        List<Consumer<LynxResponseFuture<RESPONSE>>> toInvoke;
+        synchronized (this.callbacks)
+            {
+            if (isDone()) return;
+            this.response = response;
+            this.completed.countDown();
+            toInvoke = new ArrayList<>(this.callbacks);
+            this.callbacks.clear();
+            }
+        invokeAll(toInvoke);
+        }
+
+    void completeExceptionally(@NonNull LynxNackException exception)
+        {
+        List<Consumer<LynxResponseFuture<RESPONSE>>> toInvoke;
+        synchronized (this.callbacks)
+            {
+            if (isDone()) return;
+            this.exception = exception;
+            this.completed.countDown();
+            toInvoke = new ArrayList<>(this.callbacks);
+            this.callbacks.clear();
+            }
+        invokeAll(toInvoke);
+        }
+
+    private void invokeAll(List<Consumer<LynxResponseFuture<RESPONSE>>> callbacks)
+        {
+        for (Consumer<LynxResponseFuture<RESPONSE>> callback : callbacks)
+            {
+            invoke(callback);
+            }
+        }
+
+    private void invoke(Consumer<LynxResponseFuture<RESPONSE>> callback)
+        {
+        try {
+            callback.accept(this);
+            }
+        catch (RuntimeException e)
+            {
+            RobotLog.ee("LynxResponseFuture", e, "exception thrown by completion callback; ignored");
+            }
+        }
+
+    /** Collects the outcome of a pipelined transmission into this future */
+    void awaitPipelinedResponse() throws InterruptedException
+        {
+        try {
+            complete(this.respondable.awaitPipelinedResponse());
+            }
+        catch (LynxNackException e)
+            {
+            completeExceptionally(e);
+            }
+        }
+    }
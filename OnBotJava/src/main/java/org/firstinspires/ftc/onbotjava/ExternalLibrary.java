@@ -164,7 +164,7 @@ class ExternalLibrary {
       try {
         // Use getJarFiles() instead of jarFiles because we want to pass an unmodifiable
         // collection.
-        OnBotJavaManager.dexifyFiles(getJarFiles(), dexFileParent, diagnosticListener);
+        ExternalLibraryDexCache.getInstance().dexify(getJarFiles(), dexFileParent, diagnosticListener);
       } catch (Exception e) {
         RobotLog.ee(TAG, e, "dexify failed");
         return false;
@@ -0,0 +1,206 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.firstinspires.ftc.onbotjava;
+
+import com.android.tools.r8.Version;
+import com.qualcomm.robotcore.util.RobotLog;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+/**
+ * A content-addressed cache of dexed external libraries.
+ *
+ * Dexing a large library is by far the slowest part of uploading it. The output of D8 depends
+ * only on the bytes of the library's .jar files, the version of D8, the min API level, and the
+ * class path that the library is dexed against, so we key cached output on exactly those. Uploading
+ * a library that has been dexed before (the same library under another name, or an earlier version
+ * uploaded again) then costs only a copy.
+ *
+ * The cache is bounded in size; the least recently used entries are evicted first.
+ */
+class ExternalLibraryDexCache {
+  private static final String TAG = "ExternalLibraryDexCache";
+
+  static final File cacheDir = new File(OnBotJavaManager.buildDir, "/libraryDexCache/");
+  private static final long MAX_CACHE_BYTES = 128L * 1024 * 1024;
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  // OnBotJavaManager.dexify() leaves the min API level at D8's default
+  private static final String MIN_API_LEVEL = "default";
+
+  private static class InstanceHolder {
+    private static ExternalLibraryDexCache theInstance = new ExternalLibraryDexCache();
+  }
+
+  static ExternalLibraryDexCache getInstance() {
+    return InstanceHolder.theInstance;
+  }
+
+  private ExternalLibraryDexCache() {
+  }
+
+  /**
+   * Dexes the given .jar files into dexFileParent, reusing the output of an earlier dexing of
+   * identical input if there is one. Throws if the files can't be dexed.
+   */
+  synchronized void dexify(Collection<File> jarFiles, File dexFileParent,
+      OnBotJavaDiagnosticsListener diagnosticListener) throws IOException {
+    String key = computeKey(jarFiles);
+    File entryDir = new File(cacheDir, key);
+
+    if (hasDexFiles(entryDir)) {
+      RobotLog.vv(TAG, "reusing dex output %s", key);
+    } else {
+      // Dex into a scratch directory, then rename it into place, so that a failure part way
+      // through can never leave a partial entry behind.
+      AppUtil.getInstance().ensureDirectoryExists(cacheDir, false);
+      File scratchDir = new File(cacheDir, key + "-" + UUID.randomUUID().toString() + ".tmp");
+      scratchDir.mkdirs();
+      try {
+        OnBotJavaManager.dexifyFiles(jarFiles, scratchDir, diagnosticListener);
+        AppUtil.getInstance().delete(entryDir);
+        if (!scratchDir.renameTo(entryDir)) {
+          throw new IOException("failed to move " + scratchDir.getPath() + " to " + entryDir.getPath());
+        }
+      } finally {
+        if (scratchDir.exists()) {
+          AppUtil.getInstance().delete(scratchDir);
+        }
+      }
+    }
+
+    for (File dexFile : AppUtil.getInstance().filesIn(entryDir, ".dex")) {
+      AppUtil.getInstance().copyFile(dexFile, new File(dexFileParent, dexFile.getName()));
+    }
+    entryDir.setLastModified(System.currentTimeMillis());
+    evict(entryDir);
+  }
+
+  private static boolean hasDexFiles(File entryDir) {
+    return entryDir.isDirectory() && !AppUtil.getInstance().filesIn(entryDir, ".dex").isEmpty();
+  }
+
+  /**
+   * Computes the cache key for dexing the given .jar files against the current class path.
+   */
+  private static String computeKey(Collection<File> jarFiles) throws IOException {
+    try {
+      // The order in which the jars are given doesn't change the output
+      List<String> jarHashes = new ArrayList<>();
+      for (File jarFile : jarFiles) {
+        jarHashes.add(AppUtil.computeMd5(jarFile));
+      }
+      Collections.sort(jarHashes);
+
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(("d8=" + Version.getVersionString() + "\n").getBytes(UTF8));
+      digest.update(("minApi=" + MIN_API_LEVEL + "\n").getBytes(UTF8));
+      for (String jarHash : jarHashes) {
+        digest.update(("jar=" + jarHash + "\n").getBytes(UTF8));
+      }
+      // Hashing the whole class path would cost more than it saves, but its files are only
+      // ever replaced wholesale, so their sizes and modification times identify them well enough.
+      for (File classpathFile : OnBotJavaManager.getDexClasspathFiles()) {
+        if (!jarFiles.contains(classpathFile)) {
+          digest.update(("classpath=" + classpathFile.getName() + ":" + classpathFile.length()
+              + ":" + classpathFile.lastModified() + "\n").getBytes(UTF8));
+        }
+      }
+
+      StringBuilder result = new StringBuilder();
+      for (byte b : digest.digest()) {
+        result.append(String.format(Locale.ROOT, "%02x", b));
+      }
+      return result.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw AppUtil.getInstance().unreachable(TAG, e);
+    }
+  }
+
+  /**
+   * Evicts the least recently used entries until the cache is within its size limit. The entry
+   * that was just used is never evicted.
+   */
+  private void evict(File entryInUse) {
+    List<File> entries = AppUtil.getInstance().filesIn(cacheDir);
+    long totalBytes = 0;
+    for (File entry : entries) {
+      totalBytes += sizeOf(entry);
+    }
+    if (totalBytes <= MAX_CACHE_BYTES) {
+      return;
+    }
+
+    Collections.sort(entries, new Comparator<File>() {
+      @Override
+      public int compare(File a, File b) {
+        return Long.compare(a.lastModified(), b.lastModified());
+      }
+    });
+    for (File entry : entries) {
+      if (totalBytes <= MAX_CACHE_BYTES) {
+        break;
+      }
+      if (entry.equals(entryInUse)) {
+        continue;
+      }
+      long entryBytes = sizeOf(entry);
+      RobotLog.vv(TAG, "evicting %s (%d bytes)", entry.getName(), entryBytes);
+      AppUtil.getInstance().delete(entry);
+      totalBytes -= entryBytes;
+    }
+  }
+
+  private static long sizeOf(File file) {
+    if (!file.isDirectory()) {
+      return file.length();
+    }
+    long result = 0;
+    for (File child : AppUtil.getInstance().filesUnder(file)) {
+      result += child.length();
+    }
+    return result;
+  }
+}
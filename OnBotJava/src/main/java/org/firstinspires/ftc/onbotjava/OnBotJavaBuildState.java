@@ -0,0 +1,468 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.firstinspires.ftc.onbotjava;
+
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.util.ReadWriteFile;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * {@link OnBotJavaBuildState} records what the last successful OnBotJava build compiled: a hash
+ * of each source file and the names of the classes that javac generated from it. From that, the
+ * next build can work out which sources need to be recompiled, namely those whose contents have
+ * changed, together with everything that (transitively) depends on those.
+ * <p>
+ * Dependencies are deliberately approximated from the source text rather than from the class
+ * files: a source is taken to depend on another if it mentions, anywhere, the simple name of any
+ * class generated from the other. That over-approximates, which costs only the odd unnecessary
+ * recompile, but it does catch the references that leave no trace in class files, notably to
+ * compile-time constants, which javac inlines.
+ * <p>
+ * Whenever the answer isn't clear cut (no usable previous state, a changed class path, sources
+ * added or removed) we simply fall back to a full build.
+ */
+@SuppressWarnings("WeakerAccess")
+public class OnBotJavaBuildState
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    public static final String TAG = OnBotJavaManager.TAG + ":BuildState";
+
+    public static final File stateFile = new File(OnBotJavaManager.buildDir, "buildState.txt");
+
+    protected static final int formatVersion = 1;
+    protected static final Charset charset = Charset.forName("UTF-8");
+    protected static final Pattern identifierPattern = Pattern.compile("[A-Za-z_$][A-Za-z0-9_$]*");
+
+    protected static class SourceRecord
+        {
+        public final String hash;
+        public final Set<String> classNames;  // binary names, as javac reports them
+
+        public SourceRecord(String hash, Set<String> classNames)
+            {
+            this.hash = hash;
+            this.classNames = classNames;
+            }
+        }
+
+    protected @Nullable String classPathSignature = null;
+    protected final Map<String, SourceRecord> sources = new TreeMap<String, SourceRecord>(); // keyed by path relative to srcDir
+
+    //----------------------------------------------------------------------------------------------
+    // Plan
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * A {@link Plan} says which sources a build is to compile, and which previously generated
+     * classes thereby become stale and must be removed before that compilation.
+     */
+    public static class Plan
+        {
+        protected final boolean full;
+        protected final String reason;
+        protected final List<File> sourcesToCompile;
+        protected final Set<String> staleClassNames;
+
+        protected Plan(boolean full, String reason, List<File> sourcesToCompile, Set<String> staleClassNames)
+            {
+            this.full = full;
+            this.reason = reason;
+            this.sourcesToCompile = sourcesToCompile;
+            this.staleClassNames = staleClassNames;
+            }
+
+        public boolean isFull()
+            {
+            return full;
+            }
+
+        public List<File> getSourcesToCompile()
+            {
+            return sourcesToCompile;
+            }
+
+        public Set<String> getStaleClassNames()
+            {
+            return staleClassNames;
+            }
+
+        @Override public String toString()
+            {
+            return String.format("%s build of %d source(s): %s", full ? "full" : "incremental", sourcesToCompile.size(), reason);
+            }
+        }
+
+    public static Plan fullPlan(List<File> javaFiles, String reason)
+        {
+        return new Plan(true, reason, javaFiles, Collections.<String>emptySet());
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    protected OnBotJavaBuildState()
+        {
+        }
+
+    /**
+     * Computes the state corresponding to a just-completed compilation. Sources that were not
+     * compiled carry their records over from the previous state.
+     */
+    public static OnBotJavaBuildState afterCompile(OnBotJavaBuildState previous, Plan plan, List<File> javaFiles, Map<File, Set<String>> generatedClassNames)
+        {
+        OnBotJavaBuildState result = new OnBotJavaBuildState();
+        result.classPathSignature = computeClassPathSignature();
+
+        Set<File> compiled = new HashSet<File>(plan.getSourcesToCompile());
+        for (File javaFile : javaFiles)
+            {
+            String key = keyOf(javaFile);
+            if (compiled.contains(javaFile))
+                {
+                Set<String> classNames = generatedClassNames.get(javaFile.getAbsoluteFile());
+                result.sources.put(key, new SourceRecord(hashOf(javaFile), classNames != null ? new TreeSet<String>(classNames) : new TreeSet<String>()));
+                }
+            else
+                {
+                result.sources.put(key, previous.sources.get(key));
+                }
+            }
+        return result;
+        }
+
+    /**
+     * Computes the state following a failed incremental compilation. The sources we attempted
+     * to compile no longer have valid classes; we record that by forgetting their hashes, which
+     * ensures that the next build recompiles them (and their dependents) once again.
+     */
+    public static OnBotJavaBuildState afterFailedCompile(OnBotJavaBuildState previous, Plan plan)
+        {
+        OnBotJavaBuildState result = new OnBotJavaBuildState();
+        result.classPathSignature = previous.classPathSignature;
+        result.sources.putAll(previous.sources);
+        for (File javaFile : plan.getSourcesToCompile())
+            {
+            String key = keyOf(javaFile);
+            SourceRecord record = previous.sources.get(key);
+            result.sources.put(key, new SourceRecord("", record != null ? record.classNames : new TreeSet<String>()));
+            }
+        return result;
+        }
+
+    /**
+     * Loads the state left by the last successful build. If there's none, or it can't be read,
+     * an empty state is returned, which will always plan a full build.
+     */
+    public static OnBotJavaBuildState load()
+        {
+        OnBotJavaBuildState result = new OnBotJavaBuildState();
+        if (!stateFile.exists())
+            return result;
+
+        try {
+            String[] lines = ReadWriteFile.readFileOrThrow(stateFile).split("\n");
+            if (lines.length < 2 || !lines[0].equals("version\t" + formatVersion) || !lines[1].startsWith("classpath\t"))
+                {
+                return new OnBotJavaBuildState();
+                }
+            result.classPathSignature = lines[1].substring("classpath\t".length());
+            for (int i = 2; i < lines.length; i++)
+                {
+                String[] fields = lines[i].split("\t", -1);
+                if (fields.length != 3)
+                    {
+                    return new OnBotJavaBuildState();
+                    }
+                Set<String> classNames = new TreeSet<String>();
+                for (String className : fields[2].split(","))
+                    {
+                    if (!className.isEmpty()) classNames.add(className);
+                    }
+                result.sources.put(fields[0], new SourceRecord(fields[1], classNames));
+                }
+            }
+        catch (IOException|RuntimeException e)
+            {
+            RobotLog.ww(TAG, e, "unable to read %s; a full build will be done", stateFile.getPath());
+            return new OnBotJavaBuildState();
+            }
+        return result;
+        }
+
+    public void save()
+        {
+        StringBuilder builder = new StringBuilder();
+        builder.append("version\t").append(formatVersion).append("\n");
+        builder.append("classpath\t").append(classPathSignature).append("\n");
+        for (Map.Entry<String, SourceRecord> entry : sources.entrySet())
+            {
+            builder.append(entry.getKey()).append("\t").append(entry.getValue().hash).append("\t");
+            boolean first = true;
+            for (String className : entry.getValue().classNames)
+                {
+                if (!first) builder.append(",");
+                builder.append(className);
+                first = false;
+                }
+            builder.append("\n");
+            }
+        ReadWriteFile.writeFile(stateFile, builder.toString());
+        }
+
+    /**
+     * Forgets any recorded state. Done at the start of each build, so that only a build that
+     * completes successfully leaves a state behind for its successor to build upon.
+     */
+    public static void invalidate()
+        {
+        stateFile.delete();
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessing
+    //----------------------------------------------------------------------------------------------
+
+    /** Returns the names of all the classes generated from the indicated sources */
+    public Set<String> getClassNames(Collection<File> javaFiles)
+        {
+        Set<String> result = new TreeSet<String>();
+        for (File javaFile : javaFiles)
+            {
+            SourceRecord record = sources.get(keyOf(javaFile));
+            if (record != null) result.addAll(record.classNames);
+            }
+        return result;
+        }
+
+    /**
+     * Answers whether the set of top-level classes has changed from that of the indicated
+     * state. If it has, then names referenced by sources we didn't recompile might now resolve
+     * differently, and so an incremental build can't be trusted.
+     */
+    public boolean hasSameTopLevelClassesAs(OnBotJavaBuildState other)
+        {
+        return getTopLevelClassNames().equals(other.getTopLevelClassNames());
+        }
+
+    protected Set<String> getTopLevelClassNames()
+        {
+        Set<String> result = new HashSet<String>();
+        for (SourceRecord record : sources.values())
+            {
+            for (String className : record.classNames)
+                {
+                if (className.indexOf('$') < 0) result.add(className);
+                }
+            }
+        return result;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Planning
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Works out what needs to be compiled in order to build the indicated sources.
+     */
+    public Plan plan(List<File> javaFiles)
+        {
+        if (classPathSignature == null)
+            {
+            return fullPlan(javaFiles, "no previous build state");
+            }
+        if (!classPathSignature.equals(computeClassPathSignature()))
+            {
+            return fullPlan(javaFiles, "class path has changed");
+            }
+
+        Map<String, File> filesByKey = new TreeMap<String, File>();
+        for (File javaFile : javaFiles)
+            {
+            filesByKey.put(keyOf(javaFile), javaFile);
+            }
+        if (!filesByKey.keySet().equals(sources.keySet()))
+            {
+            return fullPlan(javaFiles, "sources added or removed");
+            }
+
+        Deque<String> work = new ArrayDeque<String>();
+        for (Map.Entry<String, File> entry : filesByKey.entrySet())
+            {
+            if (!hashOf(entry.getValue()).equals(sources.get(entry.getKey()).hash))
+                {
+                work.add(entry.getKey());
+                }
+            }
+        int changedCount = work.size();
+
+        // Close over the dependents of what's changed
+        Map<String, Set<String>> dependents = findDependents(filesByKey);
+        Set<String> toCompile = new TreeSet<String>();
+        while (!work.isEmpty())
+            {
+            String key = work.remove();
+            if (toCompile.add(key))
+                {
+                work.addAll(dependents.get(key));
+                }
+            }
+
+        List<File> sourcesToCompile = new ArrayList<File>();
+        Set<String> staleClassNames = new TreeSet<String>();
+        for (String key : toCompile)
+            {
+            sourcesToCompile.add(filesByKey.get(key));
+            staleClassNames.addAll(sources.get(key).classNames);
+            }
+        String reason = String.format("%d changed, %d dependent", changedCount, toCompile.size() - changedCount);
+        return new Plan(false, reason, sourcesToCompile, staleClassNames);
+        }
+
+    /**
+     * Returns, for each source, the sources that mention any of the classes generated from it.
+     */
+    protected Map<String, Set<String>> findDependents(Map<String, File> filesByKey)
+        {
+        // Which sources declare each simple name?
+        Map<String, Set<String>> declarers = new HashMap<String, Set<String>>();
+        for (Map.Entry<String, SourceRecord> entry : sources.entrySet())
+            {
+            for (String className : entry.getValue().classNames)
+                {
+                String simpleNames = className.substring(className.lastIndexOf('.') + 1);
+                for (String simpleName : simpleNames.split("\\$"))
+                    {
+                    if (simpleName.isEmpty() || Character.isDigit(simpleName.charAt(0)))
+                        continue;   // anonymous & local classes can't be named from elsewhere
+                    Set<String> keys = declarers.get(simpleName);
+                    if (keys == null)
+                        {
+                        keys = new HashSet<String>();
+                        declarers.put(simpleName, keys);
+                        }
+                    keys.add(entry.getKey());
+                    }
+                }
+            }
+
+        Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+        for (String key : filesByKey.keySet())
+            {
+            result.put(key, new HashSet<String>());
+            }
+        for (Map.Entry<String, File> entry : filesByKey.entrySet())
+            {
+            String text = new String(ReadWriteFile.readFileBytes(entry.getValue()), charset);
+            Matcher matcher = identifierPattern.matcher(text);
+            while (matcher.find())
+                {
+                Set<String> keys = declarers.get(matcher.group());
+                if (keys != null)
+                    {
+                    for (String declarer : keys)
+                        {
+                        if (!declarer.equals(entry.getKey())) result.get(declarer).add(entry.getKey());
+                        }
+                    }
+                }
+            }
+        return result;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Utility
+    //----------------------------------------------------------------------------------------------
+
+    protected static String keyOf(File javaFile)
+        {
+        return AppUtil.getInstance().getRelativePath(OnBotJavaManager.srcDir.getAbsoluteFile(), javaFile.getAbsoluteFile()).getPath();
+        }
+
+    protected static String hashOf(File file)
+        {
+        try {
+            return AppUtil.computeMd5(file);
+            }
+        catch (NoSuchAlgorithmException|IOException e)
+            {
+            // An unreadable source will fail to compile in any event; just make sure it's attempted
+            return UUID.randomUUID().toString();
+            }
+        }
+
+    /**
+     * Summarizes the libraries that sources are compiled against. If any of them change, then
+     * everything must be recompiled.
+     */
+    protected static String computeClassPathSignature()
+        {
+        List<File> classPath = new ArrayList<File>();
+        classPath.addAll(AppUtil.getInstance().filesIn(OnBotJavaManager.libDir, ".jar"));
+        classPath.addAll(ExternalLibraries.getInstance().getClasspathFiles());
+
+        StringBuilder builder = new StringBuilder();
+        for (File file : classPath)
+            {
+            builder.append(file.getName()).append(':').append(file.length()).append(':').append(file.lastModified()).append(';');
+            }
+        return builder.toString();
+        }
+    }
@@ -32,6 +32,8 @@ THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package org.firstinspires.ftc.onbotjava;
 
+import androidx.annotation.Nullable;
+
 import com.qualcomm.robotcore.util.RobotLog;
 import com.sun.tools.javac.api.JavacTool;
 
@@ -42,6 +44,8 @@ import java.io.File;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
@@ -73,12 +77,49 @@ public class OnBotJavaCompiler
 
     public boolean compile(File srcRoot, OnBotJavaDiagnosticsListener diagnosticListener)
         {
-        List<File> javaFiles = javaFilesUnder(srcRoot);
+        return compile(srcRoot, javaFilesUnder(srcRoot), false, diagnosticListener, null);
+        }
 
+    /**
+     * Compiles the indicated java files. In an incremental compile, those are just some of the
+     * sources under srcRoot: the rest are resolved against the class files left by the previous
+     * build rather than being recompiled. If generatedClassNames is provided, it is filled in with
+     * the names of the classes generated from each of the source files.
+     */
+    public boolean compile(File srcRoot, List<File> javaFiles, boolean incremental, OnBotJavaDiagnosticsListener diagnosticListener, @Nullable Map<File, Set<String>> generatedClassNames)
+        {
         JavacTool javac = JavacTool.create();
         OnBotJavaStandardFileManager fileManager = new OnBotJavaStandardFileManager(javac.getStandardFileManager(diagnosticListener, null, null));
-        fileManager.setSourcePath(Collections.singleton(srcRoot));
+        if (incremental)
+            {
+            // An empty source path keeps javac from looking for, and recompiling, other sources
+            fileManager.prependClassPath(OnBotJavaManager.classesOutputDir);
+            fileManager.setSourcePath(Collections.<File>emptyList());
+            }
+        else
+            {
+            fileManager.setSourcePath(Collections.singleton(srcRoot));
+            }
+        return compile(javac, fileManager, javaFiles, diagnosticListener, generatedClassNames);
+        }
 
+    /**
+     * Compiles the indicated java files generated from Blocks projects. They are compiled against
+     * the classes of the user's own sources, as just built, but their classes are kept apart from
+     * those, in {@link OnBotJavaManager#blocksClassesOutputDir}.
+     */
+    public boolean compileBlocks(List<File> javaFiles, OnBotJavaDiagnosticsListener diagnosticListener)
+        {
+        JavacTool javac = JavacTool.create();
+        OnBotJavaStandardFileManager fileManager = new OnBotJavaStandardFileManager(javac.getStandardFileManager(diagnosticListener, null, null));
+        fileManager.prependClassPath(OnBotJavaManager.classesOutputDir);
+        fileManager.setSourcePath(Collections.<File>emptyList());
+        fileManager.setClassOutput(OnBotJavaManager.blocksClassesOutputDir);
+        return compile(javac, fileManager, javaFiles, diagnosticListener, null);
+        }
+
+    protected boolean compile(JavacTool javac, OnBotJavaStandardFileManager fileManager, List<File> javaFiles, OnBotJavaDiagnosticsListener diagnosticListener, @Nullable Map<File, Set<String>> generatedClassNames)
+        {
         Iterable<? extends JavaFileObject> javaFileObjects = fileManager.getJavaFileObjects(javaFiles.toArray(new File[javaFiles.size()]));
         if (javaFileObjects.iterator().hasNext())
             {
@@ -103,7 +144,12 @@ public class OnBotJavaCompiler
                         null,   // Iterable<String> classes, names of classes to be processed by annotation processing, null means no class names
                         javaFileObjects);
 
-                return task.call();
+                boolean result = task.call();
+                if (generatedClassNames != null)
+                    {
+                    generatedClassNames.putAll(fileManager.getGeneratedClassNames());
+                    }
+                return result;
                 }
             catch (RuntimeException e)
                 {
@@ -92,6 +92,11 @@ public class OnBotJavaDiagnosticsListener implements DiagnosticListener<JavaFile
     //----------------------------------------------------------------------------------------------
 
     public OnBotJavaDiagnosticsListener(File srcDir) throws IOException
+        {
+        this(srcDir, OnBotJavaManager.buildLogFile);
+        }
+
+    public OnBotJavaDiagnosticsListener(File srcDir, File logFile) throws IOException
         {
         this.srcDir = srcDir;
 
@@ -100,7 +105,7 @@ public class OnBotJavaDiagnosticsListener implements DiagnosticListener<JavaFile
         this.logErrorStream   = new LogOutputStream(Log.ERROR, TAG, charset);
 
         // TODO: should we buffer the output stream?
-        this.logFile          = OnBotJavaManager.buildLogFile;
+        this.logFile          = logFile;
         this.logFileStream    = new FileOutputStream(logFile, false);   // truncate
 
         this.teeStream   = new TeeStream(logFileStream, logErrorStream);
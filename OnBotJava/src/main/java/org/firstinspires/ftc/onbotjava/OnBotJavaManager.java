@@ -37,9 +37,15 @@ import android.os.Build;
 
 import androidx.annotation.Nullable;
 
+import com.android.tools.r8.ByteDataView;
 import com.android.tools.r8.CompilationFailedException;
 import com.android.tools.r8.D8;
 import com.android.tools.r8.D8Command;
+import com.android.tools.r8.DexFilePerClassFileConsumer;
+import com.android.tools.r8.DiagnosticsHandler;
+import com.android.tools.r8.ProgramResource;
+import com.android.tools.r8.ProgramResourceProvider;
+import com.android.tools.r8.utils.ExceptionDiagnostic;
 
 import com.qualcomm.robotcore.util.ReadWriteFile;
 import com.qualcomm.robotcore.util.RobotLog;
@@ -49,6 +55,7 @@ import dk.sgjesse.d8onandroid.D8DiagnosticsHandler;
 import dk.sgjesse.r8api.ArchiveClassFileResourceProvider;
 import dk.sgjesse.r8api.ArchiveProgramResourceProvider;
 import dk.sgjesse.r8api.AndroidDexIndexedConsumer;
+import dk.sgjesse.r8api.FileOrigin;
 import dk.sgjesse.r8api.OrderedClassFileResourceProvider;
 
 import org.firstinspires.ftc.robotcore.external.Supplier;
@@ -73,8 +80,11 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.jar.JarOutputStream;
 import java.util.jar.Manifest;
@@ -144,6 +154,10 @@ public class OnBotJavaManager implements Closeable
      * appropriate reverse-domain subdirs for .java, as usual) */
     public static final File srcDir                 = new File(javaRoot, "/src/");
 
+    /** the directory into which the Java generated from Blocks projects is written. It's kept
+     * apart from srcDir, and compiled apart from it too, so that it can't break the user's build */
+    public static final File blocksSrcDir           = OnBotJavaHelper.blocksSrcDir;
+
     /** The directory into which source code is backed up on builds **/
     public static final File srcBackupDir           = new File(javaRoot, "/srcBackups");
 
@@ -152,12 +166,13 @@ public class OnBotJavaManager implements Closeable
     public static final File extLibDir            = new File(AppUtil.FIRST_FOLDER, EXTERNAL_LIBRARIES);
 
     public static final File controlDir             = new File(javaRoot, "/control/");
-    public static final File buildRequestFile       = new File(controlDir, "buildRequest.txt");
+    public static final File buildRequestFile       = OnBotJavaHelper.buildRequestFile;
     public static final File buildLockDir           = new File(controlDir, "/buildLock/");
 
     public static final File statusDir              = new File(javaRoot, "/status/");
     public static final File buildLogFile           = new File(statusDir, "buildLog.txt");
-    public static final File buildStartedFile       = new File(statusDir, "buildStarted.txt");
+    public static final File blocksBuildLogFile     = new File(statusDir, "blocksBuildLog.txt");
+    public static final File buildStartedFile       = OnBotJavaHelper.buildStartedFile;
     public static final File buildCompleteFile      = new File(statusDir, "buildComplete.txt");
     public static final File currentOnBotJavaDirFile = new File(statusDir, "currentOnBotJavaDir.txt");
 
@@ -166,6 +181,11 @@ public class OnBotJavaManager implements Closeable
     public static final File sourceOutputDir        = new File(buildDir, "/gensrc/");
     public static final File classesOutputDir       = new File(buildDir, "/classes/");
     public static final File jarsOutputDir          = new File(buildDir, "/jars/");
+    /** per-class dex files, kept between builds so that only changed classes need be re-dexed */
+    public static final File dexCacheDir            = new File(buildDir, "/dexCache/");
+    /** outputs for blocksSrcDir, which, unlike the above, are rebuilt from scratch every time */
+    public static final File blocksClassesOutputDir = new File(buildDir, "/blocksClasses/");
+    public static final File blocksDexDir           = new File(buildDir, "/blocksDex/");
     public static final String onBotJavaJarName     = "OnBotJava.jar";
 
     public static final File assetRoot              = new File("java");
@@ -182,6 +202,7 @@ public class OnBotJavaManager implements Closeable
     protected final ThreadPool.Singleton<Void>  buildSingleton;
     protected FileModifyObserver                controlObserver;
     protected OnBotJavaDiagnosticsListener      diagnosticListener;
+    protected OnBotJavaBuildState.Plan          buildPlan;
     protected volatile static BuildStatus buildStatus = BuildStatus.NOT_STARTED;
 
     public enum BuildStatus
@@ -228,6 +249,7 @@ public class OnBotJavaManager implements Closeable
                 ensureDirs(sourceOutputDir);
                 ensureDirs(classesOutputDir);
                 ensureDirs(jarsOutputDir);
+                ensureDirs(dexCacheDir);
                 }
             });
         }
@@ -336,10 +358,15 @@ public class OnBotJavaManager implements Closeable
                     buildStatus = BuildStatus.RUNNING;
                     writeBuildStatusFile(buildStartedFile, "build started");
                     try {
-                        clean();
-                        ensureBuildDirs();
-                        if (compileJavaFiles())
+                        // Only a successful build leaves behind state for its successor to build upon
+                        OnBotJavaBuildState previousState = OnBotJavaBuildState.load();
+                        OnBotJavaBuildState.invalidate();
+
+                        cleanOutputDirs();
+                        OnBotJavaBuildState buildState = compileJavaFiles(previousState);
+                        if (buildState != null)
                             {
+                            buildBlocksJavaFiles();
                             // We can't reuse cached locations or we seem to always crash the vm. So we uniquify.
                             // We associate the uniqueness with the consolidated file itself rather than with
                             // an *opening* of same so as to uniquify on the semantic contents, saving files.
@@ -349,12 +376,20 @@ public class OnBotJavaManager implements Closeable
                             File onBotJavaDirDirectory = AppUtil.getInstance().createTempDirectory("onBotJavaJar-" + formatter.format(new Date()) + "-", "", jarsOutputDir);
                             ReadWriteFile.writeFile(currentOnBotJavaDirFile, onBotJavaDirDirectory.getAbsolutePath()); // abspath contains jarsOutputDir dependence to here
                             consolidateClassFilesToJar(onBotJavaDirDirectory);
-                            dexifyJarFiles(onBotJavaDirDirectory);
+                            dexifyClassFiles(buildState.getClassNames(buildPlan.getSourcesToCompile()));
+                            mergeDexFiles(onBotJavaDirDirectory);
+                            buildState.save();
                             OnBotJavaBackupManager.archiveSourceForBuild();
                             buildStatus = BuildStatus.SUCCESSFUL;
                             writeBuildStatusFile(OnBotJavaHelper.buildSuccessfulFile, "last successful build finished");
                             RobotLog.vv(TAG, "onBotJava build finished successfully");
                             }
+                        else if (!buildPlan.isFull())
+                            {
+                            // The sources we tried to compile have lost their classes. Recording that
+                            // lets the next build carry on incrementally, rather than starting over.
+                            OnBotJavaBuildState.afterFailedCompile(previousState, buildPlan).save();
+                            }
                         }
                     catch (RuntimeException ex)
                         {
@@ -402,7 +437,16 @@ public class OnBotJavaManager implements Closeable
 
     protected void clean()
         {
-        trace("clean()", new Runnable()
+        cleanIntermediates();
+        cleanOutputDirs();
+        }
+
+    /**
+     * Removes everything that incremental builds would otherwise reuse
+     */
+    protected void cleanIntermediates()
+        {
+        trace("cleanIntermediates()", new Runnable()
             {
             @Override public void run()
                 {
@@ -413,7 +457,17 @@ public class OnBotJavaManager implements Closeable
                 // what's going on, but we don't want to put more work into it.
                 AppUtil.getInstance().delete(classesOutputDir);
                 AppUtil.getInstance().delete(sourceOutputDir);
+                AppUtil.getInstance().delete(dexCacheDir);
+                }
+            });
+        }
 
+    protected void cleanOutputDirs()
+        {
+        trace("cleanOutputDirs()", new Runnable()
+            {
+            @Override public void run()
+                {
                 // Leave the most recently built stuff so that the loader will find it
                 File curDir = getCurrentOutputDir();
                 for (File child : AppUtil.getInstance().filesIn(jarsOutputDir))
@@ -427,12 +481,138 @@ public class OnBotJavaManager implements Closeable
             });
         }
 
-    protected boolean compileJavaFiles()
+    /**
+     * Removes the class files, and their dex counterparts, that were generated from sources
+     * which are about to be recompiled
+     */
+    protected void removeStaleClasses(final Collection<String> classNames)
+        {
+        trace("removeStaleClasses()", new Runnable()
+            {
+            @Override public void run()
+                {
+                for (String className : classNames)
+                    {
+                    String path = className.replace('.', '/');
+                    new File(classesOutputDir, path + ".class").delete();
+                    new File(dexCacheDir, path + ".dex").delete();
+                    }
+                }
+            });
+        }
+
+    /**
+     * Compiles what needs compiling, as little as possible, and returns the resulting build
+     * state; null is returned if compilation fails. Afterwards, {@link #buildPlan} says what
+     * was in fact compiled.
+     */
+    protected @Nullable OnBotJavaBuildState compileJavaFiles(final OnBotJavaBuildState previousState)
+        {
+        return trace("compileJavaFiles()", new Supplier<OnBotJavaBuildState>() { @Override public OnBotJavaBuildState get()
+            {
+            OnBotJavaCompiler javaCompiler = new OnBotJavaCompiler();
+            List<File> javaFiles = javaCompiler.javaFilesUnder(srcDir);
+
+            buildPlan = previousState.plan(javaFiles);
+            RobotLog.vv(TAG, "%s", buildPlan);
+            OnBotJavaBuildState result = compileJavaFiles(javaCompiler, previousState, javaFiles);
+
+            if (result != null && !buildPlan.isFull() && !result.hasSameTopLevelClassesAs(previousState))
+                {
+                // Names in sources we didn't recompile might now resolve differently
+                buildPlan = OnBotJavaBuildState.fullPlan(javaFiles, "top-level classes changed");
+                RobotLog.vv(TAG, "%s", buildPlan);
+                result = compileJavaFiles(javaCompiler, previousState, javaFiles);
+                }
+            return result;
+            }});
+        }
+
+    protected @Nullable OnBotJavaBuildState compileJavaFiles(OnBotJavaCompiler javaCompiler, OnBotJavaBuildState previousState, List<File> javaFiles)
+        {
+        if (buildPlan.isFull())
+            {
+            cleanIntermediates();
+            }
+        else
+            {
+            removeStaleClasses(buildPlan.getStaleClassNames());
+            }
+        ensureBuildDirs();
+
+        Map<File, Set<String>> generatedClassNames = new HashMap<File, Set<String>>();
+        if (!javaCompiler.compile(srcDir, buildPlan.getSourcesToCompile(), !buildPlan.isFull(), diagnosticListener, generatedClassNames))
+            {
+            return null;
+            }
+        return OnBotJavaBuildState.afterCompile(previousState, buildPlan, javaFiles, generatedClassNames);
+        }
+
+    /**
+     * Compiles and dexes the Java generated from Blocks projects, against the user's classes as
+     * just built. This never fails the build: the Java for any project that doesn't compile is
+     * simply left out, and that project goes on running as JavaScript. Diagnostics are written to
+     * their own log, not to the user's.
+     */
+    protected void buildBlocksJavaFiles()
         {
-        return trace("compileJavaFiles()", new Supplier<Boolean>() { @Override public Boolean get()
+        trace("buildBlocksJavaFiles()", new Runnable() { @Override public void run()
             {
+            AppUtil.getInstance().delete(blocksClassesOutputDir);
+            AppUtil.getInstance().delete(blocksDexDir);
+
             OnBotJavaCompiler javaCompiler = new OnBotJavaCompiler();
-            return javaCompiler.compile(srcDir, diagnosticListener);
+            List<File> javaFiles = new ArrayList<File>();
+            for (File javaFile : javaCompiler.javaFilesUnder(blocksSrcDir))
+                {
+                // Should the user have a class of the same name, theirs wins
+                String path = AppUtil.getInstance().getRelativePath(blocksSrcDir, javaFile).getPath();
+                if (!new File(classesOutputDir, path.substring(0, path.length() - ".java".length()) + ".class").exists())
+                    {
+                    javaFiles.add(javaFile);
+                    }
+                }
+            if (javaFiles.isEmpty())
+                {
+                return;
+                }
+
+            try {
+                OnBotJavaDiagnosticsListener blocksDiagnosticListener = new OnBotJavaDiagnosticsListener(blocksSrcDir, blocksBuildLogFile);
+                try {
+                    ensureDirs(blocksClassesOutputDir);
+                    ensureDirs(blocksDexDir);
+                    if (!javaCompiler.compileBlocks(javaFiles, blocksDiagnosticListener))
+                        {
+                        // Don't let one project keep the others from running as Java
+                        AppUtil.getInstance().delete(blocksClassesOutputDir);
+                        ensureDirs(blocksClassesOutputDir);
+                        for (File javaFile : javaFiles)
+                            {
+                            javaCompiler.compileBlocks(Collections.singletonList(javaFile), blocksDiagnosticListener);
+                            }
+                        }
+
+                    List<String> classNames = new ArrayList<String>();
+                    for (File classFile : AppUtil.getInstance().filesUnder(blocksClassesOutputDir, ".class"))
+                        {
+                        String path = AppUtil.getInstance().getRelativePath(blocksClassesOutputDir, classFile).getPath();
+                        classNames.add(path.substring(0, path.length() - ".class".length()).replace('/', '.'));
+                        }
+                    dexifyClassFiles(blocksClassesOutputDir, blocksDexDir, classNames, blocksDiagnosticListener);
+                    }
+                finally
+                    {
+                    blocksDiagnosticListener.flush();
+                    blocksDiagnosticListener.close();
+                    }
+                }
+            catch (IOException|RuntimeException e)
+                {
+                RobotLog.ee(TAG, e, "building Java from Blocks failed; those projects will run as JavaScript");
+                AppUtil.getInstance().delete(blocksClassesOutputDir);
+                AppUtil.getInstance().delete(blocksDexDir);
+                }
             }});
         }
 
@@ -451,13 +631,16 @@ public class OnBotJavaManager implements Closeable
                     Manifest manifest = new Manifest();
                     JarOutputStream jarOutputStream = new JarOutputStream(outputStream, manifest);
                     try {
-                        for (File classFile : AppUtil.getInstance().filesUnder(classesOutputDir, ".class"))
+                        for (File outputDir : new File[] { classesOutputDir, blocksClassesOutputDir })
                             {
-                            ZipEntry ze = new ZipEntry(AppUtil.getInstance().getRelativePath(classesOutputDir, classFile).getPath());
-                            ze.setTime(classFile.lastModified());
-                            jarOutputStream.putNextEntry(ze);
-                            AppUtil.getInstance().copyStream(classFile, jarOutputStream);
-                            jarOutputStream.closeEntry();
+                            for (File classFile : AppUtil.getInstance().filesUnder(outputDir, ".class"))
+                                {
+                                ZipEntry ze = new ZipEntry(AppUtil.getInstance().getRelativePath(outputDir, classFile).getPath());
+                                ze.setTime(classFile.lastModified());
+                                jarOutputStream.putNextEntry(ze);
+                                AppUtil.getInstance().copyStream(classFile, jarOutputStream);
+                                jarOutputStream.closeEntry();
+                                }
                             }
                         }
                     finally
@@ -474,28 +657,93 @@ public class OnBotJavaManager implements Closeable
             });
         }
 
-    protected void dexifyJarFiles(final File onBotJavaDirDirectory) throws IOException
+    /**
+     * Dexes the indicated classes (and any synthetic classes that D8 generates along with them)
+     * into the dex cache, one dex file per class. Classes not mentioned are left as they are.
+     */
+    protected void dexifyClassFiles(final Collection<String> classNames) throws IOException
+        {
+        dexifyClassFiles(classesOutputDir, dexCacheDir, classNames, diagnosticListener);
+        }
+
+    protected void dexifyClassFiles(final File classesDir, final File dexDir, final Collection<String> classNames, final OnBotJavaDiagnosticsListener diagnosticListener) throws IOException
         {
-        trace("dexifyJarFiles()", new ThrowingCallable<Void, IOException>()
+        trace("dexifyClassFiles()", new ThrowingCallable<Void, IOException>()
             {
             @Override public Void call() throws IOException
                 {
-                File robotJavaJar = null;
-                for (File jarFile : getOutputFiles(onBotJavaDirDirectory, ".jar"))
+                RobotLog.vv(TAG, "dexifying %d classes", classNames.size());
+                final List<ProgramResource> programResources = new ArrayList<ProgramResource>();
+                for (String className : classNames)
+                    {
+                    String path = className.replace('.', '/');
+                    File classFile = new File(classesDir, path + ".class");
+                    programResources.add(ProgramResource.fromBytes(new FileOrigin(classFile), ProgramResource.Kind.CF,
+                            ReadWriteFile.readFileBytesOrThrow(classFile), Collections.singleton("L" + path + ";")));
+                    }
+                if (programResources.isEmpty())
                     {
-                    // Sanity check
-                    if (jarFile.getName().equals(onBotJavaJarName))
+                    return null;
+                    }
+
+                D8Command.Builder d8CommandBuilder = D8Command.builder(new D8DiagnosticsHandler())
+                    .setIntermediate(true)
+                    .setProgramConsumer(new DexFilePerClassFileConsumer.ForwardingConsumer(null)
                         {
-                        if (robotJavaJar != null)
+                        @Override public void accept(String primaryClassDescriptor, ByteDataView data, Set<String> descriptors, DiagnosticsHandler handler)
                             {
-                            RobotLog.ee(TAG, "two consolidators: %s %s", robotJavaJar.getPath(), jarFile.getPath());
+                            // Descriptors are of the form Lpackage/Name;
+                            File dexFile = new File(dexDir, primaryClassDescriptor.substring(1, primaryClassDescriptor.length() - 1) + ".dex");
+                            try {
+                                AppUtil.getInstance().ensureDirectoryExists(dexFile.getParentFile(), false);
+                                try (OutputStream outputStream = new FileOutputStream(dexFile))
+                                    {
+                                    outputStream.write(data.getBuffer(), data.getOffset(), data.getLength());
+                                    }
+                                }
+                            catch (IOException e)
+                                {
+                                handler.error(new ExceptionDiagnostic(e));
+                                }
                             }
-                        robotJavaJar = jarFile;
+                        });
+                runD8(d8CommandBuilder, Collections.singletonList(new ProgramResourceProvider()
+                    {
+                    @Override public Collection<ProgramResource> getProgramResources()
+                        {
+                        return programResources;
                         }
+                    }), diagnosticListener);
+                return null;
+                }
+            });
+        }
 
-                    // Actually do the work
-                    dexifyJarFile(jarFile);
+    /**
+     * Merges the contents of the dex cache into the final dex file(s) in the output directory
+     */
+    protected void mergeDexFiles(final File onBotJavaDirDirectory) throws IOException
+        {
+        trace("mergeDexFiles()", new ThrowingCallable<Void, IOException>()
+            {
+            @Override public Void call() throws IOException
+                {
+                final List<ProgramResource> programResources = new ArrayList<ProgramResource>();
+                for (File dexDir : new File[] { dexCacheDir, blocksDexDir })
+                    {
+                    for (File dexFile : AppUtil.getInstance().filesUnder(dexDir, ".dex"))
+                        {
+                        programResources.add(ProgramResource.fromBytes(new FileOrigin(dexFile), ProgramResource.Kind.DEX,
+                                ReadWriteFile.readFileBytesOrThrow(dexFile), null));
+                        }
                     }
+                dexify(Collections.singletonList(new ProgramResourceProvider()
+                    {
+                    @Override public Collection<ProgramResource> getProgramResources()
+                        {
+                        return programResources;
+                        }
+                    }), onBotJavaDirDirectory, diagnosticListener, dexCacheDir.getAbsolutePath());
                 return null;
                 }
             });
@@ -558,33 +806,27 @@ public class OnBotJavaManager implements Closeable
         return buildStatus;
         }
 
-    protected void dexifyJarFile(File jarFile) throws RuntimeException
+    static void dexifyFiles(Collection<File> inputFiles, final File dexFileParent,
+            OnBotJavaDiagnosticsListener diagnosticListener)
         {
-        try
-            {
-            File dexFileParent = jarFile.getParentFile();
-            dexifyFiles(Collections.singleton(jarFile), dexFileParent, diagnosticListener);
-            }
-        catch (RuntimeException e)
+        StringBuilder sb = new StringBuilder();
+        List<ProgramResourceProvider> programResourceProviders = new ArrayList<ProgramResourceProvider>();
+        for (File inputFile : inputFiles)
             {
-            RobotLog.ee(TAG, e, "Cannot finish OBJ build. Dex failed");
-            throw e;
+            sb.append(" " + inputFile.getAbsolutePath());
+            programResourceProviders.add(new ArchiveProgramResourceProvider(inputFile));
             }
+        dexify(programResourceProviders, dexFileParent, diagnosticListener, sb.toString());
         }
 
-    static void dexifyFiles(Collection<File> inputFiles, final File dexFileParent,
-            OnBotJavaDiagnosticsListener diagnosticListener)
+    static void dexify(Collection<? extends ProgramResourceProvider> programResourceProviders, final File dexFileParent,
+            OnBotJavaDiagnosticsListener diagnosticListener, String description)
         {
         if (!dexFileParent.isDirectory())
             {
             throw new IllegalArgumentException("dexFileParent must be a directory " + dexFileParent.getAbsolutePath());
             }
-        StringBuilder sb = new StringBuilder();
-        for (File inputFile : inputFiles)
-            {
-            sb.append(" " + inputFile.getAbsolutePath());
-            }
-        RobotLog.vv(TAG, "dexifying %s...", sb.toString());
+        RobotLog.vv(TAG, "dexifying %s...", description);
         // Use a zip file in a temp subdirectory for the output.
         File tmpDir = new File(dexFileParent, UUID.randomUUID().toString());
         tmpDir.mkdir();
@@ -593,23 +835,64 @@ public class OnBotJavaManager implements Closeable
             RobotLog.vv(TAG, "using d8");
             D8Command.Builder d8CommandBuilder = D8Command.builder(new D8DiagnosticsHandler())
                 .setProgramConsumer(new AndroidDexIndexedConsumer(tmpZipFile));
-            // For the classpath, first add the ftcClassPathLibs, then the external libraries, then
-            // finally the platformClassPathLibs.
-            OrderedClassFileResourceProvider classpathResourceProvider = new OrderedClassFileResourceProvider();
-            for (String filename : ftcClassPathLibs)
-                {
-                File file = new File(OnBotJavaManager.libDir, filename);
-                classpathResourceProvider.addClassFileResourceProvider(
-                    new ArchiveClassFileResourceProvider(file));
-                }
-            for (File file : ExternalLibraries.getInstance().getClasspathFiles())
+            runD8(d8CommandBuilder, programResourceProviders, diagnosticListener);
+
+            // Unpack the output zip to get the .dex files.
+            unpackZipFile(tmpZipFile, tmpDir);
+            for (File tmpDexFile : AppUtil.getInstance().filesUnder(tmpDir, ".dex"))
                 {
-                classpathResourceProvider.addClassFileResourceProvider(
-                    new ArchiveClassFileResourceProvider(file));
+                String name = tmpDexFile.getName();
+                File destDexFile = new File(dexFileParent, name);
+                if (!tmpDexFile.renameTo(destDexFile))
+                    {
+                    throw new RuntimeException("failed to move " +
+                        tmpDexFile.getAbsolutePath() + " to " + destDexFile.getAbsolutePath());
+                    }
+                RobotLog.vv(TAG, "Wrote %s", destDexFile.getAbsolutePath());
                 }
-            for (String filename : platformClassPathLibs)
+            }
+        catch (IOException e)
+            {
+            diagnosticListener.getPrintStream().format(diagnosticListener.locale, "dex: IOException: %s", e.getMessage());
+            throw new RuntimeException(e);
+            }
+        finally
+            {
+            AppUtil.getInstance().delete(tmpDir);
+            RobotLog.vv(TAG, "...dexifying %s", description);
+            }
+        }
+
+    /**
+     * Returns the class path against which D8 is run
+     */
+    static List<File> getDexClasspathFiles()
+        {
+        // For the classpath, first add the ftcClassPathLibs, then the external libraries, then
+        // finally the platformClassPathLibs.
+        List<File> result = new ArrayList<File>();
+        for (String filename : ftcClassPathLibs)
+            {
+            result.add(new File(OnBotJavaManager.libDir, filename));
+            }
+        result.addAll(ExternalLibraries.getInstance().getClasspathFiles());
+        for (String filename : platformClassPathLibs)
+            {
+            result.add(new File(OnBotJavaManager.libDir, filename));
+            }
+        return result;
+        }
+
+    /**
+     * Runs D8 over the indicated program inputs, against our usual class path
+     */
+    static void runD8(D8Command.Builder d8CommandBuilder, Collection<? extends ProgramResourceProvider> programResourceProviders,
+            OnBotJavaDiagnosticsListener diagnosticListener)
+        {
+        try {
+            OrderedClassFileResourceProvider classpathResourceProvider = new OrderedClassFileResourceProvider();
+            for (File file : getDexClasspathFiles())
                 {
-                File file = new File(OnBotJavaManager.libDir, filename);
                 classpathResourceProvider.addClassFileResourceProvider(
                     new ArchiveClassFileResourceProvider(file));
                 }
@@ -618,27 +901,12 @@ public class OnBotJavaManager implements Closeable
                 d8CommandBuilder.addClasspathResourceProvider(classpathResourceProvider);
                 }
             // Add the input files.
-            for (File inputFile : inputFiles)
+            for (ProgramResourceProvider programResourceProvider : programResourceProviders)
                 {
-                d8CommandBuilder.addProgramResourceProvider(
-                    new ArchiveProgramResourceProvider(inputFile));
+                d8CommandBuilder.addProgramResourceProvider(programResourceProvider);
                 }
             D8.run(d8CommandBuilder.build());
             classpathResourceProvider.close();
-
-            // Unpack the output zip to get the .dex files.
-            unpackZipFile(tmpZipFile, tmpDir);
-            for (File tmpDexFile : AppUtil.getInstance().filesUnder(tmpDir, ".dex"))
-                {
-                String name = tmpDexFile.getName();
-                File destDexFile = new File(dexFileParent, name);
-                if (!tmpDexFile.renameTo(destDexFile))
-                    {
-                    throw new RuntimeException("failed to move " +
-                        tmpDexFile.getAbsolutePath() + " to " + destDexFile.getAbsolutePath());
-                    }
-                RobotLog.vv(TAG, "Wrote %s", destDexFile.getAbsolutePath());
-                }
             }
         catch (CompilationFailedException e)
             {
@@ -655,11 +923,6 @@ public class OnBotJavaManager implements Closeable
             diagnosticListener.getPrintStream().format(diagnosticListener.locale, "dex: RuntimeException: %s", e.getMessage());
             throw e;
             }
-        finally
-            {
-            AppUtil.getInstance().delete(tmpDir);
-            RobotLog.vv(TAG, "...dexifying %s", sb.toString());
-            }
         }
 
     static void unpackZipFile(File file, File destDir) throws IOException
@@ -38,8 +38,14 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
 
@@ -57,6 +63,13 @@ public class OnBotJavaStandardFileManager extends OnBotJavaDelegatingStandardFil
 
     public static final String TAG = OnBotJavaManager.TAG + ":FileManager";
 
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    /** the classes generated from each source file, keyed by the latter's absolute path */
+    protected final Map<File, Set<String>> generatedClassNames = new HashMap<File, Set<String>>();
+
     //----------------------------------------------------------------------------------------------
     // Construction
     //----------------------------------------------------------------------------------------------
@@ -95,6 +108,66 @@ public class OnBotJavaStandardFileManager extends OnBotJavaDelegatingStandardFil
     // Operations
     //----------------------------------------------------------------------------------------------
 
+    /**
+     * Puts the indicated directory at the front of the class path. Incremental builds do this
+     * with the output of the previous build, so that sources that aren't being recompiled are
+     * resolved against their existing class files.
+     */
+    public void prependClassPath(File dir)
+        {
+        try {
+            List<File> classPath = new ArrayList<File>();
+            classPath.add(dir);
+            for (File file : delegate.getLocation(StandardLocation.CLASS_PATH))
+                {
+                classPath.add(file);
+                }
+            delegate.setLocation(StandardLocation.CLASS_PATH, classPath);
+            }
+        catch (IOException e)
+            {
+            throw AppUtil.getInstance().unreachable(OnBotJavaManager.TAG, e);
+            }
+        }
+
+    /**
+     * Directs the generated class files into the indicated directory rather than into
+     * {@link OnBotJavaManager#classesOutputDir}
+     */
+    public void setClassOutput(File dir)
+        {
+        try {
+            delegate.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(dir));
+            }
+        catch (IOException e)
+            {
+            throw AppUtil.getInstance().unreachable(OnBotJavaManager.TAG, e);
+            }
+        }
+
+    public Map<File, Set<String>> getGeneratedClassNames()
+        {
+        return generatedClassNames;
+        }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) throws IOException
+        {
+        // javac tells us the source from which each class is generated
+        if (kind == JavaFileObject.Kind.CLASS && sibling != null && "file".equals(sibling.toUri().getScheme()))
+            {
+            File source = new File(sibling.toUri()).getAbsoluteFile();
+            Set<String> classNames = generatedClassNames.get(source);
+            if (classNames == null)
+                {
+                classNames = new TreeSet<String>();
+                generatedClassNames.put(source, classNames);
+                }
+            classNames.add(className);
+            }
+        return super.getJavaFileForOutput(location, className, kind, sibling);
+        }
+
     public void setSourcePath(Iterable<? extends File> srcPath)
         {
         try {
@@ -1,6 +1,7 @@
 package com.qualcomm.robotcore.eventloop.opmode;
 
 import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.util.LoopScheduler;
 import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.internal.opmode.TelemetryInternal;
@@ -75,14 +76,48 @@ public abstract class LinearOpMode extends OpMode {
    * managed by other threads to change. Calling idle() is entirely optional: it just helps make
    * the system a little more responsive and a little more efficient.</p>
    *
+   * <p>Any motor and servo writes being coalesced on the REV hubs are transmitted here.</p>
+   *
    * @see #opModeIsActive()
    */
   public final void idle() {
-    // Otherwise, yield back our thread scheduling quantum and give other threads at
+    internalFlushCoalescedWrites();
+
+    // Then yield back our thread scheduling quantum and give other threads at
     // our priority level a chance to run
     Thread.yield();
   }
 
+  /**
+   * Paces a loop at the rate set with {@link #setLoopRate(double)}: waits until the next iteration
+   * is due, then returns {@link #opModeIsActive()}. The first call returns immediately, starting
+   * the schedule. If no loop rate has been set, this just returns {@link #opModeIsActive()}.
+   * Either way, any motor and servo writes being coalesced on the REV hubs are transmitted first.
+   *
+   * <pre>
+   * setLoopRate(200);
+   * waitForStart();
+   * while (waitForNextLoop()) {
+   *     // ... one iteration of control ...
+   * }
+   * </pre>
+   *
+   * @return whether the OpMode is still active
+   * @see #getLoopScheduler()
+   */
+  public final boolean waitForNextLoop() {
+    internalFlushCoalescedWrites();
+    LoopScheduler scheduler = getLoopScheduler();
+    if (scheduler != null) {
+      try {
+        scheduler.awaitNextIteration();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return opModeIsActive();
+  }
+
   /**
    * Sleeps for the given amount of milliseconds, or until the thread is interrupted (which usually
    * indicates that the OpMode has been stopped).
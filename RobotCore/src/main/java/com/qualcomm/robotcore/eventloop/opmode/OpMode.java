@@ -33,6 +33,7 @@ package com.qualcomm.robotcore.eventloop.opmode;
 
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.robocol.TelemetryMessage;
+import com.qualcomm.robotcore.util.LoopScheduler;
 
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 
@@ -63,6 +64,9 @@ public abstract class OpMode extends OpModeInternal {
   // internal time tracking
   private volatile long startTime = 0; // in nanoseconds
 
+  // When non-null, paces loop() at a fixed rate
+  private volatile LoopScheduler loopScheduler = null;
+
   // Latest gamepad data (used to update gamepad1 and gamepad2 in between user code callbacks)
   private volatile Gamepad latestGamepad1Data = new Gamepad();
   private volatile Gamepad latestGamepad2Data = new Gamepad();
@@ -149,6 +153,36 @@ public abstract class OpMode extends OpModeInternal {
     startTime = System.nanoTime();
   }
 
+  //----------------------------------------------------------------------------------------------
+  // Loop pacing
+  //----------------------------------------------------------------------------------------------
+
+  /**
+   * Sets a fixed rate at which {@link #loop()} is to be called, for control code (PID loops,
+   * odometry, and the like) that wants a consistent period. Iterations are scheduled against
+   * deadlines so that the rate doesn't drift with the time loop() takes; see {@link LoopScheduler}.
+   * If loop() takes longer than a period, the next call is made immediately and the overrun is
+   * counted. A rate of zero (the default) calls loop() as often as possible.
+   * <p>
+   * In a {@link LinearOpMode}, use {@link LinearOpMode#waitForNextLoop()} to pace your own loop.
+   *
+   * @param hz the number of times per second to call loop(), or zero
+   * @see #getLoopScheduler()
+   */
+  public void setLoopRate(double hz) {
+    loopScheduler = hz > 0 ? new LoopScheduler(hz) : null;
+  }
+
+  /**
+   * Returns the scheduler pacing the loop, or null if no loop rate has been set. Its timing
+   * statistics can be shown with, e.g., {@code telemetry.addData("loop", getLoopScheduler())}.
+   *
+   * @see #setLoopRate(double)
+   */
+  public LoopScheduler getLoopScheduler() {
+    return loopScheduler;
+  }
+
   //----------------------------------------------------------------------------------------------
   // Telemetry management
   //----------------------------------------------------------------------------------------------
@@ -211,6 +245,12 @@ public abstract class OpMode extends OpModeInternal {
       start();
       internalPostUserCode();
 
+      LoopScheduler startScheduler = loopScheduler;
+      if (startScheduler != null) {
+        startScheduler.reset();
+        startScheduler.awaitNextIteration(); // returns at once: the first loop() is due now
+      }
+
       while (!stopRequested) {
         internalPreUserCode();
         loop();
@@ -218,8 +258,13 @@ public abstract class OpMode extends OpModeInternal {
         // Until we delete the deprecated hooks entirely, we keep calling them.
         internalPostLoop();
 
-        //noinspection BusyWait
-        Thread.sleep(1);
+        LoopScheduler scheduler = loopScheduler;
+        if (scheduler != null) {
+          scheduler.awaitNextIteration();
+        } else {
+          //noinspection BusyWait
+          Thread.sleep(1);
+        }
       }
     }
 
@@ -260,6 +305,7 @@ public abstract class OpMode extends OpModeInternal {
   }
 
   private void internalPostUserCode() {
+    internalFlushCoalescedWrites();
     telemetry.update();
   }
 
@@ -34,6 +34,7 @@ package com.qualcomm.robotcore.eventloop.opmode;
 import com.qualcomm.robotcore.hardware.Gamepad;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 import com.qualcomm.robotcore.hardware.I2cWarningManager;
+import com.qualcomm.robotcore.hardware.RobotCoreLynxModule;
 import com.qualcomm.robotcore.util.RobotLog;
 import com.qualcomm.robotcore.util.ThreadPool;
 
@@ -43,6 +44,7 @@ import org.firstinspires.ftc.robotcore.internal.opmode.TelemetryImpl;
 import org.firstinspires.ftc.robotcore.internal.opmode.TelemetryInternal;
 import org.firstinspires.ftc.robotcore.internal.system.Assert;
 
+import java.util.List;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutorService;
 
@@ -103,6 +105,9 @@ abstract class OpModeInternal {
     volatile RuntimeException exception = null;
     volatile NoClassDefFoundError noClassDefFoundError = null;
 
+    // Lazily gathered from the hardwareMap, for flushing coalesced writes
+    private volatile RobotCoreLynxModule[] lynxModules = null;
+
     // These are only accessed from the main event loop, and do not need to be volatile
     Gamepad previousGamepad1Data = new Gamepad();
     Gamepad previousGamepad2Data = new Gamepad();
@@ -159,6 +164,28 @@ abstract class OpModeInternal {
      */
     abstract void newGamepadDataAvailable(Gamepad latestGamepad1Data, Gamepad latestGamepad2Data);
 
+    //----------------------------------------------------------------------------------------------
+    // Package-private methods for use by OpMode and LinearOpMode
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Transmits any motor and servo writes that have been coalesced on the hubs in the hardware
+     * map. Called after each pass through user code; costs next to nothing if coalescing is off.
+     */
+    final void internalFlushCoalescedWrites() {
+        RobotCoreLynxModule[] modules = lynxModules;
+        if (modules == null) {
+            HardwareMap map = hardwareMap;
+            if (map == null) return;
+            List<RobotCoreLynxModule> list = map.getAll(RobotCoreLynxModule.class);
+            modules = list.toArray(new RobotCoreLynxModule[list.size()]);
+            lynxModules = modules;
+        }
+        for (RobotCoreLynxModule module : modules) {
+            module.flushCoalescedWrites();
+        }
+    }
+
     //----------------------------------------------------------------------------------------------
     // Package-private methods for use by OpModeManagerImpl
     //----------------------------------------------------------------------------------------------
@@ -170,6 +197,7 @@ abstract class OpModeInternal {
         isStarted = false;
         stopRequested = false;
         opModeThreadFinished = false;
+        lynxModules = null;
 
         // Reset telemetry in case OpMode instance gets reused from run to run
         if (telemetry instanceof TelemetryInternal) {
@@ -54,6 +54,7 @@ import com.qualcomm.robotcore.hardware.ServoController;
 import com.qualcomm.robotcore.robocol.Command;
 import com.qualcomm.robotcore.robocol.TelemetryMessage;
 import com.qualcomm.robotcore.robot.RobotState;
+import com.qualcomm.robotcore.util.DataRecorder;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 import com.qualcomm.robotcore.util.ThreadPool;
@@ -517,6 +518,9 @@ public class OpModeManagerImpl implements OpModeServices, OpModeManagerNotifier
       //We're already stopping, nothing to do
     }
 
+    // Recordings don't outlive the OpMode that made them
+    DataRecorder.closeAll();
+
     synchronized (this.listeners) {
       for (OpModeManagerNotifier.Notifications listener : this.listeners) {
         listener.onOpModePostStop((OpMode) activeOpMode);
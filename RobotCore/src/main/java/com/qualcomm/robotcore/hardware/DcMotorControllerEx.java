@@ -201,4 +201,26 @@ public interface DcMotorControllerEx extends DcMotorController
      * @see #setMotorCurrentAlert(int, double, CurrentUnit)
      */
     boolean isMotorOverCurrent(int motor);
+
+    /**
+     * Sets the powers of several motors on this controller at once. Controllers may transmit
+     * the changes together, so that the motors change power as nearly simultaneously as the
+     * hardware allows; by default, the powers are simply set one motor at a time.
+     * @param motors the port numbers of the motors on this controller
+     * @param powers the new powers for those motors, in the same order
+     *
+     * @see DcMotorController#setMotorPower(int, double)
+     * @see DcMotorGroup
+     */
+    default void setMotorPowers(int[] motors, double[] powers)
+        {
+        if (motors.length != powers.length)
+            {
+            throw new IllegalArgumentException(String.format("setMotorPowers: %d motors but %d powers", motors.length, powers.length));
+            }
+        for (int i = 0; i < motors.length; i++)
+            {
+            setMotorPower(motors[i], powers[i]);
+            }
+        }
     }
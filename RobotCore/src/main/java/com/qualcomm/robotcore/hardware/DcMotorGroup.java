@@ -0,0 +1,226 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.hardware;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link DcMotorGroup} sets the powers of several motors together. Motors in the group that
+ * share a controller have their powers set with one call to
+ * {@link DcMotorControllerEx#setMotorPowers(int[], double[])}, which lets the controller transmit
+ * the changes together: the four wheels of a drive train, say, thus change power as nearly
+ * simultaneously as the hardware allows, and in less time than four individual
+ * {@link DcMotor#setPower(double)} calls would take.
+ *
+ * <p>Each motor's direction and run mode are honored just as {@link DcMotor#setPower(double)}
+ * would honor them, and each motor is locked while its power is set, just as it would be there.
+ * Setting powers allocates no memory.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public class DcMotorGroup
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    protected final List<DcMotorEx>     motors;
+    protected final ControllerGroup[]   controllerGroups;
+    protected final int[]               individualMotors;   // indices into motors: set one at a time
+    protected final double[]            uniformPowers;      // scratch for setPower()
+
+    /** The motors in the group that share a particular controller */
+    protected static class ControllerGroup
+        {
+        final DcMotorControllerEx   controller;
+        final DcMotorImpl[]         motors;     // in increasing port order, which is our lock order
+        final int[]                 indices;    // into the group's motors, parallel to the above
+        final int[]                 ports;      // ditto
+        final double[]              powers;     // scratch: the powers to send, ditto
+
+        ControllerGroup(DcMotorControllerEx controller, List<Integer> indices, final List<DcMotorEx> allMotors)
+            {
+            List<Integer> sorted = new ArrayList<Integer>(indices);
+            Collections.sort(sorted, new Comparator<Integer>()
+                {
+                @Override public int compare(Integer lhs, Integer rhs)
+                    {
+                    return Integer.compare(allMotors.get(lhs).getPortNumber(), allMotors.get(rhs).getPortNumber());
+                    }
+                });
+
+            this.controller = controller;
+            this.motors     = new DcMotorImpl[sorted.size()];
+            this.indices    = new int[sorted.size()];
+            this.ports      = new int[sorted.size()];
+            this.powers     = new double[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++)
+                {
+                this.indices[i] = sorted.get(i);
+                this.motors[i]  = (DcMotorImpl)allMotors.get(this.indices[i]);
+                this.ports[i]   = this.motors[i].getPortNumber();
+                }
+            }
+
+        /** Sets the powers of motors[i..], holding the locks of motors[0..i) */
+        void setPowers(int i)
+            {
+            if (i < this.motors.length)
+                {
+                synchronized (this.motors[i])
+                    {
+                    this.powers[i] = this.motors[i].adjustPowerForMode(this.powers[i]);
+                    setPowers(i + 1);
+                    }
+                }
+            else
+                {
+                this.controller.setMotorPowers(this.ports, this.powers);
+                }
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public DcMotorGroup(DcMotorEx... motors)
+        {
+        this(Arrays.asList(motors));
+        }
+
+    public DcMotorGroup(@NonNull List<? extends DcMotorEx> motors)
+        {
+        this.motors = Collections.unmodifiableList(new ArrayList<DcMotorEx>(motors));
+        this.uniformPowers = new double[this.motors.size()];
+
+        Map<DcMotorControllerEx, List<Integer>> motorsByController = new LinkedHashMap<DcMotorControllerEx, List<Integer>>();
+        List<Integer> individualMotors = new ArrayList<Integer>();
+        for (int i = 0; i < this.motors.size(); i++)
+            {
+            DcMotorEx motor = this.motors.get(i);
+            if (motor instanceof DcMotorImpl && motor.getController() instanceof DcMotorControllerEx)
+                {
+                DcMotorControllerEx controller = (DcMotorControllerEx)motor.getController();
+                List<Integer> indices = motorsByController.get(controller);
+                if (indices == null)
+                    {
+                    indices = new ArrayList<Integer>();
+                    motorsByController.put(controller, indices);
+                    }
+                indices.add(i);
+                }
+            else
+                {
+                individualMotors.add(i);
+                }
+            }
+
+        this.controllerGroups = new ControllerGroup[motorsByController.size()];
+        int iGroup = 0;
+        for (Map.Entry<DcMotorControllerEx, List<Integer>> pair : motorsByController.entrySet())
+            {
+            this.controllerGroups[iGroup++] = new ControllerGroup(pair.getKey(), pair.getValue(), this.motors);
+            }
+
+        this.individualMotors = new int[individualMotors.size()];
+        for (int i = 0; i < this.individualMotors.length; i++)
+            {
+            this.individualMotors[i] = individualMotors.get(i);
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessors
+    //----------------------------------------------------------------------------------------------
+
+    public List<DcMotorEx> getMotors()
+        {
+        return this.motors;
+        }
+
+    public int size()
+        {
+        return this.motors.size();
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Operations
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Sets all the motors in the group to the same power.
+     * @param power the new power level of the motors, a value in the interval [-1.0, 1.0]
+     * @see DcMotor#setPower(double)
+     */
+    public synchronized void setPower(double power)
+        {
+        Arrays.fill(this.uniformPowers, power);
+        setPowers(this.uniformPowers);
+        }
+
+    /**
+     * Sets the powers of the motors in the group.
+     * @param powers the new power levels, one for each motor, in the order in which the motors
+     *               were given to the group
+     * @see DcMotor#setPower(double)
+     */
+    public synchronized void setPowers(double... powers)
+        {
+        if (powers.length != this.motors.size())
+            {
+            throw new IllegalArgumentException(String.format("DcMotorGroup: %d powers given for %d motors", powers.length, this.motors.size()));
+            }
+
+        for (ControllerGroup group : this.controllerGroups)
+            {
+            for (int i = 0; i < group.indices.length; i++)
+                {
+                group.powers[i] = powers[group.indices[i]];
+                }
+            group.setPowers(0);
+            }
+
+        for (int index : this.individualMotors)
+            {
+            this.motors.get(index).setPower(powers[index]);
+            }
+        }
+    }
@@ -190,6 +190,14 @@ public class DcMotorImpl implements DcMotor {
    * @param power from -1.0 to 1.0
    */
   synchronized public void setPower(double power) {
+    internalSetPower(adjustPowerForMode(power));
+  }
+
+  /**
+   * Maps a power as given to {@link #setPower(double)} to the power to be sent to the controller.
+   * Must be called while synchronized on this motor.
+   */
+  protected double adjustPowerForMode(double power) {
     // Power must be positive when in RUN_TO_POSITION mode : in that mode, the
     // *direction* of rotation is controlled instead by the relative positioning
     // of the current and target positions.
@@ -198,7 +206,7 @@ public class DcMotorImpl implements DcMotor {
     } else {
         power = adjustPower(power);
     }
-    internalSetPower(power);
+    return power;
   }
 
   protected void internalSetPower(double power) {
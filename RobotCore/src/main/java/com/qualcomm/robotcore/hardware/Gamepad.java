@@ -326,10 +326,40 @@ public class Gamepad extends RobocolParsableBase {
 
   // private static values used for packaging the gamepad state into a byte array
   private static final short PAYLOAD_SIZE = 60;
-  private static final short BUFFER_SIZE = PAYLOAD_SIZE + RobocolParsable.HEADER_LENGTH;
+  public static final short BUFFER_SIZE = PAYLOAD_SIZE + RobocolParsable.HEADER_LENGTH;
 
   private static final byte ROBOCOL_GAMEPAD_VERSION = 5;
 
+  private static final Type[] TYPE_VALUES = Type.values(); // values() copies each time it's called
+
+  // The bits of the packed button state, as transmitted
+  static final int BUTTON_TOUCHPAD_FINGER_1  = 0x20000;
+  static final int BUTTON_TOUCHPAD_FINGER_2  = 0x10000;
+  static final int BUTTON_TOUCHPAD           = 0x08000;
+  static final int BUTTON_LEFT_STICK         = 0x04000;
+  static final int BUTTON_RIGHT_STICK        = 0x02000;
+  static final int BUTTON_DPAD_UP            = 0x01000;
+  static final int BUTTON_DPAD_DOWN          = 0x00800;
+  static final int BUTTON_DPAD_LEFT          = 0x00400;
+  static final int BUTTON_DPAD_RIGHT         = 0x00200;
+  static final int BUTTON_A                  = 0x00100;
+  static final int BUTTON_B                  = 0x00080;
+  static final int BUTTON_X                  = 0x00040;
+  static final int BUTTON_Y                  = 0x00020;
+  static final int BUTTON_GUIDE              = 0x00010;
+  static final int BUTTON_START              = 0x00008;
+  static final int BUTTON_BACK               = 0x00004;
+  static final int BUTTON_LEFT_BUMPER        = 0x00002;
+  static final int BUTTON_RIGHT_BUMPER       = 0x00001;
+
+  // Scratch space for copy(), so that copying, which happens every time an OpMode picks up new
+  // gamepad state, doesn't allocate
+  private static final ThreadLocal<ByteBuffer> copyBuffer = new ThreadLocal<ByteBuffer>() {
+    @Override protected ByteBuffer initialValue() {
+      return ByteBuffer.allocate(BUFFER_SIZE);
+    }
+  };
+
   public Gamepad() {
     this.type = type();
   }
@@ -342,7 +372,11 @@ public class Gamepad extends RobocolParsableBase {
    */
   public void copy(Gamepad gamepad) {
     // reuse the serialization code; since that reduces the chances of bugs
-    fromByteArray(gamepad.toByteArray());
+    ByteBuffer buffer = copyBuffer.get();
+    buffer.clear();
+    gamepad.writeTo(buffer);
+    buffer.flip();
+    readFrom(buffer);
   }
 
   /**
@@ -359,41 +393,31 @@ public class Gamepad extends RobocolParsableBase {
 
   @Override
   public byte[] toByteArray() {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    writeTo(buffer);
+    return buffer.array();
+  }
 
-    ByteBuffer buffer = getWriteBuffer(PAYLOAD_SIZE);
-
+  /**
+   * Serializes this gamepad, header and all, into {@link #BUFFER_SIZE} bytes of the indicated
+   * buffer, starting at its current position. Nothing is allocated.
+   */
+  public void writeTo(ByteBuffer buffer) {
     try {
-      int buttons = 0;
+      buffer.put(getRobocolMsgType().asByte());
+      buffer.putShort(PAYLOAD_SIZE);
+      buffer.putShort((short)sequenceNumber);
 
       buffer.put(ROBOCOL_GAMEPAD_VERSION);
       buffer.putInt(id);
-      buffer.putLong(timestamp).array();
-      buffer.putFloat(left_stick_x).array();
-      buffer.putFloat(left_stick_y).array();
-      buffer.putFloat(right_stick_x).array();
-      buffer.putFloat(right_stick_y).array();
-      buffer.putFloat(left_trigger).array();
-      buffer.putFloat(right_trigger).array();
-
-      buttons = (buttons << 1) + (touchpad_finger_1 ? 1 : 0);
-      buttons = (buttons << 1) + (touchpad_finger_2 ? 1 : 0);
-      buttons = (buttons << 1) + (touchpad ? 1 : 0);
-      buttons = (buttons << 1) + (left_stick_button ? 1 : 0);
-      buttons = (buttons << 1) + (right_stick_button ? 1 : 0);
-      buttons = (buttons << 1) + (dpad_up ? 1 : 0);
-      buttons = (buttons << 1) + (dpad_down ? 1 : 0);
-      buttons = (buttons << 1) + (dpad_left ? 1 : 0);
-      buttons = (buttons << 1) + (dpad_right ? 1 : 0);
-      buttons = (buttons << 1) + (a ? 1 : 0);
-      buttons = (buttons << 1) + (b ? 1 : 0);
-      buttons = (buttons << 1) + (x ? 1 : 0);
-      buttons = (buttons << 1) + (y ? 1 : 0);
-      buttons = (buttons << 1) + (guide ? 1 : 0);
-      buttons = (buttons << 1) + (start ? 1 : 0);
-      buttons = (buttons << 1) + (back ? 1 : 0);
-      buttons = (buttons << 1) + (left_bumper ? 1 : 0);
-      buttons = (buttons << 1) + (right_bumper ? 1 : 0);
-      buffer.putInt(buttons);
+      buffer.putLong(timestamp);
+      buffer.putFloat(left_stick_x);
+      buffer.putFloat(left_stick_y);
+      buffer.putFloat(right_stick_x);
+      buffer.putFloat(right_stick_y);
+      buffer.putFloat(left_trigger);
+      buffer.putFloat(right_trigger);
+      buffer.putInt(getButtons());
 
       // Version 2
       buffer.put(user);
@@ -412,8 +436,32 @@ public class Gamepad extends RobocolParsableBase {
     } catch (BufferOverflowException e) {
       RobotLog.logStacktrace(e);
     }
+  }
 
-    return buffer.array();
+  /**
+   * Returns the state of all the buttons, packed as they are transmitted
+   */
+  int getButtons() {
+    int buttons = 0;
+    if (touchpad_finger_1)  buttons |= BUTTON_TOUCHPAD_FINGER_1;
+    if (touchpad_finger_2)  buttons |= BUTTON_TOUCHPAD_FINGER_2;
+    if (touchpad)           buttons |= BUTTON_TOUCHPAD;
+    if (left_stick_button)  buttons |= BUTTON_LEFT_STICK;
+    if (right_stick_button) buttons |= BUTTON_RIGHT_STICK;
+    if (dpad_up)            buttons |= BUTTON_DPAD_UP;
+    if (dpad_down)          buttons |= BUTTON_DPAD_DOWN;
+    if (dpad_left)          buttons |= BUTTON_DPAD_LEFT;
+    if (dpad_right)         buttons |= BUTTON_DPAD_RIGHT;
+    if (a)                  buttons |= BUTTON_A;
+    if (b)                  buttons |= BUTTON_B;
+    if (x)                  buttons |= BUTTON_X;
+    if (y)                  buttons |= BUTTON_Y;
+    if (guide)              buttons |= BUTTON_GUIDE;
+    if (start)              buttons |= BUTTON_START;
+    if (back)               buttons |= BUTTON_BACK;
+    if (left_bumper)        buttons |= BUTTON_LEFT_BUMPER;
+    if (right_bumper)       buttons |= BUTTON_RIGHT_BUMPER;
+    return buttons;
   }
 
   @Override
@@ -421,8 +469,17 @@ public class Gamepad extends RobocolParsableBase {
     if (byteArray.length < BUFFER_SIZE) {
       throw new RuntimeException("Expected buffer of at least " + BUFFER_SIZE + " bytes, received " + byteArray.length);
     }
+    readFrom(ByteBuffer.wrap(byteArray));
+  }
 
-    ByteBuffer byteBuffer = getReadBuffer(byteArray);
+  /**
+   * Deserializes this gamepad from the indicated buffer, which is positioned at the start of
+   * a message header. Nothing is allocated.
+   */
+  protected void readFrom(ByteBuffer byteBuffer) {
+    byteBuffer.get();       // message type
+    byteBuffer.getShort();  // payload length
+    setSequenceNumber(byteBuffer.getShort());
 
     int buttons = 0;
 
@@ -441,24 +498,24 @@ public class Gamepad extends RobocolParsableBase {
       right_trigger = byteBuffer.getFloat();
 
       buttons = byteBuffer.getInt();
-      touchpad_finger_1   = (buttons & 0x20000) != 0;
-      touchpad_finger_2   = (buttons & 0x10000) != 0;
-      touchpad            = (buttons & 0x08000) != 0;
-      left_stick_button   = (buttons & 0x04000) != 0;
-      right_stick_button  = (buttons & 0x02000) != 0;
-      dpad_up             = (buttons & 0x01000) != 0;
-      dpad_down           = (buttons & 0x00800) != 0;
-      dpad_left           = (buttons & 0x00400) != 0;
-      dpad_right          = (buttons & 0x00200) != 0;
-      a                   = (buttons & 0x00100) != 0;
-      b                   = (buttons & 0x00080) != 0;
-      x                   = (buttons & 0x00040) != 0;
-      y                   = (buttons & 0x00020) != 0;
-      guide               = (buttons & 0x00010) != 0;
-      start               = (buttons & 0x00008) != 0;
-      back                = (buttons & 0x00004) != 0;
-      left_bumper         = (buttons & 0x00002) != 0;
-      right_bumper        = (buttons & 0x00001) != 0;
+      touchpad_finger_1   = (buttons & BUTTON_TOUCHPAD_FINGER_1) != 0;
+      touchpad_finger_2   = (buttons & BUTTON_TOUCHPAD_FINGER_2) != 0;
+      touchpad            = (buttons & BUTTON_TOUCHPAD) != 0;
+      left_stick_button   = (buttons & BUTTON_LEFT_STICK) != 0;
+      right_stick_button  = (buttons & BUTTON_RIGHT_STICK) != 0;
+      dpad_up             = (buttons & BUTTON_DPAD_UP) != 0;
+      dpad_down           = (buttons & BUTTON_DPAD_DOWN) != 0;
+      dpad_left           = (buttons & BUTTON_DPAD_LEFT) != 0;
+      dpad_right          = (buttons & BUTTON_DPAD_RIGHT) != 0;
+      a                   = (buttons & BUTTON_A) != 0;
+      b                   = (buttons & BUTTON_B) != 0;
+      x                   = (buttons & BUTTON_X) != 0;
+      y                   = (buttons & BUTTON_Y) != 0;
+      guide               = (buttons & BUTTON_GUIDE) != 0;
+      start               = (buttons & BUTTON_START) != 0;
+      back                = (buttons & BUTTON_BACK) != 0;
+      left_bumper         = (buttons & BUTTON_LEFT_BUMPER) != 0;
+      right_bumper        = (buttons & BUTTON_RIGHT_BUMPER) != 0;
     }
 
     // extract version 2 values
@@ -468,15 +525,15 @@ public class Gamepad extends RobocolParsableBase {
 
     // extract version 3 values
     if (version >= 3) {
-      type = Type.values()[byteBuffer.get()];
+      type = TYPE_VALUES[byteBuffer.get()];
     }
 
     if (version >= 4) {
       byte v4TypeValue = byteBuffer.get();
-      if (v4TypeValue < Type.values().length) {
+      if (v4TypeValue < TYPE_VALUES.length) {
         // Yes, this will replace the version 3 value. That is a good thing, since the version 3
         // value was not forwards-compatible.
-        type = Type.values()[v4TypeValue];
+        type = TYPE_VALUES[v4TypeValue];
       } // Else, we don't know what the number means, so we just stick with the value we got from the v3 type field
     }
 
@@ -489,7 +546,7 @@ public class Gamepad extends RobocolParsableBase {
 
     updateButtonAliases();
 
-    updateEdgeDetection();
+    updateEdgeDetection(buttons);
   }
 
   /**
@@ -912,8 +969,8 @@ public class Gamepad extends RobocolParsableBase {
     ps = guide;
   }
 
-  private void updateEdgeDetection() {
-    changes.updateAllButtons(this);
+  private void updateEdgeDetection(int buttons) {
+    changes.updateAllButtons(buttons);
   }
 
   /**
@@ -0,0 +1,215 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.hardware;
+
+import com.qualcomm.robotcore.exception.RobotCoreException;
+import com.qualcomm.robotcore.robocol.RobocolParsable;
+import com.qualcomm.robotcore.robocol.RobocolParsableBase;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link GamepadDelta} conveys the state of a {@link Gamepad} as just those of its fields which
+ * differ from an earlier, full, transmission of that gamepad which the receiver has acknowledged.
+ * Most of the time, only a stick or two and the timestamp are moving, so a delta is well under
+ * half the size of the full gamepad.
+ *
+ * Receivers acknowledge full gamepads with a delta message that carries no data; until a sender
+ * hears such an acknowledgment, it has nothing to base a delta upon, and keeps sending full
+ * gamepads. Deltas are applied to the serialized form of the base, and so yield exactly the bytes
+ * of the full gamepad they stand in for.
+ *
+ * @see org.firstinspires.ftc.robotcore.internal.network.GamepadDeltaEncoder
+ * @see org.firstinspires.ftc.robotcore.internal.network.GamepadDeltaDecoder
+ */
+@SuppressWarnings("WeakerAccess")
+public class GamepadDelta extends RobocolParsableBase {
+
+  /*
+   * The fields of a serialized (version 5) Gamepad, header included, which can appear in a delta.
+   * Bit i of the field mask indicates the presence of field i.
+   */
+  static final int[] FIELD_OFFSETS = { 5, 10, 18, 22, 26, 30, 34, 38, 42, 46, 49, 53, 57, 61 };
+  static final int[] FIELD_SIZES   = { 5,  8,  4,  4,  4,  4,  4,  4,  4,  3,  4,  4,  4,  4 };
+
+  static final int OFFSET_USER = 46;
+
+  /** beyond this many fields, a delta saves too little to be worth it */
+  public static final int MAX_CHANGED_FIELDS = 7;
+
+  private static final int FLAG_ACK    = 0x01;
+  private static final int FLAG_RESYNC = 0x02;  // in an ack: the base named by a delta is unknown to us
+
+  private int          flags = 0;
+  private byte         user = Gamepad.ID_UNASSOCIATED;
+  private int          baseSequenceNumber = 0;        // for an ack, the sequence number of the gamepad being acknowledged
+  private int          fieldMask = 0;
+  private final byte[] fieldBytes = new byte[Gamepad.BUFFER_SIZE];
+  private int          cbFieldBytes = 0;
+
+  public GamepadDelta() {
+  }
+
+  public GamepadDelta(byte[] byteArray) throws RobotCoreException {
+    fromByteArray(byteArray);
+  }
+
+  public static GamepadDelta forAck(byte user, int sequenceNumber, boolean resync) {
+    GamepadDelta result = new GamepadDelta();
+    result.flags = FLAG_ACK | (resync ? FLAG_RESYNC : 0);
+    result.user = user;
+    result.baseSequenceNumber = sequenceNumber;
+    return result;
+  }
+
+  public boolean isAck()                { return (flags & FLAG_ACK) != 0; }
+  public boolean isResyncRequest()      { return (flags & FLAG_RESYNC) != 0; }
+  public byte getUser()                 { return user; }
+  public int getBaseSequenceNumber()    { return baseSequenceNumber; }
+
+  /** Returns the user recorded in a full serialized gamepad */
+  public static byte getUser(byte[] gamepad) {
+    return gamepad[OFFSET_USER];
+  }
+
+  /** Returns the sequence number recorded in the header of a serialized message */
+  public static int getSequenceNumber(byte[] message) {
+    return ((message[3] & 0xFF) << 8) | (message[4] & 0xFF);
+  }
+
+  /**
+   * Makes this the delta from one full serialized gamepad to another. Returns false, leaving this
+   * delta unusable, if the gamepads are too different for a delta to be worthwhile. Nothing is
+   * allocated.
+   */
+  public boolean compute(byte[] base, int baseSequenceNumber, byte[] current) {
+    this.flags = 0;
+    this.user = getUser(current);
+    this.baseSequenceNumber = baseSequenceNumber;
+    this.fieldMask = 0;
+    this.cbFieldBytes = 0;
+    setSequenceNumber((short)getSequenceNumber(current));
+
+    int cFields = 0;
+    for (int i = 0; i < FIELD_OFFSETS.length; i++) {
+      int offset = FIELD_OFFSETS[i];
+      int size = FIELD_SIZES[i];
+      for (int ib = offset; ib < offset + size; ib++) {
+        if (base[ib] != current[ib]) {
+          if (++cFields > MAX_CHANGED_FIELDS) {
+            return false;
+          }
+          fieldMask |= 1 << i;
+          System.arraycopy(current, offset, fieldBytes, cbFieldBytes, size);
+          cbFieldBytes += size;
+          break;
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the full serialized gamepad which results from applying this delta to the indicated
+   * full serialized gamepad.
+   */
+  public byte[] apply(byte[] base) {
+    byte[] result = new byte[Gamepad.BUFFER_SIZE];
+    System.arraycopy(base, 0, result, 0, Gamepad.BUFFER_SIZE);
+    result[3] = (byte)(sequenceNumber >> 8);
+    result[4] = (byte)sequenceNumber;
+    int ibField = 0;
+    for (int i = 0; i < FIELD_OFFSETS.length; i++) {
+      if ((fieldMask & (1 << i)) != 0) {
+        System.arraycopy(fieldBytes, ibField, result, FIELD_OFFSETS[i], FIELD_SIZES[i]);
+        ibField += FIELD_SIZES[i];
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public MsgType getRobocolMsgType() {
+    return RobocolParsable.MsgType.GAMEPAD_DELTA;
+  }
+
+  /*
+   * Data format
+   *
+   * bytes    | format | value
+   * ---------|--------|---------------------------------
+   *  1       | uint8  | flags
+   *  1       | int8   | user
+   *  2       | uint16 | sequence number of the base (or, for an ack, of the acknowledged) gamepad
+   *  2       | uint16 | field mask (absent in acks)
+   *  varies  | bytes  | the fields present in the mask, in order (absent in acks)
+   */
+
+  @Override
+  public byte[] toByteArray() throws RobotCoreException {
+    int cbPayload = isAck() ? 4 : 6 + cbFieldBytes;
+    ByteBuffer buffer = getWriteBuffer(cbPayload);
+    buffer.put((byte)flags);
+    buffer.put(user);
+    buffer.putShort((short)baseSequenceNumber);
+    if (!isAck()) {
+      buffer.putShort((short)fieldMask);
+      buffer.put(fieldBytes, 0, cbFieldBytes);
+    }
+    return buffer.array();
+  }
+
+  @Override
+  public void fromByteArray(byte[] byteArray) throws RobotCoreException {
+    try {
+      ByteBuffer buffer = getReadBuffer(byteArray);
+      flags = buffer.get() & 0xFF;
+      user = buffer.get();
+      baseSequenceNumber = buffer.getShort() & 0xFFFF;
+      fieldMask = 0;
+      cbFieldBytes = 0;
+      if (!isAck()) {
+        fieldMask = buffer.getShort() & 0xFFFF;
+        for (int i = 0; i < FIELD_OFFSETS.length; i++) {
+          if ((fieldMask & (1 << i)) != 0) {
+            cbFieldBytes += FIELD_SIZES[i];
+          }
+        }
+        buffer.get(fieldBytes, 0, cbFieldBytes);
+      }
+    } catch (BufferUnderflowException e) {
+      throw RobotCoreException.createChained(e, "gamepad delta truncated");
+    }
+  }
+}
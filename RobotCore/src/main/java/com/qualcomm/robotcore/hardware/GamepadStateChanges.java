@@ -97,29 +97,63 @@ class GamepadStateChanges {
         }
     }
 
-    protected void updateAllButtons(Gamepad gamepad) {
-        dpadUp.update(gamepad.dpad_up);
-        dpadDown.update(gamepad.dpad_down);
-        dpadLeft.update(gamepad.dpad_left);
-        dpadRight.update(gamepad.dpad_right);
-        a.update(gamepad.a);
-        b.update(gamepad.b);
-        x.update(gamepad.x);
-        y.update(gamepad.y);
-        guide.update(gamepad.guide);
-        start.update(gamepad.start);
-        back.update(gamepad.back);
-        leftBumper.update(gamepad.left_bumper);
-        rightBumper.update(gamepad.right_bumper);
-        leftStickButton.update(gamepad.left_stick_button);
-        rightStickButton.update(gamepad.right_stick_button);
-        circle.update(gamepad.circle);
-        cross.update(gamepad.cross);
-        triangle.update(gamepad.triangle);
-        square.update(gamepad.square);
-        share.update(gamepad.share);
-        options.update(gamepad.options);
-        touchpad.update(gamepad.touchpad);
-        ps.update(gamepad.ps);
+    protected int lastButtons = 0; // as packed by Gamepad; every monitor starts out released
+
+    /**
+     * Updates the monitors from the packed state of the buttons. Only the monitors of buttons
+     * which differ from last time are touched; the others would see no edge anyway.
+     */
+    protected void updateAllButtons(int buttons) {
+        int changed = buttons ^ lastButtons;
+        lastButtons = buttons;
+        if (changed == 0) {
+            return;
+        }
+        if ((changed & Gamepad.BUTTON_DPAD_UP) != 0)      dpadUp.update((buttons & Gamepad.BUTTON_DPAD_UP) != 0);
+        if ((changed & Gamepad.BUTTON_DPAD_DOWN) != 0)    dpadDown.update((buttons & Gamepad.BUTTON_DPAD_DOWN) != 0);
+        if ((changed & Gamepad.BUTTON_DPAD_LEFT) != 0)    dpadLeft.update((buttons & Gamepad.BUTTON_DPAD_LEFT) != 0);
+        if ((changed & Gamepad.BUTTON_DPAD_RIGHT) != 0)   dpadRight.update((buttons & Gamepad.BUTTON_DPAD_RIGHT) != 0);
+        if ((changed & Gamepad.BUTTON_LEFT_BUMPER) != 0)  leftBumper.update((buttons & Gamepad.BUTTON_LEFT_BUMPER) != 0);
+        if ((changed & Gamepad.BUTTON_RIGHT_BUMPER) != 0) rightBumper.update((buttons & Gamepad.BUTTON_RIGHT_BUMPER) != 0);
+        if ((changed & Gamepad.BUTTON_LEFT_STICK) != 0)   leftStickButton.update((buttons & Gamepad.BUTTON_LEFT_STICK) != 0);
+        if ((changed & Gamepad.BUTTON_RIGHT_STICK) != 0)  rightStickButton.update((buttons & Gamepad.BUTTON_RIGHT_STICK) != 0);
+        if ((changed & Gamepad.BUTTON_TOUCHPAD) != 0)     touchpad.update((buttons & Gamepad.BUTTON_TOUCHPAD) != 0);
+
+        // The PS4 names are aliases of the others; see Gamepad#updateButtonAliases()
+        if ((changed & Gamepad.BUTTON_A) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_A) != 0;
+            a.update(pressed);
+            cross.update(pressed);
+        }
+        if ((changed & Gamepad.BUTTON_B) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_B) != 0;
+            b.update(pressed);
+            circle.update(pressed);
+        }
+        if ((changed & Gamepad.BUTTON_X) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_X) != 0;
+            x.update(pressed);
+            square.update(pressed);
+        }
+        if ((changed & Gamepad.BUTTON_Y) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_Y) != 0;
+            y.update(pressed);
+            triangle.update(pressed);
+        }
+        if ((changed & Gamepad.BUTTON_GUIDE) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_GUIDE) != 0;
+            guide.update(pressed);
+            ps.update(pressed);
+        }
+        if ((changed & Gamepad.BUTTON_START) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_START) != 0;
+            start.update(pressed);
+            options.update(pressed);
+        }
+        if ((changed & Gamepad.BUTTON_BACK) != 0) {
+            boolean pressed = (buttons & Gamepad.BUTTON_BACK) != 0;
+            back.update(pressed);
+            share.update(pressed);
+        }
     }
 }
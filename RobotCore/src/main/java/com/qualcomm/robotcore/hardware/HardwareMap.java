@@ -52,6 +52,7 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -118,6 +119,14 @@ public class HardwareMap implements Iterable<HardwareDevice> {
   public final Context appContext;
   protected final Object lock = new Object();
 
+  // Lock-free retrieval support. Successful (type, name) lookups are remembered in resolvedDevices,
+  // which is read without holding the lock; any change to the set of named devices replaces it
+  // and advances the generation, which in turn tells outstanding Handles to resolve themselves anew.
+  protected volatile int                      generation            = 0;
+  protected volatile Map<Class<?>, Map<String, HardwareDevice>> resolvedDevices = new ConcurrentHashMap<Class<?>, Map<String, HardwareDevice>>();
+  protected final Map<String, Handle<?>>      handlesByKey          = new HashMap<String, Handle<?>>();
+  protected volatile Handle<?>[]              handles               = new Handle<?>[0];
+
   private static final String TAG = "HardwareMap";
   @SuppressWarnings("rawtypes") // We have to use the raw type here as far as I (Noah) can tell
   private static final Class<I2cDeviceSynchDevice> i2cDriverBaseClass = I2cDeviceSynchDevice.class;
@@ -162,6 +171,7 @@ public class HardwareMap implements Iterable<HardwareDevice> {
       @Override public void onOpModePreInit(OpMode opMode) {
         synchronized (lock) {
           RobotLog.dd(TAG, "Clearing which device instances have been retrieved");
+          invalidateResolvedDevices();  // so that retrievals are recorded afresh
           for (List<DeviceInstancesFromSingleConfigEntry> configEntries: devicesWithMultipleDriversMap.values()) {
             for (DeviceInstancesFromSingleConfigEntry configEntryDriverInstances: configEntries) {
               for (DeviceInstanceHolder deviceInstanceHolder : configEntryDriverInstances.deviceInstanceHolders) {
@@ -198,6 +208,11 @@ public class HardwareMap implements Iterable<HardwareDevice> {
    * may take some time. As a result, you should ONLY call this method during the Init phase of your
    * OpMode.
    *
+   * Once a device has been successfully retrieved, later retrievals with the same type and name
+   * are answered without taking the hardware map's lock until the configuration changes. Code
+   * that retrieves devices in a loop should nevertheless prefer a {@link Handle}, which avoids
+   * even the map lookups.
+   *
    * @param classOrInterface  the class or interface indicating the type of the device object to be retrieved
    * @param deviceName        the name of the device object to be retrieved
    * @return a device with the indicated name which is an instance of the indicated class or interface
@@ -205,14 +220,13 @@ public class HardwareMap implements Iterable<HardwareDevice> {
    * @see #getAll(Class)
    * @see com.qualcomm.robotcore.hardware.HardwareMap.DeviceMapping#get(String)
    * @see #tryGet(Class, String)
+   * @see #handle(Class, String)
    */
   public <T> T get(Class<? extends T> classOrInterface, String deviceName) {
-    synchronized (lock) {
-      deviceName = deviceName.trim();
-      T result = tryGet(classOrInterface, deviceName);
-      if (result==null) throw new IllegalArgumentException(String.format("Unable to find a hardware device with name \"%s\" and type %s", deviceName, classOrInterface.getSimpleName()));
-      return result;
-      }
+    deviceName = deviceName.trim();
+    T result = tryGet(classOrInterface, deviceName);
+    if (result==null) throw new IllegalArgumentException(String.format("Unable to find a hardware device with name \"%s\" and type %s", deviceName, classOrInterface.getSimpleName()));
+    return result;
   }
 
   /**
@@ -229,8 +243,21 @@ public class HardwareMap implements Iterable<HardwareDevice> {
    * @see #get(Class, String)
    */
   public @Nullable <T> T tryGet(Class<? extends T> classOrInterface, String deviceName) {
+    deviceName = deviceName.trim();
+
+    // The common case: this very lookup has succeeded before, and nothing has changed since.
+    // The warnings below have then already been issued, but the device may still need to be
+    // initialized, as initialization can fail, or be undone by disarming, and is then retried.
+    Map<String, HardwareDevice> resolved = resolvedDevices.get(classOrInterface);
+    if (resolved != null) {
+      HardwareDevice device = resolved.get(deviceName);
+      if (device != null) {
+        initializeDeviceIfNecessary(device);
+        return classOrInterface.cast(device);
+      }
+    }
+
     synchronized (lock) {
-      deviceName = deviceName.trim();
       List<HardwareDevice> list = allDevicesMap.get(deviceName);
       @Nullable T result = null;
 
@@ -279,10 +306,104 @@ public class HardwareMap implements Iterable<HardwareDevice> {
         }
       }
 
+      if (result != null) {
+        rememberResolved(classOrInterface, deviceName, (HardwareDevice) result);
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * Returns a {@link Handle} for the (first) device with the indicated name which is also an
+   * instance of the indicated class or interface. If no such device is found, an exception is
+   * thrown. The lookup is done once, here; the handle can then be used freely in the loop of an
+   * OpMode, as retrieving the device from it is merely a field read:
+   *
+   * <pre>
+   *    HardwareMap.Handle&lt;DcMotor&gt; motorLeft = hardwareMap.handle(DcMotor.class, "motorLeft");
+   *    ...
+   *    motorLeft.get().setPower(power);
+   * </pre>
+   *
+   * Should the configuration subsequently change, the handle transparently looks the device up
+   * again. Handles are interned: asking for the same type and name again returns the same handle,
+   * and thus the same {@link Handle#getIndex() index}.
+   *
+   * @param classOrInterface  the class or interface indicating the type of the device object to be retrieved
+   * @param deviceName        the name of the device object to be retrieved
+   * @return a handle on the device with the indicated name and type
+   * @see #get(Class, String)
+   * @see #indexOf(Class, String)
+   * @see #getArray(Class, String...)
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Handle<T> handle(Class<? extends T> classOrInterface, String deviceName) {
+    synchronized (lock) {
+      deviceName = deviceName.trim();
+      String key = classOrInterface.getName() + "/" + deviceName;
+      Handle<T> result = (Handle<T>) handlesByKey.get(key);
+      if (result == null) {
+        int generation = this.generation;
+        T device = get(classOrInterface, deviceName);
+        result = new Handle<T>(classOrInterface, deviceName, handles.length, device, generation);
+        handlesByKey.put(key, result);
+
+        Handle<?>[] newHandles = new Handle<?>[handles.length + 1];
+        System.arraycopy(handles, 0, newHandles, 0, handles.length);
+        newHandles[result.index] = result;
+        handles = newHandles;
+      }
       return result;
     }
   }
 
+  /**
+   * Returns the stable integer index of the {@link Handle} for the indicated type and name,
+   * creating the handle if necessary. The index may subsequently be used with
+   * {@link #get(Class, int)}.
+   *
+   * @see #handle(Class, String)
+   */
+  public int indexOf(Class<? extends HardwareDevice> classOrInterface, String deviceName) {
+    return handle(classOrInterface, deviceName).getIndex();
+  }
+
+  /**
+   * Retrieves the device whose {@link Handle} has the indicated index, cast to the indicated class
+   * or interface. This never takes a lock unless the configuration has changed since the device
+   * was last retrieved.
+   *
+   * @param classOrInterface  the class or interface indicating the type of the device object to be retrieved
+   * @param index             an index previously returned by {@link #indexOf(Class, String)}
+   * @return the device with the indicated index
+   * @throws IndexOutOfBoundsException if no handle has the indicated index
+   */
+  public <T> T get(Class<? extends T> classOrInterface, int index) {
+    return classOrInterface.cast(handles[index].get());
+  }
+
+  /**
+   * Returns a {@link DeviceArray} of the devices with the indicated names, each of which must be an
+   * instance of the indicated class or interface. Example:
+   *
+   * <pre>
+   *    HardwareMap.DeviceArray&lt;DcMotor&gt; drive = hardwareMap.getArray(DcMotor.class, "fl", "fr", "bl", "br");
+   *    for (int i = 0; i &lt; drive.size(); i++) {
+   *        drive.get(i).setPower(powers[i]);
+   *    }
+   * </pre>
+   *
+   * @see #handle(Class, String)
+   */
+  public <T> DeviceArray<T> getArray(Class<? extends T> classOrInterface, String... deviceNames) {
+    List<Handle<T>> handles = new ArrayList<Handle<T>>(deviceNames.length);
+    for (String deviceName : deviceNames) {
+      handles.add(this.<T>handle(classOrInterface, deviceName));
+    }
+    return new DeviceArray<T>(handles);
+  }
+
   /**
    * (Advanced) Returns the device with the indicated {@link SerialNumber}, if it exists,
    * cast to the indicated class or interface; otherwise, null.
@@ -451,6 +572,7 @@ public class HardwareMap implements Iterable<HardwareDevice> {
       }
       rebuildDeviceNamesIfNecessary();
       recordDeviceName(deviceName, device);
+      invalidateResolvedDevices();
     }
   }
 
@@ -495,6 +617,7 @@ public class HardwareMap implements Iterable<HardwareDevice> {
         if (serialNumber != null) {
           serialNumberMap.remove(serialNumber);
         }
+        invalidateResolvedDevices();
         return true;
       }
       return false;
@@ -613,6 +736,25 @@ public class HardwareMap implements Iterable<HardwareDevice> {
     }
   }
 
+  /** Must be called with the lock held */
+  private void rememberResolved(Class<?> classOrInterface, String deviceName, HardwareDevice device) {
+    Map<String, HardwareDevice> resolved = resolvedDevices.get(classOrInterface);
+    if (resolved == null) {
+      resolved = new ConcurrentHashMap<String, HardwareDevice>();
+      resolvedDevices.put(classOrInterface, resolved);
+    }
+    resolved.put(deviceName, device);
+  }
+
+  /**
+   * Forgets all remembered lookups and advances the generation so that all {@link Handle}s will
+   * look their devices up again. Must be called with the lock held.
+   */
+  protected void invalidateResolvedDevices() {
+    resolvedDevices = new ConcurrentHashMap<Class<?>, Map<String, HardwareDevice>>();
+    generation++;
+  }
+
   //------------------------------------------------------------------------------------------------
   // Types
   //------------------------------------------------------------------------------------------------
@@ -807,6 +949,113 @@ public class HardwareMap implements Iterable<HardwareDevice> {
     }
   }
 
+  /**
+   * A Handle is a precompiled lookup of a device of a particular type and name in a
+   * {@link HardwareMap}. Retrieving the device from a handle neither takes a lock nor consults any
+   * map unless the configuration of the HardwareMap has changed since the device was last
+   * retrieved, in which case the device is looked up anew.
+   *
+   * @param <T> the type of the device
+   * @see HardwareMap#handle(Class, String)
+   */
+  public class Handle<T> {
+    protected final Class<? extends T> classOrInterface;
+    protected final String deviceName;
+    protected final int index;
+    protected T device;                           // published by the subsequent write of resolvedGeneration
+    protected volatile int resolvedGeneration;
+
+    protected Handle(Class<? extends T> classOrInterface, String deviceName, int index, T device, int generation) {
+      this.classOrInterface = classOrInterface;
+      this.deviceName = deviceName;
+      this.index = index;
+      this.device = device;
+      this.resolvedGeneration = generation;
+    }
+
+    /** Returns the stable index of this handle within its {@link HardwareMap} */
+    public int getIndex() {
+      return index;
+    }
+
+    public String getDeviceName() {
+      return deviceName;
+    }
+
+    /**
+     * Returns the device referred to by this handle. If the device has since been removed from
+     * the HardwareMap, an exception is thrown.
+     */
+    public T get() {
+      if (resolvedGeneration != generation) {
+        resolve();
+      }
+      return device;
+    }
+
+    protected void resolve() {
+      synchronized (lock) {
+        int generation = HardwareMap.this.generation;
+        device = HardwareMap.this.get(classOrInterface, deviceName);
+        resolvedGeneration = generation;
+      }
+    }
+
+    @Override public String toString() {
+      return String.format("Handle(%s \"%s\" #%d)", classOrInterface.getSimpleName(), deviceName, index);
+    }
+  }
+
+  /**
+   * A DeviceArray is a fixed, indexable collection of {@link Handle}s, for code that drives
+   * several devices of like type together.
+   *
+   * @param <T> the type of the devices
+   * @see HardwareMap#getArray(Class, String...)
+   */
+  public class DeviceArray<T> implements Iterable<T> {
+    private final Handle<?>[] handles;
+
+    protected DeviceArray(List<Handle<T>> handles) {
+      this.handles = handles.toArray(new Handle<?>[handles.size()]);
+    }
+
+    /** Returns the device at the indicated position in this array */
+    @SuppressWarnings("unchecked")
+    public T get(int i) {
+      return ((Handle<T>) handles[i]).get();
+    }
+
+    /** Returns the handle at the indicated position in this array */
+    @SuppressWarnings("unchecked")
+    public Handle<T> getHandle(int i) {
+      return (Handle<T>) handles[i];
+    }
+
+    /**
+     * @return the number of devices in this DeviceArray
+     */
+    public int size() {
+      return handles.length;
+    }
+
+    @Override public @NonNull Iterator<T> iterator() {
+      return new Iterator<T>() {
+        int next = 0;
+        @Override public boolean hasNext() {
+          return next < handles.length;
+        }
+        @Override public T next() {
+          if (!hasNext()) throw new NoSuchElementException();
+          return get(next++);
+        }
+        @Override public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
+
   //------------------------------------------------------------------------------------------------
   // Utility
   //------------------------------------------------------------------------------------------------
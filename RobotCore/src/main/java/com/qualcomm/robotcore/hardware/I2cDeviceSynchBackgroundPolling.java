@@ -0,0 +1,72 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.hardware;
+
+import androidx.annotation.Nullable;
+
+/**
+ * {@link I2cDeviceSynchBackgroundPolling} is implemented by I2C devices that can keep a window of registers refreshed in the background, so that reads of registers within
+ * that window can be answered from recently-read data without waiting on the I2C bus. Whether
+ * such polling actually takes place is up to the implementation (and, typically, to a setting
+ * on the controller to which the device is attached).
+ *
+ * <p>Polling is strictly opt-in: a driver must call {@link #setBackgroundReadWindow(I2cDeviceSynch.ReadWindow)}
+ * itself, and should only do so if its device tolerates reads at arbitrary times (devices with
+ * paged registers, for instance, do not). The {@link I2cDeviceSynch.ReadWindow read window} of an
+ * {@link I2cDeviceSynch} is never polled on its own. {@link I2cDeviceSynchImplOnSimple} forwards
+ * the background window to its underlying simple device when the latter implements this interface.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public interface I2cDeviceSynchBackgroundPolling
+    {
+    /**
+     * Sets the window of registers to be kept refreshed in the background. Only windows in
+     * {@link I2cDeviceSynch.ReadMode#REPEAT REPEAT} mode are polled; null stops any polling.
+     *
+     * @param window the window to poll, or null
+     * @see #getBackgroundReadWindow()
+     */
+    void setBackgroundReadWindow(@Nullable I2cDeviceSynch.ReadWindow window);
+
+    /**
+     * Returns the window most recently set with {@link #setBackgroundReadWindow(I2cDeviceSynch.ReadWindow)}.
+     * @return the current background read window, or null if none
+     */
+    @Nullable I2cDeviceSynch.ReadWindow getBackgroundReadWindow();
+
+    /**
+     * Answers whether background reads of the current window are actually taking place.
+     * @return whether background reads are taking place
+     */
+    boolean isBackgroundPolling();
+    }
@@ -46,7 +46,7 @@ import java.util.concurrent.TimeUnit;
  * readwindow functionality.
  */
 @SuppressWarnings("WeakerAccess")
-public class I2cDeviceSynchImplOnSimple extends I2cDeviceSynchReadHistoryImpl implements I2cDeviceSynch
+public class I2cDeviceSynchImplOnSimple extends I2cDeviceSynchReadHistoryImpl implements I2cDeviceSynch, I2cDeviceSynchBackgroundPolling
     {
     //----------------------------------------------------------------------------------------------
     // State
@@ -324,6 +324,37 @@ public class I2cDeviceSynchImplOnSimple extends I2cDeviceSynchReadHistoryImpl im
         return readTimeStamped(ireg, creg);
         }
 
+    //----------------------------------------------------------------------------------------------
+    // Background polling
+    //----------------------------------------------------------------------------------------------
+
+    // The read window above is deliberately ignored, as polling it behind a driver's back would
+    // interleave reads with, e.g., page-select writes. Drivers that are safe to poll opt in here.
+
+    @Override
+    public void setBackgroundReadWindow(@Nullable ReadWindow window)
+        {
+        if (this.i2cDeviceSynchSimple instanceof I2cDeviceSynchBackgroundPolling)
+            {
+            ((I2cDeviceSynchBackgroundPolling) this.i2cDeviceSynchSimple).setBackgroundReadWindow(window == null ? null : window.readableCopy());
+            }
+        }
+
+    @Override
+    @Nullable public ReadWindow getBackgroundReadWindow()
+        {
+        return this.i2cDeviceSynchSimple instanceof I2cDeviceSynchBackgroundPolling
+                ? ((I2cDeviceSynchBackgroundPolling) this.i2cDeviceSynchSimple).getBackgroundReadWindow()
+                : null;
+        }
+
+    @Override
+    public boolean isBackgroundPolling()
+        {
+        return this.i2cDeviceSynchSimple instanceof I2cDeviceSynchBackgroundPolling
+                && ((I2cDeviceSynchBackgroundPolling) this.i2cDeviceSynchSimple).isBackgroundPolling();
+        }
+
     //----------------------------------------------------------------------------------------------
     // HardwareDevice
     //----------------------------------------------------------------------------------------------
@@ -411,6 +442,13 @@ public class I2cDeviceSynchImplOnSimple extends I2cDeviceSynchReadHistoryImpl im
                 : i2cDeviceSynchSimpleHistory.getHistoryQueueCapacity();
         }
 
+    @Override public I2cTransactionStatistics getTransactionStatistics()
+        {
+        return i2cDeviceSynchSimpleHistory==null
+                ? super.getTransactionStatistics()
+                : i2cDeviceSynchSimpleHistory.getTransactionStatistics();
+        }
+
     @Override public void addToHistoryQueue(TimestampedI2cData data)
         {
         if (i2cDeviceSynchSimpleHistory==null)
@@ -32,6 +32,8 @@ THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package com.qualcomm.robotcore.hardware;
 
+import androidx.annotation.Nullable;
+
 import java.util.concurrent.BlockingQueue;
 
 /**
@@ -88,4 +90,17 @@ public interface I2cDeviceSynchReadHistory
      * @see #setHistoryQueueCapacity(int)
      */
     BlockingQueue<TimestampedI2cData> getHistoryQueue();
+
+    /**
+     * (Advanced) Returns statistics on how the device's I2C transactions have been carried out,
+     * notably on how many status queries were needed to learn of their completion. Useful for
+     * judging how much of the shared link to the controller a device is consuming.
+     *
+     * @return the statistics, or null if the underlying controller doesn't keep any
+     * @see I2cTransactionStatistics
+     */
+    @Nullable default I2cTransactionStatistics getTransactionStatistics()
+        {
+        return null;
+        }
     }
@@ -97,6 +97,11 @@ public class I2cDeviceSynchReadHistoryImpl implements I2cDeviceSynchReadHistory
             }
         }
 
+    @Override public I2cTransactionStatistics getTransactionStatistics()
+        {
+        return null; // we only record what's read, not how
+        }
+
     //----------------------------------------------------------------------------------------------
     // Queue maintenance
     //----------------------------------------------------------------------------------------------
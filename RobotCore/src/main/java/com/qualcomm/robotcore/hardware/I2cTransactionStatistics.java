@@ -0,0 +1,80 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.hardware;
+
+/**
+ * {@link I2cTransactionStatistics} is a snapshot of how the I2C transactions of a device have
+ * been carried out: how long they took, and how many status queries were needed to learn of
+ * their completion. Controllers that need not query for completion report no such statistics.
+ *
+ * @see I2cDeviceSynchReadHistory#getTransactionStatistics()
+ */
+@SuppressWarnings("WeakerAccess")
+public class I2cTransactionStatistics
+    {
+    /** the number of transactions whose completion was awaited */
+    public final long   transactionCount;
+
+    /** the total number of status queries issued while awaiting those completions */
+    public final long   statusQueryCount;
+
+    /** the mean time from the start of a transaction until its completion was learned */
+    public final double msMeanLatency;
+
+    /** the longest such time */
+    public final double msMaxLatency;
+
+    /** the current predicted duration of a one-byte transaction, from which the first status query is scheduled */
+    public final double msPredictedOverhead;
+
+    public I2cTransactionStatistics(long transactionCount, long statusQueryCount, double msMeanLatency, double msMaxLatency, double msPredictedOverhead)
+        {
+        this.transactionCount = transactionCount;
+        this.statusQueryCount = statusQueryCount;
+        this.msMeanLatency = msMeanLatency;
+        this.msMaxLatency = msMaxLatency;
+        this.msPredictedOverhead = msPredictedOverhead;
+        }
+
+    /** the mean number of status queries needed per transaction; ideally, close to one */
+    public double getStatusQueriesPerTransaction()
+        {
+        return transactionCount == 0 ? 0 : statusQueryCount / (double) transactionCount;
+        }
+
+    @Override public String toString()
+        {
+        return String.format("transactions=%d queries/transaction=%.2f mean=%.2fms max=%.2fms",
+                transactionCount, getStatusQueriesPerTransaction(), msMeanLatency, msMaxLatency);
+        }
+    }
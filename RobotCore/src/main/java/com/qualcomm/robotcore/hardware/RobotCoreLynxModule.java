@@ -45,4 +45,13 @@ public interface RobotCoreLynxModule extends HardwareDevice
     String getNullableFirmwareVersionString();
     boolean isParent();
     void attemptFailSafeAndIgnoreErrors();
+
+    /**
+     * Transmits any motor and servo writes that have been coalesced on this module. This is called
+     * by the SDK after each pass through the user code of an OpMode, and does nothing if write
+     * coalescing is not in use.
+     */
+    default void flushCoalescedWrites()
+        {
+        }
     }
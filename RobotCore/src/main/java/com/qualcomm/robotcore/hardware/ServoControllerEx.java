@@ -88,4 +88,24 @@ public interface ServoControllerEx extends ServoController
      * @param servoType the ServoConfigurationType instance to set
      */
     void setServoType(int servo, ServoConfigurationType servoType);
+
+    /**
+     * Sets the positions of several servos on this controller at once. Controllers may transmit
+     * the changes together, so that the servos move as nearly simultaneously as the hardware
+     * allows; by default, the positions are simply set one servo at a time.
+     * @param servos the servo port numbers on the controller
+     * @param positions the new positions for those servos, in the same order
+     * @see ServoController#setServoPosition(int, double)
+     */
+    default void setServoPositions(int[] servos, double[] positions)
+        {
+        if (servos.length != positions.length)
+            {
+            throw new IllegalArgumentException(String.format("setServoPositions: %d servos but %d positions", servos.length, positions.length));
+            }
+        for (int i = 0; i < servos.length; i++)
+            {
+            setServoPosition(servos[i], positions[i]);
+            }
+        }
     }
@@ -66,7 +66,7 @@ import com.qualcomm.robotcore.util.Util;
 import org.firstinspires.ftc.robotcore.external.Predicate;
 import org.firstinspires.ftc.robotcore.internal.network.NetworkConnectionHandler;
 import org.firstinspires.ftc.robotcore.internal.network.RobotCoreCommandList;
-import org.firstinspires.ftc.robotcore.internal.opmode.ClassFilter;
+import org.firstinspires.ftc.robotcore.internal.opmode.IndexableClassFilter;
 import org.firstinspires.ftc.robotcore.internal.opmode.OnBotJavaDeterminer;
 
 import java.lang.annotation.Annotation;
@@ -94,7 +94,7 @@ import java.util.TreeSet;
  * @see I2cDeviceType
  */
 @SuppressLint("StaticFieldLeak")
-public final class ConfigurationTypeManager implements ClassFilter
+public final class ConfigurationTypeManager implements IndexableClassFilter
     {
     //----------------------------------------------------------------------------------------------
     // State
@@ -535,6 +535,12 @@ public final class ConfigurationTypeManager implements ClassFilter
         filterClass(clazz, classSource);
         }
 
+    @Override public boolean isCandidateClass(Class<?> clazz)
+        {
+        // Every configuration type we recognize is declared with a class-level annotation
+        return clazz.getAnnotations().length > 0;
+        }
+
     @Override public void filterOnBotJavaClass(Class clazz)
         {
         filterClass(clazz, ClassSource.ONBOTJAVA);
@@ -33,6 +33,7 @@ package com.qualcomm.robotcore.robocol;
 import androidx.annotation.Nullable;
 
 import com.qualcomm.robotcore.exception.RobotCoreException;
+import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 import com.qualcomm.robotcore.util.TypeConversion;
 
@@ -53,6 +54,10 @@ import java.util.Comparator;
 @SuppressWarnings("WeakerAccess")
 public class Command extends RobocolParsableBase implements Comparable<Command>, Comparator<Command> {
 
+  // retransmissions are first 100ms apart, then 200ms, 400ms, and 800ms thereafter
+  private static final long nanotimeRetransmitInterval = 100L * ElapsedTime.MILLIS_IN_NANO;
+  private static final int  maxRetransmitDoublings = 3;
+
   // space for the timestamp (8 bytes), ack byte (1 byte)
   private static final short cbStringLength = 2;
   private static final short cbPayloadBase = 8 + 1;
@@ -134,6 +139,26 @@ public class Command extends RobocolParsableBase implements Comparable<Command>,
     return mTransmissionDeadline != null && mTransmissionDeadline.hasExpired();
   }
 
+  /**
+   * Returns the System.nanoTime() at which this command is next due for (re)transmission, or
+   * {@link Long#MIN_VALUE} if it's due right away, as are commands not yet transmitted and acks.
+   * Retransmissions back off exponentially, so that a command that's not getting through doesn't
+   * add more than its share to whatever congestion is keeping it from doing so.
+   */
+  public long getNanotimeNextTransmit() {
+    if (nanotimeTransmit == 0 || mAcknowledged) {
+      return Long.MIN_VALUE;
+    }
+    int doublings = Math.min(Math.max(mAttempts - 1, 0), maxRetransmitDoublings);
+    return nanotimeTransmit + (nanotimeRetransmitInterval << doublings);
+  }
+
+  @Override
+  public boolean shouldTransmit(long nanotimeNow) {
+    long nanotimeNext = getNanotimeNextTransmit();
+    return nanotimeNext == Long.MIN_VALUE || nanotimeNow - nanotimeNext >= 0;
+  }
+
   /*
    * (non-Javadoc)
    * @see com.qualcomm.robotcore.robocol.RobocolParsable#getRobocolMsgType()
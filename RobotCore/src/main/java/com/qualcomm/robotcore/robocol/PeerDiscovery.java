@@ -48,6 +48,18 @@ public class PeerDiscovery extends RobocolParsableBase {
 
   public static final String TAG = "PeerDiscovery";
 
+  /*
+   * Capabilities are optional protocol features that a peer advertises that it understands. Peers
+   * predating them send zero, so a feature must only be used with a peer that advertises it.
+   * NOTE: never reuse or reassign a capability bit.
+   */
+  public static final int CAPABILITY_BATCH = 0x01;  // receives MsgType.BATCH datagrams
+  public static final int CAPABILITY_TELEMETRY_FRAME = 0x02;  // receives and acknowledges MsgType.TELEMETRY_FRAME
+  public static final int CAPABILITY_GAMEPAD_DELTA = 0x04;  // receives MsgType.GAMEPAD_DELTA, and acknowledges GAMEPADs for them
+
+  /** the capabilities of this app */
+  public static final int LOCAL_CAPABILITIES = CAPABILITY_BATCH | CAPABILITY_TELEMETRY_FRAME | CAPABILITY_GAMEPAD_DELTA;
+
   //------------------------------------------------------------------------------------------------
   // Types
   //------------------------------------------------------------------------------------------------
@@ -107,26 +119,28 @@ public class PeerDiscovery extends RobocolParsableBase {
   private short sdkBuildYear;
   private int sdkMajorVersion;
   private int sdkMinorVersion;
+  private int capabilities;
 
   //------------------------------------------------------------------------------------------------
   // Construction
   //------------------------------------------------------------------------------------------------
 
   public static PeerDiscovery forReceive() {
-    return new PeerDiscovery(PeerType.NOT_SET, (byte) 1, (short) 1, 0, 0);
+    return new PeerDiscovery(PeerType.NOT_SET, (byte) 1, (short) 1, 0, 0, 0);
   }
 
   public static PeerDiscovery forTransmission(PeerDiscovery.PeerType peerType) {
     YearMonth buildMonth = AppUtil.getInstance().getLocalSdkBuildMonth();
-    return new PeerDiscovery(peerType, (byte) buildMonth.getMonthValue(), (short) buildMonth.getYear(), BuildConfig.SDK_MAJOR_VERSION, BuildConfig.SDK_MINOR_VERSION);
+    return new PeerDiscovery(peerType, (byte) buildMonth.getMonthValue(), (short) buildMonth.getYear(), BuildConfig.SDK_MAJOR_VERSION, BuildConfig.SDK_MINOR_VERSION, LOCAL_CAPABILITIES);
   }
 
-  private PeerDiscovery(PeerDiscovery.PeerType peerType, byte sdkBuildMonth, short sdkBuildYear, int sdkMajorVersion, int sdkMinorVersion) {
+  private PeerDiscovery(PeerDiscovery.PeerType peerType, byte sdkBuildMonth, short sdkBuildYear, int sdkMajorVersion, int sdkMinorVersion, int capabilities) {
     this.peerType = peerType;
     this.sdkBuildMonth = sdkBuildMonth;
     this.sdkBuildYear = sdkBuildYear;
     this.sdkMajorVersion = sdkMajorVersion;
     this.sdkMinorVersion = sdkMinorVersion;
+    this.capabilities = capabilities;
   }
 
   //------------------------------------------------------------------------------------------------
@@ -166,6 +180,13 @@ public class PeerDiscovery extends RobocolParsableBase {
     return sdkMinorVersion;
   }
 
+  /**
+   * @return the CAPABILITY_ flags of the peer that sent this packet
+   */
+  public int getCapabilities() {
+    return capabilities;
+  }
+
   @Override
   public MsgType getRobocolMsgType() {
     return RobocolParsable.MsgType.PEER_DISCOVERY;
@@ -196,7 +217,7 @@ public class PeerDiscovery extends RobocolParsableBase {
   //  2 bytes   year that the SDK version was released in (big endian)
   //  1 byte    major SDK version number (unsigned)
   //  1 byte    minor SDK version number (unsigned)
-  //  1 byte    ignored
+  //  1 byte    capability flags (CAPABILITY_*). This byte was once ignored, and was sent as zero.
 
   static final int cbBufferHistorical  = 13;
   static final int cbPayloadHistorical = 10;
@@ -214,6 +235,7 @@ public class PeerDiscovery extends RobocolParsableBase {
       buffer.putShort(sdkBuildYear);
       buffer.put((byte) sdkMajorVersion);
       buffer.put((byte) sdkMinorVersion);
+      buffer.put((byte) capabilities);
     } catch (BufferOverflowException e) {
       RobotLog.logStacktrace(e);
     }
@@ -237,6 +259,7 @@ public class PeerDiscovery extends RobocolParsableBase {
     sdkBuildYear             = byteBuffer.getShort();
     sdkMajorVersion          = TypeConversion.unsignedByteToInt(byteBuffer.get());
     sdkMinorVersion          = TypeConversion.unsignedByteToInt(byteBuffer.get());
+    capabilities             = TypeConversion.unsignedByteToInt(byteBuffer.get());
 
     // We insist on both ends having the same understanding of the protocol. Something fancier
     // we could do in the future is the usual major.minor version management, but that doesn't
@@ -0,0 +1,137 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.robocol;
+
+import com.qualcomm.robotcore.exception.RobotCoreException;
+import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.TypeConversion;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link RobocolBatch} coalesces several small Robocol messages into one {@link MsgType#BATCH}
+ * datagram, so that what we have to send at any one moment costs one packet on the air rather
+ * than several.
+ *
+ * The payload of a batch is simply its messages, each complete with its own header, one after
+ * the other. A receiver {@link #split}s a batch back into its messages before processing them,
+ * so nothing downstream of the socket need know that batching happened. A batch containing just
+ * one message is transmitted as that bare message.
+ */
+@SuppressWarnings("WeakerAccess")
+public class RobocolBatch extends RobocolParsableBase {
+
+  /** We keep batches within a single Ethernet-sized frame, so that batching never causes IP fragmentation */
+  public static final int MAX_BATCH_SIZE = 1400;
+
+  protected final List<byte[]> messages = new ArrayList<byte[]>();
+  protected int cbPayload = 0;
+
+  public RobocolBatch() {
+  }
+
+  /**
+   * Adds a serialized message to this batch. Returns false, adding nothing, if the message won't
+   * fit; an empty batch will take any message, no matter how large.
+   */
+  public boolean add(byte[] message) {
+    if (!messages.isEmpty() && HEADER_LENGTH + cbPayload + message.length > MAX_BATCH_SIZE) {
+      return false;
+    }
+    messages.add(message);
+    cbPayload += message.length;
+    return true;
+  }
+
+  public boolean isEmpty() {
+    return messages.isEmpty();
+  }
+
+  /** Empties this batch so that it may be reused for another transmission */
+  public void clear() {
+    messages.clear();
+    cbPayload = 0;
+    setSequenceNumber();
+  }
+
+  @Override
+  public MsgType getRobocolMsgType() {
+    return MsgType.BATCH;
+  }
+
+  @Override
+  public byte[] toByteArray() throws RobotCoreException {
+    if (messages.size() == 1) {
+      return messages.get(0);
+    }
+    byte[] result = getWriteBuffer(cbPayload).array();
+    int ib = HEADER_LENGTH;
+    for (byte[] message : messages) {
+      System.arraycopy(message, 0, result, ib, message.length);
+      ib += message.length;
+    }
+    return result;
+  }
+
+  @Override
+  public void fromByteArray(byte[] byteArray) throws RobotCoreException {
+    throw new RobotCoreException("batches are split with RobocolBatch.split(), not parsed");
+  }
+
+  /**
+   * Splits a received {@link MsgType#BATCH} datagram into datagrams for each of the messages it
+   * contains. A malformed batch yields whatever well-formed messages precede the damage.
+   */
+  public static List<RobocolDatagram> split(RobocolDatagram batch) {
+    List<RobocolDatagram> result = new ArrayList<RobocolDatagram>();
+    byte[] data = batch.getData();
+    int ibEnd = batch.getLength();
+    int ib = HEADER_LENGTH;
+    while (ib < ibEnd) {
+      if (ibEnd - ib < HEADER_LENGTH) {
+        RobotLog.ww(RobocolDatagram.TAG, "truncated header in batch at offset %d", ib);
+        break;
+      }
+      int cbMessage = HEADER_LENGTH + TypeConversion.unsignedShortToInt(TypeConversion.byteArrayToShort(data, ib + 1, ByteOrder.BIG_ENDIAN));
+      if (ib + cbMessage > ibEnd || MsgType.fromByte(data[ib]) == MsgType.BATCH) {
+        RobotLog.ww(RobocolDatagram.TAG, "malformed message in batch at offset %d", ib);
+        break;
+      }
+      result.add(RobocolDatagram.forBatchedMessage(batch, ib, cbMessage));
+      ib += cbMessage;
+    }
+    return result;
+  }
+}
@@ -76,6 +76,33 @@ public class RobocolDatagram {
       this.packet = null;
    }
 
+   /**
+    * Returns a RobocolDatagram holding one of the messages contained in a received
+    * {@link RobocolParsable.MsgType#BATCH} datagram, as though it had been received on its own.
+    *
+    * @see RobocolBatch#split(RobocolDatagram)
+    */
+   public static RobocolDatagram forBatchedMessage(RobocolDatagram batch, int offset, int length) {
+      byte[] data = new byte[length];
+      System.arraycopy(batch.getData(), offset, data, 0, length);
+      return forDerivedMessage(batch, data);
+   }
+
+   /**
+    * Returns a RobocolDatagram holding a message reconstructed from a received datagram, such
+    * as a gamepad rebuilt from a {@link com.qualcomm.robotcore.hardware.GamepadDelta}, as though
+    * the message itself had been received in its place.
+    */
+   public static RobocolDatagram forDerivedMessage(RobocolDatagram source, byte[] message) {
+      RobocolDatagram result = new RobocolDatagram();
+      result.packet = new DatagramPacket(message, message.length, source.getAddress(), source.getPort());
+      synchronized (source.receivedTimeLock) {
+         result.wallClockTimeMsReceived = source.wallClockTimeMsReceived;
+         result.nanoTimeReceived = source.nanoTimeReceived;
+      }
+      return result;
+   }
+
    //-----------------------------------------------------------------------------------------------
    // Teardown
    //-----------------------------------------------------------------------------------------------
@@ -69,7 +69,10 @@ public interface RobocolParsable {
     PEER_DISCOVERY(3),
     COMMAND(4),
     TELEMETRY(5),
-    KEEPALIVE(6);
+    KEEPALIVE(6),
+    BATCH(7),     // several of the above coalesced into one datagram; see RobocolBatch
+    TELEMETRY_FRAME(8), // binary numeric telemetry, and acknowledgments thereof; see TelemetryFrame
+    GAMEPAD_DELTA(9);   // changes to a gamepad since an acknowledged GAMEPAD, and acknowledgments thereof; see GamepadDelta
 
     private static final MsgType[] VALUES_CACHE = MsgType.values();
     private final int type;
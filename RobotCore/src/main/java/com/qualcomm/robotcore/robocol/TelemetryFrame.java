@@ -0,0 +1,322 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.robocol;
+
+import com.qualcomm.robotcore.exception.RobotCoreException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link TelemetryFrame} carries numeric telemetry series in binary form. It coexists with the
+ * string-based {@link TelemetryMessage}, and is meant for data that's sent often and that changes
+ * a little at a time, such as sensor readings which one might want to plot.
+ *
+ * Series are identified by small integer ids; the key of each is sent only until a frame which
+ * defines it is acknowledged. A frame may name an earlier, acknowledged frame as its base, in
+ * which case it carries only the values which differ from those in the base, and integer values
+ * travel as differences from their base values. Ids and frame numbers are scoped to an epoch,
+ * which the sender changes whenever it starts afresh.
+ *
+ * The receiver returns acknowledgments as frames of the same type which carry no data.
+ *
+ * @see org.firstinspires.ftc.robotcore.internal.network.TelemetryFrameEncoder
+ * @see org.firstinspires.ftc.robotcore.internal.network.TelemetryFrameDecoder
+ */
+@SuppressWarnings("WeakerAccess")
+public class TelemetryFrame extends RobocolParsableBase {
+
+  //------------------------------------------------------------------------------------------------
+  // Types
+  //------------------------------------------------------------------------------------------------
+
+  /** the tag of the {@link TelemetryMessage}s into which received frames are decoded */
+  public static final String SERIES_TAG        = "TELEMETRY_SERIES";
+
+  public static final int  NO_FRAME            = 0xFFFF;  // as a base: this frame stands alone
+
+  public static final byte ENCODING_DOUBLE     = 1;       // float64
+  public static final byte ENCODING_LONG       = 2;       // zigzag varint
+  public static final byte ENCODING_LONG_DELTA = 3;       // zigzag varint, added to the value in the base frame
+
+  protected static final int FLAG_ACK          = 0x01;
+  protected static final int FLAG_RESYNC       = 0x02;    // in an ack: the receiver can't use our bases, so start afresh
+
+  private static final Charset CHARSET = Charset.forName("UTF-8");
+
+  public static class Value {
+    public final int  id;
+    public final byte encoding;
+    public final long bits;     // for ENCODING_DOUBLE, the Double.doubleToRawLongBits of the value
+
+    public Value(int id, byte encoding, long bits) {
+      this.id = id;
+      this.encoding = encoding;
+      this.bits = bits;
+    }
+  }
+
+  //------------------------------------------------------------------------------------------------
+  // State
+  //------------------------------------------------------------------------------------------------
+
+  private int               flags           = 0;
+  private int               epoch           = 0;
+  private int               frameNumber     = 0;      // for an ack, the frame being acknowledged
+  private int               baseFrameNumber = NO_FRAME;
+  private long              timestamp       = 0;      // when was this frame transmitted (ms)
+  private final List<Integer> definitionIds  = new ArrayList<Integer>();
+  private final List<String>  definitionKeys = new ArrayList<String>();
+  private final List<Value>   values         = new ArrayList<Value>();
+
+  //------------------------------------------------------------------------------------------------
+  // Construction
+  //------------------------------------------------------------------------------------------------
+
+  public TelemetryFrame(int epoch, int frameNumber, int baseFrameNumber) {
+    this.epoch = epoch & 0xFFFF;
+    this.frameNumber = frameNumber & 0xFFFF;
+    this.baseFrameNumber = baseFrameNumber & 0xFFFF;
+  }
+
+  public TelemetryFrame(byte[] byteArray) throws RobotCoreException {
+    fromByteArray(byteArray);
+  }
+
+  public static TelemetryFrame forAck(int epoch, int frameNumber, boolean resync) {
+    TelemetryFrame result = new TelemetryFrame(epoch, frameNumber, NO_FRAME);
+    result.flags = FLAG_ACK | (resync ? FLAG_RESYNC : 0);
+    return result;
+  }
+
+  //------------------------------------------------------------------------------------------------
+  // Accessing
+  //------------------------------------------------------------------------------------------------
+
+  public boolean isAck()              { return (flags & FLAG_ACK) != 0; }
+  public boolean isResyncRequest()    { return (flags & FLAG_RESYNC) != 0; }
+  public int getEpoch()               { return epoch; }
+  public int getFrameNumber()         { return frameNumber; }
+  public int getBaseFrameNumber()     { return baseFrameNumber; }
+  public long getTimestamp()          { return timestamp; }
+  public List<Integer> getDefinitionIds()  { return definitionIds; }
+  public List<String> getDefinitionKeys()  { return definitionKeys; }
+  public List<Value> getValues()      { return values; }
+
+  public void addDefinition(int id, String key) {
+    definitionIds.add(id);
+    definitionKeys.add(key);
+  }
+
+  public void addDouble(int id, double value) {
+    values.add(new Value(id, ENCODING_DOUBLE, Double.doubleToRawLongBits(value)));
+  }
+
+  public void addLong(int id, long value, boolean isDelta) {
+    values.add(new Value(id, isDelta ? ENCODING_LONG_DELTA : ENCODING_LONG, value));
+  }
+
+  public boolean hasData() {
+    return !definitionIds.isEmpty() || !values.isEmpty();
+  }
+
+  @Override
+  public MsgType getRobocolMsgType() {
+    return MsgType.TELEMETRY_FRAME;
+  }
+
+  //------------------------------------------------------------------------------------------------
+  // Serialization
+  //------------------------------------------------------------------------------------------------
+
+  /*
+   * Data format
+   *
+   * bytes    | format | value
+   * ---------|--------|---------------------------------
+   *  1       | uint8  | flags
+   *  2       | uint16 | epoch
+   *  2       | uint16 | frame number
+   *  2       | uint16 | base frame number
+   *  8       | int64  | timestamp
+   *  varies  | varint | count of definitions
+   *  varies  | varies | definitions
+   *  varies  | varint | count of values
+   *  varies  | varies | values
+   *
+   * Definitions (repeating)
+   *
+   * bytes    | format | value
+   * ---------|--------|---------------------------------
+   *  varies  | varint | id
+   *  1       | uint8  | length of key
+   *  varies  | UTF-8  | key
+   *
+   * Values (repeating)
+   *
+   * bytes    | format | value
+   * ---------|--------|---------------------------------
+   *  varies  | varint | id
+   *  1       | uint8  | encoding
+   *  varies  | varies | the value, as indicated by the encoding
+   *
+   * Acks have just the flags, epoch and frame number.
+   */
+
+  @Override
+  public byte[] toByteArray() throws RobotCoreException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    payload.write(flags);
+    putUint16(payload, epoch);
+    putUint16(payload, frameNumber);
+
+    if (!isAck()) {
+      timestamp = System.currentTimeMillis();
+      putUint16(payload, baseFrameNumber);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        payload.write((int)(timestamp >>> shift));
+      }
+
+      putVarint(payload, definitionIds.size());
+      for (int i = 0; i < definitionIds.size(); i++) {
+        byte[] key = definitionKeys.get(i).getBytes(CHARSET);
+        if (key.length > 0xFF) {
+          throw new RobotCoreException("telemetry series key '%s' too long: %d bytes; max %d bytes", definitionKeys.get(i), key.length, 0xFF);
+        }
+        putVarint(payload, definitionIds.get(i));
+        payload.write(key.length);
+        payload.write(key, 0, key.length);
+      }
+
+      putVarint(payload, values.size());
+      for (Value value : values) {
+        putVarint(payload, value.id);
+        payload.write(value.encoding);
+        if (value.encoding == ENCODING_DOUBLE) {
+          for (int shift = 56; shift >= 0; shift -= 8) {
+            payload.write((int)(value.bits >>> shift));
+          }
+        } else {
+          putVarint(payload, (value.bits << 1) ^ (value.bits >> 63));
+        }
+      }
+    }
+
+    if (payload.size() > 0xFFFF) {
+      throw new RobotCoreException("telemetry frame too large: %d bytes", payload.size());
+    }
+    ByteBuffer buffer = getWriteBuffer(payload.size());
+    buffer.put(payload.toByteArray());
+    return buffer.array();
+  }
+
+  @Override
+  public void fromByteArray(byte[] byteArray) throws RobotCoreException {
+    definitionIds.clear();
+    definitionKeys.clear();
+    values.clear();
+    try {
+      ByteBuffer buffer = getReadBuffer(byteArray);
+      flags = buffer.get() & 0xFF;
+      epoch = buffer.getShort() & 0xFFFF;
+      frameNumber = buffer.getShort() & 0xFFFF;
+      if (isAck()) {
+        baseFrameNumber = NO_FRAME;
+        return;
+      }
+      baseFrameNumber = buffer.getShort() & 0xFFFF;
+      timestamp = buffer.getLong();
+
+      int cDefinitions = (int) getVarint(buffer);
+      for (int i = 0; i < cDefinitions; i++) {
+        int id = (int) getVarint(buffer);
+        byte[] key = new byte[buffer.get() & 0xFF];
+        buffer.get(key);
+        addDefinition(id, new String(key, CHARSET));
+      }
+
+      int cValues = (int) getVarint(buffer);
+      for (int i = 0; i < cValues; i++) {
+        int id = (int) getVarint(buffer);
+        byte encoding = buffer.get();
+        switch (encoding) {
+          case ENCODING_DOUBLE:
+            values.add(new Value(id, encoding, buffer.getLong()));
+            break;
+          case ENCODING_LONG:
+          case ENCODING_LONG_DELTA:
+            long zigzag = getVarint(buffer);
+            values.add(new Value(id, encoding, (zigzag >>> 1) ^ -(zigzag & 1)));
+            break;
+          default:
+            throw new RobotCoreException("unknown telemetry series encoding: %d", encoding);
+        }
+      }
+    } catch (BufferUnderflowException e) {
+      throw RobotCoreException.createChained(e, "telemetry frame truncated");
+    }
+  }
+
+  //------------------------------------------------------------------------------------------------
+  // Utility
+  //------------------------------------------------------------------------------------------------
+
+  private static void putUint16(ByteArrayOutputStream stream, int value) {
+    stream.write(value >> 8);
+    stream.write(value);
+  }
+
+  private static void putVarint(ByteArrayOutputStream stream, long value) {
+    while ((value & ~0x7FL) != 0) {
+      stream.write((int)((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    stream.write((int)value);
+  }
+
+  private static long getVarint(ByteBuffer buffer) throws RobotCoreException {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      result |= (long)(b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new RobotCoreException("malformed varint in telemetry frame");
+  }
+}
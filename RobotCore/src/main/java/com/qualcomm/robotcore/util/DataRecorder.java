@@ -0,0 +1,532 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.util;
+
+import androidx.annotation.NonNull;
+
+import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link DataRecorder} records numeric channels, such as encoder positions, IMU angles, or
+ * controller outputs, at the full rate of an OpMode's loop. Records are written into a
+ * preallocated, memory-mapped ring file in {@link AppUtil#DATA_RECORDINGS_DIR}; once the file
+ * is full, the oldest records are overwritten. A background task periodically flushes the file
+ * to storage, so little is lost should the app be killed.
+ *
+ * <p>Recording neither allocates memory nor performs I/O on the calling thread, and so doesn't
+ * perturb the loop being measured. Each record is timestamped, so loop times can be recovered
+ * from the recording. Recordings can be downloaded as CSV from the robot controller's web
+ * server.</p>
+ *
+ * <pre>
+ *     DataRecorder recorder = new DataRecorder("drive");
+ *     int left    = recorder.addLongChannel("left");
+ *     int heading = recorder.addDoubleChannel("heading");
+ *     recorder.start();
+ *     while (opModeIsActive()) {
+ *         recorder.putLong(left, bulkData.getMotorCurrentPosition(0));
+ *         recorder.putDouble(heading, imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES));
+ *         recorder.commit();
+ *         ...
+ *     }
+ *     recorder.close();
+ * </pre>
+ *
+ * <p>Channels must all be added before {@link #start()}. Values persist from one record to
+ * the next until they're next put. Putting values and committing records should be done from
+ * one thread only.</p>
+ *
+ * <p>Recordings still open when their OpMode stops are closed automatically, as is an open
+ * recording when another of the same name is started.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public class DataRecorder implements Closeable
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    public static final String TAG = "DataRecorder";
+    public static final String FILE_EXTENSION = ".rec";
+    public static final int DEFAULT_CAPACITY = 200 * 60 * 5;    // five minutes at 200Hz
+    public static final int MS_FLUSH_INTERVAL = 1000;
+
+    /*
+     * File format. All values are big-endian.
+     *
+     * bytes    | format | value
+     * ---------|--------|---------------------------------
+     *  4       | int32  | MAGIC
+     *  4       | int32  | VERSION
+     *  4       | int32  | count of channels
+     *  4       | int32  | size of each record
+     *  4       | int32  | capacity, in records
+     *  4       | int32  | offset of the first record
+     *  8       | int64  | count of records ever committed
+     *  8       | int64  | wall clock time at start (ms)
+     *  24      |        | reserved
+     *  varies  | varies | channels: type (uint8), length of name (uint8), name (UTF-8)
+     *  varies  | varies | records: time since start (int64 ns), then each channel's value (int64 or float64)
+     *
+     * Record i lives in slot (i % capacity).
+     */
+
+    protected static final int MAGIC               = 0x52454344;   // "RECD"
+    protected static final int VERSION             = 1;
+    protected static final int HEADER_SIZE         = 64;
+    protected static final int OFFSET_RECORD_COUNT = 24;
+    protected static final int OFFSET_WALL_CLOCK   = 32;
+
+    protected static final byte TYPE_LONG          = 1;
+    protected static final byte TYPE_DOUBLE        = 2;
+
+    protected static final Charset CHARSET = Charset.forName("UTF-8");
+
+    /** Recordings which have been started but not yet closed, by name */
+    protected static final HashMap<String, DataRecorder> openRecorders = new HashMap<String, DataRecorder>();
+
+    protected final String          name;
+    protected final File            file;
+    protected final int             capacity;
+    protected final List<String>    channelNames = new ArrayList<String>();
+    protected byte[]                channelTypes = new byte[0];
+    protected long[]                values;                 // the record being assembled
+    protected RandomAccessFile      randomAccessFile;
+    protected MappedByteBuffer      buffer;
+    protected ScheduledFuture<?>    flusher;
+    protected int                   recordSize;
+    protected int                   dataOffset;
+    protected long                  recordCount;
+    protected long                  nanoTimeStart;
+    protected volatile boolean      isRecording = false;
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public DataRecorder(String name)
+        {
+        this(name, DEFAULT_CAPACITY);
+        }
+
+    /**
+     * @param name      the name of the recording. Any previous recording of the same name is
+     *                  overwritten by {@link #start()}.
+     * @param capacity  the number of records retained in the recording
+     */
+    public DataRecorder(String name, int capacity)
+        {
+        if (capacity <= 0) throw new IllegalArgumentException(String.format("illegal capacity: %d", capacity));
+        this.name = name;
+        this.file = getRecordingFile(name);
+        this.capacity = capacity;
+        }
+
+    public String getName()
+        {
+        return name;
+        }
+
+    public File getFile()
+        {
+        return file;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Channels
+    //----------------------------------------------------------------------------------------------
+
+    /** Adds a channel of integral values, returning its index */
+    public int addLongChannel(String channelName)
+        {
+        return addChannel(channelName, TYPE_LONG);
+        }
+
+    /** Adds a channel of floating point values, returning its index */
+    public int addDoubleChannel(String channelName)
+        {
+        return addChannel(channelName, TYPE_DOUBLE);
+        }
+
+    protected synchronized int addChannel(String channelName, byte type)
+        {
+        if (randomAccessFile != null) throw new IllegalStateException("channels must be added before recording starts");
+        if (channelName.getBytes(CHARSET).length > 0xFF) throw new IllegalArgumentException(String.format("channel name too long: %s", channelName));
+        channelNames.add(channelName);
+        channelTypes = Arrays.copyOf(channelTypes, channelTypes.length + 1);
+        channelTypes[channelTypes.length - 1] = type;
+        return channelNames.size() - 1;
+        }
+
+    public List<String> getChannelNames()
+        {
+        return channelNames;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Recording
+    //----------------------------------------------------------------------------------------------
+
+    public synchronized void start() throws IOException
+        {
+        if (randomAccessFile != null) throw new IllegalStateException("a DataRecorder can only be started once");
+        if (channelNames.isEmpty()) throw new IllegalStateException("no channels to record");
+
+        int cbChannels = 0;
+        for (String channelName : channelNames)
+            {
+            cbChannels += 2 + channelName.getBytes(CHARSET).length;
+            }
+        dataOffset = (HEADER_SIZE + cbChannels + 7) & ~7;
+        recordSize = 8 * (1 + channelNames.size());
+        long cbFile = dataOffset + (long)capacity * recordSize;
+        if (cbFile > Integer.MAX_VALUE) throw new IllegalArgumentException(String.format("recording too large: %d bytes", cbFile));
+
+        // Close any recorder of the same name that was left open. Then delete its file rather than
+        // truncate it: the old mapping may still be touched, and a truncated mapping faults.
+        DataRecorder orphan;
+        synchronized (openRecorders)
+            {
+            orphan = openRecorders.put(name, this);
+            }
+        if (orphan != null)
+            {
+            RobotLog.ww(TAG, "recording '%s' was left open; closing", name);
+            orphan.close();
+            }
+
+        AppUtil.getInstance().ensureDirectoryExists(file.getParentFile(), false);
+        if (file.exists() && !file.delete()) throw new IOException(String.format("unable to delete %s", file.getPath()));
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        randomAccessFile.setLength(cbFile);
+        buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, cbFile);
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(channelNames.size());
+        buffer.putInt(recordSize);
+        buffer.putInt(capacity);
+        buffer.putInt(dataOffset);
+        buffer.putLong(0);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < channelNames.size(); i++)
+            {
+            byte[] channelName = channelNames.get(i).getBytes(CHARSET);
+            buffer.put(channelTypes[i]);
+            buffer.put((byte)channelName.length);
+            buffer.put(channelName);
+            }
+
+        values = new long[channelNames.size()];
+        recordCount = 0;
+        nanoTimeStart = System.nanoTime();
+        flusher = ThreadPool.getDefaultScheduler().scheduleAtFixedRate(new Runnable()
+            {
+            @Override public void run()
+                {
+                flush();
+                }
+            }, MS_FLUSH_INTERVAL, MS_FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+        isRecording = true;
+        RobotLog.vv(TAG, "recording '%s': %d channels, %d records", name, channelNames.size(), capacity);
+        }
+
+    public boolean isRecording()
+        {
+        return isRecording;
+        }
+
+    /** Sets the value of an integral channel in the record being assembled */
+    public void putLong(int channel, long value)
+        {
+        if (channelTypes[channel] != TYPE_LONG) throw new IllegalArgumentException("not a long channel");
+        if (isRecording) values[channel] = value;
+        }
+
+    /** Sets the value of a floating point channel in the record being assembled */
+    public void putDouble(int channel, double value)
+        {
+        if (channelTypes[channel] != TYPE_DOUBLE) throw new IllegalArgumentException("not a double channel");
+        if (isRecording) values[channel] = Double.doubleToRawLongBits(value);
+        }
+
+    /** Timestamps the record being assembled and adds it to the recording */
+    public void commit()
+        {
+        if (isRecording)
+            {
+            int offset = dataOffset + (int)(recordCount % capacity) * recordSize;
+            buffer.putLong(offset, System.nanoTime() - nanoTimeStart);
+            for (int i = 0; i < values.length; i++)
+                {
+                buffer.putLong(offset + 8 * (i + 1), values[i]);
+                }
+            recordCount++;
+            buffer.putLong(OFFSET_RECORD_COUNT, recordCount);
+            }
+        }
+
+    public long getRecordCount()
+        {
+        return recordCount;
+        }
+
+    protected void flush()
+        {
+        MappedByteBuffer buffer = this.buffer;
+        if (buffer != null) buffer.force();
+        }
+
+    @Override public synchronized void close()
+        {
+        if (isRecording)
+            {
+            isRecording = false;
+            flusher.cancel(false);
+            flush();
+            try {
+                randomAccessFile.close();
+                }
+            catch (IOException e)
+                {
+                RobotLog.ee(TAG, e, "error closing recording '%s'", name);
+                }
+            RobotLog.vv(TAG, "recorded '%s': %d records", name, recordCount);
+            }
+        synchronized (openRecorders)
+            {
+            if (openRecorders.get(name) == this)
+                {
+                openRecorders.remove(name);
+                }
+            }
+        }
+
+    /** Closes all the recordings which are still open. Called when an OpMode stops. */
+    public static void closeAll()
+        {
+        List<DataRecorder> recorders;
+        synchronized (openRecorders)
+            {
+            recorders = new ArrayList<DataRecorder>(openRecorders.values());
+            }
+        for (DataRecorder recorder : recorders)
+            {
+            recorder.close();
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Retrieval
+    //----------------------------------------------------------------------------------------------
+
+    /** Returns the file of the named recording, validating the name as we go */
+    public static File getRecordingFile(String name)
+        {
+        if (!name.matches("[A-Za-z0-9_\\-][A-Za-z0-9_.\\-]*"))
+            {
+            throw new IllegalArgumentException(String.format("illegal recording name: '%s'", name));
+            }
+        return new File(AppUtil.DATA_RECORDINGS_DIR, name + FILE_EXTENSION);
+        }
+
+    /** Returns the names of all the extant recordings */
+    public static List<String> getRecordingNames()
+        {
+        List<String> result = new ArrayList<String>();
+        File[] files = AppUtil.DATA_RECORDINGS_DIR.listFiles();
+        if (files != null)
+            {
+            for (File file : files)
+                {
+                String fileName = file.getName();
+                if (fileName.endsWith(FILE_EXTENSION))
+                    {
+                    result.add(fileName.substring(0, fileName.length() - FILE_EXTENSION.length()));
+                    }
+                }
+            }
+        return result;
+        }
+
+    /**
+     * Returns the contents of the named recording as CSV, oldest record first. The first two
+     * columns are the time since recording started and the time since the previous record, both
+     * in milliseconds. Recordings may be read while they are being written.
+     */
+    public static InputStream openCsv(String name) throws IOException
+        {
+        File file = getRecordingFile(name);
+        if (!file.exists()) throw new FileNotFoundException(file.getPath());
+        return new CsvInputStream(file);
+        }
+
+    protected static class CsvInputStream extends InputStream
+        {
+        protected final MappedByteBuffer buffer;
+        protected final byte[]           channelTypes;
+        protected final int              recordSize;
+        protected final int              capacity;
+        protected final int              dataOffset;
+        protected final long             recordLast;
+        protected long                   recordNext;
+        protected long                   nanoTimePrevious = -1;
+        protected final StringBuilder    line = new StringBuilder();
+        protected byte[]                 lineBytes;
+        protected int                    ibLine;
+
+        public CsvInputStream(File file) throws IOException
+            {
+            RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+            try {
+                buffer = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, randomAccessFile.length());
+                }
+            finally
+                {
+                randomAccessFile.close();   // the mapping remains valid
+                }
+
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                {
+                throw new IOException(String.format("not a data recording: %s", file.getPath()));
+                }
+            int cChannels = buffer.getInt();
+            recordSize = buffer.getInt();
+            capacity = buffer.getInt();
+            dataOffset = buffer.getInt();
+            recordLast = buffer.getLong();
+
+            // If we've wrapped, the oldest slot may be being overwritten as we speak
+            recordNext = recordLast > capacity ? recordLast - capacity + 1 : 0;
+
+            buffer.position(HEADER_SIZE);
+            channelTypes = new byte[cChannels];
+            line.append("time_ms,loop_ms");
+            for (int i = 0; i < cChannels; i++)
+                {
+                channelTypes[i] = buffer.get();
+                byte[] channelName = new byte[buffer.get() & 0xFF];
+                buffer.get(channelName);
+                line.append(',').append(new String(channelName, CHARSET));
+                }
+            line.append('\n');
+            lineBytes = line.toString().getBytes(CHARSET);
+            ibLine = 0;
+            }
+
+        protected boolean nextLine()
+            {
+            if (recordNext >= recordLast)
+                {
+                return false;
+                }
+            int offset = dataOffset + (int)(recordNext % capacity) * recordSize;
+            long nanoTime = buffer.getLong(offset);
+
+            line.setLength(0);
+            line.append(String.format(Locale.US, "%.3f,", nanoTime * 1e-6));
+            if (nanoTimePrevious >= 0)
+                {
+                line.append(String.format(Locale.US, "%.3f", (nanoTime - nanoTimePrevious) * 1e-6));
+                }
+            for (int i = 0; i < channelTypes.length; i++)
+                {
+                long value = buffer.getLong(offset + 8 * (i + 1));
+                line.append(',');
+                if (channelTypes[i] == TYPE_DOUBLE)
+                    {
+                    line.append(Double.longBitsToDouble(value));
+                    }
+                else
+                    {
+                    line.append(value);
+                    }
+                }
+            line.append('\n');
+
+            nanoTimePrevious = nanoTime;
+            recordNext++;
+            lineBytes = line.toString().getBytes(CHARSET);
+            ibLine = 0;
+            return true;
+            }
+
+        @Override public int read()
+            {
+            if (ibLine >= lineBytes.length && !nextLine())
+                {
+                return -1;
+                }
+            return lineBytes[ibLine++] & 0xFF;
+            }
+
+        @Override public int read(@NonNull byte[] bytes, int offset, int length)
+            {
+            if (length == 0)
+                {
+                return 0;
+                }
+            int cbRead = 0;
+            while (cbRead < length)
+                {
+                if (ibLine >= lineBytes.length && !nextLine())
+                    {
+                    break;
+                    }
+                int cb = Math.min(length - cbRead, lineBytes.length - ibLine);
+                System.arraycopy(lineBytes, ibLine, bytes, offset + cbRead, cb);
+                ibLine += cb;
+                cbRead += cb;
+                }
+            return cbRead == 0 ? -1 : cbRead;
+            }
+        }
+    }
@@ -0,0 +1,201 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@link LatencyHistogram} records a distribution of durations in log-linear buckets, in the
+ * manner of an HDR histogram: each power of two is split into eight equal sub-buckets, so any
+ * recorded value is known to within about 12%, from one microsecond out to more than half an
+ * hour, in a small fixed amount of memory. Recording is lock-free and allocation-free, and so
+ * may be done on any thread in even the most time-sensitive code.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LatencyHistogram
+    {
+    //----------------------------------------------------------------------------------------------
+    // Constants
+    //----------------------------------------------------------------------------------------------
+
+    protected static final int  subBucketBits   = 3;
+    protected static final int  subBucketCount  = 1 << subBucketBits;
+    protected static final long usMax           = (1L << 31) - 1;
+    protected static final int  bucketCount     = indexOf(usMax) + 1;
+
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    protected final AtomicLongArray counts = new AtomicLongArray(bucketCount);
+    protected final AtomicLong      count  = new AtomicLong(0);
+    protected final AtomicLong      usSum  = new AtomicLong(0);
+    protected final AtomicLong      usMaxRecorded = new AtomicLong(0);
+
+    //----------------------------------------------------------------------------------------------
+    // Recording
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Records a duration
+     * @param ns the duration, in nanoseconds
+     */
+    public void recordNanos(long ns)
+        {
+        long us = Math.min(Math.max(ns / 1000, 0), usMax);
+        counts.incrementAndGet(indexOf(us));
+        count.incrementAndGet();
+        usSum.addAndGet(us);
+        for (;;)
+            {
+            long usPrev = usMaxRecorded.get();
+            if (us <= usPrev || usMaxRecorded.compareAndSet(usPrev, us))
+                break;
+            }
+        }
+
+    public void clear()
+        {
+        for (int i = 0; i < bucketCount; i++)
+            {
+            counts.set(i, 0);
+            }
+        count.set(0);
+        usSum.set(0);
+        usMaxRecorded.set(0);
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessing
+    //----------------------------------------------------------------------------------------------
+
+    public long getCount()
+        {
+        return count.get();
+        }
+
+    public double getMeanMicros()
+        {
+        long n = count.get();
+        return n == 0 ? 0 : usSum.get() / (double)n;
+        }
+
+    public long getMaxMicros()
+        {
+        return usMaxRecorded.get();
+        }
+
+    /**
+     * Returns (an upper bound for) the indicated percentile of the recorded durations.
+     * @param percentile the percentile of interest, 0 to 100
+     * @return the duration in microseconds at or below which that percentage of durations lie
+     */
+    public long getPercentileMicros(double percentile)
+        {
+        long[] snapshot = new long[bucketCount];
+        long n = 0;
+        for (int i = 0; i < bucketCount; i++)
+            {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+            }
+        if (n == 0)
+            {
+            return 0;
+            }
+        long target = Math.max(1, (long)Math.ceil(Range.clip(percentile, 0, 100) / 100 * n));
+        long cumulative = 0;
+        for (int i = 0; i < bucketCount; i++)
+            {
+            cumulative += snapshot[i];
+            if (cumulative >= target)
+                {
+                return Math.min(highestEquivalentValue(i), getMaxMicros());
+                }
+            }
+        return getMaxMicros();
+        }
+
+    /** Returns a consistent-enough summary of the histogram, suitable for serialization */
+    public Summary getSummary()
+        {
+        return new Summary(this);
+        }
+
+    public static class Summary
+        {
+        public final long   count;
+        public final double meanMicros;
+        public final long   p50Micros;
+        public final long   p90Micros;
+        public final long   p99Micros;
+        public final long   maxMicros;
+
+        protected Summary(LatencyHistogram histogram)
+            {
+            this.count      = histogram.getCount();
+            this.meanMicros = histogram.getMeanMicros();
+            this.p50Micros  = histogram.getPercentileMicros(50);
+            this.p90Micros  = histogram.getPercentileMicros(90);
+            this.p99Micros  = histogram.getPercentileMicros(99);
+            this.maxMicros  = histogram.getMaxMicros();
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Bucketing
+    //----------------------------------------------------------------------------------------------
+
+    protected static int indexOf(long us)
+        {
+        if (us < subBucketCount)
+            {
+            return (int)us;
+            }
+        int exponent = 63 - Long.numberOfLeadingZeros(us);
+        int shift = exponent - subBucketBits;
+        return (shift + 1) * subBucketCount + (int)((us >>> shift) & (subBucketCount - 1));
+        }
+
+    protected static long highestEquivalentValue(int index)
+        {
+        if (index < subBucketCount)
+            {
+            return index;
+            }
+        int shift = index / subBucketCount - 1;
+        long lowest = (long)(subBucketCount + index % subBucketCount) << shift;
+        return lowest + (1L << shift) - 1;
+        }
+    }
@@ -0,0 +1,262 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package com.qualcomm.robotcore.util;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link LoopScheduler} paces a loop at a fixed rate. Each iteration is due one period after the
+ * previous one was due (not one period after it happened to start), so the timing of the loop
+ * doesn't drift with the time its body takes; and waiting is done by parking until a little before
+ * the deadline and then yielding until it arrives, so iterations start far more punctually than
+ * {@link Thread#sleep(long)} can manage.
+ *
+ * <p>If an iteration runs past the deadline of the next, that's an overrun: the overrun is
+ * counted, the next iteration starts immediately, and the schedule is re-anchored from there
+ * rather than running a burst of back-to-back iterations to catch up.</p>
+ *
+ * <p>Typical use:</p>
+ * <pre>
+ * LoopScheduler scheduler = new LoopScheduler(200); // Hz
+ * while (opModeIsActive()) {
+ *     // ... do the work of one iteration ...
+ *     telemetry.addData("loop", scheduler);
+ *     telemetry.update();
+ *     scheduler.awaitNextIteration();
+ * }
+ * </pre>
+ *
+ * <p>A {@link LoopScheduler} is meant to be used by one thread at a time, though its statistics
+ * may be read from any.</p>
+ */
+@SuppressWarnings("WeakerAccess")
+public class LoopScheduler
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    protected static final long nsSpinThreshold = 200 * 1000;  // wake this early, then yield until the deadline
+
+    protected volatile long     nsPeriod;
+    protected long              nsDeadline;         // when the current iteration was due; zero if not yet started
+    protected long              nsIterationStart;   // when the current iteration actually started
+
+    protected final LatencyHistogram lateness = new LatencyHistogram();   // start minus deadline
+    protected final LatencyHistogram workTime = new LatencyHistogram();   // time spent outside of awaitNextIteration()
+    protected volatile long     iterationCount;
+    protected volatile long     overrunCount;
+    protected volatile long     missedPeriodCount;
+    protected volatile long     nsFirstStart;
+    protected volatile long     nsLastStart;
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public LoopScheduler(double hz)
+        {
+        this(Math.round(ElapsedTime.SECOND_IN_NANO / hz), TimeUnit.NANOSECONDS);
+        }
+
+    public LoopScheduler(long period, TimeUnit unit)
+        {
+        setPeriod(period, unit);
+        reset();
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessing
+    //----------------------------------------------------------------------------------------------
+
+    public void setPeriod(long period, TimeUnit unit)
+        {
+        long ns = unit.toNanos(period);
+        if (ns <= 0) throw new IllegalArgumentException("LoopScheduler period must be positive");
+        this.nsPeriod = ns;
+        }
+
+    public long getPeriod(TimeUnit unit)
+        {
+        return unit.convert(nsPeriod, TimeUnit.NANOSECONDS);
+        }
+
+    public double getRate()
+        {
+        return ElapsedTime.SECOND_IN_NANO / (double) nsPeriod;
+        }
+
+    /** Restarts the schedule: the next call to {@link #awaitNextIteration()} will return immediately */
+    public void reset()
+        {
+        nsDeadline = 0;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Scheduling
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Waits until the next iteration of the loop is due. Returns immediately the first time it's
+     * called (or the first time after {@link #reset()}), starting the schedule from then.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void awaitNextIteration() throws InterruptedException
+        {
+        long now = System.nanoTime();
+        if (nsDeadline == 0)
+            {
+            startIteration(now, now);
+            return;
+            }
+
+        workTime.recordNanos(now - nsIterationStart);
+
+        long nsNextDeadline = nsDeadline + nsPeriod;
+        if (now >= nsNextDeadline)
+            {
+            // We've overrun. Go again immediately, and don't try to catch up on what we missed.
+            overrunCount++;
+            missedPeriodCount += (now - nsDeadline) / nsPeriod - 1;
+            startIteration(now, now);
+            return;
+            }
+
+        parkUntil(nsNextDeadline);
+        startIteration(nsNextDeadline, System.nanoTime());
+        }
+
+    protected void startIteration(long nsDue, long now)
+        {
+        if (iterationCount == 0)
+            {
+            nsFirstStart = now;
+            }
+        else
+            {
+            lateness.recordNanos(now - nsDue);
+            }
+        nsDeadline = nsDue;
+        nsIterationStart = now;
+        nsLastStart = now;
+        iterationCount++;
+        }
+
+    protected void parkUntil(long nsWhen) throws InterruptedException
+        {
+        for (;;)
+            {
+            if (Thread.interrupted())
+                {
+                throw new InterruptedException();
+                }
+            long nsRemaining = nsWhen - System.nanoTime();
+            if (nsRemaining <= 0)
+                {
+                return;
+                }
+            if (nsRemaining > nsSpinThreshold)
+                {
+                LockSupport.parkNanos(this, nsRemaining - nsSpinThreshold);
+                }
+            else
+                {
+                Thread.yield();
+                }
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Statistics
+    //----------------------------------------------------------------------------------------------
+
+    public long getIterationCount()
+        {
+        return iterationCount;
+        }
+
+    /** Returns the number of iterations that ran past the deadline of the next */
+    public long getOverrunCount()
+        {
+        return overrunCount;
+        }
+
+    /** Returns the number of whole periods skipped because of overruns */
+    public long getMissedPeriodCount()
+        {
+        return missedPeriodCount;
+        }
+
+    /** Returns the mean time between the starts of successive iterations */
+    public double getMeanPeriodMs()
+        {
+        long count = iterationCount;
+        return count < 2 ? 0 : (nsLastStart - nsFirstStart) / (double)(count - 1) / ElapsedTime.MILLIS_IN_NANO;
+        }
+
+    /** Returns how late iterations have started relative to when they were due */
+    public LatencyHistogram.Summary getLateness()
+        {
+        return lateness.getSummary();
+        }
+
+    /** Returns how long the body of the loop has been taking */
+    public LatencyHistogram.Summary getWorkTime()
+        {
+        return workTime.getSummary();
+        }
+
+    /** Forgets the statistics gathered so far, without disturbing the schedule */
+    public void clearStatistics()
+        {
+        lateness.clear();
+        workTime.clear();
+        overrunCount = 0;
+        missedPeriodCount = 0;
+        iterationCount = 0;
+        }
+
+    @Override public String toString()
+        {
+        LatencyHistogram.Summary late = getLateness();
+        LatencyHistogram.Summary work = getWorkTime();
+        return String.format(Locale.US, "%.0fHz period=%.2fms late p99=%.2fms max=%.2fms work mean=%.2fms p99=%.2fms overruns=%d",
+                getRate(), getMeanPeriodMs(),
+                late.p99Micros / 1000.0, late.maxMicros / 1000.0,
+                work.meanMicros / 1000.0, work.p99Micros / 1000.0,
+                getOverrunCount());
+        }
+    }
@@ -37,11 +37,12 @@ import android.util.Log;
 
 import com.qualcomm.robotcore.exception.RobotCoreException;
 
-import org.firstinspires.ftc.robotcore.internal.files.LogOutputStream;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import org.firstinspires.ftc.robotcore.internal.system.Misc;
 
 import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -50,6 +51,10 @@ import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.Locale;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Allows consistent logging across all RobotCore packages
@@ -130,6 +135,14 @@ public class RobotLog {
 
   private static Calendar matchStartTime     = null;
 
+  /*
+   * Messages less important than this are discarded before any formatting is done.
+   */
+  private static volatile int minimumPriority = Log.VERBOSE;
+
+  private static final Object asyncWriterLock = new Object();
+  private static volatile AsyncWriter asyncWriter = null;
+
   //------------------------------------------------------------------------------------------------
   // Time Synchronization
   //------------------------------------------------------------------------------------------------
@@ -166,103 +179,315 @@ public class RobotLog {
     return (long)(remoteTime - msTimeOffset + 0.5);
   }
 
+  //------------------------------------------------------------------------------------------------
+  // Filtering and asynchrony
+  //------------------------------------------------------------------------------------------------
+
+  /**
+   * Sets the least important priority (one of the {@link Log} priority constants) that will be
+   * logged. Less important messages are dropped before their format string is ever evaluated,
+   * which makes leaving verbose logging in hot paths cheap once it is turned off.
+   */
+  public static void setMinimumPriority(int priority) {
+    minimumPriority = priority;
+  }
+
+  public static int getMinimumPriority() {
+    return minimumPriority;
+  }
+
+  /** Answers whether messages of the indicated priority will currently be logged. Callers can use
+   * this to avoid building expensive arguments for messages that would be discarded anyway. */
+  public static boolean isLoggable(int priority) {
+    return priority >= minimumPriority;
+  }
+
+  /**
+   * When asynchronous logging is on, log lines are placed in a lock-free ring buffer and written
+   * to the Android log by a background thread, so that the thread doing the logging never blocks
+   * on the log device. If the buffer is ever full, lines are written synchronously instead of
+   * being lost. Note that logcat will then attribute the lines to the writer thread.
+   *
+   * <p>Turning asynchronous logging off writes everything still in the buffer before returning;
+   * lines logged meanwhile are held back until that is done, so that the log stays in order.</p>
+   */
+  public static void setAsynchronous(boolean enable) {
+    synchronized (asyncWriterLock) {
+      if (enable && asyncWriter == null) {
+        asyncWriter = new AsyncWriter(AsyncWriter.capacityDefault);
+        asyncWriter.start();
+      } else if (!enable && asyncWriter != null) {
+        asyncWriter.close(); // writes anything still pending
+        asyncWriter = null;
+      }
+    }
+  }
+
+  public static boolean isAsynchronous() {
+    return asyncWriter != null;
+  }
+
+  /*
+   * A bounded multi-producer, single-consumer ring buffer of log lines along with the thread
+   * that drains it. Producers claim a slot with a CAS on the tail, fill it in, then publish it
+   * by advancing the slot's sequence number; the consumer never needs to take a lock either.
+   * When there's nothing to write, the writer parks until a producer wakes it.
+   */
+  protected static class AsyncWriter extends Thread {
+
+    public static final int capacityDefault = 1024; // must be a power of two
+
+    protected final int mask;
+    protected final AtomicLongArray sequences;
+    protected final int[] priorities;
+    protected final String[] tags;
+    protected final String[] messages;
+    protected final long[] remoteTimes;
+    protected final double[] timeOffsets;
+    protected final AtomicLong tail = new AtomicLong(0);
+    protected long head = 0; // only touched by the writer thread
+    protected volatile boolean running = true;
+    protected volatile boolean accepting = true;
+    protected volatile boolean parked = false;
+    protected final AtomicInteger producers = new AtomicInteger(0); // number of offer()s in progress
+
+    AsyncWriter(int capacity) {
+      super("RobotLog writer");
+      setDaemon(true);
+      this.mask = capacity - 1;
+      this.sequences = new AtomicLongArray(capacity);
+      this.priorities = new int[capacity];
+      this.tags = new String[capacity];
+      this.messages = new String[capacity];
+      this.remoteTimes = new long[capacity];
+      this.timeOffsets = new double[capacity];
+      for (int i = 0; i < capacity; i++) {
+        sequences.set(i, i);
+      }
+    }
+
+    /**
+     * Returns false if the buffer is full or we're closing, in which case the caller should log
+     * directly (though in the latter case, only after {@link #awaitClosed()}).
+     */
+    public boolean offer(int priority, String tag, String message, long remoteTime, double timeOffset) {
+      producers.incrementAndGet();
+      try {
+        if (!accepting) {
+          return false;
+        }
+        for (;;) {
+          long pos = tail.get();
+          int index = (int)(pos & mask);
+          long dif = sequences.get(index) - pos;
+          if (dif == 0) {
+            if (tail.compareAndSet(pos, pos + 1)) {
+              priorities[index] = priority;
+              tags[index] = tag;
+              messages[index] = message;
+              remoteTimes[index] = remoteTime;
+              timeOffsets[index] = timeOffset;
+              sequences.set(index, pos + 1); // publish; a full barrier, so we see 'parked' aright
+              if (parked) {
+                parked = false;
+                LockSupport.unpark(this);
+              }
+              return true;
+            }
+          } else if (dif < 0) {
+            return false;
+          }
+          // else another producer got there first; try again
+        }
+      } finally {
+        producers.decrementAndGet();
+      }
+    }
+
+    protected boolean isAvailable() {
+      return sequences.get((int)(head & mask)) == head + 1;
+    }
+
+    protected boolean drain() {
+      boolean any = false;
+      for (;;) {
+        int index = (int)(head & mask);
+        if (sequences.get(index) != head + 1) {
+          return any;
+        }
+        int priority = priorities[index];
+        String tag = tags[index];
+        String message = messages[index];
+        long remoteTime = remoteTimes[index];
+        double timeOffset = timeOffsets[index];
+        tags[index] = null;
+        messages[index] = null;
+        sequences.lazySet(index, head + mask + 1); // hand the slot back to the producers
+        head++;
+        any = true;
+        println(priority, tag, message, remoteTime, timeOffset);
+      }
+    }
+
+    @Override public void run() {
+      while (running) {
+        if (!drain()) {
+          // Announce that we're about to park, then look once more: a producer either sees
+          // the announcement and wakes us, or published before we looked.
+          parked = true;
+          if (running && !isAvailable()) {
+            LockSupport.park(this);
+          }
+          parked = false;
+        }
+      }
+      drain();
+    }
+
+    public boolean isClosing() {
+      return !accepting;
+    }
+
+    /** Stops accepting lines, writes all those already accepted, and shuts down the writer thread */
+    public void close() {
+      accepting = false;
+      while (producers.get() != 0) {
+        Thread.yield(); // let in-progress offers finish publishing; they never block
+      }
+      running = false;
+      LockSupport.unpark(this);
+      awaitClosed();
+    }
+
+    /** Waits until everything accepted has been written */
+    public void awaitClosed() {
+      if (Thread.currentThread() != this) {
+        try {
+          join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
   //------------------------------------------------------------------------------------------------
   // Logging API
   //------------------------------------------------------------------------------------------------
 
-  public static void a(String format, Object... args) { v(String.format(format, args)); }
+  public static void a(String format, Object... args) { if (isLoggable(Log.VERBOSE)) v(String.format(format, args)); }
   public static void a(String message) {
     internalLog(Log.ASSERT, TAG, message);
   }
-  public static void aa(String tag, String format, Object... args) { vv(tag, String.format(format, args)); }
+  public static void aa(String tag, String format, Object... args) { if (isLoggable(Log.VERBOSE)) vv(tag, String.format(format, args)); }
   public static void aa(String tag, String message) {
     internalLog(Log.ASSERT, tag, message);
   }
-  public static void aa(String tag, Throwable throwable, String format, Object... args) { vv(tag, throwable, String.format(format, args)); }
+  public static void aa(String tag, Throwable throwable, String format, Object... args) { if (isLoggable(Log.VERBOSE)) vv(tag, throwable, String.format(format, args)); }
   public static void aa(String tag, Throwable throwable, String message) {
     internalLog(Log.ASSERT, tag, throwable, message);
   }
 
-  public static void v(String format, Object... args) { v(String.format(format, args)); }
+  public static void v(String format, Object... args) { if (isLoggable(Log.VERBOSE)) v(String.format(format, args)); }
   public static void v(String message) {
     internalLog(Log.VERBOSE, TAG, message);
   }
-  public static void vv(String tag, String format, Object... args) { vv(tag, String.format(format, args)); }
+  public static void vv(String tag, String format, Object... args) { if (isLoggable(Log.VERBOSE)) vv(tag, String.format(format, args)); }
   public static void vv(String tag, String message) {
     internalLog(Log.VERBOSE, tag, message);
   }
-  public static void vv(String tag, Throwable throwable, String format, Object... args) { vv(tag, throwable, String.format(format, args)); }
+  public static void vv(String tag, Throwable throwable, String format, Object... args) { if (isLoggable(Log.VERBOSE)) vv(tag, throwable, String.format(format, args)); }
   public static void vv(String tag, Throwable throwable, String message) {
     internalLog(Log.VERBOSE, tag, throwable, message);
   }
 
-  public static void d(String format, Object... args) { d(String.format(format, args)); }
+  public static void d(String format, Object... args) { if (isLoggable(Log.DEBUG)) d(String.format(format, args)); }
   public static void d(String message) {
     internalLog(Log.DEBUG, TAG, message);
   }
-  public static void dd(String tag, String format, Object... args) { dd(tag, String.format(format, args)); }
+  public static void dd(String tag, String format, Object... args) { if (isLoggable(Log.DEBUG)) dd(tag, String.format(format, args)); }
   public static void dd(String tag, String message) {
     internalLog(Log.DEBUG, tag, message);
   }
-  public static void dd(String tag, Throwable throwable, String format, Object... args) { dd(tag, throwable, String.format(format, args)); }
+  public static void dd(String tag, Throwable throwable, String format, Object... args) { if (isLoggable(Log.DEBUG)) dd(tag, throwable, String.format(format, args)); }
   public static void dd(String tag, Throwable throwable, String message) {
     internalLog(Log.DEBUG, tag, throwable, message);
   }
 
-  public static void i(String format, Object... args) { i(String.format(format, args)); }
+  public static void i(String format, Object... args) { if (isLoggable(Log.INFO)) i(String.format(format, args)); }
   public static void i(String message) {
     internalLog(Log.INFO, TAG, message);
   }
-  public static void ii(String tag, String format, Object... args) { ii(tag, String.format(format, args)); }
+  public static void ii(String tag, String format, Object... args) { if (isLoggable(Log.INFO)) ii(tag, String.format(format, args)); }
   public static void ii(String tag, String message) {
     internalLog(Log.INFO, tag, message);
   }
-  public static void ii(String tag, Throwable throwable, String format, Object... args) { ii(tag, throwable, String.format(format, args)); }
+  public static void ii(String tag, Throwable throwable, String format, Object... args) { if (isLoggable(Log.INFO)) ii(tag, throwable, String.format(format, args)); }
   public static void ii(String tag, Throwable throwable, String message) {
     internalLog(Log.INFO, tag, throwable, message);
   }
 
-  public static void w(String format, Object... args) { w(String.format(format, args)); }
+  public static void w(String format, Object... args) { if (isLoggable(Log.WARN)) w(String.format(format, args)); }
   public static void w(String message) {
     internalLog(Log.WARN, TAG, message);
   }
-  public static void ww(String tag, String format, Object... args) { ww(tag, String.format(format, args)); }
+  public static void ww(String tag, String format, Object... args) { if (isLoggable(Log.WARN)) ww(tag, String.format(format, args)); }
   public static void ww(String tag, String message) {
     internalLog(Log.WARN, tag, message);
   }
-  public static void ww(String tag, Throwable throwable, String format, Object... args) { ww(tag, throwable, String.format(format, args)); }
+  public static void ww(String tag, Throwable throwable, String format, Object... args) { if (isLoggable(Log.WARN)) ww(tag, throwable, String.format(format, args)); }
   public static void ww(String tag, Throwable throwable, String message) {
     internalLog(Log.WARN, tag, throwable, message);
   }
 
-  public static void e(String format, Object... args) { e(String.format(format, args)); }
+  public static void e(String format, Object... args) { if (isLoggable(Log.ERROR)) e(String.format(format, args)); }
   public static void e(String message) {
     internalLog(Log.ERROR, TAG, message);
   }
-  public static void ee(String tag, String format, Object... args) { ee(tag, String.format(format, args)); }
+  public static void ee(String tag, String format, Object... args) { if (isLoggable(Log.ERROR)) ee(tag, String.format(format, args)); }
   public static void ee(String tag, String message) {
     internalLog(Log.ERROR, tag, message);
   }
-  public static void ee(String tag, Throwable throwable, String format, Object... args) { ee(tag, throwable, String.format(format, args)); }
+  public static void ee(String tag, Throwable throwable, String format, Object... args) { if (isLoggable(Log.ERROR)) ee(tag, throwable, String.format(format, args)); }
   public static void ee(String tag, Throwable throwable, String message) {
     internalLog(Log.ERROR, tag, throwable, message);
   }
 
   public static void internalLog(int priority, String tag, String message) {
-    if (msTimeOffset==0) {
-      android.util.Log.println(priority, tag, message);
-    } else {
-      GregorianCalendar tRemote = new GregorianCalendar();
-      tRemote.setTimeInMillis(getRemoteTime());
-      android.util.Log.println(priority, tag, Misc.formatInvariant("{%5d %2d.%03d} %s", (int)(msTimeOffset+0.5), tRemote.get(GregorianCalendar.SECOND), tRemote.get(GregorianCalendar.MILLISECOND), message));
+    if (!isLoggable(priority)) return;
+
+    // Capture the time now, but leave the formatting of it to whoever does the writing
+    double timeOffset = msTimeOffset;
+    long remoteTime = timeOffset==0 ? 0 : getRemoteTime();
+
+    AsyncWriter writer = asyncWriter;
+    if (writer != null) {
+      if (writer.offer(priority, tag, message, remoteTime, timeOffset)) {
+        return;
+      }
+      if (writer.isClosing()) {
+        writer.awaitClosed(); // so that we follow what it's still writing
+      }
     }
+    println(priority, tag, message, remoteTime, timeOffset);
   }
 
   public static void internalLog(int priority, String tag, Throwable throwable, String message) {
+    if (!isLoggable(priority)) return;
     internalLog(priority, tag, message);
     logStackTrace(tag, throwable);
   }
 
+  protected static void println(int priority, String tag, String message, long remoteTime, double timeOffset) {
+    if (timeOffset==0) {
+      android.util.Log.println(priority, tag, message);
+    } else {
+      GregorianCalendar tRemote = new GregorianCalendar();
+      tRemote.setTimeInMillis(remoteTime);
+      android.util.Log.println(priority, tag, Misc.formatInvariant("{%5d %2d.%03d} %s", (int)(timeOffset+0.5), tRemote.get(GregorianCalendar.SECOND), tRemote.get(GregorianCalendar.MILLISECOND), message));
+    }
+  }
+
   public static void logExceptionHeader(Exception e, String format, Object... args) {
     String message = String.format(format, args);
     RobotLog.e("exception %s(%s): %s [%s]", e.getClass().getSimpleName(), e.getMessage(), message, getStackTop(e));
@@ -300,8 +525,21 @@ public class RobotLog {
   }
 
   public static void logStackTrace(String tag, Throwable e) {
-    if (e != null) {
-      e.printStackTrace(LogOutputStream.printStream(tag));
+    if (e != null && isLoggable(Log.ERROR)) {
+      // Log the trace line by line through internalLog(), so that when logging asynchronously
+      // it's queued in order with the lines around it
+      StringWriter stringWriter = new StringWriter();
+      e.printStackTrace(new PrintWriter(stringWriter));
+      String trace = stringWriter.toString();
+      int ichFirst = 0;
+      while (ichFirst < trace.length()) {
+        int ichNewline = trace.indexOf('\n', ichFirst);
+        int ichEnd = ichNewline < 0 ? trace.length() : ichNewline;
+        if (ichEnd > ichFirst) {
+          internalLog(Log.ERROR, tag, trace.substring(ichFirst, ichEnd));
+        }
+        ichFirst = ichEnd + 1;
+      }
     }
   }
 
@@ -807,6 +1045,7 @@ public class RobotLog {
   }
 
   public static void logBytes(String tag, String caption, byte[] data, int ibStart, int cb) {
+    if (!isLoggable(Log.VERBOSE)) return;
     int cbLine = 16;
     char separator = ':';
     for (int ibFirst = ibStart; ibFirst < cb; ibFirst += cbLine) {
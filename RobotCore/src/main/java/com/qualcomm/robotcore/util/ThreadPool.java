@@ -51,6 +51,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.WeakHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CancellationException;
@@ -404,6 +405,21 @@ public class ThreadPool
         return result;
         }
 
+    /**
+     * Creates a thread pool that reuses a fixed number of threads operating off a shared queue of
+     * at most {@code queueCapacity} waiting tasks. Tasks submitted when that queue is full are
+     * rejected with a {@link java.util.concurrent.RejectedExecutionException}.
+     * @see #newFixedThreadPool(int, String)
+     */
+    public static ExecutorService newBoundedThreadPool(int numberOfThreads, int queueCapacity, @Nullable String nameRoot)
+        {
+        RecordingThreadPool result = new RecordingThreadPool(numberOfThreads, numberOfThreads,
+                                    0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity));
+        if (nameRoot != null) result.setNameRootForThreads(nameRoot);
+        noteNewExecutor(result);
+        return result;
+        }
+
     /**
      * Creates a thread pool that creates new threads as needed, but will reuse previously constructed
      * threads when they are available.
@@ -0,0 +1,105 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotcore.external;
+
+/**
+ * {@link NumericTelemetry} is implemented by {@link Telemetry} instances which can also transmit
+ * numeric series, such as sensor readings or controller outputs, at rates well above those which
+ * are sensible for the textual caption and value display.
+ *
+ * <p>Series are sent as typed binary values, and only those which have changed are transmitted,
+ * so a few dozen series can comfortably be sent at 50Hz. Driver stations which don't support
+ * binary series are instead sent each series as a caption and value line, at the rate of the
+ * other lines.</p>
+ *
+ * <p>Series are independent of the lines added with {@link Telemetry#addData(String, Object)
+ * addData()}: they are not cleared by {@link Telemetry#update()} or by {@link Telemetry#clear()},
+ * and each retains its most recent value until it is changed or removed.</p>
+ *
+ * <pre>
+ *     if (telemetry instanceof NumericTelemetry) {
+ *         NumericTelemetry series = (NumericTelemetry)telemetry;
+ *         series.putSeries("heading", imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.DEGREES));
+ *         series.putSeries("encoder", motor.getCurrentPosition());
+ *     }
+ *     telemetry.update();
+ * </pre>
+ *
+ * <p>Series are transmitted as part of {@link Telemetry#update()}, but at their own interval.</p>
+ *
+ * @see #setMsSeriesTransmissionInterval(int)
+ */
+public interface NumericTelemetry
+    {
+    /**
+     * Sets the current value of the indicated floating point series, creating it if needed.
+     * @param key   the name of the series
+     * @param value the value of the series
+     */
+    void putSeries(String key, double value);
+
+    /**
+     * Sets the current value of the indicated integral series, creating it if needed. Integral
+     * series are transmitted as differences from previously received values, and so are
+     * particularly compact when they change slowly, as do, e.g., encoder counts.
+     * @param key   the name of the series
+     * @param value the value of the series
+     */
+    void putSeries(String key, long value);
+
+    /**
+     * Removes the indicated series.
+     * @param key   the name of the series
+     * @return whether the series existed
+     */
+    boolean removeSeries(String key);
+
+    /**
+     * Removes all series.
+     */
+    void clearSeries();
+
+    /**
+     * Returns the minimum interval between transmissions of series values. Defaults to 20ms.
+     * @return the minimum interval between transmissions of series values
+     * @see #setMsSeriesTransmissionInterval(int)
+     */
+    int getMsSeriesTransmissionInterval();
+
+    /**
+     * Sets the minimum interval between transmissions of series values.
+     * @param msSeriesTransmissionInterval  the minimum interval between transmissions of series values
+     * @see #getMsSeriesTransmissionInterval()
+     */
+    void setMsSeriesTransmissionInterval(int msSeriesTransmissionInterval);
+    }
@@ -0,0 +1,242 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotcore.internal.hardware;
+
+import androidx.annotation.NonNull;
+
+import com.qualcomm.robotcore.util.LatencyHistogram;
+import com.qualcomm.robotcore.util.WeakReferenceSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link LynxCommandStatistics} accumulates, per command class, where the time goes in talking
+ * to one Lynx module: waiting for the network transmission lock, writing to USB, and waiting for
+ * the module's ack or response. Retransmits, nacks, and timeouts are also counted. The
+ * instrumentation is always on; recording costs a few atomic increments per command.
+ *
+ * Live instances are registered here so that they may be reported over HTTP.
+ */
+@SuppressWarnings("WeakerAccess")
+public class LynxCommandStatistics
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    protected static final WeakReferenceSet<LynxCommandStatistics> registeredInstances = new WeakReferenceSet<LynxCommandStatistics>();
+
+    protected volatile String                               name;
+    protected final ConcurrentHashMap<Class<?>, Command>    commands = new ConcurrentHashMap<Class<?>, Command>();
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public LynxCommandStatistics(@NonNull String name)
+        {
+        this.name = name;
+        }
+
+    public void register()
+        {
+        registeredInstances.add(this);
+        }
+
+    public void unregister()
+        {
+        registeredInstances.remove(this);
+        }
+
+    public static List<LynxCommandStatistics> getRegisteredInstances()
+        {
+        List<LynxCommandStatistics> result = new ArrayList<LynxCommandStatistics>();
+        for (Object instance : registeredInstances.toArray())
+            {
+            result.add((LynxCommandStatistics)instance);
+            }
+        return result;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessing
+    //----------------------------------------------------------------------------------------------
+
+    public String getName()
+        {
+        return name;
+        }
+
+    public void setName(@NonNull String name)
+        {
+        this.name = name;
+        }
+
+    /** Returns the statistics for the indicated class of command, creating them if need be */
+    public Command forCommand(@NonNull Class<?> commandClass)
+        {
+        Command result = commands.get(commandClass);
+        if (result == null)
+            {
+            Command command = new Command(commandClass.getSimpleName());
+            result = commands.putIfAbsent(commandClass, command);
+            if (result == null)
+                {
+                result = command;
+                }
+            }
+        return result;
+        }
+
+    public List<Command> getCommands()
+        {
+        List<Command> result = new ArrayList<Command>(commands.values());
+        Collections.sort(result, new Comparator<Command>()
+            {
+            @Override public int compare(Command lhs, Command rhs)
+                {
+                return lhs.name.compareTo(rhs.name);
+                }
+            });
+        return result;
+        }
+
+    public void clear()
+        {
+        for (Command command : commands.values())
+            {
+            command.clear();
+            }
+        }
+
+    /** Returns a summary of these statistics, suitable for serialization */
+    public Summary getSummary()
+        {
+        return new Summary(this);
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Types
+    //----------------------------------------------------------------------------------------------
+
+    /** The statistics for one class of command */
+    public static class Command
+        {
+        public final String             name;
+        public final LatencyHistogram   lockWait = new LatencyHistogram();  // until we hold the network transmission lock
+        public final LatencyHistogram   transmit = new LatencyHistogram();  // writing to USB, per (re)transmission
+        public final LatencyHistogram   response = new LatencyHistogram();  // from first transmission until ack or response
+        protected final AtomicLong      retransmits = new AtomicLong(0);
+        protected final AtomicLong      nacks       = new AtomicLong(0);
+        protected final AtomicLong      timeouts    = new AtomicLong(0);
+
+        public Command(String name)
+            {
+            this.name = name;
+            }
+
+        public void noteTransmit(boolean isRetransmit, long nsDuration)
+            {
+            transmit.recordNanos(nsDuration);
+            if (isRetransmit) retransmits.incrementAndGet();
+            }
+
+        public void noteNack()
+            {
+            nacks.incrementAndGet();
+            }
+
+        public void noteTimeout()
+            {
+            timeouts.incrementAndGet();
+            }
+
+        public long getRetransmitCount()    { return retransmits.get(); }
+        public long getNackCount()          { return nacks.get(); }
+        public long getTimeoutCount()       { return timeouts.get(); }
+
+        public void clear()
+            {
+            lockWait.clear();
+            transmit.clear();
+            response.clear();
+            retransmits.set(0);
+            nacks.set(0);
+            timeouts.set(0);
+            }
+        }
+
+    /** Serializable summary of a {@link LynxCommandStatistics} */
+    public static class Summary
+        {
+        public final String                 name;
+        public final List<CommandSummary>   commands = new ArrayList<CommandSummary>();
+
+        protected Summary(LynxCommandStatistics statistics)
+            {
+            this.name = statistics.getName();
+            for (Command command : statistics.getCommands())
+                {
+                this.commands.add(new CommandSummary(command));
+                }
+            }
+        }
+
+    /** Serializable summary of a {@link Command} */
+    public static class CommandSummary
+        {
+        public final String                     name;
+        public final long                       retransmits;
+        public final long                       nacks;
+        public final long                       timeouts;
+        public final LatencyHistogram.Summary   lockWait;
+        public final LatencyHistogram.Summary   transmit;
+        public final LatencyHistogram.Summary   response;
+
+        protected CommandSummary(Command command)
+            {
+            this.name           = command.name;
+            this.retransmits    = command.getRetransmitCount();
+            this.nacks          = command.getNackCount();
+            this.timeouts       = command.getTimeoutCount();
+            this.lockWait       = command.lockWait.getSummary();
+            this.transmit       = command.transmit.getSummary();
+            this.response       = command.response.getSummary();
+            }
+        }
+    }
@@ -0,0 +1,120 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotcore.internal.network;
+
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.GamepadDelta;
+import com.qualcomm.robotcore.robocol.RobocolDatagram;
+
+/**
+ * {@link GamepadDeltaDecoder} remembers the full gamepads we have received, and acknowledged,
+ * so that the {@link GamepadDelta}s subsequently based on them can be turned back into full
+ * gamepads.
+ */
+@SuppressWarnings("WeakerAccess")
+public class GamepadDeltaDecoder
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    /** How many acknowledged full gamepads per user we retain. The sender bases its deltas on the
+     * most recent acknowledgment it's heard, so only a few are needed. */
+    protected static final int HISTORY_SIZE = 4;
+
+    protected static class UserState
+        {
+        public final byte[][] bases = new byte[HISTORY_SIZE][Gamepad.BUFFER_SIZE];
+        public final int[]    sequenceNumbers = new int[HISTORY_SIZE];
+        public int            iNext = 0;
+        public int            cBases = 0;
+        }
+
+    protected final UserState[] users = new UserState[] { new UserState(), new UserState() }; // GamepadUser.ONE, GamepadUser.TWO
+
+    protected @Nullable UserState stateFor(byte user)
+        {
+        return user >= 1 && user <= users.length ? users[user - 1] : null;
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Decoding
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Remembers a received full gamepad, returning the acknowledgment to be sent in response, or
+     * null if the gamepad can't serve as a base.
+     */
+    public synchronized @Nullable GamepadDelta onGamepadReceived(RobocolDatagram packet)
+        {
+        if (packet.getLength() < Gamepad.BUFFER_SIZE)
+            {
+            return null;
+            }
+        byte[] data = packet.getData();
+        byte user = GamepadDelta.getUser(data);
+        UserState state = stateFor(user);
+        if (state == null)
+            {
+            return null;
+            }
+        int sequenceNumber = GamepadDelta.getSequenceNumber(data);
+        System.arraycopy(data, 0, state.bases[state.iNext], 0, Gamepad.BUFFER_SIZE);
+        state.sequenceNumbers[state.iNext] = sequenceNumber;
+        state.iNext = (state.iNext + 1) % HISTORY_SIZE;
+        state.cBases = Math.min(state.cBases + 1, HISTORY_SIZE);
+        return GamepadDelta.forAck(user, sequenceNumber, false);
+        }
+
+    /**
+     * Returns the full serialized gamepad which the indicated delta stands for, or null if we no
+     * longer have its base, in which case the sender should be asked to resync.
+     */
+    public synchronized @Nullable byte[] decode(GamepadDelta delta)
+        {
+        UserState state = stateFor(delta.getUser());
+        if (state != null)
+            {
+            for (int i = 0; i < state.cBases; i++)
+                {
+                if (state.sequenceNumbers[i] == delta.getBaseSequenceNumber())
+                    {
+                    return delta.apply(state.bases[i]);
+                    }
+                }
+            }
+        return null;
+        }
+    }
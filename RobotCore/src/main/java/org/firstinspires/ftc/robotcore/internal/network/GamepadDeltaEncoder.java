@@ -0,0 +1,154 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotcore.internal.network;
+
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.exception.RobotCoreException;
+import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.GamepadDelta;
+import com.qualcomm.robotcore.util.ElapsedTime;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link GamepadDeltaEncoder} decides, for each gamepad transmission, whether to send the full
+ * gamepad or just a {@link GamepadDelta} from the most recent full gamepad of the same user that
+ * the receiver has acknowledged. A full gamepad is sent at least every
+ * {@link #MS_FULL_GAMEPAD_INTERVAL}ms, so that bases stay fresh and deltas small.
+ */
+@SuppressWarnings("WeakerAccess")
+public class GamepadDeltaEncoder
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    public static final int MS_FULL_GAMEPAD_INTERVAL = 1000;
+
+    /** How many full gamepads per user we remember while awaiting their acknowledgment */
+    protected static final int HISTORY_SIZE = 4;
+
+    protected static class UserState
+        {
+        public final byte[][] sent = new byte[HISTORY_SIZE][Gamepad.BUFFER_SIZE];  // a ring of full gamepads awaiting acknowledgment
+        public final int[]    sentSequenceNumbers = new int[HISTORY_SIZE];
+        public int            iSentNext = 0;
+        public int            cSent = 0;
+        public final byte[]   base = new byte[Gamepad.BUFFER_SIZE];
+        public int            baseSequenceNumber;
+        public boolean        hasBase = false;
+        public long           nanotimeFullSent = 0;
+        }
+
+    protected final UserState[]  users = new UserState[] { new UserState(), new UserState() }; // GamepadUser.ONE, GamepadUser.TWO
+    protected final ByteBuffer   current = ByteBuffer.allocate(Gamepad.BUFFER_SIZE);
+    protected final GamepadDelta delta = new GamepadDelta();
+
+    //----------------------------------------------------------------------------------------------
+    // Encoding
+    //----------------------------------------------------------------------------------------------
+
+    protected @Nullable UserState stateFor(byte user)
+        {
+        return user >= 1 && user <= users.length ? users[user - 1] : null;
+        }
+
+    /**
+     * Returns the serialized message to transmit for the indicated gamepad, whose sequence number
+     * should already have been set. If useDeltas is false, the full gamepad is always returned.
+     */
+    public synchronized byte[] encode(Gamepad gamepad, boolean useDeltas) throws RobotCoreException
+        {
+        current.clear();
+        gamepad.writeTo(current);
+        byte[] currentBytes = current.array();
+
+        UserState state = stateFor(GamepadDelta.getUser(currentBytes));
+        if (state == null)
+            {
+            return Arrays.copyOf(currentBytes, Gamepad.BUFFER_SIZE);
+            }
+
+        long nanotimeNow = System.nanoTime();
+        if (useDeltas
+                && state.hasBase
+                && nanotimeNow - state.nanotimeFullSent < MS_FULL_GAMEPAD_INTERVAL * ElapsedTime.MILLIS_IN_NANO
+                && delta.compute(state.base, state.baseSequenceNumber, currentBytes))
+            {
+            return delta.toByteArray();
+            }
+
+        // Send it whole, remembering it so that it can become our base once acknowledged
+        System.arraycopy(currentBytes, 0, state.sent[state.iSentNext], 0, Gamepad.BUFFER_SIZE);
+        state.sentSequenceNumbers[state.iSentNext] = GamepadDelta.getSequenceNumber(currentBytes);
+        state.iSentNext = (state.iSentNext + 1) % HISTORY_SIZE;
+        state.cSent = Math.min(state.cSent + 1, HISTORY_SIZE);
+        state.nanotimeFullSent = nanotimeNow;
+        return Arrays.copyOf(currentBytes, Gamepad.BUFFER_SIZE);
+        }
+
+    /** Processes an acknowledgment returned by the receiver's {@link GamepadDeltaDecoder} */
+    public synchronized void onAcknowledgment(GamepadDelta ack)
+        {
+        UserState state = stateFor(ack.getUser());
+        if (state == null)
+            {
+            return;
+            }
+
+        if (ack.isResyncRequest())
+            {
+            // The receiver has lost our base; send full gamepads until it acknowledges one again
+            if (state.hasBase && state.baseSequenceNumber == ack.getBaseSequenceNumber())
+                {
+                state.hasBase = false;
+                }
+            return;
+            }
+
+        for (int i = 0; i < state.cSent; i++)
+            {
+            int iSent = (state.iSentNext - 1 - i + HISTORY_SIZE) % HISTORY_SIZE;
+            if (state.sentSequenceNumbers[iSent] == ack.getBaseSequenceNumber())
+                {
+                System.arraycopy(state.sent[iSent], 0, state.base, 0, Gamepad.BUFFER_SIZE);
+                state.baseSequenceNumber = ack.getBaseSequenceNumber();
+                state.hasBase = true;
+                state.cSent = i;    // older ones are of no further use
+                return;
+                }
+            }
+        }
+    }
@@ -44,11 +44,14 @@ import androidx.annotation.Nullable;
 import com.qualcomm.robotcore.R;
 import com.qualcomm.robotcore.exception.RobotCoreException;
 import com.qualcomm.robotcore.exception.RobotProtocolException;
+import com.qualcomm.robotcore.hardware.GamepadDelta;
 import com.qualcomm.robotcore.robocol.Command;
 import com.qualcomm.robotcore.robocol.PeerDiscovery;
 import com.qualcomm.robotcore.robocol.RobocolDatagram;
 import com.qualcomm.robotcore.robocol.RobocolDatagramSocket;
 import com.qualcomm.robotcore.robocol.RobocolParsable;
+import com.qualcomm.robotcore.robocol.TelemetryFrame;
+import com.qualcomm.robotcore.robocol.TelemetryMessage;
 import com.qualcomm.robotcore.util.Device;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
@@ -64,11 +67,11 @@ import org.firstinspires.ftc.robotcore.internal.ui.RobotCoreGamepadManager;
 
 import java.net.InetAddress;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
 
 @SuppressWarnings("WeakerAccess")
 public class NetworkConnectionHandler {
@@ -95,9 +98,10 @@ public class NetworkConnectionHandler {
     protected Context context;
     protected final ElapsedTime lastRecvPacket = new ElapsedTime();
     protected volatile @Nullable InetAddress remoteAddr;
+    protected volatile int peerCapabilities = 0; // as advertised in the peer's PeerDiscovery
     protected volatile RobocolDatagramSocket socket;
     protected ScheduledExecutorService sendLoopService = null;
-    protected ScheduledFuture<?> sendLoopFuture;
+    protected Future<?> sendLoopFuture;
     protected volatile NetworkSetupRunnable setupRunnable;
     protected @Nullable String connectionOwner;
     protected @Nullable String connectionOwnerPassword;
@@ -106,6 +110,8 @@ public class NetworkConnectionHandler {
     protected final NetworkConnectionCallbackChainer theNetworkConnectionCallback = new NetworkConnectionCallbackChainer();
     protected RecvLoopRunnable recvLoopRunnable;
     protected final RecvLoopCallbackChainer theRecvLoopCallback = new RecvLoopCallbackChainer();
+    protected final TelemetryFrameDecoder telemetryFrameDecoder = new TelemetryFrameDecoder();
+    protected final GamepadDeltaDecoder gamepadDeltaDecoder = new GamepadDeltaDecoder();
     protected final Object callbackLock = new Object(); // paranoia more than reality, but better safe than sorry. Guards the..Callback vars
 
     protected static WifiManager wifiManager = null;
@@ -495,6 +501,7 @@ public class NetworkConnectionHandler {
         }
 
         lastRecvPacket.reset();
+        peerCapabilities = peerDiscovery.getCapabilities();
 
         if (packet.getAddress().equals(remoteAddr)) {
             /*
@@ -515,7 +522,11 @@ public class NetworkConnectionHandler {
                 RobotLog.vv(TAG, "starting sending loop");
 
                 sendLoopService = Executors.newSingleThreadScheduledExecutor();
-                sendLoopFuture = sendLoopService.scheduleAtFixedRate(sendOnceRunnable, 0, SendOnceRunnable.MS_BATCH_TRANSMISSION_INTERVAL, TimeUnit.MILLISECONDS);
+                sendLoopFuture = sendLoopService.submit(new Runnable() {
+                    @Override public void run() {
+                        sendOnceRunnable.runUntilInterrupted();
+                    }
+                });
             }
             // force update the callbacks, since this we either were previously disconnected, or this is a different peer.
             updatePeerStatus(true, true);
@@ -534,6 +545,11 @@ public class NetworkConnectionHandler {
         if (sendOnceRunnable != null) sendOnceRunnable.sendCommand(cmd);
     }
 
+    /** Answers whether our peer has advertised the indicated {@link PeerDiscovery} capability */
+    public boolean peerHasCapability(int capability) {
+        return (peerCapabilities & capability) != 0;
+    }
+
     public void sendReply(Command commandRequest, Command commandResponse) {
         if (wasTransmittedRemotely(commandRequest)) {
             sendCommand(commandResponse);
@@ -569,6 +585,67 @@ public class NetworkConnectionHandler {
         return CallbackResult.NOT_HANDLED;
     }
 
+    /**
+     * Full gamepads are acknowledged so that their sender may follow them with {@link GamepadDelta}s.
+     * Peers which haven't advertised {@link PeerDiscovery#CAPABILITY_GAMEPAD_DELTA} won't, so they aren't.
+     */
+    public void acknowledgeGamepad(RobocolDatagram packet) throws RobotCoreException {
+        if (!peerHasCapability(PeerDiscovery.CAPABILITY_GAMEPAD_DELTA)) return;
+        GamepadDelta ack = gamepadDeltaDecoder.onGamepadReceived(packet);
+        if (ack != null) {
+            sendDatagram(new RobocolDatagram(ack, packet.getAddress()));
+        }
+    }
+
+    /**
+     * Gamepad deltas are turned back into the full gamepads they stand for, which are then
+     * processed just as though they had been received whole.
+     */
+    public CallbackResult gamepadDeltaEvent(RobocolDatagram packet) throws RobotCoreException {
+        GamepadDelta delta = new GamepadDelta(packet.getData());
+        if (delta.isAck()) {
+            SendOnceRunnable sendOnceRunnable = this.sendOnceRunnable;
+            if (sendOnceRunnable != null) sendOnceRunnable.onGamepadAcknowledgment(delta);
+            return CallbackResult.HANDLED;
+        }
+
+        byte[] gamepad = gamepadDeltaDecoder.decode(delta);
+        if (gamepad == null) {
+            sendDatagram(new RobocolDatagram(GamepadDelta.forAck(delta.getUser(), delta.getBaseSequenceNumber(), true), packet.getAddress()));
+            return CallbackResult.HANDLED;
+        }
+        return theRecvLoopCallback.gamepadEvent(RobocolDatagram.forDerivedMessage(packet, gamepad));
+    }
+
+    /**
+     * Binary telemetry frames are acknowledged here, much as commands are. Their decoded series are
+     * then handed up as an ordinary {@link TelemetryMessage} tagged {@link TelemetryFrame#SERIES_TAG}.
+     */
+    public CallbackResult telemetryFrameEvent(RobocolDatagram packet) throws RobotCoreException {
+        TelemetryFrame frame = new TelemetryFrame(packet.getData());
+        if (frame.isAck()) {
+            TelemetryFrameEncoder.getInstance().onAcknowledgment(frame);
+            return CallbackResult.HANDLED;
+        }
+
+        Map<String, Number> values = telemetryFrameDecoder.decode(frame);
+        TelemetryFrame ack = telemetryFrameDecoder.takeAcknowledgment();
+        if (ack != null) {
+            sendDatagram(new RobocolDatagram(ack, packet.getAddress()));
+        }
+        if (values == null) {
+            return CallbackResult.HANDLED;
+        }
+
+        TelemetryMessage message = new TelemetryMessage();
+        message.setTag(TelemetryFrame.SERIES_TAG);
+        message.setSorted(false);
+        for (Map.Entry<String, Number> pair : values.entrySet()) {
+            message.addData(pair.getKey(), pair.getValue().doubleValue());
+        }
+        return theRecvLoopCallback.telemetryEvent(new RobocolDatagram(message, packet.getAddress()));
+    }
+
     public void sendDataToPeer(RobocolParsable parsable) throws RobotCoreException {
         InetAddress remoteAddrCopy = remoteAddr; // We need a copy that can't turn null on us
         if (remoteAddrCopy != null) {
@@ -596,6 +673,7 @@ public class NetworkConnectionHandler {
     public synchronized void clientDisconnect() {
         if (sendOnceRunnable != null) sendOnceRunnable.clearCommands();
         remoteAddr = null;
+        peerCapabilities = 0;
     }
 
     public synchronized void shutdown() {
@@ -618,6 +696,7 @@ public class NetworkConnectionHandler {
 
         // reset the client
         remoteAddr = null;
+        peerCapabilities = 0;
 
         // reset need for handleConnectionInfoAvailable
         setupNeeded = true;
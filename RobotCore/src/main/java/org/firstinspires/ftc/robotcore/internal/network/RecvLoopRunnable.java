@@ -5,6 +5,7 @@ import androidx.annotation.Nullable;
 
 import com.qualcomm.robotcore.exception.RobotCoreException;
 import com.qualcomm.robotcore.robocol.Command;
+import com.qualcomm.robotcore.robocol.RobocolBatch;
 import com.qualcomm.robotcore.robocol.RobocolDatagram;
 import com.qualcomm.robotcore.robocol.RobocolDatagramSocket;
 import com.qualcomm.robotcore.robocol.RobocolParsable;
@@ -124,9 +125,16 @@ public class RecvLoopRunnable implements Runnable {
                                 case TELEMETRY:
                                     callback.telemetryEvent(packet);
                                     break;
+                                case TELEMETRY_FRAME:
+                                    NetworkConnectionHandler.getInstance().telemetryFrameEvent(packet);
+                                    break;
                                 case GAMEPAD:
+                                    NetworkConnectionHandler.getInstance().acknowledgeGamepad(packet);
                                     callback.gamepadEvent(packet);
                                     break;
+                                case GAMEPAD_DELTA:
+                                    NetworkConnectionHandler.getInstance().gamepadDeltaEvent(packet);
+                                    break;
                                 case EMPTY:
                                     callback.emptyEvent(packet);
                                     break;
@@ -197,6 +205,26 @@ public class RecvLoopRunnable implements Runnable {
         return (long)(bytesPerMilli * 1000);
     }
 
+    protected void dispatchPacket(RobocolDatagram packet) {
+        // Process heartbeats immediately, for more accurate ping times
+        // This should only make a difference on the Robot Controller side, because it
+        // has to turn around and respond to the heartbeat as quickly as possible.
+        if (packet.getMsgType() == RobocolParsable.MsgType.HEARTBEAT) {
+            try {
+                if (callback.packetReceived(packet) != CallbackResult.HANDLED) {
+                    callback.heartbeatEvent(packet);
+                }
+            } catch (RobotCoreException e) {
+                // Report the error, but stay alive
+                RobotLog.ee(TAG, e, "exception processing heartbeat", Thread.currentThread().getName());
+                callback.reportGlobalError(e.getMessage(), false);
+            }
+        } else {
+            // Delegate non-heartbeat packets to the PacketProcessor
+            packetsToProcess.addLast(packet);
+        }
+    }
+
     protected void calculateBytesPerMilli() {
         if (bandwidthSampleTimer.time() >= BANDWIDTH_SAMPLE_PERIOD) {
             bytesPerMilli = (socket.getRxDataSample() + socket.getTxDataSample()) / bandwidthSampleTimer.time();
@@ -241,22 +269,14 @@ public class RecvLoopRunnable implements Runnable {
 
                     if (packetFromCurrentPeer && lastRecvPacket != null) lastRecvPacket.reset();
 
-                    // Process heartbeats immediately, for more accurate ping times
-                    // This should only make a difference on the Robot Controller side, because it
-                    // has to turn around and respond to the heartbeat as quickly as possible.
-                    if (packet.getMsgType() == RobocolParsable.MsgType.HEARTBEAT) {
-                        try {
-                            if (callback.packetReceived(packet) != CallbackResult.HANDLED) {
-                                callback.heartbeatEvent(packet);
-                            }
-                        } catch (RobotCoreException e) {
-                            // Report the error, but stay alive
-                            RobotLog.ee(TAG, e, "exception processing heartbeat", Thread.currentThread().getName());
-                            callback.reportGlobalError(e.getMessage(), false);
+                    // Batches are split apart here, so that nothing downstream need know of them
+                    if (packet.getMsgType() == RobocolParsable.MsgType.BATCH) {
+                        for (RobocolDatagram message : RobocolBatch.split(packet)) {
+                            dispatchPacket(message);
                         }
+                        packet.close();
                     } else {
-                        // Delegate non-heartbeat packets to the PacketProcessor
-                        packetsToProcess.addLast(packet);
+                        dispatchPacket(packet);
                     }
 
                     if (DO_TRAFFIC_DATA) calculateBytesPerMilli();
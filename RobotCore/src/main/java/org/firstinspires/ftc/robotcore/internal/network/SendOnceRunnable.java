@@ -2,26 +2,33 @@ package org.firstinspires.ftc.robotcore.internal.network;
 
 import android.os.SystemClock;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.qualcomm.robotcore.R;
+import com.qualcomm.robotcore.exception.RobotCoreException;
 import com.qualcomm.robotcore.hardware.Gamepad;
+import com.qualcomm.robotcore.hardware.GamepadDelta;
 import com.qualcomm.robotcore.robocol.Command;
 import com.qualcomm.robotcore.robocol.Heartbeat;
 import com.qualcomm.robotcore.robocol.KeepAlive;
+import com.qualcomm.robotcore.robocol.PeerDiscovery;
+import com.qualcomm.robotcore.robocol.RobocolBatch;
 import com.qualcomm.robotcore.robocol.RobocolDatagram;
+import com.qualcomm.robotcore.robocol.RobocolParsable;
 import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 import org.firstinspires.ftc.robotcore.internal.ui.RobotCoreGamepadManager;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Comparator;
+import java.util.PriorityQueue;
 import java.util.TimeZone;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
- * Handles batch-sending certain data to the remote device at a regular interval
+ * Handles batch-sending certain data to the remote device at a regular interval, and, in between,
+ * promptly sending commands as they're queued or come due. What's sent at any one moment is coalesced
+ * into as few datagrams as possible.
  */
 @SuppressWarnings("WeakerAccess")
 public class SendOnceRunnable implements Runnable {
@@ -42,6 +49,7 @@ public class SendOnceRunnable implements Runnable {
         public boolean                          originateHeartbeats = AppUtil.getInstance().isDriverStation();
         public boolean                          originateKeepAlives = false;
         public volatile RobotCoreGamepadManager gamepadManager      = null;
+        public boolean                          useGamepadDeltas    = false; // send just what's changed since an acknowledged full gamepad, to peers that can take it
 
         public Parameters() { }
     }
@@ -59,14 +67,24 @@ public class SendOnceRunnable implements Runnable {
     public static final int             MS_HEARTBEAT_TRANSMISSION_INTERVAL = 100;
     public static final int             MS_KEEPALIVE_TRANSMISSION_INTERVAL = 20;
 
+    protected static final Comparator<Command> commandDueComparator = new Comparator<Command>() {
+        @Override public int compare(Command lhs, Command rhs) {
+            return compareNanotimes(lhs.getNanotimeNextTransmit(), rhs.getNanotimeNextTransmit());
+        }
+    };
 
     @NonNull protected final ElapsedTime                lastRecvPacket;
-    @NonNull protected volatile List<Command>           pendingCommands = new CopyOnWriteArrayList<Command>();
+    @NonNull protected final Object                     lock = new Object(); // guards pendingCommands and our wakeups
+    @NonNull protected final PriorityQueue<Command>     pendingCommands = new PriorityQueue<Command>(16, commandDueComparator); // soonest due first
     @NonNull protected Heartbeat                        heartbeatSend = new Heartbeat();
     @NonNull protected KeepAlive                        keepAliveSend = new KeepAlive();
     @NonNull protected DisconnectionCallback            disconnectionCallback;
     @NonNull protected final Parameters                 parameters;
     @NonNull protected final AppUtil                    appUtil = AppUtil.getInstance();
+    @NonNull protected final RobocolBatch               batch = new RobocolBatch(); // only used on the sending thread
+    @NonNull protected final GamepadDeltaEncoder        gamepadDeltaEncoder = new GamepadDeltaEncoder();
+    @Nullable protected Command                         commandInFlight = null; // polled from pendingCommands but not yet requeued
+    protected boolean                                   commandInFlightRemoved = false;
 
     //----------------------------------------------------------------------------------------------
     // Construction
@@ -85,6 +103,72 @@ public class SendOnceRunnable implements Runnable {
     // Operations
     //----------------------------------------------------------------------------------------------
 
+    /**
+     * Runs the send loop until the current thread is interrupted. Every {@link
+     * #MS_BATCH_TRANSMISSION_INTERVAL} we {@link #run} as we always have, but in between we wake as
+     * soon as there's a command to send: one that has been queued or that has come due for
+     * retransmission.
+     */
+    public void runUntilInterrupted() {
+        final long nsTickInterval = MS_BATCH_TRANSMISSION_INTERVAL * ElapsedTime.MILLIS_IN_NANO;
+        long nanotimeNextTick = System.nanoTime();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long nanotimeNow;
+                synchronized (lock) {
+                    for (;;) {
+                        nanotimeNow = System.nanoTime();
+                        long nsWait = nextWakeup(nanotimeNextTick) - nanotimeNow;
+                        if (nsWait <= 0) {
+                            break;
+                        }
+                        lock.wait(nsWait / ElapsedTime.MILLIS_IN_NANO, (int)(nsWait % ElapsedTime.MILLIS_IN_NANO));
+                    }
+                }
+
+                if (nanotimeNow - nanotimeNextTick >= 0) {
+                    run();
+                    nanotimeNextTick += nsTickInterval;
+                    if (nanotimeNow - nanotimeNextTick >= 0) {
+                        nanotimeNextTick = nanotimeNow + nsTickInterval; // we fell behind: don't try to catch up
+                    }
+                } else {
+                    sendChanges();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        RobotLog.vv(TAG, "send loop exiting");
+    }
+
+    /** Returns when next the send loop has something to do; called with the lock held */
+    protected long nextWakeup(long nanotimeNextTick) {
+        long result = nanotimeNextTick;
+        if (isPeerSilent()) {
+            return result; // run() will deal with that, and until then there's no one to send to
+        }
+        Command command = pendingCommands.peek();
+        if (command != null) {
+            long nanotimeNext = command.getNanotimeNextTransmit();
+            result = nanotimeNext == Long.MIN_VALUE ? System.nanoTime() : earlierOf(result, nanotimeNext);
+        }
+        return result;
+    }
+
+    /** Sends the commands that have become due between ticks */
+    protected void sendChanges() {
+        final NetworkConnectionHandler networkConnectionHandler = NetworkConnectionHandler.getInstance();
+        try {
+            sendCommands(networkConnectionHandler);
+            flush(networkConnectionHandler);
+        }
+        // See the comment in run()
+        catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
     @Override
     public void run() {
         // We can't initialize this in the constructor, because SendOnceRunnable is instantiated during NetworkConnectionHandler construction.
@@ -95,23 +179,27 @@ public class SendOnceRunnable implements Runnable {
             // Determine if we're still connected to our peer.
             // It might make more sense for this to live elsewhere, but for now it's a convenient
             // place to continue to leave it.
-            double seconds = lastRecvPacket.seconds();
-            if (parameters.disconnectOnTimeout && seconds > ASSUME_DISCONNECT_TIMER) {
+            if (isPeerSilent()) {
                 disconnectionCallback.disconnected();
                 return;
             }
 
             /*
-             * If we are on the DriverStation then send heartbeats at a specific rate.  Heartbeats
-             * originate on the DriverStation and are echoed by the RobotController.
+             * If we have fresh GamePad data from the DriverStation, then send it, together with any
+             * commands which are due.
              *
-             * If we have fresh GamePad data from the DriverStation, then send it.
+             * If we are on the DriverStation then send heartbeats at a specific rate.  Heartbeats
+             * originate on the DriverStation and are echoed by the RobotController. We send them
+             * last, so that their timestamps are as close as we can get to their transmission.
              *
              * If, through this invocation of SendOnceRunnable we sent neither GamePad data, nor
              * a Heartbeat, then send a KeepAlive if configured to do so.  This ensures a minimum
              * packet rate for devices for which this is necessary to prevent disconnects.
              */
-            sentPacket = false;
+            sentPacket = sendGamepads(networkConnectionHandler);
+
+            sendCommands(networkConnectionHandler);
+
             if (parameters.originateHeartbeats && heartbeatSend.getElapsedSeconds() > 0.001 * MS_HEARTBEAT_TRANSMISSION_INTERVAL) {
                 // generate a new heartbeat packet and send it
                 heartbeatSend = Heartbeat.createWithTimeStamp();
@@ -119,83 +207,177 @@ public class SendOnceRunnable implements Runnable {
                 heartbeatSend.setTimeZoneId(TimeZone.getDefault().getID());
                 // keep the next two lines as close together in time as possible in order to improve the quality of time synchronization
                 heartbeatSend.t0 = appUtil.getWallClockTime();
-                networkConnectionHandler.sendDataToPeer(heartbeatSend);
+                enqueue(networkConnectionHandler, heartbeatSend);
                 sentPacket = true;
                 // Do any logging after the transmission so as to minimize disruption of timing calculation
             }
 
-            if (parameters.gamepadManager != null) {
-                long now = SystemClock.uptimeMillis();
+            if ((!sentPacket) && (parameters.originateKeepAlives) && (keepAliveSend.getElapsedSeconds() > 0.001 * MS_KEEPALIVE_TRANSMISSION_INTERVAL)) {
+                keepAliveSend = KeepAlive.createWithTimeStamp();
+                enqueue(networkConnectionHandler, keepAliveSend);
+            }
+
+            flush(networkConnectionHandler);
+        }
+        // For robustness and attempted ongoing liveness of the app, we catch
+        // *all* types of exception. This will help minimize disruption to the sendLoopService.
+        // With (a huge amount of) luck, the next time we're run, things might work better. Though
+        // that's unlikely, it seems better than stopping the task, which would prevent this
+        // runnable from continuing to execute, breaking most Robocol communication.
+        // See the ScheduledExecutorService#scheduleAtFixedRate() javadoc.
+        catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** Sends the gamepads that aren't stale. Returns whether any were sent. */
+    protected boolean sendGamepads(NetworkConnectionHandler networkConnectionHandler) throws RobotCoreException {
+        RobotCoreGamepadManager gamepadManager = parameters.gamepadManager;
+        if (gamepadManager == null) {
+            return false;
+        }
+
+        boolean useGamepadDeltas = parameters.useGamepadDeltas && networkConnectionHandler.peerHasCapability(PeerDiscovery.CAPABILITY_GAMEPAD_DELTA);
+        boolean result = false;
+        long now = SystemClock.uptimeMillis();
+        for (Gamepad gamepad : gamepadManager.getGamepadsForTransmission()) {
 
-                for (Gamepad gamepad : parameters.gamepadManager.getGamepadsForTransmission()) {
+            // don't send stale gamepads
+            if (now - gamepad.timestamp > GAMEPAD_UPDATE_THRESHOLD && gamepad.atRest())
+                continue;
 
-                    // don't send stale gamepads
-                    if (now - gamepad.timestamp > GAMEPAD_UPDATE_THRESHOLD && gamepad.atRest())
-                        continue;
+            gamepad.setSequenceNumber();
+            enqueue(networkConnectionHandler, gamepadDeltaEncoder.encode(gamepad, useGamepadDeltas));
+            result = true;
+        }
+        return result;
+    }
 
-                    gamepad.setSequenceNumber();
-                    networkConnectionHandler.sendDataToPeer(gamepad);
-                    sentPacket = true;
+    /** Sends the commands that are due, soonest due first; acks are always due */
+    protected void sendCommands(NetworkConnectionHandler networkConnectionHandler) throws RobotCoreException {
+        long nanotimeNow = System.nanoTime();
+        for (;;) {
+            Command command;
+            synchronized (lock) {
+                command = pendingCommands.peek();
+                if (command == null || !command.shouldTransmit(nanotimeNow)) {
+                    return;
                 }
+                pendingCommands.poll();
+                commandInFlight = command;
+                commandInFlightRemoved = false;
             }
 
-            if ((!sentPacket) && (parameters.originateKeepAlives) && (keepAliveSend.getElapsedSeconds() > 0.001 * MS_KEEPALIVE_TRANSMISSION_INTERVAL)) {
-                keepAliveSend = KeepAlive.createWithTimeStamp();
-                networkConnectionHandler.sendDataToPeer(keepAliveSend);
+            // if this command has exceeded max attempts or is no longer worth transmitting, give up
+            if (command.getAttempts() > MAX_COMMAND_ATTEMPTS || command.hasExpired()) {
+                String msg = String.format(AppUtil.getDefContext().getString(R.string.configGivingUpOnCommand), command.getName(), command.getSequenceNumber(), command.getAttempts());
+                RobotLog.vv(TAG, msg);
+                synchronized (lock) {
+                    commandInFlight = null;
+                }
+                continue;
             }
 
-            long nanotimeNow = System.nanoTime();
+            // log commands we initiated, ack the ones we didn't
+            if (!command.isAcknowledged()) {
+                RobotLog.vv(TAG, "sending %s(%d), attempt: %d", command.getName(), command.getSequenceNumber(), command.getAttempts());
+            } else if (DEBUG) {
+                RobotLog.vv(TAG, "acking %s(%d)", command.getName(), command.getSequenceNumber());
+            }
 
-            // send commands
-            List<Command> commandsToRemove = new ArrayList<Command>();
-            for (Command command : pendingCommands) {
+            // send the command
+            enqueue(networkConnectionHandler, command);
 
-                // if this command has exceeded max attempts or is no longer worth transmitting, give up
-                if (command.getAttempts() > MAX_COMMAND_ATTEMPTS || command.hasExpired()) {
-                    String msg = String.format(AppUtil.getDefContext().getString(R.string.configGivingUpOnCommand), command.getName(), command.getSequenceNumber(), command.getAttempts());
-                    RobotLog.vv(TAG, msg);
-                    commandsToRemove.add(command);
-                    continue;
+            // Acks are sent just the once. Commands we originate we requeue, to be resent once their
+            // (new) retransmission time comes, unless an ack removes them first. We must take
+            // care not to requeue one that was removed while we were transmitting it.
+            synchronized (lock) {
+                if (!command.isAcknowledged() && !commandInFlightRemoved) {
+                    pendingCommands.add(command);
                 }
+                commandInFlight = null;
+            }
+        }
+    }
 
-                // Commands that we originate we only send out every once in a while so as to give ack's a chance to get back to us
-                if (command.isAcknowledged() || command.shouldTransmit(nanotimeNow)) {
-                    // log commands we initiated, ack the ones we didn't
-                    if (!command.isAcknowledged()) {
-                        RobotLog.vv(TAG, "sending %s(%d), attempt: %d", command.getName(), command.getSequenceNumber(), command.getAttempts());
-                    } else if (DEBUG) {
-                        RobotLog.vv(TAG, "acking %s(%d)", command.getName(), command.getSequenceNumber());
-                    }
+    /** Adds a message to the datagram we're building, sending the latter first if it's full */
+    protected void enqueue(NetworkConnectionHandler networkConnectionHandler, RobocolParsable parsable) throws RobotCoreException {
+        enqueue(networkConnectionHandler, parsable.toByteArrayForTransmission());
+    }
 
-                    // send the command
-                    networkConnectionHandler.sendDataToPeer(command);
+    protected void enqueue(NetworkConnectionHandler networkConnectionHandler, byte[] message) throws RobotCoreException {
+        if (!batch.add(message)) {
+            flush(networkConnectionHandler);
+            batch.add(message);
+        }
+        if (!networkConnectionHandler.peerHasCapability(PeerDiscovery.CAPABILITY_BATCH)) {
+            flush(networkConnectionHandler); // a batch of one goes out as the bare message, which any peer understands
+        }
+    }
 
-                    // if this is a command we handled, remove it
-                    if (command.isAcknowledged()) commandsToRemove.add(command);
-                }
+    protected void flush(NetworkConnectionHandler networkConnectionHandler) throws RobotCoreException {
+        if (!batch.isEmpty()) {
+            try {
+                networkConnectionHandler.sendDataToPeer(batch);
+            } finally {
+                batch.clear();
             }
-            pendingCommands.removeAll(commandsToRemove);
-        }
-        // For robustness and attempted ongoing liveness of the app, we catch
-        // *all* types of exception. This will help minimize disruption to the sendLoopService.
-        // With (a huge amount of) luck, the next time we're run, things might work better. Though
-        // that's unlikely, it seems better than stopping the task, which would prevent this
-        // runnable from continuing to execute, breaking most Robocol communication.
-        // See the ScheduledExecutorService#scheduleAtFixedRate() javadoc.
-        catch (Exception e) {
-            e.printStackTrace();
         }
     }
 
+    //----------------------------------------------------------------------------------------------
+    // Accessing
+    //----------------------------------------------------------------------------------------------
+
+    /** Our peer has acknowledged a full gamepad, or has asked that we send them whole again */
+    public void onGamepadAcknowledgment(GamepadDelta ack) {
+        gamepadDeltaEncoder.onAcknowledgment(ack);
+    }
+
     public void sendCommand(Command cmd) {
-        pendingCommands.add(cmd);
+        synchronized (lock) {
+            pendingCommands.add(cmd);
+            lock.notifyAll();
+        }
     }
 
     public boolean removeCommand(Command cmd) {
-        return pendingCommands.remove(cmd);
+        synchronized (lock) {
+            if (pendingCommands.remove(cmd)) {
+                return true;
+            }
+            if (cmd.equals(commandInFlight)) {
+                commandInFlightRemoved = true; // it's out for transmission right now
+                return true;
+            }
+            return false;
+        }
     }
 
     public void clearCommands() {
-        pendingCommands.clear();
+        synchronized (lock) {
+            pendingCommands.clear();
+            commandInFlightRemoved = commandInFlight != null;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Utility
+    //----------------------------------------------------------------------------------------------
+
+    protected boolean isPeerSilent() {
+        return parameters.disconnectOnTimeout && lastRecvPacket.seconds() > ASSUME_DISCONNECT_TIMER;
+    }
+
+    protected static int compareNanotimes(long lhs, long rhs) {
+        // Long.MIN_VALUE means 'right away'; other times are compared in a manner robust to wrapping
+        if (lhs == rhs) return 0;
+        if (lhs == Long.MIN_VALUE) return -1;
+        if (rhs == Long.MIN_VALUE) return 1;
+        return lhs - rhs < 0 ? -1 : 1;
+    }
+
+    protected static long earlierOf(long lhs, long rhs) {
+        return lhs - rhs <= 0 ? lhs : rhs;
     }
 }
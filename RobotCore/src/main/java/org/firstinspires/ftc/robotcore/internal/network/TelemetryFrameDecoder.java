@@ -0,0 +1,208 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotcore.internal.network;
+
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.robocol.TelemetryFrame;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@link TelemetryFrameDecoder} reconstructs the values of numeric telemetry series from the
+ * {@link TelemetryFrame}s produced by a {@link TelemetryFrameEncoder}, and produces the
+ * acknowledgments which that encoder needs in order to send only what's changed.
+ *
+ * Frames which carry definitions, or which stand alone, are acknowledged right away; others are
+ * acknowledged at most every {@link #MS_ACKNOWLEDGMENT_INTERVAL}ms, which keeps the return traffic
+ * small while still letting the sender's bases advance.
+ */
+@SuppressWarnings("WeakerAccess")
+public class TelemetryFrameDecoder
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    public static final String TAG = "TelemetryFrameDecoder";
+    public static boolean DEBUG = false;
+
+    public static final int MS_ACKNOWLEDGMENT_INTERVAL = 100;
+
+    /** How many acknowledged states we keep around for frames to be based upon. The sender bases
+     * its frames on the most recent acknowledgment it has received, so only a few are needed. */
+    protected static final int HISTORY_SIZE = 8;
+
+    protected static class State
+        {
+        public final int frameNumber;
+        public final Map<Integer, TelemetryFrame.Value> values;   // absolute values, by id
+
+        public State(int frameNumber, Map<Integer, TelemetryFrame.Value> values)
+            {
+            this.frameNumber = frameNumber;
+            this.values = values;
+            }
+        }
+
+    protected final Map<Integer, String>    keys = new HashMap<Integer, String>();
+    protected final LinkedList<State>       history = new LinkedList<State>();
+    protected final ElapsedTime             acknowledgmentTimer = new ElapsedTime();
+    protected int                           epoch = -1;
+    protected @Nullable State               latest = null;
+    protected @Nullable TelemetryFrame      acknowledgment = null;
+
+    //----------------------------------------------------------------------------------------------
+    // Decoding
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Decodes the indicated frame, returning the values of all the series as of that frame, in
+     * the order in which the series were defined, or null if the frame can't be used. Values are
+     * {@link Double}s or {@link Long}s according to how they were sent.
+     *
+     * @see #takeAcknowledgment()
+     */
+    public synchronized @Nullable Map<String, Number> decode(TelemetryFrame frame)
+        {
+        if (frame.getEpoch() != epoch)
+            {
+            if (frame.getBaseFrameNumber() != TelemetryFrame.NO_FRAME)
+                {
+                return requestResync(frame, "unknown epoch");
+                }
+            epoch = frame.getEpoch();
+            keys.clear();
+            history.clear();
+            latest = null;
+            }
+        else if (latest != null && ((frame.getFrameNumber() - latest.frameNumber) & 0xFFFF) >= 0x8000)
+            {
+            return null; // arrived out of order; we've already moved past it
+            }
+
+        Map<Integer, TelemetryFrame.Value> values;
+        if (frame.getBaseFrameNumber() == TelemetryFrame.NO_FRAME)
+            {
+            values = new HashMap<Integer, TelemetryFrame.Value>();
+            }
+        else
+            {
+            State base = findAcknowledged(frame.getBaseFrameNumber());
+            if (base == null)
+                {
+                return requestResync(frame, "missing base frame");
+                }
+            values = new HashMap<Integer, TelemetryFrame.Value>(base.values);
+            }
+
+        for (int i = 0; i < frame.getDefinitionIds().size(); i++)
+            {
+            keys.put(frame.getDefinitionIds().get(i), frame.getDefinitionKeys().get(i));
+            }
+
+        for (TelemetryFrame.Value value : frame.getValues())
+            {
+            if (!keys.containsKey(value.id))
+                {
+                return requestResync(frame, "undefined series");
+                }
+            if (value.encoding == TelemetryFrame.ENCODING_LONG_DELTA)
+                {
+                TelemetryFrame.Value baseValue = values.get(value.id);
+                if (baseValue == null)
+                    {
+                    return requestResync(frame, "delta without base value");
+                    }
+                value = new TelemetryFrame.Value(value.id, TelemetryFrame.ENCODING_LONG, baseValue.bits + value.bits);
+                }
+            values.put(value.id, value);
+            }
+
+        latest = new State(frame.getFrameNumber(), values);
+        if (!frame.getDefinitionIds().isEmpty()
+                || frame.getBaseFrameNumber() == TelemetryFrame.NO_FRAME
+                || acknowledgmentTimer.milliseconds() >= MS_ACKNOWLEDGMENT_INTERVAL)
+            {
+            history.addLast(latest);
+            while (history.size() > HISTORY_SIZE)
+                {
+                history.removeFirst();
+                }
+            acknowledgment = TelemetryFrame.forAck(epoch, latest.frameNumber, false);
+            acknowledgmentTimer.reset();
+            }
+
+        Map<String, Number> result = new LinkedHashMap<String, Number>();
+        for (TelemetryFrame.Value value : new TreeMap<Integer, TelemetryFrame.Value>(values).values())
+            {
+            result.put(keys.get(value.id), value.encoding == TelemetryFrame.ENCODING_DOUBLE
+                    ? (Number) Double.longBitsToDouble(value.bits)
+                    : (Number) value.bits);
+            }
+        return result;
+        }
+
+    /** Returns the acknowledgment, if any, which should now be sent back to the encoder */
+    public synchronized @Nullable TelemetryFrame takeAcknowledgment()
+        {
+        TelemetryFrame result = acknowledgment;
+        acknowledgment = null;
+        return result;
+        }
+
+    protected @Nullable State findAcknowledged(int frameNumber)
+        {
+        for (State state : history)
+            {
+            if (state.frameNumber == frameNumber)
+                {
+                return state;
+                }
+            }
+        return null;
+        }
+
+    protected @Nullable Map<String, Number> requestResync(TelemetryFrame frame, String reason)
+        {
+        if (DEBUG) RobotLog.vv(TAG, "requesting resync at frame %d: %s", frame.getFrameNumber(), reason);
+        acknowledgment = TelemetryFrame.forAck(frame.getEpoch(), frame.getFrameNumber(), true);
+        return null;
+        }
+    }
@@ -0,0 +1,298 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotcore.internal.network;
+
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.robocol.TelemetryFrame;
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TelemetryFrameEncoder} turns successive snapshots of numeric telemetry series into
+ * {@link TelemetryFrame}s, each of which carries only what the receiver doesn't already know
+ * according to the acknowledgments it has returned to us.
+ *
+ * Series keep their ids for as long as their set and their types remain the same; removing a
+ * series or changing its type starts a new epoch, and we start afresh.
+ */
+@SuppressWarnings("WeakerAccess")
+public class TelemetryFrameEncoder
+    {
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    public static final String TAG = "TelemetryFrameEncoder";
+    public static boolean DEBUG = false;
+
+    /** How many transmitted frames we remember while waiting to hear that they were received. At
+     * 50Hz, that's the better part of a second. */
+    protected static final int HISTORY_SIZE = 32;
+
+    protected static class InstanceHolder
+        {
+        public static final TelemetryFrameEncoder theInstance = new TelemetryFrameEncoder();
+        }
+    public static TelemetryFrameEncoder getInstance() { return InstanceHolder.theInstance; }
+
+    protected static class Series
+        {
+        public final int     id;
+        public final String  key;
+        public final boolean isLong;
+
+        public Series(int id, String key, boolean isLong)
+            {
+            this.id = id;
+            this.key = key;
+            this.isLong = isLong;
+            }
+        }
+
+    /** The full state of the series as of a given frame, indexed by id */
+    protected static class Snapshot
+        {
+        public final int    frameNumber;
+        public final long[] bits;
+
+        public Snapshot(int frameNumber, long[] bits)
+            {
+            this.frameNumber = frameNumber;
+            this.bits = bits;
+            }
+        }
+
+    protected final Object              lock = new Object();
+    protected final Map<String, Series> seriesByKey = new HashMap<String, Series>();
+    protected final List<Series>        seriesById = new ArrayList<Series>();
+    protected final LinkedList<Snapshot> history = new LinkedList<Snapshot>();
+    protected int                       epoch;
+    protected int                       nextFrameNumber;
+    protected int                       cDefinitionsAcknowledged;   // series with ids below this are known to the receiver
+    protected @Nullable Snapshot        acknowledged;               // the most recent frame the receiver has told us it has
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    public TelemetryFrameEncoder()
+        {
+        // Start somewhere arbitrary so that a restarted app isn't confused with its former self
+        this.epoch = (int)(System.nanoTime() & 0xFFFF);
+        resetLocked();
+        }
+
+    /** Forgets all series and starts a new epoch */
+    public void reset()
+        {
+        synchronized (lock)
+            {
+            resetLocked();
+            }
+        }
+
+    protected void resetLocked()
+        {
+        epoch = (epoch + 1) & 0xFFFF;
+        nextFrameNumber = 0;
+        seriesByKey.clear();
+        seriesById.clear();
+        history.clear();
+        cDefinitionsAcknowledged = 0;
+        acknowledged = null;
+        }
+
+    /** Returns whether we've sent frames which the receiver hasn't yet acknowledged */
+    public boolean isAwaitingAcknowledgment()
+        {
+        synchronized (lock)
+            {
+            return !history.isEmpty();
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Encoding
+    //----------------------------------------------------------------------------------------------
+
+    protected static boolean isLong(Number value)
+        {
+        return !(value instanceof Double || value instanceof Float);
+        }
+
+    /**
+     * Returns a frame conveying the indicated series values to the receiver, or null if the
+     * receiver is known to already have all of them. Values which are {@link Double}s or
+     * {@link Float}s are sent as float64s; all others are sent as integers.
+     */
+    public @Nullable TelemetryFrame encode(Map<String, ? extends Number> values)
+        {
+        synchronized (lock)
+            {
+            // Any series gone missing or changed in type? If so, the ids we've negotiated are moot.
+            int cMatched = 0;
+            for (Map.Entry<String, ? extends Number> pair : values.entrySet())
+                {
+                Series series = seriesByKey.get(pair.getKey());
+                if (series != null)
+                    {
+                    if (series.isLong != isLong(pair.getValue()))
+                        {
+                        cMatched = -1;
+                        break;
+                        }
+                    cMatched++;
+                    }
+                }
+            if (cMatched != seriesByKey.size())
+                {
+                if (DEBUG) RobotLog.vv(TAG, "series changed; starting new epoch");
+                resetLocked();
+                }
+
+            // Assign ids to any new series, and capture the current state
+            for (Map.Entry<String, ? extends Number> pair : values.entrySet())
+                {
+                if (!seriesByKey.containsKey(pair.getKey()))
+                    {
+                    Series series = new Series(seriesById.size(), pair.getKey(), isLong(pair.getValue()));
+                    seriesByKey.put(series.key, series);
+                    seriesById.add(series);
+                    }
+                }
+            long[] bits = new long[seriesById.size()];
+            for (Map.Entry<String, ? extends Number> pair : values.entrySet())
+                {
+                Series series = seriesByKey.get(pair.getKey());
+                bits[series.id] = series.isLong
+                        ? pair.getValue().longValue()
+                        : Double.doubleToRawLongBits(pair.getValue().doubleValue());
+                }
+
+            // Send everything that differs from what the receiver has
+            Snapshot base = acknowledged;
+            TelemetryFrame frame = new TelemetryFrame(epoch, nextFrameNumber, base==null ? TelemetryFrame.NO_FRAME : base.frameNumber);
+            for (int id = cDefinitionsAcknowledged; id < seriesById.size(); id++)
+                {
+                frame.addDefinition(id, seriesById.get(id).key);
+                }
+            for (Series series : seriesById)
+                {
+                boolean inBase = base != null && series.id < base.bits.length;
+                if (inBase && base.bits[series.id] == bits[series.id])
+                    {
+                    continue;
+                    }
+                if (series.isLong)
+                    {
+                    frame.addLong(series.id, inBase ? bits[series.id] - base.bits[series.id] : bits[series.id], inBase);
+                    }
+                else
+                    {
+                    frame.addDouble(series.id, Double.longBitsToDouble(bits[series.id]));
+                    }
+                }
+
+            if (!frame.hasData())
+                {
+                return null;
+                }
+
+            history.addLast(new Snapshot(nextFrameNumber, bits));
+            while (history.size() > HISTORY_SIZE)
+                {
+                history.removeFirst();
+                }
+            nextFrameNumber = (nextFrameNumber + 1) & 0xFFFF;
+            if (nextFrameNumber == TelemetryFrame.NO_FRAME)
+                {
+                nextFrameNumber = 0;
+                }
+            return frame;
+            }
+        }
+
+    //----------------------------------------------------------------------------------------------
+    // Acknowledgments
+    //----------------------------------------------------------------------------------------------
+
+    /** Processes an acknowledgment returned by the receiver's {@link TelemetryFrameDecoder} */
+    public void onAcknowledgment(TelemetryFrame ack)
+        {
+        synchronized (lock)
+            {
+            if (ack.getEpoch() != epoch)
+                {
+                return; // stale
+                }
+
+            if (ack.isResyncRequest())
+                {
+                // The receiver can't reconstruct our frames; send it everything next time
+                if (DEBUG) RobotLog.vv(TAG, "resync requested at frame %d", ack.getFrameNumber());
+                history.clear();
+                cDefinitionsAcknowledged = 0;
+                acknowledged = null;
+                return;
+                }
+
+            // Frames older than the one acknowledged will never be useful as bases; acks for them
+            // which arrive out of order thus won't be found, and so are ignored.
+            Snapshot found = null;
+            for (Snapshot snapshot : history)
+                {
+                if (snapshot.frameNumber == ack.getFrameNumber())
+                    {
+                    found = snapshot;
+                    break;
+                    }
+                }
+            if (found != null)
+                {
+                while (history.getFirst() != found)
+                    {
+                    history.removeFirst();
+                    }
+                history.removeFirst();
+                acknowledged = found;
+                cDefinitionsAcknowledged = Math.max(cDefinitionsAcknowledged, found.bits.length);
+                }
+            }
+        }
+    }
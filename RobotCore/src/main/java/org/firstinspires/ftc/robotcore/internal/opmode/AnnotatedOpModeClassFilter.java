@@ -67,7 +67,7 @@ import java.util.Set;
  * Many thanks.
  */
 @SuppressWarnings("WeakerAccess")
-public class AnnotatedOpModeClassFilter implements ClassFilter
+public class AnnotatedOpModeClassFilter implements IndexableClassFilter
     {
     //----------------------------------------------------------------------------------------------
     // State
@@ -367,6 +367,19 @@ public class AnnotatedOpModeClassFilter implements ClassFilter
         filteredAnnotatedOpModeClasses.add((Class<OpMode>) clazz);
         }
 
+    @Override public boolean isCandidateClass(Class<?> clazz)
+        {
+        if (clazz.isAnnotationPresent(TeleOp.class) || clazz.isAnnotationPresent(Autonomous.class))
+            return true;
+
+        for (Method method : ClassUtil.getLocalDeclaredMethods(clazz))
+            {
+            if (method.isAnnotationPresent(OpModeRegistrar.class))
+                return true;
+            }
+        return false;
+        }
+
     @Override public void filterOnBotJavaClass(Class clazz)
         {
         filterClass(clazz);
@@ -16,6 +16,7 @@
 
 package org.firstinspires.ftc.robotcore.internal.opmode;
 
+import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.configuration.annotations.DeviceProperties;
 import com.qualcomm.robotcore.hardware.HardwareDevice;
 import com.qualcomm.robotcore.util.ClassUtil;
@@ -40,7 +41,11 @@ import org.firstinspires.ftc.robotcore.external.ExportToBlocks;
  *
  * @author Liz Looney
  */
-public class BlocksClassFilter implements ClassFilter {
+public class BlocksClassFilter implements IndexableClassFilter {
+  // The package of the Java that is generated for, and compiled by OnBotJava from, blocks projects
+  // that run as compiled Java rather than in the WebView.
+  public static final String COMPILED_BLOCKS_PACKAGE = "org.firstinspires.ftc.teamcode.blocks";
+
   private static final Pattern methodLookupStringPattern = Pattern.compile(
       "([^ ]+) ([^\\\\(]+).*");
 
@@ -91,6 +96,9 @@ public class BlocksClassFilter implements ClassFilter {
   // If an enum class does not have an enclosing class, the key is the enum class itself.
   private final Map<Class, Set<Class<? extends Enum>>> enumClassesByEnclosingClass = new TreeMap<>(classComparator);
 
+  // compiledBlocksOpModes holds the OnBotJava OpMode classes in COMPILED_BLOCKS_PACKAGE, by simple name.
+  private final Map<String, Class<? extends OpMode>> compiledBlocksOpModes = new HashMap<>();
+
   // Singleton
 
   private static class InstanceHolder {
@@ -114,6 +122,7 @@ public class BlocksClassFilter implements ClassFilter {
     hardwareMethodsByClass.clear();
     hardwareMethods.clear();
     enumClassesByEnclosingClass.clear();
+    compiledBlocksOpModes.clear();
   }
 
   @Override
@@ -156,6 +165,7 @@ public class BlocksClassFilter implements ClassFilter {
         iter3.remove();
       }
     }
+    compiledBlocksOpModes.clear();
   }
 
 
@@ -205,11 +215,16 @@ public class BlocksClassFilter implements ClassFilter {
   @Override
   public void filterClass(Class clazz) {
     exploreClass(clazz);
+    // At app start, the OnBotJava classes come through here rather than filterOnBotJavaClass.
+    if (OnBotJavaDeterminer.isOnBotJava(clazz)) {
+      noteCompiledBlocksOpMode(clazz);
+    }
   }
 
   @Override
   public void filterOnBotJavaClass(Class clazz) {
     exploreClass(clazz);
+    noteCompiledBlocksOpMode(clazz);
   }
 
   @Override
@@ -229,6 +244,23 @@ public class BlocksClassFilter implements ClassFilter {
   public void filterExternalLibrariesClassesComplete() {
   }
 
+  @Override
+  public boolean isCandidateClass(Class<?> clazz) {
+    // Mirrors the checks in exploreClass.
+    return getPackage(clazz).equals("org.firstinspires.ftc.teamcode") ||
+        clazz.isAnnotationPresent(ExportClassToBlocks.class) ||
+        clazz.isAnnotationPresent(DeviceProperties.class) ||
+        (clazz.isEnum() && clazz.isAnnotationPresent(ExportEnumToBlocks.class));
+  }
+
+  /**
+   * Returns the OpMode class that the current OnBotJava build produced for a blocks project, or
+   * null if the build has no such class.
+   */
+  public Class<? extends OpMode> getCompiledBlocksOpMode(String className) {
+    return compiledBlocksOpModes.get(className);
+  }
+
   private void exploreClass(Class<?> clazz) {
     if (getPackage(clazz).equals("org.firstinspires.ftc.teamcode") ||
         clazz.isAnnotationPresent(ExportClassToBlocks.class)) {
@@ -247,6 +279,12 @@ public class BlocksClassFilter implements ClassFilter {
     }
   }
 
+  private void noteCompiledBlocksOpMode(Class<?> clazz) {
+    if (getPackage(clazz).equals(COMPILED_BLOCKS_PACKAGE) && OpMode.class.isAssignableFrom(clazz)) {
+      compiledBlocksOpModes.put(clazz.getSimpleName(), (Class<? extends OpMode>) clazz);
+    }
+  }
+
   private static String getPackage(Class clazz) {
     Package pkg = clazz.getPackage();
     if (pkg != null) {
@@ -33,7 +33,11 @@ package org.firstinspires.ftc.robotcore.internal.opmode;
 
 import android.content.Context;
 
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.util.ElapsedTime;
 import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.ThreadPool;
 import com.qualcomm.robotcore.util.Util;
 
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
@@ -43,10 +47,17 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import dalvik.system.DexFile;
@@ -81,10 +92,11 @@ public class ClassManager {
 
     private static final String TAG = "ClassManager";
     private static final boolean DEBUG = false;
+    private static final int MIN_CLASSES_PER_PARTITION = 256;
 
     private static final AtomicBoolean processAllClassesCalled = new AtomicBoolean(false);
 
-    private List<String> packagesAndClassesToIgnore;
+    private volatile List<String> packagesAndClassesToIgnore;
     private Set<ClassFilter> filters; // Must be a set so that adds are idempotent.
     private Context context;
     private DexFile dexFile;
@@ -117,7 +129,8 @@ public class ClassManager {
         // Classes in these packages will not be put through our various ClassFilter implementations.
         // This means that they will not be scanned for any annotations that are defined in the
         // FTC SDK, such as @TeleOp, or @DeviceProperties, or for configuration XML files.
-        this.packagesAndClassesToIgnore = new ArrayList<String>();
+        // Classes are loaded concurrently (see classNamesToClasses()), and additions are rare
+        this.packagesAndClassesToIgnore = new CopyOnWriteArrayList<String>();
         this.packagesAndClassesToIgnore.addAll(Arrays.asList(
             "android", // Also excludes androidx
             "com.android",
@@ -175,12 +188,10 @@ public class ClassManager {
     }
 
     /**
-     * Find all the classes in the context in which we should consider looking, which
-     * (currently?) is the entire .APK in which we are found plus any on bot java classes.
-     * Classes can be found in either the base apk dex file, or any number of
-     * instant run dex files, or in On-Bot Java classes. Gather them all...
+     * Find the names of all the classes built into the APK. Classes can be found in either
+     * the base apk dex file, or any number of instant run dex files.
      */
-    private List<String> getAllClassNames()
+    private List<String> getApkClassNames()
     {
         // Load what's built into the APK
         List<String> classNames = new ArrayList<String>(Collections.list(dexFile.entries()));
@@ -188,6 +199,17 @@ public class ClassManager {
         // Deal with instant run's craziness
         classNames.addAll(InstantRunHelper.getAllClassNames(context));
 
+        return classNames;
+    }
+
+    /**
+     * Find the names of all the OnBotJava and external library classes. As a side effect, this
+     * sets up the class loader through which all classes are subsequently loaded.
+     */
+    private List<String> getOnBotJavaAndExternalLibrariesClassNames()
+    {
+        List<String> classNames = new ArrayList<String>();
+
         if (onBotJavaHelper != null) {
             // Load classes from OnBotJava
             classNames.addAll(onBotJavaHelper.getOnBotJavaClassNames());
@@ -200,9 +222,53 @@ public class ClassManager {
         return classNames;
     }
 
+    /**
+     * Loads the named classes, skipping those we're to ignore or which can't be found. Large
+     * lists are partitioned into contiguous runs which are loaded concurrently, and the results
+     * concatenated in partition order, so the result is in the same order as classNames
+     * regardless of how the work happened to be scheduled.
+     */
     protected List<Class> classNamesToClasses(Collection<String> classNames)
     {
-        List<Class> result = new LinkedList<Class>();
+        final List<String> names = new ArrayList<String>(classNames);
+        int partitionCount = Math.min(Runtime.getRuntime().availableProcessors(), names.size() / MIN_CLASSES_PER_PARTITION);
+        if (partitionCount <= 1)
+        {
+            return loadClasses(names);
+        }
+
+        ExecutorService executor = ThreadPool.newFixedThreadPool(partitionCount, "ClassManager");
+        try
+        {
+            List<Future<List<Class>>> futures = new ArrayList<Future<List<Class>>>(partitionCount);
+            for (int i = 0; i < partitionCount; i++)
+            {
+                final List<String> partition = names.subList(i * names.size() / partitionCount, (i + 1) * names.size() / partitionCount);
+                futures.add(executor.submit(new Callable<List<Class>>()
+                {
+                    @Override public List<Class> call()
+                    {
+                        return loadClasses(partition);
+                    }
+                }));
+            }
+
+            List<Class> result = new ArrayList<Class>(names.size());
+            for (List<Class> classes : awaitAll(futures))
+            {
+                result.addAll(classes);
+            }
+            return result;
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    protected List<Class> loadClasses(List<String> classNames)
+    {
+        List<Class> result = new ArrayList<Class>(classNames.size());
         ClassLoader classLoaderToUse = (classLoader != null)
             ? classLoader
             : this.getClass().getClassLoader();
@@ -265,6 +331,12 @@ public class ClassManager {
 
     /**
      * Iterate over all the classes in the APK and other sources and call registered filters.
+     *
+     * Loading and filtering every class in the APK is by far the bulk of the cost here, yet
+     * only a handful of those classes are ever of interest. So when all the registered filters
+     * are {@link IndexableClassFilter}s, we remember which APK classes each of them is interested
+     * in, and on subsequent launches of the same APK load and filter only those. OnBotJava and
+     * external library classes can change without the APK changing, and so are always scanned.
      */
     public void processAllClasses()
     {
@@ -275,17 +347,220 @@ public class ClassManager {
             return;
         }
 
+        ElapsedTime timer = new ElapsedTime();
         resetIgnoredList();
-        List<Class> allClasses = classNamesToClasses(getAllClassNames());
 
+        // Do this first, as it establishes the class loader used for the APK classes too
+        List<String> otherClassNames = getOnBotJavaAndExternalLibrariesClassNames();
+
+        ClassScanIndex index = new ClassScanIndex(context, filters);
+        Map<String, List<Class>> apkClassesByFilterType = loadIndexedApkClasses(index);
+        boolean usedIndex = apkClassesByFilterType != null;
+        List<Class> apkClasses = Collections.emptyList();
+        if (!usedIndex)
+        {
+            apkClasses = classNamesToClasses(getApkClassNames());
+            apkClassesByFilterType = findCandidateApkClasses(index, apkClasses);
+        }
+        double msApk = timer.milliseconds();
+
+        List<Class> otherClasses = classNamesToClasses(otherClassNames);
+        double msLoad = timer.milliseconds();
+
+        filterAllClasses(apkClassesByFilterType, apkClasses, otherClasses);
+
+        RobotLog.ii(TAG, "processAllClasses(): apk classes %s in %.1f ms; loaded %d other classes in %.1f ms; filtered in %.1f ms; total %.1f ms",
+                usedIndex ? "from index" : "scanned", msApk, otherClasses.size(), msLoad - msApk, timer.milliseconds() - msLoad, timer.milliseconds());
+    }
+
+    /**
+     * Waits for all of the futures to complete, returning their results in order. If any of
+     * them failed, the first such failure is rethrown.
+     */
+    private static <T> List<T> awaitAll(List<Future<T>> futures)
+    {
+        // This all happens once, at startup: it's simplest not to abandon work half-done
+        boolean interrupted = false;
+        List<T> result = new ArrayList<T>(futures.size());
+        try
+        {
+            for (Future<T> future : futures)
+            {
+                for (;;)
+                {
+                    try
+                    {
+                        result.add(future.get());
+                        break;
+                    }
+                    catch (InterruptedException e)
+                    {
+                        interrupted = true;
+                    }
+                    catch (ExecutionException e)
+                    {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof RuntimeException) throw (RuntimeException)cause;
+                        if (cause instanceof Error) throw (Error)cause;
+                        throw new RuntimeException(cause);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+
+    /**
+     * Runs each of the filters over its classes. The filters are independent of one another, so
+     * each runs on its own thread; but any one filter sees its classes strictly in order and from
+     * a single thread, so the filters need no synchronization of their own and the order in which
+     * (e.g.) OpModes are registered is unaffected.
+     */
+    private void filterAllClasses(final Map<String, List<Class>> apkClassesByFilterType, final List<Class> apkClasses, final List<Class> otherClasses)
+    {
+        if (filters.isEmpty())
+            return;
+
+        List<Future<Double>> futures = new ArrayList<Future<Double>>(filters.size());
+        final List<ClassFilter> filterList = new ArrayList<ClassFilter>(filters);
+        ExecutorService executor = ThreadPool.newFixedThreadPool(Math.min(filterList.size(), Runtime.getRuntime().availableProcessors()), "ClassFilter");
+        try
+        {
+            for (final ClassFilter f : filterList)
+            {
+                futures.add(executor.submit(new Callable<Double>()
+                {
+                    @Override public Double call()
+                    {
+                        ElapsedTime timer = new ElapsedTime();
+                        List<Class> apkClassesForFilter = apkClassesByFilterType == null
+                                ? apkClasses
+                                : apkClassesByFilterType.get(ClassScanIndex.typeOf(f));
+
+                        f.filterAllClassesStart();
+                        if (apkClassesForFilter != null)
+                        {
+                            for (Class clazz : apkClassesForFilter)
+                            {
+                                f.filterClass(clazz);
+                            }
+                        }
+                        for (Class clazz : otherClasses)
+                        {
+                            f.filterClass(clazz);
+                        }
+                        f.filterAllClassesComplete();
+                        return timer.milliseconds();
+                    }
+                }));
+            }
+
+            List<Double> msFilters = awaitAll(futures);
+            for (int i = 0; i < filterList.size(); i++)
+            {
+                RobotLog.vv(TAG, "%s: %.1f ms", filterList.get(i).getClass().getSimpleName(), msFilters.get(i));
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Loads the APK classes recorded in the index, grouped by filter type, or returns null if
+     * there is no current index or it can't be honored, in which case a full scan is needed.
+     */
+    private @Nullable Map<String, List<Class>> loadIndexedApkClasses(ClassScanIndex index)
+    {
+        Map<String, List<String>> indexedNames = index.read();
+        if (indexedNames == null)
+            return null;
+
+        // A class may be of interest to several filters; load each just the once
+        Set<String> classNames = new LinkedHashSet<String>();
+        for (List<String> names : indexedNames.values())
+        {
+            classNames.addAll(names);
+        }
+        Map<String, Class> classesByName = new HashMap<String, Class>();
+        for (Class clazz : classNamesToClasses(classNames))
+        {
+            classesByName.put(clazz.getName(), clazz);
+        }
+        if (classesByName.size() != classNames.size())
+        {
+            // Something that used to load no longer does. Shouldn't happen, but rebuild if so.
+            RobotLog.ww(TAG, "indexed classes failed to load; rescanning");
+            index.delete();
+            resetIgnoredList();
+            return null;
+        }
+
+        Map<String, List<Class>> result = new HashMap<String, List<Class>>();
+        for (Map.Entry<String, List<String>> entry : indexedNames.entrySet())
+        {
+            List<Class> classes = new ArrayList<Class>(entry.getValue().size());
+            for (String className : entry.getValue())
+            {
+                classes.add(classesByName.get(className));
+            }
+            result.put(entry.getKey(), classes);
+        }
+        return result;
+    }
+
+    /**
+     * Determines which of the (fully scanned) APK classes are of interest to each filter type,
+     * and records that in the index for next time. Returns null if the index isn't usable, in
+     * which case every filter is to see every APK class.
+     */
+    private @Nullable Map<String, List<Class>> findCandidateApkClasses(ClassScanIndex index, List<Class> apkClasses)
+    {
+        if (!index.isUsable())
+            return null;
+
+        Map<String, List<Class>> result = new HashMap<String, List<Class>>();
+        Map<String, List<String>> candidateNames = new HashMap<String, List<String>>();
         for (ClassFilter f : filters)
         {
-            f.filterAllClassesStart();
-            for (Class clazz : allClasses)
+            String filterType = ClassScanIndex.typeOf(f);
+            if (result.containsKey(filterType))
+                continue;
+
+            IndexableClassFilter filter = (IndexableClassFilter)f;
+            List<Class> classes = new ArrayList<Class>();
+            List<String> names = new ArrayList<String>();
+            for (Class clazz : apkClasses)
             {
-                f.filterClass(clazz);
+                if (isCandidateClass(filter, clazz))
+                {
+                    classes.add(clazz);
+                    names.add(clazz.getName());
+                }
             }
-            f.filterAllClassesComplete();
+            result.put(filterType, classes);
+            candidateNames.put(filterType, names);
+        }
+
+        index.write(candidateNames);
+        return result;
+    }
+
+    private boolean isCandidateClass(IndexableClassFilter filter, Class clazz)
+    {
+        try
+        {
+            return filter.isCandidateClass(clazz);
+        }
+        catch (RuntimeException|LinkageError e)
+        {
+            // Err on the side of letting the filter see the class
+            return true;
         }
     }
 
@@ -0,0 +1,237 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.firstinspires.ftc.robotcore.internal.opmode;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * {@link ClassScanIndex} persists, for a given build of the APK and a given set of registered
+ * {@link IndexableClassFilter}s, the names of the APK classes that each filter type reported
+ * as candidates during a full scan. On later launches of the same APK, {@link ClassManager}
+ * loads just those classes rather than every class in the APK.
+ *
+ * The index is keyed on the identity of the installed APK (path, size, modification time,
+ * version and install time) together with the names of the registered filter types. Any
+ * change to either simply invalidates the index, and the next launch rebuilds it.
+ */
+@SuppressWarnings("WeakerAccess")
+class ClassScanIndex
+{
+    //----------------------------------------------------------------------------------------------
+    // State
+    //----------------------------------------------------------------------------------------------
+
+    private static final String TAG = "ClassScanIndex";
+    private static final int FORMAT_VERSION = 1;
+    private static final String FILE_NAME = "classScanIndex.txt";
+    private static final char SEPARATOR = '\t';
+
+    private final File file;
+    private final @Nullable String key;  // null if the index can't be used
+
+    //----------------------------------------------------------------------------------------------
+    // Construction
+    //----------------------------------------------------------------------------------------------
+
+    ClassScanIndex(Context context, Collection<ClassFilter> filters)
+    {
+        this.file = new File(context.getCacheDir(), FILE_NAME);
+        this.key = computeKey(context, filters);
+    }
+
+    /**
+     * Answers the key that identifies the index that is appropriate for this APK and these
+     * filters, or null if no index can be used (e.g.: a registered filter isn't indexable).
+     */
+    private static @Nullable String computeKey(Context context, Collection<ClassFilter> filters)
+    {
+        TreeSet<String> filterTypes = new TreeSet<String>();
+        for (ClassFilter filter : filters)
+        {
+            if (!(filter instanceof IndexableClassFilter))
+            {
+                RobotLog.vv(TAG, "%s is not indexable; APK classes will be scanned in full", filter.getClass().getSimpleName());
+                return null;
+            }
+            filterTypes.add(typeOf(filter));
+        }
+
+        PackageInfo packageInfo;
+        try
+        {
+            packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+        }
+        catch (PackageManager.NameNotFoundException e)
+        {
+            return null;
+        }
+
+        File apk = new File(context.getPackageCodePath());
+        StringBuilder builder = new StringBuilder();
+        builder.append(FORMAT_VERSION)
+                .append(SEPARATOR).append(apk.getAbsolutePath())
+                .append(SEPARATOR).append(apk.length())
+                .append(SEPARATOR).append(apk.lastModified())
+                .append(SEPARATOR).append(packageInfo.versionCode)
+                .append(SEPARATOR).append(packageInfo.lastUpdateTime);
+        for (String filterType : filterTypes)
+        {
+            builder.append(SEPARATOR).append(filterType);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Filters are indexed by their type: {@link IndexableClassFilter#isCandidateClass} is required
+     * to answer independently of the state of any particular filter instance.
+     */
+    static String typeOf(ClassFilter filter)
+    {
+        return filter.getClass().getName();
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Operations
+    //----------------------------------------------------------------------------------------------
+
+    boolean isUsable()
+    {
+        return key != null;
+    }
+
+    /**
+     * Returns the candidate class names for each filter type, in APK scan order, or null if
+     * there is no current index. Filter types with no candidates are absent from the map.
+     */
+    @Nullable Map<String, List<String>> read()
+    {
+        if (key == null || !file.exists())
+            return null;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file)))
+        {
+            if (!key.equals(reader.readLine()))
+            {
+                RobotLog.vv(TAG, "index is stale");
+                return null;
+            }
+
+            Map<String, List<String>> result = new HashMap<String, List<String>>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine())
+            {
+                int ich = line.indexOf(SEPARATOR);
+                if (ich <= 0)
+                    return null;
+
+                String filterType = line.substring(0, ich);
+                List<String> classNames = result.get(filterType);
+                if (classNames == null)
+                {
+                    classNames = new ArrayList<String>();
+                    result.put(filterType, classNames);
+                }
+                classNames.add(line.substring(ich + 1));
+            }
+            return result;
+        }
+        catch (IOException e)
+        {
+            RobotLog.ww(TAG, e, "unable to read %s", file.getPath());
+            return null;
+        }
+    }
+
+    /**
+     * Records the candidate class names for each filter type. The index is written to a temporary
+     * file and then renamed into place, so a reader never sees a partially written index.
+     */
+    void write(Map<String, List<String>> candidates)
+    {
+        if (key == null)
+            return;
+
+        File temp = new File(file.getPath() + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp)))
+        {
+            writer.write(key);
+            writer.newLine();
+            for (Map.Entry<String, List<String>> entry : candidates.entrySet())
+            {
+                for (String className : entry.getValue())
+                {
+                    writer.write(entry.getKey());
+                    writer.write(SEPARATOR);
+                    writer.write(className);
+                    writer.newLine();
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            RobotLog.ww(TAG, e, "unable to write %s", temp.getPath());
+            temp.delete();
+            return;
+        }
+
+        if (!temp.renameTo(file))
+        {
+            RobotLog.ww(TAG, "unable to rename %s", temp.getPath());
+            temp.delete();
+        }
+    }
+
+    void delete()
+    {
+        file.delete();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+
+package org.firstinspires.ftc.robotcore.internal.opmode;
+
+/**
+ * An {@link IndexableClassFilter} is a {@link ClassFilter} which can cheaply say up front
+ * whether a class could possibly be of interest to it. The {@link ClassManager} uses this to
+ * persist, across launches of the same APK, the (small) set of APK classes each filter actually
+ * needs to see, so that subsequent launches need not load and filter every class in the APK.
+ *
+ * The answer must be conservative: it may return true for classes that {@link #filterClass(Class)}
+ * ultimately ignores, but must never return false for a class that it would make use of. The
+ * answer must also depend only on the class itself, and not on the state of the filter instance:
+ * answers are recorded per filter type, and are reused for as long as the APK is unchanged.
+ */
+public interface IndexableClassFilter extends ClassFilter
+{
+    /**
+     * Answers whether {@link #filterClass(Class)} might make use of the indicated APK class.
+     */
+    boolean isCandidateClass(Class<?> clazz);
+}
@@ -50,4 +50,15 @@ public interface InstanceOpModeManager
      * @see com.qualcomm.robotcore.eventloop.opmode.OpModeManager#register(OpModeMeta, OpMode)
      */
     void register(OpModeMeta name, OpMode opModeInstance);
+
+    /**
+     * Register an OpMode *class* on behalf of the registrar. Such registrations are withdrawn,
+     * along with the registrar's instances, whenever the registrar is asked to register afresh.
+     *
+     * @param name              metadata regarding the OpMode, including the name to show on the driver station menu
+     * @param opModeClass       the OpMode class to instantiate when that menu item is selected
+     *
+     * @see com.qualcomm.robotcore.eventloop.opmode.OpModeManager#register(OpModeMeta, Class)
+     */
+    void register(OpModeMeta name, Class<? extends OpMode> opModeClass);
     }
@@ -38,10 +38,14 @@ public interface OnBotJavaHelper {
 
     File javaRoot               = new File(AppUtil.FIRST_FOLDER, "/java/");
     File srcDir                 = new File(javaRoot, "/src/");
+    /** Java generated from Blocks projects; built along with, but separately from, srcDir */
+    File blocksSrcDir           = new File(javaRoot, "/blocksSrc/");
     File statusDir              = new File(javaRoot, "/status/");
+    File buildStartedFile       = new File(statusDir, "buildStarted.txt");
     File buildSuccessfulFile    = new File(statusDir, "buildSuccessful.txt");
 
     File controlDir             = new File(javaRoot, "/control/");
+    File buildRequestFile       = new File(controlDir, "buildRequest.txt");
 
     /**
      * Create a ClassLoader for the current OnBotJava output .dex files.
@@ -33,6 +33,8 @@
 
 package org.firstinspires.ftc.robotcore.internal.opmode;
 
+import androidx.annotation.Nullable;
+
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 
 /**
@@ -43,11 +45,18 @@ public class OpModeMetaAndClass
     {
     public final OpModeMeta meta;
     public final Class<OpMode> clazz;
+    public final InstanceOpModeRegistrar instanceOpModeRegistrar;   // null unless registered through an InstanceOpModeManager
 
     public OpModeMetaAndClass(OpModeMeta meta, Class<OpMode> clazz)
+        {
+        this(meta, clazz, null);
+        }
+
+    public OpModeMetaAndClass(OpModeMeta meta, Class<OpMode> clazz, @Nullable InstanceOpModeRegistrar instanceOpModeRegistrar)
         {
         this.meta = meta;
         this.clazz = clazz;
+        this.instanceOpModeRegistrar = instanceOpModeRegistrar;
         }
 
     public boolean isOnBotJava()
@@ -222,6 +222,12 @@ public class RegisteredOpModes implements OpModeManager
                         {
                         RegisteredOpModes.this.register(meta, opModeInstance, instanceOpModeRegistrar);
                         }
+
+                    @Override
+                    public void register(OpModeMeta meta, Class<? extends OpMode> opModeClass)
+                        {
+                        RegisteredOpModes.this.register(meta, opModeClass, instanceOpModeRegistrar);
+                        }
                     });
                 }
             }
@@ -249,6 +255,11 @@ public class RegisteredOpModes implements OpModeManager
                 // Add any new OpModes
                 ClassManager.getInstance().processOnBotJavaClasses();
                 AnnotatedOpModeClassFilter.getInstance().registerOnBotJavaClasses(RegisteredOpModes.this);
+
+                // Instance registrars may hand out OnBotJava classes of their own (Blocks does, for
+                // projects it runs as compiled Java), so they need to see the new build too.
+                unregisterInstanceOpModes();
+                callInstanceOpModeRegistrars();
                 }
             });
         }
@@ -287,20 +298,7 @@ public class RegisteredOpModes implements OpModeManager
                 {
 
                 // Unregister existing instance OpModes
-                synchronized (instanceOpModeRegistrars)
-                    {
-                    List<OpModeMetaAndInstance> extant = new ArrayList<OpModeMetaAndInstance>(opModeInstances.values());
-                    for (InstanceOpModeRegistrar instanceOpModeRegistrar : instanceOpModeRegistrars)
-                        {
-                        for (OpModeMetaAndInstance opModeMetaAndInstance : extant)
-                            {
-                            if (opModeMetaAndInstance.instanceOpModeRegistrar == instanceOpModeRegistrar)
-                                {
-                                unregister(opModeMetaAndInstance.meta);
-                                }
-                            }
-                        }
-                    }
+                unregisterInstanceOpModes();
 
                 // Register any new ones
                 callInstanceOpModeRegistrars();
@@ -308,6 +306,33 @@ public class RegisteredOpModes implements OpModeManager
             });
         }
 
+    /** Unregisters whatever the instance registrars registered, be that instances or classes */
+    protected void unregisterInstanceOpModes()
+        {
+        synchronized (instanceOpModeRegistrars)
+            {
+            List<OpModeMetaAndInstance> extant = new ArrayList<OpModeMetaAndInstance>(opModeInstances.values());
+            List<OpModeMetaAndClass> extantClasses = new ArrayList<OpModeMetaAndClass>(opModeClasses.values());
+            for (InstanceOpModeRegistrar instanceOpModeRegistrar : instanceOpModeRegistrars)
+                {
+                for (OpModeMetaAndInstance opModeMetaAndInstance : extant)
+                    {
+                    if (opModeMetaAndInstance.instanceOpModeRegistrar == instanceOpModeRegistrar)
+                        {
+                        unregister(opModeMetaAndInstance.meta);
+                        }
+                    }
+                for (OpModeMetaAndClass opModeMetaAndClass : extantClasses)
+                    {
+                    if (opModeMetaAndClass.instanceOpModeRegistrar == instanceOpModeRegistrar)
+                        {
+                        unregister(opModeMetaAndClass.meta);
+                        }
+                    }
+                }
+            }
+        }
+
     public void waitOpModesRegistered()
         {
         while (!opmodesAreRegistered)
@@ -508,6 +533,26 @@ public class RegisteredOpModes implements OpModeManager
             });
         }
 
+    /**
+     * Registers an OpMode class on behalf of an instance registrar. Unlike {@link #register(OpModeMeta, Class)},
+     * duplicates are reported and skipped rather than thrown, just as they are for instances.
+     */
+    public void register(final OpModeMeta meta, final Class opMode, final InstanceOpModeRegistrar instanceOpModeRegistrar)
+        {
+        lockOpModesWhile(new Runnable()
+            {
+            @Override
+            public void run()
+                {
+                if (reportIfOpModeAlreadyRegistered(meta))
+                    {
+                    opModeClasses.put(meta.name, new OpModeMetaAndClass(meta, (Class<OpMode>) opMode, instanceOpModeRegistrar));
+                    RobotLog.vv(AnnotatedOpModeClassFilter.TAG, String.format("registered {%s} as {%s}", opMode.getSimpleName(), meta.name));
+                    }
+                }
+            });
+        }
+
     /**
      * Registers an OpMode <em>instance</em> with the name by which it should be known in the driver station.
      * This should only be used in environments where it is not possible to pass Class objects. In particular, it
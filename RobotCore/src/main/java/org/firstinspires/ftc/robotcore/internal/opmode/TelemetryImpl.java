@@ -38,28 +38,39 @@ import androidx.annotation.Nullable;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
 import com.qualcomm.robotcore.robocol.Command;
+import com.qualcomm.robotcore.exception.RobotCoreException;
+import com.qualcomm.robotcore.robocol.PeerDiscovery;
+import com.qualcomm.robotcore.robocol.TelemetryFrame;
 import com.qualcomm.robotcore.robocol.TelemetryMessage;
 import com.qualcomm.robotcore.util.ElapsedTime;
+import com.qualcomm.robotcore.util.RobotLog;
 
 import org.firstinspires.ftc.robotcore.external.Func;
+import org.firstinspires.ftc.robotcore.external.NumericTelemetry;
 import org.firstinspires.ftc.robotcore.external.Predicate;
 import org.firstinspires.ftc.robotcore.external.Telemetry;
 import org.firstinspires.ftc.robotcore.internal.network.NetworkConnectionHandler;
 import org.firstinspires.ftc.robotcore.internal.network.RobotCoreCommandList;
 import org.firstinspires.ftc.robotcore.internal.network.RobotCoreCommandList.TextToSpeech;
+import org.firstinspires.ftc.robotcore.internal.network.TelemetryFrameEncoder;
 
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import static org.firstinspires.ftc.robotcore.internal.network.RobotCoreCommandList.CMD_TEXT_TO_SPEECH;
 
 /**
  * {@link TelemetryImpl} is the system-provided implementation of the {@link Telemetry} interface.
+ * Numeric series ({@link NumericTelemetry}) travel separately from the composed lines, as binary
+ * {@link TelemetryFrame}s, to driver stations which advertise that they can receive them; other
+ * driver stations are sent the series as additional lines.
  */
-public class TelemetryImpl implements Telemetry, TelemetryInternal
+public class TelemetryImpl implements Telemetry, TelemetryInternal, NumericTelemetry
     {
 
     //----------------------------------------------------------------------------------------------
@@ -643,6 +654,9 @@ public class TelemetryImpl implements Telemetry, TelemetryInternal
     protected String              captionValueSeparator;
     protected String              itemSeparator;
     protected DecimalFormat       decimalFormat = new DecimalFormat("0.####");
+    protected Map<String, Number> series;
+    protected ElapsedTime         seriesTransmissionTimer;
+    protected int                 msSeriesTransmissionInterval;
 
     //----------------------------------------------------------------------------------------------
     // Construction
@@ -669,6 +683,10 @@ public class TelemetryImpl implements Telemetry, TelemetryInternal
         this.msTransmissionInterval = 250;
         this.captionValueSeparator  = " : ";
         this.itemSeparator          = " | ";
+        this.series = new LinkedHashMap<String, Number>();
+        this.seriesTransmissionTimer = new ElapsedTime();
+        this.msSeriesTransmissionInterval = 20;
+        TelemetryFrameEncoder.getInstance().reset();
         }
 
     //----------------------------------------------------------------------------------------------
@@ -725,6 +743,13 @@ public class TelemetryImpl implements Telemetry, TelemetryInternal
             {
             boolean result = false;
 
+            // Numeric series go out on their own, typically much shorter, schedule
+            if (this.seriesTransmissionTimer.milliseconds() > msSeriesTransmissionInterval)
+                {
+                this.transmitSeries();
+                this.seriesTransmissionTimer.reset();
+                }
+
             boolean intervalElapsed = this.transmissionTimer.milliseconds() > msTransmissionInterval;
 
             boolean wantToTransmit  = updateReason==UpdateReason.USER
@@ -780,6 +805,40 @@ public class TelemetryImpl implements Telemetry, TelemetryInternal
             }
         }
 
+    protected boolean isSeriesFramed()
+        {
+        return NetworkConnectionHandler.getInstance().peerHasCapability(PeerDiscovery.CAPABILITY_TELEMETRY_FRAME);
+        }
+
+    protected void transmitSeries()
+        {
+        // Driver stations which can't read frames get the series as text lines instead; see saveToTransmitter()
+        if (!isSeriesFramed())
+            {
+            return;
+            }
+
+        // The encoder sends only what the driver station hasn't yet acknowledged, so it's
+        // consulted even when nothing has changed lately; it returns null if all is up to date.
+        // With no series and nothing in flight, though, there's nothing it could say.
+        if (this.series.isEmpty() && !TelemetryFrameEncoder.getInstance().isAwaitingAcknowledgment())
+            {
+            return;
+            }
+
+        TelemetryFrame frame = TelemetryFrameEncoder.getInstance().encode(this.series);
+        if (frame != null)
+            {
+            try {
+                NetworkConnectionHandler.getInstance().sendDataToPeer(frame);
+                }
+            catch (RobotCoreException e)
+                {
+                RobotLog.ee(TelemetryFrameEncoder.TAG, e, "unable to transmit telemetry series");
+                }
+            }
+        }
+
     protected void saveToTransmitter(boolean recompose, TelemetryMessage transmitter)
         {
         transmitter.setSorted(false);
@@ -803,6 +862,14 @@ public class TelemetryImpl implements Telemetry, TelemetryInternal
             {
             transmitter.addData(getKey(iLine), this.composedLines.get(iLine));
             }
+        // Add in the series, if they can't travel as frames
+        if (!this.series.isEmpty() && !isSeriesFramed())
+            {
+            for (Map.Entry<String, Number> pair : this.series.entrySet())
+                {
+                transmitter.addData(getKey(iLine++), String.format("%s%s%s", pair.getKey(), getCaptionValueSeparator(), pair.getValue()));
+                }
+            }
         // Add in the log
         log.saveToTransmitter(transmitter, iLine);
         }
@@ -842,6 +909,55 @@ public class TelemetryImpl implements Telemetry, TelemetryInternal
             }
         }
 
+    //----------------------------------------------------------------------------------------------
+    // Numeric series
+    //----------------------------------------------------------------------------------------------
+
+    @Override public void putSeries(String key, double value)
+        {
+        synchronized (theLock)
+            {
+            this.series.put(key, value);
+            }
+        }
+
+    @Override public void putSeries(String key, long value)
+        {
+        synchronized (theLock)
+            {
+            this.series.put(key, value);
+            }
+        }
+
+    @Override public boolean removeSeries(String key)
+        {
+        synchronized (theLock)
+            {
+            return this.series.remove(key) != null;
+            }
+        }
+
+    @Override public void clearSeries()
+        {
+        synchronized (theLock)
+            {
+            this.series.clear();
+            }
+        }
+
+    @Override public int getMsSeriesTransmissionInterval()
+        {
+        return this.msSeriesTransmissionInterval;
+        }
+
+    @Override public void setMsSeriesTransmissionInterval(int msSeriesTransmissionInterval)
+        {
+        synchronized (theLock)
+            {
+            this.msSeriesTransmissionInterval = msSeriesTransmissionInterval;
+            }
+        }
+
     @Override public String getItemSeparator()
         {
         return this.itemSeparator;
@@ -159,6 +159,9 @@ public class AppUtil
     /** {@link #ROBOT_DATA_DIR} is a convenient place in which to put persistent data created by your OpMode */
     public static final File ROBOT_DATA_DIR = new File(FIRST_FOLDER, "/data/");
 
+    /** {@link #DATA_RECORDINGS_DIR} is where {@link com.qualcomm.robotcore.util.DataRecorder}s keep their files */
+    public static final File DATA_RECORDINGS_DIR = new File(ROBOT_DATA_DIR, "/recordings/");
+
     /** {@link #UPDATES_DIR} is a folder used to manage updates to firmware, installed APKs, and other components */
     public static final File UPDATES_DIR = new File(FIRST_FOLDER, "/updates/");
     public static final File RC_APP_UPDATE_DIR = new File(UPDATES_DIR, "/Robot Controller Application/");
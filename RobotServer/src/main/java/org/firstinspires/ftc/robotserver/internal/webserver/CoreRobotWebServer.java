@@ -48,8 +48,10 @@ import org.firstinspires.ftc.robotserver.internal.webserver.websockets.tootallna
 
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.util.List;
 import java.util.Map;
 
@@ -68,8 +70,13 @@ public class CoreRobotWebServer implements WebServer {
     private static final int DEFAULT_PORT = 8080;
     private static final boolean DBG = false;
 
+    /** connections are served on a fixed pool of workers; a page load rarely opens more than six at once */
+    private static final int WORKER_THREAD_COUNT = 12;
+    private static final int WAITING_CONNECTION_LIMIT = 48;
+
     private final NetworkType networkType;
     private final NanoHTTPD nanoHttpd;
+    private final PooledAsyncRunner asyncRunner;
     private final RobotWebHandlerManager webHandlerManager;
     private final FtcWebSocketServer webSocketServer;
     private final Object startStopLock; // might be redundant w/ lock, but we're not sure, so we keep separate for now
@@ -91,8 +98,10 @@ public class CoreRobotWebServer implements WebServer {
     {
         this.port = port;
         this.networkType = networkType;
+        this.asyncRunner = new PooledAsyncRunner(WORKER_THREAD_COUNT, WAITING_CONNECTION_LIMIT, NanoHTTPD.SOCKET_READ_TIMEOUT);
         this.nanoHttpd = createNanoHttpd(port);
         this.nanoHttpd.setTempFileManagerFactory(new UploadedTempFileManagerFactory());
+        this.nanoHttpd.setAsyncRunner(asyncRunner);
         this.webSocketServer = new TooTallWebSocketServer(new InetSocketAddress(port + 1)); // The websocket port is the HTTP port + 1.
         this.webHandlerManager = new RobotWebHandlerManager(this);
         this.lock = new Object();
@@ -236,16 +245,66 @@ public class CoreRobotWebServer implements WebServer {
             public Response serve(IHTTPSession session)
             {
                 Method method = session.getMethod();
-                if (Method.GET==method || Method.PUT==method || Method.POST==method) {
-                    if (DBG) { logSession(session, false); }
-                    return webHandlerManager.serve(session);
-                } else {
-                    return newFixedLengthResponse(Response.Status.NOT_FOUND, MIME_PLAINTEXT, "");
+                Response response = null;
+                CoreRobotWebServer.this.asyncRunner.noteRequestStarted(); // qualified: NanoHTTPD has an asyncRunner of its own
+                try {
+                    if (Method.GET==method || Method.PUT==method || Method.POST==method) {
+                        if (DBG) { logSession(session, false); }
+                        response = webHandlerManager.serve(session);
+                    } else {
+                        response = newFixedLengthResponse(Response.Status.NOT_FOUND, MIME_PLAINTEXT, "");
+                    }
+                    return response;
+                } finally {
+                    CoreRobotWebServer.this.asyncRunner.noteRequestFinished(response);
                 }
             }
+
+            @Override
+            protected ClientHandler createClientHandler(Socket finalAccept, InputStream inputStream)
+            {
+                return super.createClientHandler(finalAccept, CoreRobotWebServer.this.asyncRunner.watchInputStream(inputStream));
+            }
+
+            /**
+             * Static assets choose their own encoding (they keep their compressed forms cached,
+             * and their entity tags depend on the encoding), so we mustn't compress them again.
+             */
+            @Override
+            protected boolean useGzipWhenAccepted(Response response)
+            {
+                return response.getHeader("etag") == null && super.useGzipWhenAccepted(response);
+            }
         };
     }
 
+    //----------------------------------------------------------------------------------------------
+    // Statistics
+    //----------------------------------------------------------------------------------------------
+
+    public Statistics getStatistics()
+    {
+        return new Statistics(asyncRunner.getSummary(), webHandlerManager.getHandlerStatistics());
+    }
+
+    public void clearStatistics()
+    {
+        asyncRunner.clearStatistics();
+        webHandlerManager.clearHandlerStatistics();
+    }
+
+    public static class Statistics
+    {
+        public final PooledAsyncRunner.Summary connections;
+        public final List<RobotWebHandlerManager.HandlerSummary> handlers;
+
+        public Statistics(PooledAsyncRunner.Summary connections, List<RobotWebHandlerManager.HandlerSummary> handlers)
+        {
+            this.connections = connections;
+            this.handlers = handlers;
+        }
+    }
+
     /** a debugging utility */
     public static void logSession(NanoHTTPD.IHTTPSession session, boolean logPings)
     {
@@ -0,0 +1,325 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotserver.internal.webserver;
+
+import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.ThreadPool;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fi.iki.elonen.NanoHTTPD;
+
+/**
+ * {@link PooledAsyncRunner} runs NanoHTTPD client connections on a fixed pool of worker threads
+ * rather than on a new thread apiece. Connections that arrive while all the workers are busy wait
+ * in a bounded queue; connections that arrive when that queue is full are refused.
+ *
+ * An HTTP/1.1 connection occupies its worker for as long as the client keeps it alive, so while
+ * connections are waiting, kept-alive connections are asked to give their workers up: the next
+ * response on each carries 'Connection: close', and connections sitting idle between requests are
+ * closed outright. Clients simply reconnect when next they have something to ask.
+ */
+@SuppressWarnings("WeakerAccess")
+public class PooledAsyncRunner implements NanoHTTPD.AsyncRunner
+{
+    public static final String TAG = PooledAsyncRunner.class.getSimpleName();
+
+    /** how long a kept-alive connection must have been idle before we'll close it out from under its client */
+    protected static final long MIN_IDLE_BEFORE_CLOSE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    protected final int numberOfThreads;
+    protected final int queueCapacity;
+    protected final int keepAliveSeconds;
+    protected final ExecutorService executor;
+    protected final Map<NanoHTTPD.ClientHandler, Connection> connections = new ConcurrentHashMap<>();
+    protected final ThreadLocal<Connection> currentConnection = new ThreadLocal<>();
+    protected final AtomicInteger waitingCount = new AtomicInteger(0);
+    protected final AtomicLong acceptedCount = new AtomicLong(0);
+    protected final AtomicLong refusedCount = new AtomicLong(0);
+    protected final AtomicLong closedIdleCount = new AtomicLong(0);
+    protected final AtomicLong requestCount = new AtomicLong(0);
+
+    protected static class Connection
+    {
+        final NanoHTTPD.ClientHandler clientHandler;
+        volatile boolean running = false;
+        volatile boolean serving = false;           // from the first byte of a request until the worker next waits for one
+        volatile boolean requestFinished = false;   // only touched on the connection's worker thread
+        volatile int requestCount = 0;              // only written on the connection's worker thread
+        volatile long idleSinceNanos = System.nanoTime();
+        volatile InputStream inputStream = null;    // set once the worker first reads from the connection
+
+        Connection(NanoHTTPD.ClientHandler clientHandler)
+        {
+            this.clientHandler = clientHandler;
+        }
+    }
+
+    /**
+     * @param socketReadTimeoutMs how long NanoHTTPD waits on an idle connection before closing
+     *                            it. We advertise a somewhat shorter keep-alive to clients so
+     *                            that they, not we, are the ones to give up on the connection.
+     */
+    public PooledAsyncRunner(int numberOfThreads, int queueCapacity, int socketReadTimeoutMs)
+    {
+        this.numberOfThreads = numberOfThreads;
+        this.queueCapacity = queueCapacity;
+        this.keepAliveSeconds = Math.max(1, socketReadTimeoutMs / 1000 - 1);
+        this.executor = ThreadPool.newBoundedThreadPool(numberOfThreads, queueCapacity, "NanoHttpd Request Processor");
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // AsyncRunner
+    //----------------------------------------------------------------------------------------------
+
+    @Override
+    public void exec(final NanoHTTPD.ClientHandler clientHandler)
+    {
+        final Connection connection = new Connection(clientHandler);
+        connections.put(clientHandler, connection);
+        waitingCount.incrementAndGet();
+        try {
+            executor.execute(new Runnable()
+            {
+                @Override public void run()
+                {
+                    waitingCount.decrementAndGet();
+                    connection.idleSinceNanos = System.nanoTime();
+                    connection.running = true;
+                    currentConnection.set(connection);
+                    try {
+                        clientHandler.run(); // calls closed() on its way out
+                    } finally {
+                        currentConnection.remove();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            waitingCount.decrementAndGet();
+            connections.remove(clientHandler);
+            refusedCount.incrementAndGet();
+            RobotLog.ww(TAG, "all %d workers busy and %d connections waiting; refusing connection", numberOfThreads, queueCapacity);
+            clientHandler.close();
+            return;
+        }
+
+        acceptedCount.incrementAndGet();
+        if (waitingCount.get() > 0) {
+            closeIdleConnection();
+        }
+    }
+
+    @Override
+    public void closed(NanoHTTPD.ClientHandler clientHandler)
+    {
+        connections.remove(clientHandler);
+    }
+
+    @Override
+    public void closeAll()
+    {
+        for (NanoHTTPD.ClientHandler clientHandler : connections.keySet()) {
+            clientHandler.close();
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Request bracketing: called on the worker thread around each request it serves
+    //----------------------------------------------------------------------------------------------
+
+    /**
+     * Wraps the input stream of a newly accepted connection so that the connection counts as busy
+     * from the moment the bytes of a request arrive, rather than only once the request has been
+     * parsed. A large upload, say, mustn't be closed out from under its client while it's still
+     * being received. The connection counts as idle again only when its worker, having sent the
+     * response, goes back to waiting for the next request.
+     */
+    public InputStream watchInputStream(InputStream inputStream)
+    {
+        return new FilterInputStream(inputStream)
+        {
+            @Override public int read() throws IOException
+            {
+                noteReading(this);
+                int result = super.read();
+                if (result >= 0) {
+                    noteBytesReceived();
+                }
+                return result;
+            }
+
+            @Override public int read(byte[] buffer, int offset, int count) throws IOException
+            {
+                noteReading(this);
+                int result = super.read(buffer, offset, count);
+                if (result > 0) {
+                    noteBytesReceived();
+                }
+                return result;
+            }
+        };
+    }
+
+    protected void noteReading(InputStream inputStream)
+    {
+        Connection connection = currentConnection.get();
+        if (connection != null) {
+            connection.inputStream = inputStream;
+            if (connection.requestFinished) {
+                connection.requestFinished = false;
+                connection.idleSinceNanos = System.nanoTime();
+                connection.serving = false;
+            }
+        }
+    }
+
+    protected void noteBytesReceived()
+    {
+        Connection connection = currentConnection.get();
+        if (connection != null) {
+            connection.serving = true;
+        }
+    }
+
+    public void noteRequestStarted()
+    {
+        Connection connection = currentConnection.get();
+        if (connection != null) {
+            connection.serving = true;
+        }
+    }
+
+    public void noteRequestFinished(NanoHTTPD.Response response)
+    {
+        requestCount.incrementAndGet();
+        Connection connection = currentConnection.get();
+        if (connection != null) {
+            connection.requestCount++;
+            connection.requestFinished = true; // the response has yet to be sent
+        }
+        if (response != null) {
+            if (waitingCount.get() > 0) {
+                // Hand this worker on to someone who's waiting for one once this response is sent
+                response.closeConnection(true);
+            } else {
+                response.addHeader("Keep-Alive", "timeout=" + keepAliveSeconds);
+            }
+        }
+    }
+
+    /**
+     * Closes the connection that has been idle between requests the longest, if any has been so
+     * for long enough, thus freeing its worker for a connection that's waiting for one. We only
+     * close connections that have already served a request, as those are the ones whose clients
+     * know to retry on a fresh connection.
+     */
+    protected void closeIdleConnection()
+    {
+        long now = System.nanoTime();
+        Connection oldest = null;
+        for (Connection connection : connections.values()) {
+            if (connection.running && !connection.serving && connection.requestCount > 0
+                    && now - connection.idleSinceNanos >= MIN_IDLE_BEFORE_CLOSE_NANOS
+                    && !hasPendingInput(connection)) {
+                if (oldest == null || connection.idleSinceNanos < oldest.idleSinceNanos) {
+                    oldest = connection;
+                }
+            }
+        }
+        if (oldest != null) {
+            closedIdleCount.incrementAndGet();
+            oldest.clientHandler.close();
+        }
+    }
+
+    /** Answers whether the start of a request has arrived that the worker has yet to read */
+    protected boolean hasPendingInput(Connection connection)
+    {
+        InputStream inputStream = connection.inputStream;
+        try {
+            return inputStream != null && inputStream.available() > 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Statistics
+    //----------------------------------------------------------------------------------------------
+
+    public Summary getSummary()
+    {
+        return new Summary(this);
+    }
+
+    public void clearStatistics()
+    {
+        acceptedCount.set(0);
+        refusedCount.set(0);
+        closedIdleCount.set(0);
+        requestCount.set(0);
+    }
+
+    public static class Summary
+    {
+        public final int  workers;
+        public final int  queueCapacity;
+        public final int  openConnections;
+        public final int  waitingConnections;
+        public final long acceptedConnections;
+        public final long refusedConnections;
+        public final long closedIdleConnections;
+        public final long requests;
+
+        protected Summary(PooledAsyncRunner runner)
+        {
+            this.workers = runner.numberOfThreads;
+            this.queueCapacity = runner.queueCapacity;
+            this.openConnections = runner.connections.size();
+            this.waitingConnections = runner.waitingCount.get();
+            this.acceptedConnections = runner.acceptedCount.get();
+            this.refusedConnections = runner.refusedCount.get();
+            this.closedIdleConnections = runner.closedIdleCount.get();
+            this.requests = runner.requestCount.get();
+        }
+    }
+}
@@ -40,6 +40,7 @@ import androidx.annotation.Nullable;
 import com.qualcomm.robotcore.R;
 import com.qualcomm.robotcore.hardware.configuration.LynxConstants;
 import com.qualcomm.robotcore.robocol.Command;
+import com.qualcomm.robotcore.util.DataRecorder;
 import com.qualcomm.robotcore.util.Device;
 import com.qualcomm.robotcore.util.IncludedFirmwareFileInfo;
 import com.qualcomm.robotcore.util.RobotLog;
@@ -49,6 +50,7 @@ import com.qualcomm.robotcore.util.ThreadPool;
 import com.qualcomm.robotcore.util.WebHandlerManager;
 import com.qualcomm.robotcore.util.WebServer;
 import org.firstinspires.ftc.robotcore.internal.collections.SimpleGson;
+import org.firstinspires.ftc.robotcore.internal.hardware.LynxCommandStatistics;
 import org.firstinspires.ftc.robotcore.internal.hardware.android.AndroidBoard;
 import org.firstinspires.ftc.robotcore.internal.network.ApChannel;
 import org.firstinspires.ftc.robotcore.internal.network.CallbackResult;
@@ -68,6 +70,7 @@ import org.firstinspires.ftc.robotserver.internal.webserver.controlhubupdater.Ch
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
@@ -116,6 +119,10 @@ public class RobotControllerWebHandlers
     public static final String URI_REBOOT = "/reboot";
     public static final String URI_RC_INFO = "/js/rcInfo.json";
     public static final String URI_COLORS = "/css/colors.less";
+    public static final String URI_LYNX_COMMAND_STATISTICS = "/lynxCommandStatistics";
+    public static final String URI_WEB_SERVER_STATISTICS = "/webServerStatistics";
+    public static final String URI_LIST_DATA_RECORDINGS = "/listDataRecordings";
+    public static final String URI_DOWNLOAD_DATA_RECORDING = "/downloadDataRecording";
 
     public static final String INDEX_FILE = "frame.html";
 
@@ -165,6 +172,12 @@ public class RobotControllerWebHandlers
         manager.register(URI_RC_CONFIG,             new RobotControllerConfiguration());
         manager.register(URI_RC_INFO,               new RobotControllerInfoHandler(manager.getWebServer()));
         manager.register(URI_REBOOT,                new Reboot());
+        manager.register(URI_LYNX_COMMAND_STATISTICS, new LynxCommandStatisticsHandler());
+        if (manager.getWebServer() instanceof CoreRobotWebServer) {
+            manager.register(URI_WEB_SERVER_STATISTICS, new WebServerStatisticsHandler((CoreRobotWebServer) manager.getWebServer()));
+        }
+        manager.register(URI_LIST_DATA_RECORDINGS,  new ListDataRecordings());
+        manager.register(URI_DOWNLOAD_DATA_RECORDING, new DataRecordingDownload());
         manager.register(URI_TOAST,                 new SimpleSuccess());
         manager.register(URI_EXIT_PROGRAM_AND_MANAGE, new SimpleSuccess()); // actually *fully* handled in ProgramAndManageActivity, but registering make things neat and tidy
 
@@ -303,6 +316,57 @@ public class RobotControllerWebHandlers
         }
     }
 
+    /**
+     * Returns json containing the command latency statistics of each open Lynx module. A GET
+     * merely reports the statistics; a POST also resets them once they've been reported.
+     */
+    public static class LynxCommandStatisticsHandler implements WebHandler
+    {
+        @Override
+        public Response getResponse(IHTTPSession session) throws IOException, NanoHTTPD.ResponseException
+        {
+            boolean clear = session.getMethod() == NanoHTTPD.Method.POST;
+
+            List<LynxCommandStatistics.Summary> result = new ArrayList<>();
+            for (LynxCommandStatistics statistics : LynxCommandStatistics.getRegisteredInstances()) {
+                result.add(statistics.getSummary());
+                if (clear) {
+                    statistics.clear();
+                }
+            }
+            String json = SimpleGson.getInstance().toJson(result);
+            return NoCachingWebHandler.setNoCache(session, newFixedLengthResponse(Response.Status.OK, MimeTypesUtil.getMimeType("json"), json));
+        }
+    }
+
+    /**
+     * Returns json describing the web server's connection handling and the latency of each of its
+     * handlers. A GET merely reports the statistics; a POST also resets them once they've been
+     * reported.
+     */
+    public static class WebServerStatisticsHandler implements WebHandler
+    {
+        private final CoreRobotWebServer webServer;
+
+        public WebServerStatisticsHandler(@NonNull CoreRobotWebServer webServer)
+        {
+            this.webServer = webServer;
+        }
+
+        @Override
+        public Response getResponse(IHTTPSession session) throws IOException, NanoHTTPD.ResponseException
+        {
+            boolean clear = session.getMethod() == NanoHTTPD.Method.POST;
+
+            CoreRobotWebServer.Statistics result = webServer.getStatistics();
+            if (clear) {
+                webServer.clearStatistics();
+            }
+            String json = SimpleGson.getInstance().toJson(result);
+            return NoCachingWebHandler.setNoCache(session, newFixedLengthResponse(Response.Status.OK, MimeTypesUtil.getMimeType("json"), json));
+        }
+    }
+
     /**
      * Returns json containing the full paths to all the extant log files.
      * Paths are relative to root, not absolute
@@ -364,6 +428,42 @@ public class RobotControllerWebHandlers
         }
     }
 
+    /**
+     * Returns json containing the names of all the extant {@link DataRecorder} recordings.
+     */
+    public static class ListDataRecordings implements WebHandler
+    {
+        @Override
+        public Response getResponse(IHTTPSession session) throws IOException, NanoHTTPD.ResponseException
+        {
+            String json = SimpleGson.getInstance().toJson(DataRecorder.getRecordingNames());
+            return newFixedLengthResponse(Response.Status.OK, MimeTypesUtil.getMimeType("json"), json);
+        }
+    }
+
+    /**
+     * Returns the content of an indicated {@link DataRecorder} recording, converted to CSV.
+     */
+    public static class DataRecordingDownload extends RequireNameHandler
+    {
+        @Override
+        public Response getResponse(NanoHTTPD.IHTTPSession session, @NonNull String name) throws IOException
+        {
+            InputStream inputStream;
+            try {
+                inputStream = DataRecorder.openCsv(name);
+            }
+            catch (IllegalArgumentException e) {
+                return newFixedLengthResponse(Response.Status.BAD_REQUEST, NanoHTTPD.MIME_PLAINTEXT, "Bad Request: " + e.getMessage());
+            }
+            catch (FileNotFoundException e) {
+                return newFixedLengthResponse(Response.Status.NOT_FOUND, NanoHTTPD.MIME_PLAINTEXT, "");
+            }
+            Response response = newChunkedResponse(Response.Status.OK, "text/csv", inputStream);
+            response.addHeader("Content-Disposition", "attachment; filename=\"" + name + ".csv\"");
+            return response;
+        }
+    }
 
     /**
      * Upload a file to the Android device
@@ -32,20 +32,25 @@ package org.firstinspires.ftc.robotserver.internal.webserver;
 
 import android.content.res.AssetManager;
 
+import com.qualcomm.robotcore.util.LatencyHistogram;
 import com.qualcomm.robotcore.util.RobotLog;
 
 import com.qualcomm.robotcore.util.WebHandlerManager;
 import com.qualcomm.robotcore.util.WebServer;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.TimeZone;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import fi.iki.elonen.NanoHTTPD;
 import org.firstinspires.ftc.robotcore.internal.webserver.WebHandler;
@@ -67,6 +72,10 @@ public final class RobotWebHandlerManager implements WebHandlerManager {
     private final WebHandler serveAsset = new ServeAsset();
     private final WebServer webServer;
 
+    /** latencies are kept per registered command; everything served as an asset shares one entry */
+    public static final String ASSETS_STATISTICS_KEY = "(assets)";
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+
     // common Response objects
     public static final NanoHTTPD.Response OK_RESPONSE =
             newFixedLengthResponse(
@@ -131,6 +140,7 @@ public final class RobotWebHandlerManager implements WebHandlerManager {
 
         // final reference is visible to all threads, sharing an AssetManager is also thread safe.
         private final AssetManager assetManager = AppUtil.getInstance().getRootActivity().getAssets();
+        private final StaticAssetCache assetCache = new StaticAssetCache(AppUtil.getInstance().getRootActivity());
         private final MimeTypesUtil.TypedPaths typedPaths = new MimeTypesUtil.TypedPaths();
 
         public ServeAsset()
@@ -159,15 +169,34 @@ public final class RobotWebHandlerManager implements WebHandlerManager {
                 return RobotWebHandlerManager.internalErrorResponse(TAG, "Mime type unknown: uri='%s' path='%s'", uri, path);
             }
 
-            InputStream inputStream;
+            // Compressible assets go out in the gzip form we keep cached, if the client will take it
+            final String acceptEncoding = session.getHeaders().get("accept-encoding");
+            final boolean gzip = StaticAssetCache.isCompressible(mimeType) && acceptEncoding != null && acceptEncoding.contains("gzip");
+
+            NanoHTTPD.Response response;
             try {
-                inputStream = assetManager.open(path);
+                if (assetCache.matches(session.getHeaders().get("if-none-match"), gzip)) {
+                    assetManager.open(path).close(); // don't vouch for an asset that doesn't exist
+                    response = NanoHTTPD.newFixedLengthResponse(NanoHTTPD.Response.Status.NOT_MODIFIED, mimeType, new ByteArrayInputStream(new byte[0]), 0);
+                } else if (gzip) {
+                    byte[] compressed = assetCache.getCompressed(path);
+                    response = NanoHTTPD.newFixedLengthResponse(NanoHTTPD.Response.Status.OK, mimeType, new ByteArrayInputStream(compressed), compressed.length);
+                    response.addHeader("Content-Encoding", "gzip");
+                } else {
+                    response = NanoHTTPD.newChunkedResponse(NanoHTTPD.Response.Status.OK, mimeType, assetManager.open(path));
+                }
             } catch (IOException e) {
-                NanoHTTPD.Response response = newFixedLengthResponse(NanoHTTPD.Response.Status.NOT_FOUND, NanoHTTPD.MIME_PLAINTEXT, "");
+                response = newFixedLengthResponse(NanoHTTPD.Response.Status.NOT_FOUND, NanoHTTPD.MIME_PLAINTEXT, "");
                 response.addHeader("Date", staticDateStamp);
                 return response;
             }
-            return NanoHTTPD.newChunkedResponse(NanoHTTPD.Response.Status.OK, mimeType, inputStream);
+
+            // Browsers must check back with us before reusing an asset, as our URLs don't change
+            // across app updates; but when nothing has changed, that check costs only a 304.
+            response.addHeader("ETag", assetCache.getETag(gzip));
+            response.addHeader("Cache-Control", "no-cache");
+            response.addHeader("Vary", "Accept-Encoding");
+            return response;
         }
     }
 
@@ -221,18 +250,77 @@ public final class RobotWebHandlerManager implements WebHandlerManager {
         final String command = session.getUri();
         final WebHandler webHandler = handlerMap.get(command);
 
+        long nsStart = System.nanoTime();
+        NanoHTTPD.Response response;
         try {
             if (webHandler == null) {
-                return serveAsset.getResponse(session);
+                response = serveAsset.getResponse(session);
             } else {
-                return webHandler.getResponse(session);
+                response = webHandler.getResponse(session);
             }
         } catch (IOException e) {
             RobotLog.logStackTrace(e);
-            return newFixedLengthResponse(NanoHTTPD.Response.Status.INTERNAL_ERROR, NanoHTTPD.MIME_PLAINTEXT, "Internal Error");
+            response = newFixedLengthResponse(NanoHTTPD.Response.Status.INTERNAL_ERROR, NanoHTTPD.MIME_PLAINTEXT, "Internal Error");
         } catch (NanoHTTPD.ResponseException e) {
             RobotLog.logStackTrace(e);
-            return newFixedLengthResponse(e.getStatus(), NanoHTTPD.MIME_PLAINTEXT, e.getMessage());
+            response = newFixedLengthResponse(e.getStatus(), NanoHTTPD.MIME_PLAINTEXT, e.getMessage());
+        } finally {
+            latencyFor(webHandler == null ? ASSETS_STATISTICS_KEY : command).recordNanos(System.nanoTime() - nsStart);
+        }
+
+        // The connection management in the web server adjusts the headers of the responses it
+        // sends, so our shared responses mustn't be handed out as-is.
+        if (response == OK_RESPONSE) {
+            response = newFixedLengthResponse(NanoHTTPD.Response.Status.OK, NanoHTTPD.MIME_PLAINTEXT, "");
+        } else if (response == INTERNAL_ERROR_RESPONSE) {
+            response = newFixedLengthResponse(NanoHTTPD.Response.Status.INTERNAL_ERROR, NanoHTTPD.MIME_PLAINTEXT, "Internal Error");
+        }
+        return response;
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Statistics
+    //----------------------------------------------------------------------------------------------
+
+    private LatencyHistogram latencyFor(String key)
+    {
+        LatencyHistogram result = latencies.get(key);
+        if (result == null) {
+            LatencyHistogram latency = new LatencyHistogram();
+            result = latencies.putIfAbsent(key, latency);
+            if (result == null) {
+                result = latency;
+            }
+        }
+        return result;
+    }
+
+    /** Returns the latency statistics of each handler that has served a request, ordered by command */
+    public List<HandlerSummary> getHandlerStatistics()
+    {
+        List<HandlerSummary> result = new ArrayList<>();
+        for (Map.Entry<String, LatencyHistogram> pair : new TreeMap<>(latencies).entrySet()) {
+            result.add(new HandlerSummary(pair.getKey(), pair.getValue().getSummary()));
+        }
+        return result;
+    }
+
+    public void clearHandlerStatistics()
+    {
+        for (LatencyHistogram latency : latencies.values()) {
+            latency.clear();
+        }
+    }
+
+    public static class HandlerSummary
+    {
+        public final String command;
+        public final LatencyHistogram.Summary latency;
+
+        public HandlerSummary(String command, LatencyHistogram.Summary latency)
+        {
+            this.command = command;
+            this.latency = latency;
         }
     }
 
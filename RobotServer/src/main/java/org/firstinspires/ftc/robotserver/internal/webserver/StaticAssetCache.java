@@ -0,0 +1,169 @@
+/*
+Copyright (c) 2026 FIRST
+
+All rights reserved.
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted (subject to the limitations in the disclaimer below) provided that
+the following conditions are met:
+
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of FIRST nor the names of its contributors may be used to
+endorse or promote products derived from this software without specific prior
+written permission.
+
+NO EXPRESS OR IMPLIED LICENSES TO ANY PARTY'S PATENT RIGHTS ARE GRANTED BY THIS
+LICENSE. THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+"AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO,
+THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE
+ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE
+FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR
+TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF
+THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+*/
+package org.firstinspires.ftc.robotserver.internal.webserver;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.AssetManager;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.qualcomm.robotcore.util.RobotLog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * {@link StaticAssetCache} holds the gzip-compressed forms of our compressible static assets, so
+ * that each is compressed once per installation of the app rather than once per request, and
+ * provides the entity tags with which browsers can revalidate the assets they already have.
+ *
+ * Assets can only change when the APK does, so one tag, derived from the version and install
+ * time of the app, serves for all of them; gzip-encoded responses get a tag of their own, as
+ * they're a different representation of the asset.
+ */
+@SuppressWarnings("WeakerAccess")
+public class StaticAssetCache
+{
+    public static final String TAG = StaticAssetCache.class.getSimpleName();
+
+    /** upper bound on the total size of the compressed assets we hold on to */
+    protected static final int MAX_CACHED_BYTES = 8 * 1024 * 1024;
+
+    protected final AssetManager assetManager;
+    protected final String identityETag;
+    protected final String gzipETag;
+    protected final Object lock = new Object();
+    protected int cachedBytes = 0;
+    protected final LinkedHashMap<String, byte[]> compressedAssets = new LinkedHashMap<>(64, 0.75f, true); // access order, so LRU
+
+    public StaticAssetCache(@NonNull Context context)
+    {
+        this.assetManager = context.getAssets();
+        String version = "0";
+        try {
+            PackageInfo packageInfo = context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+            version = Integer.toHexString(packageInfo.versionCode) + "-" + Long.toHexString(packageInfo.lastUpdateTime);
+        } catch (PackageManager.NameNotFoundException e) {
+            RobotLog.ee(TAG, e, "unable to determine app version; asset tags won't change across updates");
+        }
+        this.identityETag = "\"" + version + "\"";
+        this.gzipETag = "\"" + version + "-gz\"";
+    }
+
+    //----------------------------------------------------------------------------------------------
+    // Accessing
+    //----------------------------------------------------------------------------------------------
+
+    public String getETag(boolean gzip)
+    {
+        return gzip ? gzipETag : identityETag;
+    }
+
+    /** Answers whether an If-None-Match request header names the tag of the indicated representation */
+    public boolean matches(@Nullable String ifNoneMatch, boolean gzip)
+    {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String etag = getETag(gzip);
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isCompressible(String mimeType)
+    {
+        String lower = mimeType.toLowerCase();
+        return lower.startsWith("text/")
+            || lower.contains("json")
+            || lower.contains("javascript")
+            || lower.contains("xml");
+    }
+
+    /**
+     * Returns the gzip-compressed contents of the indicated asset, compressing and remembering
+     * them if we've not already done so. Throws if there's no such asset.
+     */
+    public byte[] getCompressed(String path) throws IOException
+    {
+        synchronized (lock) {
+            byte[] result = compressedAssets.get(path);
+            if (result != null) {
+                return result;
+            }
+        }
+
+        // Compress outside the lock: concurrent first requests for one asset just do so redundantly
+        byte[] result = compress(path);
+        synchronized (lock) {
+            if (!compressedAssets.containsKey(path)) {
+                cachedBytes += result.length;
+                compressedAssets.put(path, result);
+                Iterator<byte[]> iterator = compressedAssets.values().iterator();
+                while (cachedBytes > MAX_CACHED_BYTES && iterator.hasNext()) {
+                    cachedBytes -= iterator.next().length;
+                    iterator.remove();
+                }
+            }
+        }
+        return result;
+    }
+
+    protected byte[] compress(String path) throws IOException
+    {
+        try (InputStream inputStream = assetManager.open(path)) {
+            ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+                byte[] buffer = new byte[16 * 1024];
+                int cb;
+                while ((cb = inputStream.read(buffer)) != -1) {
+                    gzipOutputStream.write(buffer, 0, cb);
+                }
+            }
+            return byteArrayOutputStream.toByteArray();
+        }
+    }
+}
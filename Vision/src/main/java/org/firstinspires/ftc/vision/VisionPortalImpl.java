@@ -40,7 +40,10 @@ import android.util.Size;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerNotifier;
+import com.qualcomm.robotcore.util.ElapsedTime;
+import com.qualcomm.robotcore.util.MovingStatistics;
 import com.qualcomm.robotcore.util.RobotLog;
+import com.qualcomm.robotcore.util.ThreadPool;
 
 import org.firstinspires.ftc.robotcore.external.function.Consumer;
 import org.firstinspires.ftc.robotcore.external.function.Continuation;
@@ -64,6 +67,10 @@ import org.openftc.easyopencv.OpenCvWebcam;
 import org.openftc.easyopencv.TimestampedOpenCvPipeline;
 
 import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 
 public class VisionPortalImpl extends VisionPortal
@@ -77,6 +84,9 @@ public class VisionPortalImpl extends VisionPortal
     protected final boolean autoPauseCameraMonitor;
     protected final boolean autoStartStream;
     protected final boolean showStats;
+    protected final ExecutorService processorExecutor; // null unless processing in parallel
+    protected final MovingStatistics[] processorFrameTimesMs;
+    protected static final int PROCESSOR_FRAME_TIME_WINDOW = 30;
     protected final Semaphore userStateSemaphore = new Semaphore(1);
     protected final Size cameraResolution;
     protected final StreamFormat webcamStreamFormat;
@@ -97,6 +107,8 @@ public class VisionPortalImpl extends VisionPortal
         @Override
         public void onOpModePostStop(OpMode opMode)
         {
+            shutdownProcessorExecutor();
+
             synchronized (viewUseMtx)
             {
                 if (cameraMonitorViewId != 0 && viewsInUse.contains(cameraMonitorViewId))
@@ -109,7 +121,7 @@ public class VisionPortalImpl extends VisionPortal
 
     public VisionPortalImpl(CameraName camera, int cameraMonitorViewId, boolean autoPauseCameraMonitor,
                             Size cameraResolution, StreamFormat webcamStreamFormat, boolean autoStartStream, boolean showStats,
-                            VisionProcessor[] processors)
+                            boolean parallelProcessing, VisionProcessor[] processors)
     {
         synchronized (viewUseMtx)
         {
@@ -145,9 +157,30 @@ public class VisionPortalImpl extends VisionPortal
         this.webcamStreamFormat = webcamStreamFormat;
         processorsEnabled = new boolean[processors.length];
 
+        processorFrameTimesMs = new MovingStatistics[processors.length];
+
         for (int i = 0; i < processors.length; i++)
         {
             processorsEnabled[i] = true;
+            processorFrameTimesMs[i] = new MovingStatistics(PROCESSOR_FRAME_TIME_WINDOW);
+        }
+
+        if (parallelProcessing && processors.length > 1)
+        {
+            // The camera thread runs one processor itself, so we need at most one fewer workers
+            // than there are processors, and there's no point in having more than we have cores.
+            int workers = Math.max(1, Math.min(processors.length - 1, Runtime.getRuntime().availableProcessors() - 1));
+            processorExecutor = ThreadPool.newFixedThreadPool(workers, "VisionProcessor");
+
+            // Make sure the pool doesn't outlive the OpMode even if we're never closed
+            if (cameraMonitorViewId == 0)
+            {
+                OpModeManagerImpl.getOpModeManagerOfActivity(AppUtil.getInstance().getActivity()).registerListener(opModeNotificationsListener);
+            }
+        }
+        else
+        {
+            processorExecutor = null;
         }
 
         this.autoPauseCameraMonitor = autoPauseCameraMonitor;
@@ -356,6 +389,31 @@ public class VisionPortalImpl extends VisionPortal
         throw new IllegalArgumentException("Processor not attached to this helper!");
     }
 
+    @Override
+    public double getProcessorFrameTimeMs(VisionProcessor processor)
+    {
+        for (int i = 0; i < processors.length; i++)
+        {
+            if (processor == processors[i])
+            {
+                synchronized (processorFrameTimesMs[i])
+                {
+                    return processorFrameTimesMs[i].getCount() == 0 ? 0 : processorFrameTimesMs[i].getMean();
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("Processor not attached to this helper!");
+    }
+
+    protected void shutdownProcessorExecutor()
+    {
+        if (processorExecutor != null)
+        {
+            processorExecutor.shutdown();
+        }
+    }
+
     @Override
     public CameraState getCameraState()
     {
@@ -450,11 +508,18 @@ public class VisionPortalImpl extends VisionPortal
 
             Object[] processorDrawCtxes = new Object[processors.length]; // cannot re-use frome to frame
 
-            for (int i = 0; i < processors.length; i++)
+            if (processorExecutor != null)
             {
-                if (processorsEnabled[i])
+                processFrameInParallel(input, captureTimeNanos, processorDrawCtxes);
+            }
+            else
+            {
+                for (int i = 0; i < processors.length; i++)
                 {
-                    processorDrawCtxes[i] = processors[i].processFrame(input, captureTimeNanos);
+                    if (processorsEnabled[i])
+                    {
+                        processorDrawCtxes[i] = runProcessor(i, input, captureTimeNanos);
+                    }
                 }
             }
 
@@ -463,6 +528,111 @@ public class VisionPortalImpl extends VisionPortal
             return input;
         }
 
+        protected Object runProcessor(int i, Mat input, long captureTimeNanos)
+        {
+            long start = System.nanoTime();
+            Object drawCtx = processors[i].processFrame(input, captureTimeNanos);
+            double ms = (System.nanoTime() - start) / (double) ElapsedTime.MILLIS_IN_NANO;
+
+            synchronized (processorFrameTimesMs[i])
+            {
+                processorFrameTimesMs[i].add(ms);
+            }
+
+            return drawCtx;
+        }
+
+        /*
+         * Fans the enabled processors out to the worker pool, running the first of them here on
+         * the camera thread, and then waits for them all. We MUST NOT return until every processor
+         * is finished with the input, as it gets reused for the next frame.
+         */
+        protected void processFrameInParallel(Mat input, long captureTimeNanos, Object[] processorDrawCtxes)
+        {
+            @SuppressWarnings("unchecked")
+            Future<Object>[] futures = new Future[processors.length];
+            int local = -1;
+
+            for (int i = 0; i < processors.length; i++)
+            {
+                if (processorsEnabled[i])
+                {
+                    if (local < 0)
+                    {
+                        local = i;
+                    }
+                    else
+                    {
+                        final int index = i;
+                        try
+                        {
+                            futures[i] = processorExecutor.submit(() -> runProcessor(index, input, captureTimeNanos));
+                        }
+                        catch (RejectedExecutionException e)
+                        {
+                            // We're shutting down: just do it ourselves
+                            processorDrawCtxes[i] = runProcessor(i, input, captureTimeNanos);
+                        }
+                    }
+                }
+            }
+
+            Throwable failure = null;
+            boolean interrupted = false;
+
+            if (local >= 0)
+            {
+                try
+                {
+                    processorDrawCtxes[local] = runProcessor(local, input, captureTimeNanos);
+                }
+                catch (RuntimeException|Error e)
+                {
+                    failure = e;
+                }
+            }
+
+            for (int i = 0; i < processors.length; i++)
+            {
+                while (futures[i] != null)
+                {
+                    try
+                    {
+                        processorDrawCtxes[i] = futures[i].get();
+                        futures[i] = null;
+                    }
+                    catch (ExecutionException e)
+                    {
+                        if (failure == null) failure = e.getCause();
+                        futures[i] = null;
+                    }
+                    catch (InterruptedException e)
+                    {
+                        interrupted = true; // keep waiting: see above
+                    }
+                }
+            }
+
+            if (interrupted)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            // Report failures just as they would have been had we run the processors sequentially
+            if (failure instanceof RuntimeException)
+            {
+                throw (RuntimeException) failure;
+            }
+            else if (failure instanceof Error)
+            {
+                throw (Error) failure;
+            }
+            else if (failure != null)
+            {
+                throw new RuntimeException(failure);
+            }
+        }
+
         @Override
         public void onDrawFrame(Canvas canvas, int onscreenWidth, int onscreenHeight, float scaleBmpPxToCanvasPx, float scaleCanvasDensity, Object userContext)
         {
@@ -642,6 +812,8 @@ public class VisionPortalImpl extends VisionPortal
                     }
                     finally
                     {
+                        shutdownProcessorExecutor(); // the camera thread is done with it
+
                         userStateSemaphore.release();
                     }
                 }).start();